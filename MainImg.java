@@ -217,56 +217,14 @@ public class MainImg {
 		int alturaImagem = imagemAmpliada.altura();
 		int larguraImagem = imagemAmpliada.largura();
 
-		//gerenciar multithread
-		int numThreads = Runtime.getRuntime().availableProcessors();
-		if (numThreads > 1) {
-			//só pra não sobrecarregar o processador
-			numThreads = (int)(numThreads / 2);
-		}
-
-		Thread[] threads = new Thread[numThreads];
-		Modelo[] clones = new Modelo[numThreads];
-		for (int i = 0; i < numThreads; i++) {
-			clones[i] = modelo.clone();
-		}
-
-		int alturaPorThead = alturaImagem / numThreads;
-
-		for (int i = 0; i < numThreads; i++) {
-			final int id = i;
-			final int inicio = i * alturaPorThead;
-			final int fim = inicio + alturaPorThead;
-			
-			threads[i] = new Thread(() -> {
-				Tensor in = new Tensor(2);
-
-				for (int y = inicio; y < fim; y++) {
-					for (int x = 0; x < larguraImagem; x++) {
-						in.set(((float) x / (larguraImagem-1)), 0);
-						in.set(((float) y / (alturaImagem-1)), 1);
-						float[] saida = new float[1];
-					
-						clones[id].forward(in);
-					
-						saida[0] = clones[id].saidaParaArray()[0] * 255f;
-
-						synchronized(imagemAmpliada) {
-							imagemAmpliada.set(x, y, (int)saida[0], (int)saida[0], (int)saida[0]);
-						}
-					}
-				}
-			});
-
-			threads[i].start();
-		}
+		//todos os pixels previstos em lotes
+		int[] pixels = modelo.preverGrade(larguraImagem, alturaImagem);
 
-		try {
-			for (Thread thread : threads) {
-				thread.join();
+		for (int y = 0; y < alturaImagem; y++) {
+			for (int x = 0; x < larguraImagem; x++) {
+				int p = pixels[y * larguraImagem + x];
+				imagemAmpliada.set(x, y, (p >> 16) & 0xFF, (p >> 8) & 0xFF, p & 0xFF);
 			}
-		} catch(Exception e) {
-			System.out.println("Ocorreu um erro ao tentar salvar a imagem.");
-			e.printStackTrace();
 		}
 
 		imagemAmpliada.paraPNG(caminho);
@@ -296,63 +254,14 @@ public class MainImg {
 		int alturaImagem = imagemAmpliada.altura();
 		int larguraImagem = imagemAmpliada.largura();
 
-		//gerenciar multithread
-		int numThreads = Runtime.getRuntime().availableProcessors();
-		if (numThreads > 1) {
-			//só pra não sobrecarregar o processador
-			numThreads = (int)(numThreads / 2);
-		}
+		//todos os pixels previstos em lotes
+		int[] pixels = modelo.preverGrade(larguraImagem, alturaImagem);
 
-		Thread[] threads = new Thread[numThreads];
-		Modelo[] redes = new Modelo[numThreads];
-		for (int i = 0; i < numThreads; i++) {
-			redes[i] = modelo.clone();
-		}
-
-		int alturaPorThead = alturaImagem / numThreads;
-
-		for (int i = 0; i < numThreads; i++) {
-			final int id = i;
-			final int inicio = i * alturaPorThead;
-			final int fim = inicio + alturaPorThead;
-			
-			threads[i] = new Thread(() -> {
-				Tensor in = new Tensor(2);
-
-				for (int y = inicio; y < fim; y++) {
-					for (int x = 0; x < larguraImagem; x++) {
-						float[] entrada = new float[2];
-						in.set(((float) x / (larguraImagem-1)), 0);
-						in.set(((float) y / (alturaImagem-1)), 1);
-						float[] saida = new float[3];
-
-						entrada[0] = (float)x / (larguraImagem-1);
-						entrada[1] = (float)y / (alturaImagem-1);
-					
-						redes[id].forward(in);
-						float[] s = redes[id].saidaParaArray();
-					
-						saida[0] = s[0] * 255f;
-						saida[1] = s[1] * 255f;
-						saida[2] = s[2] * 255f;
-
-						synchronized (imagemAmpliada) {
-							imagemAmpliada.set(x, y, (int)saida[0], (int)saida[1], (int)saida[2]);
-						}
-					}
-				}
-			});
-
-			threads[i].start();
-		}
-
-		try {
-			for (Thread thread : threads) {
-				thread.join();
+		for (int y = 0; y < alturaImagem; y++) {
+			for (int x = 0; x < larguraImagem; x++) {
+				int p = pixels[y * larguraImagem + x];
+				imagemAmpliada.set(x, y, (p >> 16) & 0xFF, (p >> 8) & 0xFF, p & 0xFF);
 			}
-		} catch (Exception e) {
-			System.out.println("Ocorreu um erro ao tentar salvar a imagem.");
-			e.printStackTrace();
 		}
 
 		imagemAmpliada.paraPNG(caminho);
@@ -24,6 +24,7 @@ javadoc ^
  -encoding UTF-8 ^
  -charset UTF-8 ^
  -docencoding UTF-8 ^
+ --add-modules jdk.incubator.vector ^
  -d "%DOC_DIR%" ^
  -windowtitle "JNN - Java Neural Network Library" ^
  -doctitle "JNN<br>Java Neural Network Library" ^
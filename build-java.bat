@@ -25,6 +25,7 @@ javac ^
  -Xdiags:verbose ^
  -g ^
  -parameters ^
+ --add-modules jdk.incubator.vector ^
  -h "%JNI_HEADERS%" ^
  -d "%BIN_DIR%" ^
  -sourcepath "%SRC_DIR%" ^
@@ -38,7 +38,8 @@ set DLL=jnn_native.dll
 
 set SRC=^
  jnn\nativo\src\jni\jnn_jni.c ^
- jnn\nativo\src\dispatch\dispatcher.c ^
+ jnn\nativo\src\dispatch\*.c ^
+ jnn\nativo\src\ffi\jnn_ffi.c ^
  jnn\nativo\src\mem\*.c ^
  jnn\nativo\src\cpu\*.c
 
@@ -49,9 +50,8 @@ gcc ^
  -O3 ^
  -shared ^
  -march=x86-64 ^
+ -mtune=generic ^
  -ffast-math ^
- -mfma ^
- -mavx2 ^
  -funroll-loops ^
  -fopenmp ^
  -I"%JAVA_HOME%\include" ^
@@ -60,6 +60,7 @@ gcc ^
  -I"jnn\nativo\include\dispatch" ^
  -I"jnn\nativo\include\mem" ^
  -I"jnn\nativo\include\jni" ^
+ -I"jnn\nativo\include\ffi" ^
  %SRC% ^
  -o "%OUT_DIR%\%DLL%"
 
@@ -0,0 +1,85 @@
+#!/usr/bin/env bash
+
+# build jni (linux)
+
+set -e
+
+if [ -z "$JAVA_HOME" ]; then
+	if command -v javac > /dev/null 2>&1; then
+		JAVA_HOME="$(dirname "$(dirname "$(readlink -f "$(command -v javac)")")")"
+	fi
+fi
+
+if [ -z "$JAVA_HOME" ]; then
+	echo "ERRO: Nenhum JDK encontrado no sistema."
+	exit 1
+fi
+
+if [ ! -f "$JAVA_HOME/include/jni.h" ]; then
+	echo "ERRO: JDK encontrado, mas jni.h nao existe:"
+	echo "$JAVA_HOME"
+	exit 1
+fi
+
+ARCH="$(uname -m)"
+
+case "$ARCH" in
+	x86_64|amd64)
+		ARCH=x86_64
+		# avx2/avx512 sao escolhidos em tempo de execucao
+		ARCH_FLAGS="-march=x86-64 -mtune=generic"
+		;;
+	aarch64|arm64)
+		ARCH=aarch64
+		ARCH_FLAGS="-march=armv8-a"
+		;;
+	*)
+		echo "ERRO: Arquitetura $ARCH nao suportada."
+		exit 1
+		;;
+esac
+
+OUT_DIR=bin/nativo/cpu/linux-$ARCH
+SO=libjnn_native.so
+
+SRC="
+ jnn/nativo/src/jni/jnn_jni.c
+ jnn/nativo/src/dispatch/*.c
+ jnn/nativo/src/ffi/jnn_ffi.c
+ jnn/nativo/src/mem/*.c
+ jnn/nativo/src/cpu/*.c
+"
+
+mkdir -p "$OUT_DIR"
+
+gcc \
+ -Wall -Wextra \
+ -O3 \
+ -shared \
+ -fPIC \
+ $ARCH_FLAGS \
+ -ffast-math \
+ -funroll-loops \
+ -fopenmp \
+ -I"$JAVA_HOME/include" \
+ -I"$JAVA_HOME/include/linux" \
+ -I"jnn/nativo/include/cpu" \
+ -I"jnn/nativo/include/dispatch" \
+ -I"jnn/nativo/include/mem" \
+ -I"jnn/nativo/include/jni" \
+ -I"jnn/nativo/include/ffi" \
+ $SRC \
+ -lm \
+ -Wl,-rpath,'$ORIGIN' \
+ -o "$OUT_DIR/$SO" || { echo "ERRO na compilacao JNI"; exit 1; }
+
+# libgomp empacotada junto, caso a maquina de destino nao tenha.
+# Ela e copiada do gcc local e nao deve ser versionada (.gitignore): a
+# libgomp e distribuida sob GPLv3 com a GCC Runtime Library Exception, quem
+# redistribuir o binario junto do .jar deve incluir o aviso de licenca.
+GOMP="$(gcc -print-file-name=libgomp.so.1)"
+if [ -f "$GOMP" ]; then
+	cp -L "$GOMP" "$OUT_DIR/libgomp.so.1"
+fi
+
+echo "Build nativo OK"
@@ -10,7 +10,6 @@ import jnn.JNN;
 import jnn.camadas.*;
 import jnn.camadas.acts.Sigmoid;
 import jnn.camadas.acts.Tanh;
-import jnn.core.tensor.Tensor;
 import jnn.dataloader.DataLoader;
 import jnn.modelos.Modelo;
 import jnn.modelos.Sequencial;
@@ -144,56 +143,14 @@ public class UpscaleImg {
 		int alturaImagem = ampliada.altura();
 		int larguraImagem = ampliada.largura();
 
-		//gerenciar multithread
-		int numThreads = Runtime.getRuntime().availableProcessors();
-		if (numThreads > 1) {
-			//só pra não sobrecarregar o processador
-			numThreads = (int)(numThreads / 2);
-		}
-
-		Thread[] threads = new Thread[numThreads];
-		Modelo[] clones = new Modelo[numThreads];
-		for (int i = 0; i < numThreads; i++) {
-			clones[i] = modelo.clone();
-		}
+		//todos os pixels previstos em lotes
+		int[] pixels = modelo.preverGrade(larguraImagem, alturaImagem);
 
-		int alturaPorThead = alturaImagem / numThreads;
-
-		for (int i = 0; i < numThreads; i++) {
-			final int id = i;
-			final int inicio = i * alturaPorThead;
-			final int fim = inicio + alturaPorThead;
-			
-			threads[i] = new Thread(() -> {
-				Tensor in = new Tensor(2);
-
-				for (int y = inicio; y < fim; y++) {
-					for (int x = 0; x < larguraImagem; x++) {
-						in.set(((float) x / (larguraImagem-1)), 0);
-						in.set(((float) y / (alturaImagem-1)), 1);
-						float[] saida = new float[1];
-					
-						clones[id].forward(in);
-					
-						saida[0] = clones[id].saidaParaArray()[0] * 255;
-
-						synchronized(ampliada) {
-							ampliada.set(x, y, (int)saida[0], (int)saida[0], (int)saida[0]);
-						}
-					}
-				}
-			});
-
-			threads[i].start();
-		}
-
-		try {
-			for (Thread thread : threads) {
-				thread.join();
+		for (int y = 0; y < alturaImagem; y++) {
+			for (int x = 0; x < larguraImagem; x++) {
+				int p = pixels[y * larguraImagem + x];
+				ampliada.set(x, y, (p >> 16) & 0xFF, (p >> 8) & 0xFF, p & 0xFF);
 			}
-		} catch(Exception e) {
-			System.out.println("Ocorreu um erro ao tentar salvar a imagem.");
-			e.printStackTrace();
 		}
 
 		ampliada.paraPNG(caminho);
@@ -3,6 +3,7 @@ package jnn;
 import jnn.core.Dicionario;
 import jnn.core.JNNutils;
 import jnn.core.ops.Ops;
+import jnn.core.tensor.Broadcast;
 import jnn.core.tensor.Tensor;
 import jnn.core.tensor.TensorConverter;
 import jnn.dataloader.Amostra;
@@ -128,14 +129,7 @@ public final class JNN {
      * @return {@code Tensor} resultado.
      */
     public static Tensor add(Tensor a, Tensor b) {
-        try {
-            return new Tensor(a).add(b);
-        } catch(Exception e) {
-            //
-        }
-    
-        // ultimo caso (mais lento)
-        return a.broadcast(b, (_a, _b) -> _a + _b);
+        return a.broadcast(b, Broadcast.SOMA);
     }
 
     /**
@@ -145,14 +139,7 @@ public final class JNN {
      * @return {@code Tensor} resultado.
      */
     public static Tensor sub(Tensor a, Tensor b) {
-        try {
-            return new Tensor(a).sub(b);
-        } catch(Exception e) {
-            //
-        }
-    
-        // ultimo caso (mais lento)
-        return a.broadcast(b, (_a, _b) -> _a - _b);
+        return a.broadcast(b, Broadcast.SUB);
     }
 
     /**
@@ -162,14 +149,7 @@ public final class JNN {
      * @return {@code Tensor} resultado.
      */
     public static Tensor mul(Tensor a, Tensor b) {
-        try {
-            return new Tensor(a).mul(b);
-        } catch(Exception e) {
-            //
-        }
-    
-        // ultimo caso (mais lento)
-        return a.broadcast(b, (_a, _b) -> _a * _b);
+        return a.broadcast(b, Broadcast.MUL);
     }
 
     /**
@@ -199,14 +179,7 @@ public final class JNN {
      * @return {@code Tensor} resultado.
      */
     public static Tensor div(Tensor a, Tensor b) {
-        try {
-            return new Tensor(a).div(b);
-        } catch(Exception e) {
-            //
-        }
-    
-        // ultimo caso (mais lento)
-        return a.broadcast(b, (_a, _b) -> _a / _b);
+        return a.broadcast(b, Broadcast.DIV);
     }
 
     /**
@@ -252,6 +252,27 @@ public class BatchNorm2D extends Camada implements Cloneable {
         return _saida;
     }
 
+    @Override
+    public Tensor inferir(Tensor x, Tensor destino) {
+        // no modo de inferência apenas as estatísticas móveis são lidas
+        lops.forwardBatchNorm2D(
+            x,
+            _gamma,
+            _beta,
+            _entradaNorm,
+            _mediaMovel,
+            _varianciaMovel,
+            _media,
+            _variancia,
+            destino,
+            momentum,
+            eps,
+            false
+        );
+
+        return destino;
+    }
+
     @Override
     public Tensor backward(Tensor g) {
         verificarConstrucao();
@@ -335,6 +356,7 @@ public class BatchNorm2D extends Camada implements Cloneable {
             
             clone._gamma = _gamma.clone();
             clone._beta = _beta.clone();
+            clone._params = new Parametro[]{ clone._gamma, clone._beta };// parâmetros do clone
 
             clone._mediaMovel = _mediaMovel.clone();
             clone._varianciaMovel = _varianciaMovel.clone();
@@ -1,8 +1,12 @@
 package jnn.camadas;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import jnn.core.JNNutils;
 import jnn.core.Parametro;
 import jnn.core.tensor.Tensor;
+import jnn.core.tensor.TensorData;
 
 /**
  * <h2>
@@ -82,6 +86,12 @@ public abstract class Camada {
 	 */
 	Parametro[] _params = {};
 
+	/**
+	 * Áreas de memória compartilhadas atribuídas aos buffers da camada,
+	 * indexadas pelo nome do buffer.
+	 */
+	private Map<String, float[]> _areas;
+
 	/**
 	 * Instancia a camada base usada dentro dos modelos de Rede Neural.
 	 * <p>
@@ -205,11 +215,57 @@ public abstract class Camada {
 	 * @return {@code Tensor} criado.
 	 */
 	protected Tensor addBuffer(String nome, int... shape) {
+		float[] area = (_areas == null) ? null : _areas.get(nome);
+
+		if (area != null) {
+			int tam = 1;
+			for (int d : shape) tam *= d;
+
+			// view da área compartilhada, sem nova alocação
+			if (tam <= area.length) {
+				return new Tensor(new TensorData(area, 0, tam), shape).nome(nome);
+			}
+		}
+
 		Tensor b = new Tensor(shape).nome(nome);
 		// aqui não é adicionado nada
 		return b;
 	}
 
+	/**
+	 * Atribui uma área de memória para o buffer com nome especificado.
+	 * <p>
+	 *		Enquanto couberem na área, os próximos buffers criados com esse
+	 *		nome serão views dela, começando sempre do índice zero. A mesma
+	 *		área pode ser compartilhada entre buffers que nunca são usados ao
+	 *		mesmo tempo, o que é decidido pelo planejador de memória do modelo.
+	 * </p>
+	 * @param nome nome do buffer.
+	 * @param area área de memória, ou {@code null} para remover a atribuição.
+	 */
+	public void setAreaBuffer(String nome, float[] area) {
+		JNNutils.validarNaoNulo(nome, "nome == null.");
+
+		if (area == null) {
+			if (_areas != null) _areas.remove(nome);
+			return;
+		}
+
+		if (_areas == null) _areas = new HashMap<>();
+		_areas.put(nome, area);
+	}
+
+	/**
+	 * Remove todas as áreas de memória atribuídas aos buffers da camada.
+	 * <p>
+	 *		Buffers já criados continuam válidos, apenas os próximos serão
+	 *		alocados individualmente.
+	 * </p>
+	 */
+	public void limparAreasBuffer() {
+		_areas = null;
+	}
+
 	/**
 	 * Adapta os parâmetros relevante da camada para lidar
 	 * com lotes de dados.
@@ -231,6 +287,28 @@ public abstract class Camada {
 	 */
 	public abstract Tensor forward(Tensor x);
 
+	/**
+	 * Propaga os dados de entrada pela camada no modo de inferência,
+	 * escrevendo o resultado no destino informado.
+	 * <p>
+	 *		Diferente do {@code forward()}, nenhum estado da camada é alterado
+	 *		(entrada, saída e buffers de lote), permitindo que a saída seja
+	 *		escrita em buffers externos.
+	 * </p>
+	 * <p>
+	 *		Por padrão, usa o {@code forward()} e copia a saída para o destino.
+	 * </p>
+	 * @param x {@code Tensor} de entrada contíguo, com dimensão de lote.
+	 * @param destino {@code Tensor} de destino, no formato {@code (lote, shapeOut)}.
+	 * @return {@code Tensor} contendo a saída calculada pela camada, podendo ser
+	 * o próprio destino ou uma {@code view} da entrada em camadas que não
+	 * alteram os dados.
+	 */
+	public Tensor inferir(Tensor x, Tensor destino) {
+		destino.copiar(forward(x));
+		return destino;
+	}
+
 	/**
 	 * Retropropaga os gradientes recebidos para as camadas anteriores.
 	 * @param g gradiente em relação a saída da camada.
@@ -344,7 +422,9 @@ public abstract class Camada {
 	@Override
 	public Camada clone() {
 		try {
-			return (Camada) super.clone();
+			Camada clone = (Camada) super.clone();
+			clone._areas = null;// áreas pertencem ao plano do modelo original
+			return clone;
 		} catch (CloneNotSupportedException e) {
 			throw new RuntimeException(e);
 		}
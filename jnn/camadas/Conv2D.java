@@ -422,6 +422,12 @@ public class Conv2D extends Camada implements Cloneable {
 		return _saida;
 	}
 
+	@Override
+	public Tensor inferir(Tensor x, Tensor destino) {
+		lops.forwardConv2D(x, _kernel, _bias, destino, shapePad);
+		return destino;
+	}
+
 	@Override
 	public Tensor backward(Tensor g) {
 		verificarConstrucao();
@@ -482,7 +488,8 @@ public class Conv2D extends Camada implements Cloneable {
 
 	@Override
 	public float[] saidaParaArray() {
-		return saida().array();
+		Tensor saida = saida();
+		return saida.data().isView() ? saida.data().paraArray() : saida.array();
 	}
 
 	@Override 
@@ -527,6 +534,11 @@ public class Conv2D extends Camada implements Cloneable {
 			clone._bias = Optional.of(_bias.get().clone());
 		}
 
+		// parâmetros do clone, não os da camada original
+		clone._params = temBias() ? 
+			new Parametro[]{ clone._kernel, clone._bias.get() } :
+			new Parametro[]{ clone._kernel };
+
 		clone._saida = this._saida.clone();
 
 		return clone;
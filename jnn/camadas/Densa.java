@@ -2,6 +2,7 @@ package jnn.camadas;
 
 import java.util.Optional;
 
+import jnn.camadas.acts.Ativacao;
 import jnn.core.Dicionario;
 import jnn.core.JNNutils;
 import jnn.core.Parametro;
@@ -297,6 +298,29 @@ public class Densa extends Camada implements Cloneable {
 		return _saida;
 	}
 
+	@Override
+	public Tensor inferir(Tensor x, Tensor destino) {
+		lops.forwardDensa(x, _kernel, _bias, destino);
+		return destino;
+	}
+
+	/**
+	 * Calcula a saída da camada para inferência já aplicando a ativação
+	 * seguinte sobre o destino.
+	 * <p>
+	 *		Com a interface nativa ativa, matmul, bias e ativação são
+	 *		fundidos em uma única chamada.
+	 * </p>
+	 * @param x {@code Tensor} de entrada contíguo.
+	 * @param destino {@code Tensor} de destino, no formato de saída da camada.
+	 * @param atv ativação aplicada sobre a saída.
+	 * @return {@code Tensor} de destino.
+	 */
+	public Tensor inferir(Tensor x, Tensor destino, Ativacao atv) {
+		lops.forwardDensa(x, _kernel, _bias, destino, atv);
+		return destino;
+	}
+
 	@Override
 	public Tensor backward(Tensor g) {
 		verificarConstrucao();
@@ -408,6 +432,11 @@ public class Densa extends Camada implements Cloneable {
 			clone._bias = Optional.of(_bias.get().clone());
 		}
 
+		// parâmetros do clone, não os da camada original
+		clone._params = temBias() ? 
+			new Parametro[]{ clone._kernel, clone._bias.get() } :
+			new Parametro[]{ clone._kernel };
+
 		clone._saida = this._saida.clone();
 
 		return clone;
@@ -424,7 +453,7 @@ public class Densa extends Camada implements Cloneable {
 	@Override
 	public int[] shapeIn() {
 		verificarConstrucao();
-		return _gradEntrada.shape();
+		return shapeIn.clone();
 	}
 
 	/**
@@ -442,7 +471,7 @@ public class Densa extends Camada implements Cloneable {
 	@Override
 	public int[] shapeOut() {
 		verificarConstrucao();
-		return _saida.shape();
+		return shapeOut.clone();
 	}
 
 	@Override
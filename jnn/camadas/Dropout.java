@@ -1,5 +1,7 @@
 package jnn.camadas;
 
+import java.util.Random;
+
 import jnn.core.JNNutils;
 import jnn.core.tensor.Tensor;
 
@@ -41,6 +43,12 @@ public class Dropout extends Camada implements Cloneable {
 	 */
 	private int dimBase;
 
+	/**
+	 * Gerador próprio das máscaras, caso {@code null} é usado o gerador
+	 * global da biblioteca.
+	 */
+	private Random rng;
+
 	/**
 	 * Tensor contendo os valores de entrada para a camada.
 	 */
@@ -206,9 +214,33 @@ public class Dropout extends Camada implements Cloneable {
 	 * passado para a saída, nos valores iguais a 0, a entrada será desconsiderada. 
 	 */
 	private void gerarMascaras() {
-		_mascara.aplicar(
-			_ ->  (JNNutils.randFloat() >= taxa) ? (1.0f / (1.0f - taxa)) : 0.0f
-		);
+		if (rng == null) {
+			_mascara.aplicar(
+				_ ->  (JNNutils.randFloat() >= taxa) ? (1.0f / (1.0f - taxa)) : 0.0f
+			);
+		} else {
+			_mascara.aplicar(
+				_ ->  (rng.nextFloat() >= taxa) ? (1.0f / (1.0f - taxa)) : 0.0f
+			);
+		}
+	}
+
+	/**
+	 * Configura um gerador próprio para as máscaras da camada, independente
+	 * do gerador global da biblioteca.
+	 * <p>
+	 *		Útil quando várias cópias da camada são executadas em paralelo,
+	 *		onde cada cópia precisa da sua própria sequência de máscaras.
+	 * </p>
+	 * @param seed seed do gerador.
+	 */
+	public void setSeed(long seed) {
+		rng = new Random(seed);
+	}
+
+	@Override
+	public Tensor inferir(Tensor x, Tensor destino) {
+		return x;// sem efeito fora do treino
 	}
 
 	@Override
@@ -259,6 +291,8 @@ public class Dropout extends Camada implements Cloneable {
 		Dropout clone = (Dropout) super.clone();
 		clone.shapeIn = this.shapeIn.clone();
 		clone.taxa = this.taxa;
+		// sequência própria, derivada da sequência do original
+		if (rng != null) clone.rng = new Random(rng.nextLong());
 
 		clone._mascara = this._mascara.clone();
 		clone._saida = this._saida.clone();
@@ -181,6 +181,11 @@ public class Flatten extends Camada implements Cloneable {
 		return _saida;
 	}
 
+	@Override
+	public Tensor inferir(Tensor x, Tensor destino) {
+		return x.reshape(destino.shape());// apenas uma view da entrada
+	}
+
 	@Override
 	public Tensor backward(Tensor g) {
 		verificarConstrucao();
@@ -198,7 +203,8 @@ public class Flatten extends Camada implements Cloneable {
 
 	@Override
 	public float[] saidaParaArray() {
-		return saida().array();
+		Tensor saida = saida();
+		return saida.data().isView() ? saida.data().paraArray() : saida.array();
 	}
 
 	@Override
@@ -233,7 +239,7 @@ public class Flatten extends Camada implements Cloneable {
 	 @Override
 	public int[] shapeOut() {
 		verificarConstrucao();
-		return _saida.shape().clone();
+		return shapeOut.clone();
 	}
 
 	@Override
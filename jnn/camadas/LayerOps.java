@@ -1,13 +1,12 @@
 package jnn.camadas;
 
-import java.util.ArrayList;
 import java.util.Optional;
-import java.util.concurrent.ForkJoinPool;
-import java.util.concurrent.ForkJoinTask;
 
+import jnn.camadas.acts.Ativacao;
 import jnn.core.JNNnative;
 import jnn.core.Parametro;
 import jnn.core.ops.Ops;
+import jnn.core.ops.OpsConv;
 import jnn.core.parallel.JNNparallel;
 import jnn.core.tensor.Tensor;
 
@@ -21,11 +20,6 @@ public class LayerOps {
 	 */
     Ops ops = new Ops(); 
 
-	/**
-	 * Operador para paralelização.
-	 */
-	private final ForkJoinPool pool = JNNparallel.common();
-
     /**
      * Utilitário para operações de forward e backward de camadas.
      */
@@ -40,22 +34,60 @@ public class LayerOps {
 	 * @see jnn.camadas.Densa Densa
 	 */
 	public void forwardDensa(Tensor in, Parametro kernel, Optional<Parametro> bias, Tensor out) {
+		forwardDensa(in, kernel, bias, out, null);
+	}
+
+	/**
+	 * Realiza a peopagação direta através da camada Densa, aplicando a
+	 * ativação seguinte diretamente sobre a saída.
+	 * <p>
+	 *		Com a interface nativa ativa, matmul, bias e ativação são
+	 *		executados em uma única chamada.
+	 * </p>
+	 * @param in {@code Tensor} contendo a entrada da camada.
+	 * @param kernel {@code Tensor} contendos o kernel/pesos da camada.
+	 * @param bias {@code Tensor} contendo o bias da camada {@code (podendo ser nulo)}.
+	 * @param out {@code Tensor} de destino do resultado.
+	 * @param atv ativação aplicada sobre a saída {@code (podendo ser nula)}.
+	 * @see jnn.camadas.Densa Densa
+	 */
+	public void forwardDensa(Tensor in, Parametro kernel, Optional<Parametro> bias, Tensor out, Ativacao atv) {
+		final Tensor w = kernel.weight;
+		final int lotes = (in.numDim() == 1) ? 1 : in.tamDim(0);
+		final int entradas = w.tamDim(0);
+		final int saidas = w.tamDim(1);
+		final int tipoAtv = (atv == null) ? JNNnative.ATV_NENHUMA : atv.idNativo();
+
+		// ativações sem kernel nativo não podem ser fundidas
+		final boolean fundir = atv == null || tipoAtv != JNNnative.ATV_NENHUMA;
+
+		if (JNNnative.isOn() && fundir &&
+			in.isContiguous() && w.isContiguous() && out.isContiguous()) {
+			final Tensor b = bias.isPresent() ? bias.get().weight : null;
+
+			JNNnative.densaForward(
+				in.array(), in.offset(),
+				w.array(), w.offset(),
+				b == null ? null : b.array(), b == null ? 0 : b.offset(),
+				b != null,
+				out.array(), out.offset(),
+				lotes, entradas, saidas,
+				tipoAtv,
+				(atv == null) ? 0f : atv.alphaNativo(),
+				(atv == null) ? 0f : atv.gammaNativo()
+			);
+
+			return;
+		}
+
 		out.zero();// zerar acumulos anteriores
 
-		ops.matmul(in, kernel.weight, out);
+		ops.matmul(in, w, out);
 
-		bias.ifPresent(b -> {
-			final int inDim = in.numDim();
-	
-			if (inDim == 1) {//amostra única
-				out.add(b.weight);
-	
-			} else if (inDim == 2) {//lote de amostras
-				out.copiar(
-					out.broadcast(b.weight, (_s, _b) -> _s + _b)
-				);
-			}
-		});
+		// broadcasting direto sobre a saída, sem gerar um tensor temporário
+		bias.ifPresent(b -> out.add(b.weight));
+
+		if (atv != null) atv.inferir(out, out);
 	}
 
 	/**
@@ -68,25 +100,50 @@ public class LayerOps {
 	 * @see jnn.camadas.Densa Densa
 	 */
 	public void backwardDensa(Tensor in, Parametro kernel, Tensor grad, Optional<Parametro> bias, Tensor gradIn) {
+		final Tensor w = kernel.weight;
+		final int lotes = (grad.numDim() == 1) ? 1 : grad.tamDim(0);
+		final int entradas = w.tamDim(0);
+		final int saidas = w.tamDim(1);
+
+		if (JNNnative.isOn() &&
+			in.isContiguous() && grad.isContiguous() && gradIn.isContiguous() &&
+			w.isContiguous() && kernel.grad.isContiguous()) {
+			final Tensor gb = bias.isPresent() ? bias.get().grad : null;
+
+			JNNnative.densaBackward(
+				in.array(), in.offset(),
+				w.array(), w.offset(),
+				grad.array(), grad.offset(),
+				kernel.grad.array(), kernel.grad.offset(),
+				gb == null ? null : gb.array(), gb == null ? 0 : gb.offset(),
+				gb != null,
+				gradIn.array(), gradIn.offset(),
+				lotes, entradas, saidas
+			);
+
+			return;
+		}
+
 		gradIn.zero();// zerar acumulaçoes anteriores
-		
-		final int gradDim = grad.numDim();
-		if (gradDim == 1) {//amostra única
-			ops.matmul(in.unsqueeze(0).transpor(), grad, kernel.grad);
-			bias.ifPresent(b -> b.grad.add(grad));
-		
-		} else if (gradDim == 2) {//lote de amostras
-			ops.matmul(in.transpor(), grad, kernel.grad);
-			
-			final int batches = grad.tamDim(0);
-			bias.ifPresent(b -> {
-				for (int i = 0; i < batches; i++) {					
-					b.grad.add(grad.subTensor(i));
+
+		ops.matmulTA(in, grad, kernel.grad);
+
+		// soma das linhas do gradiente, sem criar sub tensores
+		bias.ifPresent(b -> {
+			final float[] dataG = grad.array();
+			final float[] dataGB = b.grad.array();
+			final int offG = grad.offset();
+			final int offGB = b.grad.offset();
+
+			for (int i = 0; i < lotes; i++) {
+				final int lin = offG + i * saidas;
+				for (int j = 0; j < saidas; j++) {
+					dataGB[offGB + j] += dataG[lin + j];
 				}
-			});
-		}
+			}
+		});
 
-		ops.matmul(grad, kernel.weight.transpor(), gradIn);
+		ops.matmulTB(grad, w, gradIn);
 	}
 
 	/**
@@ -151,12 +208,19 @@ public class LayerOps {
 		final boolean temBias = bias.isPresent();
 		final float[] dataB = temBias ? bias.get().weight.array() : null;
 
+		// parâmetros podem ser views do armazenamento contíguo do modelo,
+		// e entradas podem ser views de lotes ou de blocos do dataset
+		final int offX = in.offset();
+		final int offS = out.offset();
+		final int offK = kernel.weight.offset();
+		final int offB = temBias ? bias.get().weight.offset() : 0;
+
 		if (JNNnative.isOn()) {
 			JNNnative.conv2dForward(
-				dataX,
-				dataK,
-				dataB, temBias,
-				dataS,
+				dataX, offX,
+				dataK, offK,
+				dataB, offB, temBias,
+				dataS, offS,
 				lotes, canais, filtros,
 				altX, largX,
 				altK, largK,
@@ -169,58 +233,63 @@ public class LayerOps {
 		final int altS  = altX - altK + 1 + 2 * altPad;
 		final int largS = largX - largK + 1 + 2 * largPad;
 
+		if (OpsConv.usarIm2col(canais, filtros, altK, largK, altS, largS)) {
+			OpsConv.conv2DForwardIm2col(
+				dataX, offX, dataK, offK, dataB, offB, dataS, offS,
+				lotes, canais, filtros,
+				altX, largX,
+				altK, largK,
+				altPad, largPad
+			);
+
+			return;
+		}
+
 		final int areaX = altX * largX;
 		final int areaK = altK * largK;
 		final int areaS = altS * largS;
 
-		var tasks = new ArrayList<ForkJoinTask<?>>(filtros);
-
-		for (int f = 0; f < filtros; f++) {
-			for (int l = 0; l < lotes; l++) {
-				final int filtro = f, lote = l;
-				final int offKf =  filtro * canais * areaK;
-				final float valBias = temBias ? dataB[filtro] : 0.0f;
+		JNNparallel.parallelFor(0, filtros * lotes, 1, (ini, fim) -> {
+			for (int t = ini; t < fim; t++) {
+				final int filtro = t / lotes, lote = t % lotes;
+				final int offKf = offK + filtro * canais * areaK;
+				final float valBias = temBias ? dataB[offB + filtro] : 0.0f;
 
-				tasks.add(pool.submit(() -> {
-					final int offY =  (lote * filtros + filtro) * areaS;
-					final int offXL = (lote * canais) * areaX;
+				final int offY =  offS + (lote * filtros + filtro) * areaS;
+				final int offXL = offX + (lote * canais) * areaX;
 
-					for (int i = 0; i < areaS; i++) {
-						dataS[offY + i] = valBias;
-					}
+				for (int i = 0; i < areaS; i++) {
+					dataS[offY + i] = valBias;
+				}
 
-					for (int c = 0; c < canais; c++) {
-						final int offXLc = offXL + c * areaX;
-						final int offKFc = offKf + c * areaK;
+				for (int c = 0; c < canais; c++) {
+					final int offXLc = offXL + c * areaX;
+					final int offKFc = offKf + c * areaK;
 
-						for (int kh = 0; kh < altK; kh++) {
-							final int iMin = Math.max(altPad - kh, 0);
-							final int iMax = Math.min(altX + altPad - kh, altS);
+					for (int kh = 0; kh < altK; kh++) {
+						final int iMin = Math.max(altPad - kh, 0);
+						final int iMax = Math.min(altX + altPad - kh, altS);
 
-							for (int kw = 0; kw < largK; kw++) {
-								final int jMin = Math.max(largPad - kw, 0);
-								final int jMax = Math.min(largX + largPad - kw, largS);
-								final float valK = dataK[offKFc + kh * largK + kw];								
-
-								for (int i = iMin; i < iMax; i++) {
-									final int inY = i + kh - altPad;
-									final int baseDst = offY + i * largS;
-									final int baseX   = offXLc + inY * largX;
-
-									for (int j = jMin; j < jMax; j++) {
-										final int inX = j + kw - largPad;
-										dataS[baseDst + j] += dataX[baseX + inX] * valK;
-									}
+						for (int kw = 0; kw < largK; kw++) {
+							final int jMin = Math.max(largPad - kw, 0);
+							final int jMax = Math.min(largX + largPad - kw, largS);
+							final float valK = dataK[offKFc + kh * largK + kw];								
+
+							for (int i = iMin; i < iMax; i++) {
+								final int inY = i + kh - altPad;
+								final int baseDst = offY + i * largS;
+								final int baseX   = offXLc + inY * largX;
+
+								for (int j = jMin; j < jMax; j++) {
+									final int inX = j + kw - largPad;
+									dataS[baseDst + j] += dataX[baseX + inX] * valK;
 								}
 							}
 						}
 					}
-				}));
-
+				}
 			}
-		}
-		
-		for (var task : tasks) task.join();
+		});
 	}
 
 	/**
@@ -303,14 +372,23 @@ public class LayerOps {
 		
 		gradIn.zero();// zerar acumulaçoes anteriores
 
+		// parâmetros podem ser views do armazenamento contíguo do modelo,
+		// e entradas podem ser views de lotes ou de blocos do dataset
+		final int offX = in.offset();
+		final int offGS = grad.offset();
+		final int offGE = gradIn.offset();
+		final int offK = kernel.weight.offset();
+		final int offGK = kernel.grad.offset();
+		final int offGB = temBias ? bias.get().grad.offset() : 0;
+
 		if (JNNnative.isOn()) {
 			JNNnative.conv2dBackward(
-				dataX,
-				dataK,
-				dataGS,
-				dataGK,
-				dataGB, temBias,
-				dataGE,
+				dataX, offX,
+				dataK, offK,
+				dataGS, offGS,
+				dataGK, offGK,
+				dataGB, offGB, temBias,
+				dataGE, offGE,
 				lotes, canais, filtros, 
 				altX, largX, 
 				altK, largK,
@@ -324,30 +402,39 @@ public class LayerOps {
 		final int altS  = shapeGS[2]; 
     	final int largS = shapeGS[3];
 
+		if (OpsConv.usarIm2col(canais, filtros, altK, largK, altS, largS)) {
+			OpsConv.conv2DBackwardIm2col(
+				dataX, offX, dataK, offK, dataGS, offGS,
+				dataGK, offGK, dataGB, offGB, dataGE, offGE,
+				lotes, canais, filtros,
+				altX, largX,
+				altK, largK,
+				altPad, largPad
+			);
+
+			return;
+		}
+
 		final int areaX  = altX * largX;
 		final int areaK  = altK * largK;
 		final int areaGS = altS * largS;
 
-		var tasks = new ArrayList<ForkJoinTask<?>>(filtros);
-
-		for (int f = 0; f < filtros; f++) {
-			final int filtro = f;
-
-			tasks.add(pool.submit(() -> {
+		JNNparallel.parallelFor(0, filtros, 1, (ini, fim) -> {
+			for (int filtro = ini; filtro < fim; filtro++) {
 		
 				if (temBias) {
 					float soma = 0f;
 					for (int l = 0; l < lotes; l++) {
-						final int offGSlf = (l * filtros + filtro) * areaGS;
+						final int offGSlf = offGS + (l * filtros + filtro) * areaGS;
 						for (int i = 0; i < areaGS; i++) {
 							soma += dataGS[offGSlf + i];
 						}
 					}
-					dataGB[filtro] += soma;
+					dataGB[offGB + filtro] += soma;
 				}
 
 				for (int c = 0; c < canais; c++) {
-					final int offGK_fc = (filtro * canais + c) * areaK;
+					final int offGK_fc = offGK + (filtro * canais + c) * areaK;
 
 					for (int kh = 0; kh < altK; kh++) {
 						int iMin = Math.max(0, altPad - kh);
@@ -359,8 +446,8 @@ public class LayerOps {
 							float soma = 0f;
 
 							for (int l = 0; l < lotes; l++) {
-								final int offGSLoteFiltro = (l * filtros + filtro) * areaGS;
-								final int offXLoteCanal   = (l * canais + c) * areaX;
+								final int offGSLoteFiltro = offGS + (l * filtros + filtro) * areaGS;
+								final int offXLoteCanal   = offX + (l * canais + c) * areaX;
 
 								for (int hOut = iMin; hOut < iMax; hOut++) {
 									int inH = hOut + kh - altPad;
@@ -380,26 +467,20 @@ public class LayerOps {
 						}
 					}
 				}
-			}));
-		}
-		
-		for (var task : tasks) task.join();
-
-		tasks.clear();
-
-		for (int l = 0; l < lotes; l++) {
-			final int lote = l;
+			}
+		});
 
-			tasks.add(pool.submit(() -> {
-				final int offGELote = lote * canais * areaX;
-				final int offGSlote = lote * filtros * areaGS;
+		JNNparallel.parallelFor(0, lotes, 1, (ini, fim) -> {
+			for (int lote = ini; lote < fim; lote++) {
+				final int offGELote = offGE + lote * canais * areaX;
+				final int offGSlote = offGS + lote * filtros * areaGS;
 
 				for (int c = 0; c < canais; c++) {
 					final int offGELoteCanal = offGELote + c * areaX;
 
 					for (int f = 0; f < filtros; f++) {
 						final int offGSLoteFiltro = offGSlote + f * areaGS;
-						final int offKFiltroCanal = (f * canais + c) * areaK;
+						final int offKFiltroCanal = offK + (f * canais + c) * areaK;
 
 						for (int kh = 0; kh < altK; kh++) {
 							int iStart = Math.max(0, altPad - kh);
@@ -425,10 +506,8 @@ public class LayerOps {
 						}
 					}
 				}
-			}));
-		}
-
-		for (var task : tasks) task.join();
+			}
+		});
 	}
 
 	/**
@@ -462,8 +541,8 @@ public class LayerOps {
 			final int largX = entrada.tamDim(2);
 			
 			JNNnative.maxPool2dForward(
-				entrada.array(),
-				saida.array(),
+				entrada.array(), entrada.offset(),
+				saida.array(), saida.offset(),
 				lotes,
 				canais, 
 				altX, largX,
@@ -500,8 +579,8 @@ public class LayerOps {
 			final int largX = entrada.tamDim(3);
 
 			JNNnative.maxPool2dForward(
-				entrada.array(),
-				saida.array(),
+				entrada.array(), entrada.offset(),
+				saida.array(), saida.offset(),
 				lotes,
 				canais,
 				altX,
@@ -513,15 +592,16 @@ public class LayerOps {
 			return;
 		}
 
-		// isso aqui vai melhorar ainda
-		for (int i = 0; i < lotes; i++) {
-			forwardMaxPool2DNormal(
-				entrada.subTensor(i), 
-				saida.subTensor(i), 
-				filtro, 
-				stride
-			);
-		}
+		JNNparallel.parallelFor(0, lotes, 1, (ini, fim) -> {
+			for (int lote = ini; lote < fim; lote++) {
+				forwardMaxPool2DNormal(
+					entrada.subTensor(lote), 
+					saida.subTensor(lote), 
+					filtro, 
+					stride
+				);
+			}
+		});
 	}
 
 	/**
@@ -559,9 +639,9 @@ public class LayerOps {
 			final int lotes = 1;
 
 			JNNnative.maxPool2dBackward(
-				entrada.array(),
-				grad.array(),
-				gradE.array(),
+				entrada.array(), entrada.offset(),
+				grad.array(), grad.offset(),
+				gradE.array(), gradE.offset(),
 				lotes, 
 				canais,
 				altX,
@@ -579,13 +659,18 @@ public class LayerOps {
 		float[] dataGS = grad.array();
 		float[] dataGE = gradE.array();
 
+		// entradas por lote chegam como views (subTensor)
+		int offE  = entrada.offset();
+		int offGS = grad.offset();
+		int offGE = gradE.offset();
+
 		int canalSizeEntrada = altX * largX;
 		int canalSizeGradS   = altG * largG;
 		float val, valMax;
 
 		for (int c = 0; c < canais; c++) {
 			int baseEntrada = c * canalSizeEntrada;
-			int baseGradS   = c * canalSizeGradS;
+			int baseGradS   = offGS + c * canalSizeGradS;
 
 			for (int i = 0; i < altG; i++) {
 				int linInicio = i * stride[0];
@@ -601,7 +686,7 @@ public class LayerOps {
 
 					// Encontrar posição do máximo
 					for (int y = linInicio; y < linFim; y++) {
-						int idLinha = baseEntrada + y * largX;
+						int idLinha = offE + baseEntrada + y * largX;
 						for (int x = colInicio; x < colFim; x++) {
 							val = dataE[idLinha + x];
 							if (val > valMax) {
@@ -612,7 +697,7 @@ public class LayerOps {
 						}
 					}
 
-					dataGE[baseEntrada + linMax * largX + colMax] += dataGS[baseGradS + i * largG + j];
+					dataGE[offGE + baseEntrada + linMax * largX + colMax] += dataGS[baseGradS + i * largG + j];
 				}
 			}
 		}
@@ -637,9 +722,9 @@ public class LayerOps {
 			final int largG = grad.tamDim(3);
 
 			JNNnative.maxPool2dBackward(
-				entrada.array(),
-				grad.array(),
-				gradE.array(),
+				entrada.array(), entrada.offset(),
+				grad.array(), grad.offset(),
+				gradE.array(), gradE.offset(),
 				lotes,
 				canais, 
 				altX,
@@ -652,16 +737,17 @@ public class LayerOps {
 			return;
 		}
 
-		// isso ainda vai melhorar
-		for (int i = 0; i < lotes; i++) {
-			backwardMaxPool2DNormal(
-				entrada.subTensor(i), 
-				grad.subTensor(i), 
-				gradE.subTensor(i), 
-				filtro, 
-				stride
-			);
-		}
+		JNNparallel.parallelFor(0, lotes, 1, (ini, fim) -> {
+			for (int lote = ini; lote < fim; lote++) {
+				backwardMaxPool2DNormal(
+					entrada.subTensor(lote), 
+					grad.subTensor(lote), 
+					gradE.subTensor(lote), 
+					filtro, 
+					stride
+				);
+			}
+		});
 	}
 
 	/**
@@ -703,14 +789,16 @@ public class LayerOps {
 	private void forwardAvgPool2DLotes(Tensor entrada, Tensor saida, int[] filtro, int[] stride) {
 		// por enquanto ta assim por compatibilidade.
 		final int lotes = entrada.tamDim(0);
-		for (int i = 0; i < lotes; i++) {
-			forwardAvgPool2DNormal(
-				entrada.subTensor(i), 
-				saida.subTensor(i), 
-				filtro, 
-				stride
-			);
-		}
+		JNNparallel.parallelFor(0, lotes, 1, (ini, fim) -> {
+			for (int lote = ini; lote < fim; lote++) {
+				forwardAvgPool2DNormal(
+					entrada.subTensor(lote), 
+					saida.subTensor(lote), 
+					filtro, 
+					stride
+				);
+			}
+		});
 	}
 
 	/**
@@ -793,18 +881,18 @@ public class LayerOps {
 	 * @param stride formato dos strides {@code (altura, largura)}
 	 */
 	private void backwardAvgPool2DLotes(Tensor entrada, Tensor grad, Tensor gradE, int[] filtro, int[] stride) {
-		// TODO melhorar isso
-		// por enquanto vai ficar assim por compatibilidade.
 		final int lotes = entrada.tamDim(0);
-		for (int i = 0; i < lotes; i++) {
-			backwardAvgPool2DNormal(
-				entrada.subTensor(i), 
-				grad.subTensor(i), 
-				gradE.subTensor(i), 
-				filtro, 
-				stride
-			);
-		}
+		JNNparallel.parallelFor(0, lotes, 1, (ini, fim) -> {
+			for (int lote = ini; lote < fim; lote++) {
+				backwardAvgPool2DNormal(
+					entrada.subTensor(lote), 
+					grad.subTensor(lote), 
+					gradE.subTensor(lote), 
+					filtro, 
+					stride
+				);
+			}
+		});
 	}
 
 	/**
@@ -823,8 +911,9 @@ public class LayerOps {
         final int area = altura * largura;
         final int lotes = (entrada.numDim() == 4) ? entrada.tamDim(0) : 1;
 
-        int idX = 0;
-        int idY = 0;
+        // entradas podem ser views
+        int idX = entrada.offset();
+        int idY = saida.offset();
         for (int n = 0; n < lotes; n++) {
             for (int c = 0; c < canais; c++) {
                 float soma = 0.f;
@@ -855,8 +944,8 @@ public class LayerOps {
         final int area = altura * largura;
         final int lotes = (grad.numDim() == 2) ? tamLote : 1;
 
-        int idGS = 0;
-        int idGE  = 0;
+        int idGS = grad.offset();
+        int idGE  = gradE.offset();
         for (int n = 0; n < lotes; n++) {
             for (int c = 0; c < canais; c++) {
                 float g = gs[idGS++] / area;
@@ -906,8 +995,12 @@ public class LayerOps {
 
         float[] dataX = entrada.array();
         float[] dataY = saida.array();
+        int offX = entrada.offset();// entradas podem ser views
+        int offY = saida.offset();
         float[] dataGamma = gamma.weight.array();
         float[] dataBeta  = beta.weight.array();
+        int offGamma = gamma.weight.offset();
+        int offBeta  = beta.weight.offset();
         float[] dataRM = mediaMovel.array();
         float[] dataRV = varianciaMovel.array();
 
@@ -917,10 +1010,10 @@ public class LayerOps {
 
 		if (JNNnative.isOn()) {
 			JNNnative.batchNorm2DForward(
-				dataX,
-				dataY,
-				dataGamma,
-				dataBeta,
+				dataX, offX,
+				dataY, offY,
+				dataGamma, offGamma,
+				dataBeta, offBeta,
 				dataRM,
 				dataRV,
 				dataMedia,
@@ -945,7 +1038,7 @@ public class LayerOps {
                 for (int n = 0; n < lotes; n++) {
                     int base = n * canais * areaX + c * areaX;
                     for (int i = 0; i < areaX; i++) {
-                        soma += dataX[base + i];
+                        soma += dataX[offX + base + i];
                     }
                 }
                 dataMedia[c] = (float) soma / M;
@@ -958,7 +1051,7 @@ public class LayerOps {
                 for (int n = 0; n < lotes; n++) {
                     int base = n * canais * areaX + c * areaX;
                     for (int i = 0; i < areaX; i++) {
-                        float dif = dataX[base + i] - valMed;
+                        float dif = dataX[offX + base + i] - valMed;
                         soma += dif * dif;
                     }
                 }
@@ -967,17 +1060,17 @@ public class LayerOps {
 
             for (int c = 0; c < canais; c++) {
                 float invStd = 1.0f / (float)Math.sqrt(dataVar[c] + eps);
-                float g = dataGamma[c];
-                float b = dataBeta[c];
+                float g = dataGamma[offGamma + c];
+                float b = dataBeta[offBeta + c];
                 float m = dataMedia[c];
 
                 for (int n = 0; n < lotes; n++) {
                     int base = n * canais * areaX + c * areaX;
                     for (int i = 0; i < areaX; i++) {
                         int id = base + i;
-                        float norm = (dataX[id] - m) * invStd;
+                        float norm = (dataX[offX + id] - m) * invStd;
                         dataXNorm[id] = norm;
-                        dataY[id]  = g * norm + b;
+                        dataY[offY + id]  = g * norm + b;
                     }
                 }
 
@@ -989,8 +1082,8 @@ public class LayerOps {
         } else {
             for (int c = 0; c < canais; c++) {
                 float invStd = 1.0f / (float)Math.sqrt(dataRV[c] + eps);
-                float g = dataGamma[c];
-                float b = dataBeta[c];
+                float g = dataGamma[offGamma + c];
+                float b = dataBeta[offBeta + c];
                 float m = dataRM[c];
 
                 for (int n = 0; n < lotes; n++) {
@@ -998,7 +1091,7 @@ public class LayerOps {
 
                     for (int i = 0; i < areaX; i++) {
                         int id = base + i;
-                        dataY[id] = g * (dataX[id] - m) * invStd + b;
+                        dataY[offY + id] = g * (dataX[offX + id] - m) * invStd + b;
                     }
                 }
             }
@@ -1040,18 +1133,23 @@ public class LayerOps {
 		
         float[] dataGE = gradE.array();
         float[] dataGS = gradS.array();
+        int offGE = gradE.offset();
+        int offGS = gradS.offset();
         float[] dataGG = gamma.grad.array();
         float[] dataGB = beta.grad.array();
+        int offGamma = gamma.weight.offset();
+        int offGG = gamma.grad.offset();
+        int offGB = beta.grad.offset();
 		
 		if (JNNnative.isOn()) {
 			JNNnative.batchNorm2DBackward(
 				dataXNorm,
 				dataVar,
-				dataGamma,
-				dataGE,
-				dataGS,
-				dataGG,
-				dataGB,
+				dataGamma, offGamma,
+				dataGE, offGE,
+				dataGS, offGS,
+				dataGG, offGG,
+				dataGB, offGB,
 				lotes,
 				canais,
 				altura,
@@ -1074,18 +1172,18 @@ public class LayerOps {
 
                 for (int i = 0; i < areaX; i++) {
                     int id = base + i;
-                    float grad = dataGS[id];
+                    float grad = dataGS[offGS + id];
                     somaGamma += grad * dataXNorm[id];
                     somaBeta  += grad;
                 }
             }
 
-            dataGG[c] += (float) somaGamma;
-            dataGB[c] += (float) somaBeta;
+            dataGG[offGG + c] += (float) somaGamma;
+            dataGB[offGB + c] += (float) somaBeta;
         }
 
         for (int c = 0; c < canais; c++) {
-            float valGamma = dataGamma[c];
+            float valGamma = dataGamma[offGamma + c];
             float invStd = 1.0f / (float)Math.sqrt(dataVar[c] + eps);
 
             double somaG = 0;
@@ -1096,7 +1194,7 @@ public class LayerOps {
 
                 for (int i = 0; i < areaX; i++) {
                     int id = base + i;
-                    float grad = dataGS[id];
+                    float grad = dataGS[offGS + id];
                     somaG += grad;
                     somaGENorm += grad * dataXNorm[id];
                 }
@@ -1109,10 +1207,10 @@ public class LayerOps {
 
                 for (int i = 0; i < areaX; i++) {
                     int idx = base + i;
-                    float grad = dataGS[idx];
+                    float grad = dataGS[offGS + idx];
                     float xNorm = dataXNorm[idx];
 
-                    dataGE[idx] = (float) (coef * (M * grad - somaG - xNorm * somaGENorm));
+                    dataGE[offGE + idx] = (float) (coef * (M * grad - somaG - xNorm * somaGENorm));
                 }
             }
         }
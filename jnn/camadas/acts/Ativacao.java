@@ -1,6 +1,7 @@
 package jnn.camadas.acts;
 
 import jnn.camadas.Camada;
+import jnn.core.JNNnative;
 import jnn.core.JNNutils;
 import jnn.core.tensor.Tensor;
 
@@ -138,6 +139,83 @@ public abstract class Ativacao extends Camada implements Cloneable {
         );
     }
 
+    /**
+     * Calcula a função de ativação sobre os dados de entrada.
+     * @param x {@code Tensor} de entrada contíguo.
+     * @param dst {@code Tensor} de destino contíguo, com o mesmo tamanho da entrada.
+     */
+    protected void ativar(Tensor x, Tensor dst) {
+        throw new UnsupportedOperationException(
+            "\nImplementar ativar."
+        );
+    }
+
+    @Override
+    public Tensor inferir(Tensor x, Tensor destino) {
+        ativar(x, destino);
+        return destino;
+    }
+
+    /**
+     * Retorna o identificador do kernel nativo equivalente à ativação.
+     * <p>
+     *      O identificador também permite que a ativação seja fundida com
+     *      a camada anterior na inferência.
+     * </p>
+     * @return identificador nativo ({@code JNNnative.ATV_*}), ou
+     * {@code JNNnative.ATV_NENHUMA} caso não exista kernel equivalente.
+     */
+    public int idNativo() {
+        return JNNnative.ATV_NENHUMA;
+    }
+
+    /**
+     * Retorna o parâmetro alpha repassado ao kernel nativo.
+     * @return valor de alpha, quando a ativação possuir.
+     */
+    public float alphaNativo() {
+        return 0f;
+    }
+
+    /**
+     * Retorna o parâmetro gamma repassado ao kernel nativo.
+     * @return valor de gamma, quando a ativação possuir.
+     */
+    public float gammaNativo() {
+        return 0f;
+    }
+
+    /**
+     * Calcula a função de ativação usando o kernel nativo.
+     * @param x {@code Tensor} de entrada contíguo.
+     * @param dst {@code Tensor} de destino contíguo.
+     */
+    protected void ativarNativo(Tensor x, Tensor dst) {
+        JNNnative.ativacao(
+            idNativo(), alphaNativo(), gammaNativo(),
+            x.array(), x.offset(),
+            dst.array(), dst.offset(),
+            x.tam()
+        );
+    }
+
+    /**
+     * Calcula a derivada da função de ativação usando o kernel nativo,
+     * a partir da última entrada e saída calculadas.
+     * @param g {@code Tensor} contíguo do gradiente em relação à saída.
+     * @param dst {@code Tensor} contíguo do gradiente em relação à entrada.
+     */
+    protected void derivarNativo(Tensor g, Tensor dst) {
+        JNNnative.ativacaod(
+            idNativo(), alphaNativo(), gammaNativo(),
+            _entrada.array(), _entrada.offset(),
+            _saida.array(), _saida.offset(),
+            g.array(), g.offset(),
+            dst.array(), dst.offset(),
+            _entrada.tam()
+        );
+    }
+
     @Override
     public Tensor saida() {
         verificarConstrucao();
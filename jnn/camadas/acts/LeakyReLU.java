@@ -1,5 +1,6 @@
 package jnn.camadas.acts;
 
+import jnn.core.JNNnative;
 import jnn.core.tensor.Tensor;
 
 /**
@@ -53,31 +54,54 @@ public class LeakyReLU extends Ativacao {
 
 		_entrada = x.contiguous();
 
-        leakyrelu(
-            _entrada.array(), _entrada.offset(),
-            _saida.array(), _saida.offset(),
-            _entrada.tam()
-        );
+        ativar(_entrada, _saida);
 
         return _saida;
     }
 
+    @Override
+    protected void ativar(Tensor x, Tensor dst) {
+        if (JNNnative.isOn()) {
+            ativarNativo(x, dst);
+        } else {
+            leakyrelu(
+                x.array(), x.offset(),
+                dst.array(), dst.offset(),
+                x.tam()
+            );
+        }
+    }
+
     @Override
     public Tensor backward(Tensor g) {
 		verificarConstrucao();
 
 		_gradSaida = g.contiguous();
 
-        leakyrelud(
-            _gradSaida.array(), _gradSaida.offset(),
-            _gradEntrada.array(), _gradEntrada.offset(),
-            _entrada.array(), _entrada.offset(),
-            _entrada.tam()
-        );
+        if (JNNnative.isOn()) {
+            derivarNativo(_gradSaida, _gradEntrada);
+        } else {
+            leakyrelud(
+                _gradSaida.array(), _gradSaida.offset(),
+                _gradEntrada.array(), _gradEntrada.offset(),
+                _entrada.array(), _entrada.offset(),
+                _entrada.tam()
+            );
+        }
 
         return _gradEntrada;
     }
 
+    @Override
+    public int idNativo() {
+        return JNNnative.ATV_LEAKY_RELU;
+    }
+
+    @Override
+    public float alphaNativo() {
+        return alpha;
+    }
+
     private void leakyrelu(float[] x, int offX, float[] dest, int offDest, int n) {
         for (int i = 0; i < n; i++) {
             float val = x[offX + i];
@@ -29,21 +29,22 @@ public class ReLU extends Ativacao {
 
 		_entrada = x.contiguous();
 
+        ativar(_entrada, _saida);
+
+        return _saida;
+    }
+
+    @Override
+    protected void ativar(Tensor x, Tensor dst) {
         if (JNNnative.isOn()) {
-            JNNnative.relu(
-                _entrada.array(),
-                _saida.array(),
-                _entrada.tam()
-            );
+            ativarNativo(x, dst);
         } else {
             relu(
-                _entrada.array(),
-                _saida.array(),
-                _entrada.tam()
+                x.array(), x.offset(),
+                dst.array(), dst.offset(),
+                x.tam()
             );
         }
-
-        return _saida;
     }
 
     @Override
@@ -53,17 +54,12 @@ public class ReLU extends Ativacao {
 		_gradSaida = g.contiguous();
 
         if (JNNnative.isOn()) {
-            JNNnative.relud(
-                _entrada.array(), 
-                _gradSaida.array(), 
-                _gradEntrada.array(), 
-                _entrada.tam()
-            );
+            derivarNativo(_gradSaida, _gradEntrada);
         } else {
             relud(
-                _entrada.array(),
-                _gradSaida.array(), 
-                _gradEntrada.array(), 
+                _entrada.array(), _entrada.offset(),
+                _gradSaida.array(), _gradSaida.offset(),
+                _gradEntrada.array(), _gradEntrada.offset(),
                 _entrada.tam()
             );
         }
@@ -71,18 +67,23 @@ public class ReLU extends Ativacao {
         return _gradEntrada;
     }
 
-    private static void relu(float[] x, float[] dst, int n) {
+    @Override
+    public int idNativo() {
+        return JNNnative.ATV_RELU;
+    }
+
+    private static void relu(float[] x, int offX, float[] dst, int offDst, int n) {
         for (int i = 0; i < n; i++) {
-            float val = x[i];
-            dst[i] = val > 0 ? val : 0;
+            float val = x[offX + i];
+            dst[offDst + i] = val > 0 ? val : 0;
         }
     }
 
-    private static void relud(float[] x, float[] g, float[] dst, int n) {
+    private static void relud(float[] x, int offX, float[] g, int offG, float[] dst, int offDst, int n) {
         for (int i = 0; i < n; i++) {
-            final float grad = g[i];
-            final float entrada = x[i];
-            dst[i] = grad * (entrada > 0 ? 1 : 0);
+            final float grad = g[offG + i];
+            final float entrada = x[offX + i];
+            dst[offDst + i] = grad * (entrada > 0 ? 1 : 0);
         }
     }
     
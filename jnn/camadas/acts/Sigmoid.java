@@ -29,21 +29,22 @@ public class Sigmoid extends Ativacao {
 
 		_entrada = x.contiguous();
 
+        ativar(_entrada, _saida);
+
+        return _saida;
+    }
+
+    @Override
+    protected void ativar(Tensor x, Tensor dst) {
         if (JNNnative.isOn()) {
-            JNNnative.sigmoid(
-                _entrada.array(),
-                _saida.array(),
-                _entrada.tam()
-            );
+            ativarNativo(x, dst);
         } else {
             sigmoid(
-                _entrada.array(),
-                _saida.array(),
-                _entrada.tam()
+                x.array(), x.offset(),
+                dst.array(), dst.offset(),
+                x.tam()
             );
         }
-
-        return _saida;
     }
 
     @Override
@@ -53,17 +54,12 @@ public class Sigmoid extends Ativacao {
 		_gradSaida = g.contiguous();
 
         if (JNNnative.isOn()) {
-            JNNnative.sigmoidd(
-                _saida.array(),
-                _gradSaida.array(),
-                _gradEntrada.array(),
-                _entrada.tam()
-            );
+            derivarNativo(_gradSaida, _gradEntrada);
         } else {
             sigmoidd(
-                _saida.array(),
-                _gradSaida.array(),
-                _gradEntrada.array(),
+                _saida.array(), _saida.offset(),
+                _gradSaida.array(), _gradSaida.offset(),
+                _gradEntrada.array(), _gradEntrada.offset(),
                 _entrada.tam()
             );
         }
@@ -71,18 +67,23 @@ public class Sigmoid extends Ativacao {
         return _gradEntrada;
     }
 
-    private void sigmoid(float[] x, float[] dest, int n) {
+    @Override
+    public int idNativo() {
+        return JNNnative.ATV_SIGMOID;
+    }
+
+    private void sigmoid(float[] x, int offX, float[] dest, int offDest, int n) {
         for (int i = 0; i < n; i++) {
-            float val = x[i];
-            dest[i] = (float) (1.0f / (1.0 + Math.exp(-val)));
+            float val = x[offX + i];
+            dest[offDest + i] = (float) (1.0f / (1.0 + Math.exp(-val)));
         }
     }
 
-    private void sigmoidd(float[] sig, float[] g, float[] gradE, int n) {
+    private void sigmoidd(float[] sig, int offS, float[] g, int offG, float[] gradE, int offGE, int n) {
         for (int i = 0; i < n; i++) {
-            final float grad = g[i];
-            final float s = sig[i];
-            gradE[i] = grad * (s * (1f - s));
+            final float grad = g[offG + i];
+            final float s = sig[offS + i];
+            gradE[offGE + i] = grad * (s * (1f - s));
         }
     }
     
@@ -1,5 +1,6 @@
 package jnn.camadas.acts;
 
+import jnn.core.JNNnative;
 import jnn.core.tensor.Tensor;
 
 /**
@@ -48,18 +49,35 @@ public class Softmax extends Ativacao {
 
         _entrada = x.contiguous();
 
-        int tamArray = _entrada.tam() / numAmostras;
-
-        softmax(
-            _entrada.array(), _entrada.offset(),
-            _saida.array(), _saida.offset(),
-            numAmostras,
-            tamArray
-        );
+        ativar(_entrada, _saida);
 
         return _saida;
     }
 
+    @Override
+    protected void ativar(Tensor x, Tensor dst) {
+        int tamArray = 1;
+        for (int d : shapeIn) tamArray *= d;
+
+        int numAmostras = x.tam() / tamArray;
+
+        if (JNNnative.isOn()) {
+            JNNnative.softmax(
+                x.array(), x.offset(),
+                dst.array(), dst.offset(),
+                numAmostras,
+                tamArray
+            );
+        } else {
+            softmax(
+                x.array(), x.offset(),
+                dst.array(), dst.offset(),
+                numAmostras,
+                tamArray
+            );
+        }
+    }
+
     @Override
     public Tensor backward(Tensor g) {
         verificarConstrucao();
@@ -71,17 +89,32 @@ public class Softmax extends Ativacao {
         for(int s : shapeIn) tamVetor *= s;
         int samples = totalElementos / tamVetor;
 
-        softmaxGrad(
-            _gradSaida.array(), _gradSaida.offset(),
-            _gradEntrada.array(), _gradEntrada.offset(),
-            _saida.array(), _saida.offset(),
-            samples,
-            tamVetor
-        );
+        if (JNNnative.isOn()) {
+            JNNnative.softmaxd(
+                _saida.array(), _saida.offset(),
+                _gradSaida.array(), _gradSaida.offset(),
+                _gradEntrada.array(), _gradEntrada.offset(),
+                samples,
+                tamVetor
+            );
+        } else {
+            softmaxGrad(
+                _gradSaida.array(), _gradSaida.offset(),
+                _gradEntrada.array(), _gradEntrada.offset(),
+                _saida.array(), _saida.offset(),
+                samples,
+                tamVetor
+            );
+        }
 
         return _gradEntrada;
     }
 
+    @Override
+    public int idNativo() {
+        return JNNnative.ATV_SOFTMAX;
+    }
+
     private void softmax(float[] x, int offX, float[] dest, int offDest, int samples, int tamArray) {
         // o valor maximo é subtraido pra ter melhor estabilidade numerica
         
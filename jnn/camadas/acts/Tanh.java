@@ -1,5 +1,6 @@
 package jnn.camadas.acts;
 
+import jnn.core.JNNnative;
 import jnn.core.tensor.Tensor;
 
 /**
@@ -28,36 +29,43 @@ public class Tanh extends Ativacao {
 
 		_entrada = x.contiguous();
 
-        tanh(
-            _entrada.array(), _entrada.offset(),
-            _saida.array(), _saida.offset(),
-            _entrada.tam()
-        );
+        ativar(_entrada, _saida);
 
         return _saida;
     }
 
+    @Override
+    protected void ativar(Tensor x, Tensor dst) {
+        if (JNNnative.isOn()) {
+            ativarNativo(x, dst);
+        } else {
+            dst.data().tanh(x.data());
+        }
+    }
+
     @Override
     public Tensor backward(Tensor g) {
 		verificarConstrucao();
 
 		_gradSaida = g.contiguous();
 
-        tanhd(
-            _gradSaida.array(), _gradSaida.offset(),
-            _gradEntrada.array(), _gradEntrada.offset(),
-            _saida.array(), _saida.offset(),// tanh já calculada
-            _entrada.tam()
-        );
+        if (JNNnative.isOn()) {
+            derivarNativo(_gradSaida, _gradEntrada);
+        } else {
+            tanhd(
+                _gradSaida.array(), _gradSaida.offset(),
+                _gradEntrada.array(), _gradEntrada.offset(),
+                _saida.array(), _saida.offset(),// tanh já calculada
+                _entrada.tam()
+            );
+        }
 
         return _gradEntrada;
     }
 
-    private void tanh(float[] x, int offX, float[] dest, int offDest, int n) {
-        for (int i = 0; i < n; i++) {
-            float val = x[offX + i];
-            dest[offDest + i] = (float) (2.0 / (1.0 + Math.exp(-2.0 * val)) - 1.0);
-        }
+    @Override
+    public int idNativo() {
+        return JNNnative.ATV_TANH;
     }
 
     private void tanhd(float[] g, int offG, float[] gradE, int offGE, float[] tanh, int offTanh, int n) {
@@ -190,6 +190,12 @@ public class GlobalAvgPool2D extends Camada implements Cloneable {
         return _saida;
     }
 
+    @Override
+    public Tensor inferir(Tensor x, Tensor destino) {
+        lops.forwardGAP(x, destino, shapeIn);
+        return destino;
+    }
+
     @Override
     public Tensor backward(Tensor g) {
         verificarConstrucao();
@@ -219,6 +219,23 @@ public abstract class Pool2DBase extends Camada {
 		return _saida;
     }
 
+    @Override
+    public Tensor inferir(Tensor x, Tensor destino) {
+        if (modo.equals("avg")) {
+            lops.forwardAvgPool2D(x, destino, _filtro, _stride);
+
+        } else if (modo.equals("max")) {
+            lops.forwardMaxPool2D(x, destino, _filtro, _stride);
+
+        } else {
+            throw new UnsupportedOperationException(
+                "\nModo \"" + modo + "\" sem suporte."
+            );
+        }
+
+        return destino;
+    }
+
     @Override
     public Tensor backward(Tensor g) {
 		verificarConstrucao();
@@ -18,9 +18,11 @@ import jnn.metrica.perda.MSE;
 import jnn.metrica.perda.MSLE;
 import jnn.metrica.perda.Perda;
 import jnn.metrica.perda.RMSE;
+import jnn.metrica.perda.SoftmaxEntropiaCruzada;
 import jnn.otm.AdaGrad;
 import jnn.otm.Adadelta;
 import jnn.otm.Adam;
+import jnn.otm.AdamW;
 import jnn.otm.Lion;
 import jnn.otm.Nadam;
 import jnn.otm.Otimizador;
@@ -71,6 +73,7 @@ public class Dicionario {
 				case "adadelta":  return new Adadelta();
 				case "adagrad":   return new AdaGrad();
 				case "adam":      return new Adam();
+				case "adamw":     return new AdamW();
 				case "lion":      return new Lion();
 				case "nadam":     return new Nadam();
 				case "rmsprop":   return new RMSProp();
@@ -109,6 +112,7 @@ public class Dicionario {
 				case "rmse"                   : return new RMSE();
 				case "entropiacruzada"        : return new EntropiaCruzada();
 				case "entropiacruzadabinaria" : return new EntropiaCruzadaBinaria();
+				case "softmaxentropiacruzada" : return new SoftmaxEntropiaCruzada();
 	
 				default: throw new IllegalArgumentException(
 					"\nFunção de perda \"" + nome + "\" não encontada."
@@ -3,14 +3,30 @@ package jnn.core;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.invoke.MethodHandle;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+
 import jnn.core.JNNlog.TipoLog;
 
 /**
  * Interface para implementação nativa em C.
+ * <p>
+ *      Além dos métodos JNI (que recebem arrays do heap), a interface expõe
+ *      sobrecargas que recebem {@code MemorySegment} fora do heap, chamadas
+ *      diretamente via Foreign Function &amp; Memory API, sem cópia ou pin
+ *      dos dados. Elas são usadas pelo {@code PlanoNativo} e por
+ *      {@code OpsNativo}, as camadas continuam usando os métodos JNI.
+ * </p>
  */
 public final class JNNnative {
 
@@ -18,14 +34,20 @@ public final class JNNnative {
      * Nome da biblioteca dinâmica (windows).
      */
     static final String DLL_JNN = "jnn_native.dll";
+
+    /**
+     * Nome da biblioteca dinâmica (linux).
+     */
+    static final String SO_JNN = "libjnn_native.so";
     
     /**
-     * Caminho dentro do arquivo final .jar
+     * Caminho base dentro do arquivo final .jar, cada plataforma
+     * possui seu próprio subdiretório.
      */
-    static final String PATH_BASE = "/nativo/cpu/win64/";
+    static final String PATH_BASE = "/nativo/cpu/";
 
     /**
-     * Dependências.
+     * Dependências (windows).
      */
     static final String[] DLLS = {
         "libgcc_s_seh-1.dll",
@@ -35,16 +57,94 @@ public final class JNNnative {
         DLL_JNN //tem que ta por ultimo
     };
 
+    /**
+     * Dependências (linux).
+     * <p>
+     *      A libgomp empacotada é opcional, caso não exista no .jar
+     *      é usada a versão instalada no sistema.
+     * </p>
+     */
+    static final String[] SOS = {
+        "libgomp.so.1",
+
+        SO_JNN //tem que ta por ultimo
+    };
+
     /**
      * Controla se operações internas usarão backend nativo.
      */
     private static boolean jni = false;
 
+    /**
+     * Indica se as bibliotecas nativas já foram carregadas, evitando
+     * recarregá-las ao reativar a interface.
+     */
+    private static boolean carregada = false;
+
     /**
      * Backend com implementações focadas em cpu.
      */
     public static final int JNNNative_BACKEND_CPU = 1;
 
+    /**
+     * Sem ativação, usado nos kernels fundidos.
+     */
+    public static final int ATV_NENHUMA = 0;
+
+    /**
+     * Identificador nativo da ativação ReLU.
+     */
+    public static final int ATV_RELU = 1;
+
+    /**
+     * Identificador nativo da ativação Sigmoid.
+     */
+    public static final int ATV_SIGMOID = 2;
+
+    /**
+     * Identificador nativo da ativação Tanh.
+     */
+    public static final int ATV_TANH = 3;
+
+    /**
+     * Identificador nativo da ativação LeakyReLU.
+     */
+    public static final int ATV_LEAKY_RELU = 4;
+
+    /**
+     * Identificador nativo da ativação ELU.
+     */
+    public static final int ATV_ELU = 5;
+
+    /**
+     * Identificador nativo da ativação SELU.
+     */
+    public static final int ATV_SELU = 6;
+
+    /**
+     * Identificador nativo da ativação GELU.
+     */
+    public static final int ATV_GELU = 7;
+
+    /**
+     * Identificador nativo da ativação Swish.
+     */
+    public static final int ATV_SWISH = 8;
+
+    /**
+     * Identificador nativo da ativação Softplus.
+     */
+    public static final int ATV_SOFTPLUS = 9;
+
+    /**
+     * Identificador nativo da ativação Softmax.
+     * <p>
+     *      Por operar em linhas, só é aceito pelos kernels fundidos e
+     *      por {@link #softmax(float[], int, float[], int, int, int)}.
+     * </p>
+     */
+    public static final int ATV_SOFTMAX = 10;
+
     /**
      * Tenta carregar os dados necessários para utilizar código nativo.
      * <p>
@@ -55,7 +155,11 @@ public final class JNNnative {
         if (isOn()) return;
         
         try {
-            carregarDoJar();
+            if (!carregada) {
+                carregarDoJar();
+                carregada = true;
+            }
+
             jni = true;
 
         } catch (Exception e) {
@@ -85,18 +189,51 @@ public final class JNNnative {
     }
 
     /**
-     * Tenta carregar o arquivo dll.
+     * Retorna o identificador da plataforma atual, usado para localizar
+     * as bibliotecas nativas dentro do .jar.
+     * @return plataforma atual ({@code win64}, {@code linux-x86_64} ou 
+     * {@code linux-aarch64}).
+     * @throws UnsupportedOperationException caso a plataforma não tenha suporte.
+     */
+    static String plataforma() {
+        String os = System.getProperty("os.name", "").toLowerCase();
+        String arch = System.getProperty("os.arch", "").toLowerCase();
+
+        boolean x64 = arch.equals("amd64") || arch.equals("x86_64");
+        boolean arm64 = arch.equals("aarch64") || arch.equals("arm64");
+
+        if (os.startsWith("windows") && x64) return "win64";
+        if (os.startsWith("linux") && x64) return "linux-x86_64";
+        if (os.startsWith("linux") && arm64) return "linux-aarch64";
+
+        throw new UnsupportedOperationException(
+            "Plataforma " + os + " (" + arch + ") não suportada."
+        );
+    }
+
+    /**
+     * Tenta carregar as bibliotecas nativas da plataforma atual.
      * @throws IOException caso ocora algum erro.
      */
     private static void carregarDoJar() throws IOException {
+        String plataforma = plataforma();
+        boolean windows = plataforma.equals("win64");
+
+        String[] libs = windows ? DLLS : SOS;
+        String path = PATH_BASE + plataforma + "/";
+
         Path tmpDir = Files.createTempDirectory("jnn_native");
         tmpDir.toFile().deleteOnExit();
 
-        for (String nome : DLLS) {
-            try (InputStream is = JNNnative.class.getResourceAsStream(PATH_BASE + nome)) {
+        for (int i = 0; i < libs.length; i++) {
+            String nome = libs[i];
+            boolean principal = i == libs.length - 1;
+
+            try (InputStream is = JNNnative.class.getResourceAsStream(path + nome)) {
 
                 if (is == null) {
-                    throw new FileNotFoundException("DLL não encontrada: " + nome);
+                    if (!windows && !principal) continue;// usar a do sistema
+                    throw new FileNotFoundException("Biblioteca não encontrada: " + path + nome);
                 }
 
                 Path destino = tmpDir.resolve(nome);
@@ -123,11 +260,47 @@ public final class JNNnative {
     public static native void setBackend(int backend);
 
     /**
-     * Configura o tamanho usado para a arena de memória do código nativo.
+     * Retorna a variante de kernels ativa, escolhida no carregamento de
+     * acordo com os recursos da CPU.
+     * <p>
+     *      Variantes possíveis: {@code "avx512"}, {@code "avx2"}, {@code "sse4"},
+     *      {@code "neon"} e {@code "escalar"}.
+     * </p>
+     * @return nome da variante ativa.
+     */
+    public static native String variante();
+
+    /**
+     * Força uma variante de kernels, limitada ao que a CPU suporta.
+     * <p>
+     *      A variante também pode ser escolhida antes do carregamento pela
+     *      variável de ambiente {@code JNN_CPU}.
+     * </p>
+     * @param nome nome da variante desejada.
+     * @return nome da variante que ficou ativa.
+     */
+    public static native String setVariante(String nome);
+
+    /**
+     * Configura o tamanho inicial usado para as arenas de memória do código nativo.
+     * <p>
+     *      Cada thread que chama o código nativo possui sua própria arena,
+     *      criada no primeiro uso e que cresce conforme necessário, então
+     *      vários modelos podem ser executados em paralelo sem sincronização.
+     * </p>
      * @param size_bytes novo tamanho em bytes.
      */
     public static native void setTamArena(int size_bytes);
 
+    /**
+     * Libera a arena de memória nativa da thread atual.
+     * <p>
+     *      A arena é recriada no próximo uso. Arenas de threads encerradas
+     *      são liberadas automaticamente.
+     * </p>
+     */
+    public static native void liberarArena();
+
     /**
      * Realiza a multiplicação matricial entre A e B.
      * <p>
@@ -159,10 +332,14 @@ public final class JNNnative {
     /**
      * Realiza a progração direta através da camada Conv2D.
      * @param X entrada.
+     * @param offX offset da entrada.
      * @param K kernel.
+     * @param offK offset do kernel.
      * @param B bias (se houver).
+     * @param offB offset do bias.
      * @param hasBias verificador do bias.
      * @param Y saída.
+     * @param offY offset da saída.
      * @param lotes quantidade de lotes de entrada.
      * @param canais quantidade de canais de entrada.
      * @param filtros quantidade de kernels.
@@ -174,11 +351,11 @@ public final class JNNnative {
      * @param largPad largura do padding.
      */
     public static native void conv2dForward(
-        float[] X,
-        float[] K,
-        float[] B,
+        float[] X, int offX,
+        float[] K, int offK,
+        float[] B, int offB,
         boolean hasBias,
-        float[] Y,
+        float[] Y, int offY,
         int lotes, 
         int canais, 
         int filtros,
@@ -190,12 +367,18 @@ public final class JNNnative {
     /**
      * Realiza a progração reversa através da camada Conv2D.
      * @param X entrada.
+     * @param offX offset da entrada.
      * @param K kernel.
+     * @param offK offset do kernel.
      * @param GS gradiente de saída.
+     * @param offGS offset do gradiente de saída.
      * @param GK gradiente do kernel.
+     * @param offGK offset do gradiente do kernel.
      * @param GB gradiente do bias (se houver).
+     * @param offGB offset do gradiente do bias.
      * @param temBias verificador do bias.
      * @param GE gradiente de entrada.
+     * @param offGE offset do gradiente de entrada.
      * @param lotes quantidade de lotes de entrada.
      * @param canais quantidade de canais de entrada.
      * @param filtros quantidade de kernels.
@@ -207,13 +390,13 @@ public final class JNNnative {
      * @param largPad largura do padding.
      */
     public static native void conv2dBackward(
-        float[] X,
-        float[] K,
-        float[] GS,
-        float[] GK,
-        float[] GB,
+        float[] X, int offX,
+        float[] K, int offK,
+        float[] GS, int offGS,
+        float[] GK, int offGK,
+        float[] GB, int offGB,
         boolean temBias,
-        float[] GE,
+        float[] GE, int offGE,
         int lotes,
         int canais,
         int filtros,
@@ -226,7 +409,9 @@ public final class JNNnative {
      * Realiza a propagação direta através da camada de MaxPooling2D 
      * com lotes de dados de entrada.
      * @param X entrada.
+     * @param offX offset da entrada.
      * @param Y destino.
+     * @param offY offset do destino.
      * @param lotes quantidade de lotes de entrada.
      * @param canais quantidade de canais de entrada.
      * @param altX altura da entrada.
@@ -237,8 +422,8 @@ public final class JNNnative {
      * @param largStride largura do stride de pooling.
      */
     public static native void maxPool2dForward(
-        float[] X,
-        float[] Y,
+        float[] X, int offX,
+        float[] Y, int offY,
         int lotes,
         int canais,
         int altX,
@@ -253,8 +438,11 @@ public final class JNNnative {
      * Realiza a progração reversa pela camada MaxPool2D com
      * lotes de dados.
      * @param X entrada.
+     * @param offX offset da entrada.
      * @param G gradiente de saída da camada.
+     * @param offG offset do gradiente de saída.
      * @param GE gradiente de entrada da camada.
+     * @param offGE offset do gradiente de entrada.
      * @param lotes quantidade de lotes.
      * @param canais quantidade de canais de entrada.
      * @param altX altura da entrada.
@@ -267,9 +455,9 @@ public final class JNNnative {
      * @param largStride largura do stride de pooling.
      */
     public static native void maxPool2dBackward(
-        float[] X,
-        float[] G,
-        float[] GE,
+        float[] X, int offX,
+        float[] G, int offG,
+        float[] GE, int offGE,
         int lotes,
         int canais,
         int altX,
@@ -285,9 +473,13 @@ public final class JNNnative {
     /**
      * Realiza a progração direta pela camada BatchNorm2D.
      * @param x entrada da camada.
+     * @param offX offset da entrada.
      * @param y saída da camada.
+     * @param offY offset da saída.
      * @param gamma escala.
+     * @param offGamma offset da escala.
      * @param beta deslocamento.
+     * @param offBeta offset do deslocamento.
      * @param mediaMovel media móvel por canal.
      * @param varianciaMovel variancia móvel por canal.
      * @param media media por canal.
@@ -302,10 +494,10 @@ public final class JNNnative {
      * @param treinando controlador treino/teste.
      */
     public static native void batchNorm2DForward(
-        float[] x,
-        float[] y,
-        float[] gamma,
-        float[] beta,
+        float[] x, int offX,
+        float[] y, int offY,
+        float[] gamma, int offGamma,
+        float[] beta, int offBeta,
         float[] mediaMovel,
         float[] varianciaMovel,
         float[] media,
@@ -323,10 +515,15 @@ public final class JNNnative {
      * @param xNorm entrada normalizada.
      * @param var variancia por canal.
      * @param gamma escala.
+     * @param offGamma offset da escala.
      * @param ge gradiente de entrada.
+     * @param offGE offset do gradiente de entrada.
      * @param gs gradiente de saída.
+     * @param offGS offset do gradiente de saída.
      * @param gg gradiente do gamma.
+     * @param offGG offset do gradiente do gamma.
      * @param gb gradiente do beta.
+     * @param offGB offset do gradiente do beta.
      * @param lotes quantidade de lotes.
      * @param canais quantidade de canais de entrada.
      * @param altX altura da entrada.
@@ -336,11 +533,11 @@ public final class JNNnative {
     public static native void batchNorm2DBackward(
         float[] xNorm,
         float[] var,
-        float[] gamma,
-        float[] ge,
-        float[] gs,
-        float[] gg,
-        float[] gb,
+        float[] gamma, int offGamma,
+        float[] ge, int offGE,
+        float[] gs, int offGS,
+        float[] gg, int offGG,
+        float[] gb, int offGB,
         int lotes, int canais,
         int altX, int largX,
         float eps
@@ -384,4 +581,582 @@ public final class JNNnative {
      */
     public static native void sigmoidd(float[] sig, float[] g, float[] dst, int n);
 
+    /**
+     * Aplica uma função de ativação elemento a elemento.
+     * <p>
+     *      A operação pode ser feita no próprio array de entrada.
+     * </p>
+     * @param tipo identificador da ativação ({@code ATV_*}, exceto softmax).
+     * @param alpha parâmetro alpha (LeakyReLU, ELU e SELU).
+     * @param gamma parâmetro gamma (SELU).
+     * @param x dados de entrada.
+     * @param offX offset da entrada.
+     * @param dst dados de destino.
+     * @param offDst offset do destino.
+     * @param n quantidade de elementos.
+     */
+    public static native void ativacao(
+        int tipo, float alpha, float gamma,
+        float[] x, int offX,
+        float[] dst, int offDst,
+        int n
+    );
+
+    /**
+     * Aplica a derivada de uma função de ativação elemento a elemento.
+     * @param tipo identificador da ativação ({@code ATV_*}, exceto softmax).
+     * @param alpha parâmetro alpha (LeakyReLU, ELU e SELU).
+     * @param gamma parâmetro gamma (SELU).
+     * @param x entrada da ativação.
+     * @param offX offset da entrada.
+     * @param y saída da ativação.
+     * @param offY offset da saída.
+     * @param g gradiente em relação à saída.
+     * @param offG offset do gradiente.
+     * @param dst gradiente em relação à entrada.
+     * @param offDst offset do destino.
+     * @param n quantidade de elementos.
+     */
+    public static native void ativacaod(
+        int tipo, float alpha, float gamma,
+        float[] x, int offX,
+        float[] y, int offY,
+        float[] g, int offG,
+        float[] dst, int offDst,
+        int n
+    );
+
+    /**
+     * Aplica a função Softmax em cada linha dos dados.
+     * @param x dados de entrada.
+     * @param offX offset da entrada.
+     * @param dst dados de destino.
+     * @param offDst offset do destino.
+     * @param linhas quantidade de linhas (amostras).
+     * @param tam tamanho de cada linha.
+     */
+    public static native void softmax(
+        float[] x, int offX,
+        float[] dst, int offDst,
+        int linhas, int tam
+    );
+
+    /**
+     * Aplica a derivada da função Softmax em cada linha dos dados.
+     * @param y saída do softmax.
+     * @param offY offset da saída.
+     * @param g gradiente em relação à saída.
+     * @param offG offset do gradiente.
+     * @param dst gradiente em relação à entrada.
+     * @param offDst offset do destino.
+     * @param linhas quantidade de linhas (amostras).
+     * @param tam tamanho de cada linha.
+     */
+    public static native void softmaxd(
+        float[] y, int offY,
+        float[] g, int offG,
+        float[] dst, int offDst,
+        int linhas, int tam
+    );
+
+    /**
+     * Realiza a propagação direta através da camada Densa, com o bias e
+     * a ativação seguinte fundidos no mesmo kernel.
+     * @param X entrada.
+     * @param offX offset da entrada.
+     * @param W kernel.
+     * @param offW offset do kernel.
+     * @param B bias (se houver).
+     * @param offB offset do bias.
+     * @param temBias verificador do bias.
+     * @param Y saída.
+     * @param offY offset da saída.
+     * @param lotes quantidade de amostras.
+     * @param entradas tamanho de cada amostra de entrada.
+     * @param saidas quantidade de neurônios.
+     * @param ativacao identificador da ativação ({@code ATV_*}).
+     * @param alpha parâmetro alpha da ativação.
+     * @param gamma parâmetro gamma da ativação.
+     */
+    public static native void densaForward(
+        float[] X, int offX,
+        float[] W, int offW,
+        float[] B, int offB,
+        boolean temBias,
+        float[] Y, int offY,
+        int lotes,
+        int entradas,
+        int saidas,
+        int ativacao, float alpha, float gamma
+    );
+
+    /**
+     * Realiza a propagação reversa através da camada Densa.
+     * <p>
+     *      Os gradientes do kernel e do bias são acumulados.
+     * </p>
+     * @param X entrada.
+     * @param offX offset da entrada.
+     * @param W kernel.
+     * @param offW offset do kernel.
+     * @param GS gradiente de saída.
+     * @param offGS offset do gradiente de saída.
+     * @param GW gradiente do kernel.
+     * @param offGW offset do gradiente do kernel.
+     * @param GB gradiente do bias (se houver).
+     * @param offGB offset do gradiente do bias.
+     * @param temBias verificador do bias.
+     * @param GE gradiente de entrada.
+     * @param offGE offset do gradiente de entrada.
+     * @param lotes quantidade de amostras.
+     * @param entradas tamanho de cada amostra de entrada.
+     * @param saidas quantidade de neurônios.
+     */
+    public static native void densaBackward(
+        float[] X, int offX,
+        float[] W, int offW,
+        float[] GS, int offGS,
+        float[] GW, int offGW,
+        float[] GB, int offGB,
+        boolean temBias,
+        float[] GE, int offGE,
+        int lotes,
+        int entradas,
+        int saidas
+    );
+
+    /**
+     * Executa um passo fundido de atualização da família Adam (Adam, AMSGrad,
+     * Nadam e AdamW) sobre um intervalo contíguo de parâmetros.
+     * @param p array de parâmetros.
+     * @param offP offset dos parâmetros.
+     * @param g array de gradientes.
+     * @param offG offset dos gradientes.
+     * @param m momentos de primeira ordem.
+     * @param v momentos de segunda ordem.
+     * @param vmax máximos do segundo momento (AMSGrad), pode ser {@code null}.
+     * @param offM offset dos momentos.
+     * @param n quantidade de elementos.
+     * @param lr taxa de aprendizado.
+     * @param beta1 decaimento do momento de primeira ordem.
+     * @param beta2 decaimento do momento de segunda ordem.
+     * @param eps pequeno valor usado para evitar a divisão por zero.
+     * @param corr1 correção de viés do primeiro momento {@code (1 - β1^t)}.
+     * @param corr2 correção de viés do segundo momento {@code (1 - β2^t)}.
+     * @param decaimento decaimento de peso desacoplado.
+     * @param nesterov usar o momento de Nesterov (Nadam).
+     */
+    public static native void adam(
+        float[] p, int offP,
+        float[] g, int offG,
+        float[] m, float[] v, float[] vmax, int offM,
+        int n,
+        float lr, float beta1, float beta2, float eps,
+        float corr1, float corr2,
+        float decaimento,
+        boolean nesterov
+    );
+
+    /**
+     * Handles das chamadas diretas (FFM), inicializados apenas no primeiro uso.
+     */
+    private static final class FFM {
+
+        static final MethodHandle MATMUL = handle(
+            "jnn_ffi_matmul",
+            ADDRESS, JAVA_INT, JAVA_INT,
+            ADDRESS, JAVA_INT, JAVA_INT,
+            ADDRESS, JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT, JAVA_INT
+        );
+
+        static final MethodHandle CONV2D_FORWARD = handle(
+            "jnn_ffi_conv2d_forward",
+            ADDRESS, ADDRESS, ADDRESS, ADDRESS,
+            JAVA_INT,
+            JAVA_INT, JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT
+        );
+
+        static final MethodHandle CONV2D_BACKWARD = handle(
+            "jnn_ffi_conv2d_backward",
+            ADDRESS, ADDRESS, ADDRESS,
+            ADDRESS, ADDRESS, ADDRESS,
+            JAVA_INT,
+            JAVA_INT, JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT
+        );
+
+        static final MethodHandle MAXPOOL2D_FORWARD = handle(
+            "jnn_ffi_maxpool2d_forward",
+            ADDRESS, ADDRESS,
+            JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT
+        );
+
+        static final MethodHandle MAXPOOL2D_BACKWARD = handle(
+            "jnn_ffi_maxpool2d_backward",
+            ADDRESS, ADDRESS, ADDRESS,
+            JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT,
+            JAVA_INT, JAVA_INT
+        );
+
+        static final MethodHandle PLANO_FORWARD = handle(
+            "jnn_ffi_plano_forward",
+            ADDRESS, JAVA_INT, ADDRESS, JAVA_INT
+        );
+
+        static final MethodHandle PLANO_BACKWARD = handle(
+            "jnn_ffi_plano_backward",
+            ADDRESS, JAVA_INT, ADDRESS, JAVA_INT
+        );
+
+        /**
+         * Busca o símbolo na biblioteca nativa carregada e cria o handle.
+         * @param simbolo nome da função exportada.
+         * @param args layouts dos argumentos.
+         * @return handle da função.
+         */
+        private static MethodHandle handle(String simbolo, MemoryLayout... args) {
+            MemorySegment fn = SymbolLookup.loaderLookup().find(simbolo).orElseThrow(() -> 
+                new IllegalStateException("\nSímbolo nativo não encontrado: " + simbolo)
+            );
+
+            return Linker.nativeLinker().downcallHandle(fn, FunctionDescriptor.ofVoid(args));
+        }
+
+        private FFM() {}
+    }
+
+    /**
+     * Verifica se o segmento pode ser repassado para código nativo.
+     * @param seg segmento.
+     * @param nome nome do segmento, para mensagens de erro.
+     * @return segmento recebido.
+     */
+    private static MemorySegment nativo(MemorySegment seg, String nome) {
+        if (seg == null || !seg.isNative()) {
+            throw new IllegalArgumentException(
+                "\nSegmento " + nome + " deve estar fora do heap."
+            );
+        }
+
+        return seg;
+    }
+
+    /**
+     * Verifica se a interface nativa está ativa antes de uma chamada FFM.
+     */
+    private static void verificarOn() {
+        if (!isOn()) {
+            throw new IllegalStateException(
+                "\nInterface nativa desativada."
+            );
+        }
+    }
+
+    /**
+     * Repassa falhas de uma chamada FFM, mantendo exceções não verificadas.
+     * @param t causa.
+     * @return exceção a ser lançada.
+     */
+    private static RuntimeException falhaFFM(Throwable t) {
+        if (t instanceof RuntimeException re) return re;
+        if (t instanceof Error e) throw e;
+        return new RuntimeException(t);
+    }
+
+    /**
+     * Realiza a multiplicação matricial entre A e B usando dados fora do heap.
+     * <p>
+     *      Os segmentos já devem iniciar no primeiro elemento de cada matriz.
+     * </p>
+     * @param A segmento de A.
+     * @param s0A stride de linhas de A.
+     * @param s1A stride de colunas de A.
+     * @param B segmento de B.
+     * @param s0B stride de linhas de B.
+     * @param s1B stride de colunas de B.
+     * @param C segmento do destino.
+     * @param s0C stride de linhas do destino.
+     * @param s1C stride de colunas do destino.
+     * @param linA linhas de A.
+     * @param colA colunas de A.
+     * @param colB colunas de B.
+     */
+    public static void matmul(
+        MemorySegment A, int s0A, int s1A,
+        MemorySegment B, int s0B, int s1B,
+        MemorySegment C, int s0C, int s1C,
+        int linA, int colA, int colB) {
+
+        verificarOn();
+
+        try {
+            FFM.MATMUL.invokeExact(
+                nativo(A, "A"), s0A, s1A,
+                nativo(B, "B"), s0B, s1B,
+                nativo(C, "C"), s0C, s1C,
+                linA, colA, colB
+            );
+        } catch (Throwable t) {
+            throw falhaFFM(t);
+        }
+    }
+
+    /**
+     * Realiza a progração direta através da camada Conv2D usando dados 
+     * fora do heap.
+     * @param X entrada.
+     * @param K kernel.
+     * @param B bias (se houver).
+     * @param hasBias verificador do bias.
+     * @param Y saída.
+     * @param lotes quantidade de lotes de entrada.
+     * @param canais quantidade de canais de entrada.
+     * @param filtros quantidade de kernels.
+     * @param altX altura da entrada.
+     * @param largX largura da entrada.
+     * @param altK altura do kernel.
+     * @param largK largura do kernel.
+     * @param altPad altura do padding.
+     * @param largPad largura do padding.
+     */
+    public static void conv2dForward(
+        MemorySegment X,
+        MemorySegment K,
+        MemorySegment B,
+        boolean hasBias,
+        MemorySegment Y,
+        int lotes, 
+        int canais, 
+        int filtros,
+        int altX, int largX,
+        int altK, int largK,
+        int altPad, int largPad) {
+
+        verificarOn();
+
+        // como argumento de invokeExact o ternário seria tipado como Object
+        MemorySegment segB = hasBias ? nativo(B, "B") : MemorySegment.NULL;
+
+        try {
+            FFM.CONV2D_FORWARD.invokeExact(
+                nativo(X, "X"), nativo(K, "K"),
+                segB,
+                nativo(Y, "Y"),
+                hasBias ? 1 : 0,
+                lotes, canais, filtros,
+                altX, largX,
+                altK, largK,
+                altPad, largPad
+            );
+        } catch (Throwable t) {
+            throw falhaFFM(t);
+        }
+    }
+
+    /**
+     * Realiza a progração reversa através da camada Conv2D usando dados 
+     * fora do heap.
+     * @param X entrada.
+     * @param K kernel.
+     * @param GS gradiente de saída.
+     * @param GK gradiente do kernel.
+     * @param GB gradiente do bias (se houver).
+     * @param temBias verificador do bias.
+     * @param GE gradiente de entrada.
+     * @param lotes quantidade de lotes de entrada.
+     * @param canais quantidade de canais de entrada.
+     * @param filtros quantidade de kernels.
+     * @param altX altura da entrada.
+     * @param largX largura da entrada.
+     * @param altK altura do kernel.
+     * @param largK largura do kernel.
+     * @param altPad altura do padding.
+     * @param largPad largura do padding.
+     */
+    public static void conv2dBackward(
+        MemorySegment X,
+        MemorySegment K,
+        MemorySegment GS,
+        MemorySegment GK,
+        MemorySegment GB,
+        boolean temBias,
+        MemorySegment GE,
+        int lotes,
+        int canais,
+        int filtros,
+        int altX, int largX,
+        int altK, int largK,
+        int altPad, int largPad) {
+
+        verificarOn();
+
+        // como argumento de invokeExact o ternário seria tipado como Object
+        MemorySegment segGB = temBias ? nativo(GB, "GB") : MemorySegment.NULL;
+
+        try {
+            FFM.CONV2D_BACKWARD.invokeExact(
+                nativo(X, "X"), nativo(K, "K"), nativo(GS, "GS"),
+                nativo(GK, "GK"),
+                segGB,
+                nativo(GE, "GE"),
+                temBias ? 1 : 0,
+                lotes, canais, filtros,
+                altX, largX,
+                altK, largK,
+                altPad, largPad
+            );
+        } catch (Throwable t) {
+            throw falhaFFM(t);
+        }
+    }
+
+    /**
+     * Realiza a propagação direta através da camada de MaxPooling2D 
+     * usando dados fora do heap.
+     * @param X entrada.
+     * @param Y destino.
+     * @param lotes quantidade de lotes de entrada.
+     * @param canais quantidade de canais de entrada.
+     * @param altX altura da entrada.
+     * @param largX largura da entrada.
+     * @param altFiltro altura do filtro de pooling.
+     * @param largFiltro largura do filtro de pooling.
+     * @param altStride altura do stride de pooling.
+     * @param largStride largura do stride de pooling.
+     */
+    public static void maxPool2dForward(
+        MemorySegment X,
+        MemorySegment Y,
+        int lotes,
+        int canais,
+        int altX,
+        int largX,
+        int altFiltro,
+        int largFiltro,
+        int altStride,
+        int largStride) {
+
+        verificarOn();
+
+        try {
+            FFM.MAXPOOL2D_FORWARD.invokeExact(
+                nativo(X, "X"), nativo(Y, "Y"),
+                lotes, canais,
+                altX, largX,
+                altFiltro, largFiltro,
+                altStride, largStride
+            );
+        } catch (Throwable t) {
+            throw falhaFFM(t);
+        }
+    }
+
+    /**
+     * Realiza a progração reversa pela camada MaxPool2D usando dados 
+     * fora do heap.
+     * @param X entrada.
+     * @param G gradiente de saída da camada.
+     * @param GE gradiente de entrada da camada.
+     * @param lotes quantidade de lotes.
+     * @param canais quantidade de canais de entrada.
+     * @param altX altura da entrada.
+     * @param largX largura da entrada.
+     * @param altG altura do gradiente de saída.
+     * @param largG largura do gradiente de saída.
+     * @param altFiltro altura do filtro de pooling.
+     * @param largFiltro largura do filtro de pooling.
+     * @param altStride altura do stride de pooling.
+     * @param largStride largura do stride de pooling.
+     */
+    public static void maxPool2dBackward(
+        MemorySegment X,
+        MemorySegment G,
+        MemorySegment GE,
+        int lotes,
+        int canais,
+        int altX,
+        int largX,
+        int altG,
+        int largG,
+        int altFiltro,
+        int largFiltro,
+        int altStride,
+        int largStride) {
+
+        verificarOn();
+
+        try {
+            FFM.MAXPOOL2D_BACKWARD.invokeExact(
+                nativo(X, "X"), nativo(G, "G"), nativo(GE, "GE"),
+                lotes, canais,
+                altX, largX,
+                altG, largG,
+                altFiltro, largFiltro,
+                altStride, largStride
+            );
+        } catch (Throwable t) {
+            throw falhaFFM(t);
+        }
+    }
+
+    /**
+     * Executa a propagação direta de todo um plano de execução em uma
+     * única chamada nativa.
+     * @param plano segmento com as operações serializadas do plano.
+     * @param numOps quantidade de operações.
+     * @param ws workspace com pesos, saídas e gradientes das camadas.
+     * @param lote quantidade de amostras.
+     * @see jnn.modelos.PlanoNativo PlanoNativo
+     */
+    public static void planoForward(MemorySegment plano, int numOps, MemorySegment ws, int lote) {
+        verificarOn();
+
+        try {
+            FFM.PLANO_FORWARD.invokeExact(
+                nativo(plano, "plano"), numOps,
+                nativo(ws, "ws"), lote
+            );
+        } catch (Throwable t) {
+            throw falhaFFM(t);
+        }
+    }
+
+    /**
+     * Executa a propagação reversa de todo um plano de execução em uma
+     * única chamada nativa.
+     * <p>
+     *      O gradiente em relação à saída já deve estar no workspace e os
+     *      gradientes dos parâmetros são acumulados.
+     * </p>
+     * @param plano segmento com as operações serializadas do plano.
+     * @param numOps quantidade de operações.
+     * @param ws workspace com pesos, saídas e gradientes das camadas.
+     * @param lote quantidade de amostras.
+     * @see jnn.modelos.PlanoNativo PlanoNativo
+     */
+    public static void planoBackward(MemorySegment plano, int numOps, MemorySegment ws, int lote) {
+        verificarOn();
+
+        try {
+            FFM.PLANO_BACKWARD.invokeExact(
+                nativo(plano, "plano"), numOps,
+                nativo(ws, "ws"), lote
+            );
+        } catch (Throwable t) {
+            throw falhaFFM(t);
+        }
+    }
+
 }
@@ -85,6 +85,15 @@ public final class JNNutils {
 		return rng.nextDouble(min, max);
 	}
 
+	/**
+	 * Retorna um número aleatório uniformemente distribuído entre todos
+	 * os valores de {@code long}.
+	 * @return valor gerado.
+	 */
+	public static long randLong() {
+		return rng.nextLong();
+	}
+
 	/**
 	 * Retorna o último índice válido do array.
 	 * @param arr array base.
@@ -346,6 +355,29 @@ public final class JNNutils {
 		}
 	}
 
+	/**
+	 * Embaralha o array de índices usando o algoritmo Fisher-Yates.
+	 * <p>
+	 *		Segue a mesma sequência de sorteios da versão genérica, então
+	 *		embaralhar índices equivale a embaralhar os elementos que eles
+	 *		referenciam.
+	 * </p>
+	 * @param arr {@code array} base.
+	 * @param r gerador de números aleatórios base.
+	 */
+	public static void embaralhar(int[] arr, Random r) {
+		int n = arr.length;
+		Random rand = r == null ? rng : r;
+		
+		int temp, i, idRng;
+		for (i = n - 1; i > 0; i--) {
+			idRng = rand.nextInt(i+1);
+			temp = arr[i];
+			arr[i] = arr[idRng];
+			arr[idRng] = temp;
+		}
+	}
+
 	/**
 	 * Embaralha o array usando o algoritmo Fisher-Yates.
 	 * @param <T> tipo de dados de entrada e saida.
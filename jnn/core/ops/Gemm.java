@@ -56,6 +56,49 @@ public class Gemm {
 	 * @param dst {@code Tensor} de destino.
 	 */
 	public static void matmul(Tensor a, Tensor b, Tensor dst) {
+		gemm(a, false, b, false, dst);
+	}
+
+	/**
+	 * Realiza a operação {@code DST = A.T @ B} (multiplicação matricial
+	 * com A transposto).
+	 * <p>
+	 *		A transposição é feita apenas pela leitura dos strides, sem
+	 *		criação de novos tensores.
+	 * </p>
+	 * @param a {@code Tensor} A.
+	 * @param b {@code Tensor} B.
+	 * @param dst {@code Tensor} de destino.
+	 */
+	public static void matmulTA(Tensor a, Tensor b, Tensor dst) {
+		gemm(a, true, b, false, dst);
+	}
+
+	/**
+	 * Realiza a operação {@code DST = A @ B.T} (multiplicação matricial
+	 * com B transposto).
+	 * <p>
+	 *		A transposição é feita apenas pela leitura dos strides, sem
+	 *		criação de novos tensores.
+	 * </p>
+	 * @param a {@code Tensor} A.
+	 * @param b {@code Tensor} B.
+	 * @param dst {@code Tensor} de destino.
+	 */
+	public static void matmulTB(Tensor a, Tensor b, Tensor dst) {
+		gemm(a, false, b, true, dst);
+	}
+
+	/**
+	 * Implementação comum da multiplicação matricial, com transposição
+	 * opcional dos operandos.
+	 * @param a {@code Tensor} A.
+	 * @param transA transpor A.
+	 * @param b {@code Tensor} B.
+	 * @param transB transpor B.
+	 * @param dst {@code Tensor} de destino.
+	 */
+	private static void gemm(Tensor a, boolean transA, Tensor b, boolean transB, Tensor dst) {
 		if (a.numDim() > 2 || b.numDim() > 2 || dst.numDim() > 2) {
 			throw new IllegalArgumentException(
 				"\nOs tensores devem conter até duas dimensões, mas contêm " +
@@ -67,17 +110,22 @@ public class Gemm {
 		final int[] shapeB = b.shape();
 		final int[] shapeD = dst.shape();
 
-		final int linA = shapeA.length == 1 ? 1 : shapeA[0];
-		final int colA = shapeA.length == 1 ? shapeA[0] : shapeA[1];
-		final int linB = shapeB.length == 1 ? 1 : shapeB[0];
-		final int colB = shapeB.length == 1 ? shapeB[0] : shapeB[1];
+		final int linA0 = shapeA.length == 1 ? 1 : shapeA[0];
+		final int colA0 = shapeA.length == 1 ? shapeA[0] : shapeA[1];
+		final int linB0 = shapeB.length == 1 ? 1 : shapeB[0];
+		final int colB0 = shapeB.length == 1 ? shapeB[0] : shapeB[1];
+
+		final int linA = transA ? colA0 : linA0;
+		final int colA = transA ? linA0 : colA0;
+		final int linB = transB ? colB0 : linB0;
+		final int colB = transB ? linB0 : colB0;
 		final int linD = shapeD.length == 1 ? 1 : shapeD[0];
 		final int colD = shapeD.length == 1 ? shapeD[0] : shapeD[1];
 	
 		if (colA != linB) {
 			throw new IllegalArgumentException(
 				"As dimensões dos tensores não são compatíveis para multiplicação de matrizes: " +
-				"A = " + a.shapeStr() + " B = " + b.shapeStr()
+				"A = " + a.shapeStr() + (transA ? ".T" : "") + " B = " + b.shapeStr() + (transB ? ".T" : "")
 			);
 		}
 
@@ -92,13 +140,29 @@ public class Gemm {
 		final int[] stridesB = b.strides();
 		final int[] stridesD = dst.strides();
 
-		final int s0A = stridesA.length == 1 ? 1 : stridesA[0];
-		final int s1A = stridesA.length == 1 ? 1 : stridesA[1];
-		final int s0B = stridesB.length == 1 ? 1 : stridesB[0];
-		final int s1B = stridesB.length == 1 ? 1 : stridesB[1];
+		final int s0A0 = stridesA.length == 1 ? 1 : stridesA[0];
+		final int s1A0 = stridesA.length == 1 ? 1 : stridesA[1];
+		final int s0B0 = stridesB.length == 1 ? 1 : stridesB[0];
+		final int s1B0 = stridesB.length == 1 ? 1 : stridesB[1];
+
+		final int s0A = transA ? s1A0 : s0A0;
+		final int s1A = transA ? s0A0 : s1A0;
+		final int s0B = transB ? s1B0 : s0B0;
+		final int s1B = transB ? s0B0 : s1B0;
 		final int s0D = stridesD.length == 1 ? 1 : stridesD[0];
 		final int s1D = stridesD.length == 1 ? 1 : stridesD[1];
 
+		if (OpsNativo.todosNativos(a, b, dst)) {// dados fora do heap, sem cópias
+			OpsNativo.matmul(
+				a, s0A, s1A,
+				b, s0B, s1B,
+				dst, s0D, s1D,
+				linA, colA, colB
+			);
+
+			return;
+		}
+
 		final int offsetA = a.offset();
 		final int offsetB = b.offset();
 		final int offsetD = dst.offset();
@@ -118,16 +182,57 @@ public class Gemm {
 			return;
 		}
 
-		if (s1A == 1 && s1B == 1 && s1D == 1) {// tensores contiguos
+		gemm(
+			linA, colB, colA,
+			dataA, offsetA, s0A, s1A,
+			dataB, offsetB, s0B, s1B,
+			dataD, offsetD, s0D, s1D
+		);
+	}
+
+	/**
+	 * Realiza a operação {@code C += A @ B} em java diretamente sobre os arrays,
+	 * escolhendo a implementação mais adequada para o formato do problema.
+	 * @param m linhas de A e C.
+	 * @param n colunas de B e C.
+	 * @param k colunas de A e linhas de B.
+	 * @param A elementos de A.
+	 * @param offA offset de A.
+	 * @param s0A stride de linhas de A.
+	 * @param s1A stride de colunas de A.
+	 * @param B elementos de B.
+	 * @param offB offset de B.
+	 * @param s0B stride de linhas de B.
+	 * @param s1B stride de colunas de B.
+	 * @param C elementos de C.
+	 * @param offC offset de C.
+	 * @param s0C stride de linhas de C.
+	 * @param s1C stride de colunas de C.
+	 */
+	static void gemm(
+		int m, int n, int k,
+		float[] A, int offA, int s0A, int s1A,
+		float[] B, int offB, int s0B, int s1B,
+		float[] C, int offC, int s0C, int s1C) {
+
+		final boolean contiguo = s1A == 1 && s1B == 1 && s1C == 1;
+
+		if (GemmKernel.usar(m, n, k, contiguo)) {// painéis empacotados
+			GemmKernel.gemm(
+				m, n, k,
+				A, offA, s0A, s1A,
+				B, offB, s0B, s1B,
+				C, offC, s0C, s1C
+			);
+		} else if (contiguo) {// tensores contiguos
 			matmulFastPath(
-				dataA, dataB, dataD, offsetA, offsetB, offsetD, linA, colA, colB, s0A, s0B, s0D
+				A, B, C, offA, offB, offC, m, k, n, s0A, s0B, s0C
 			);
 		} else {
 			matmulGenerico(
-				dataA, dataB, dataD, offsetA, offsetB, offsetD, linA, colA, colB, s0A, s1A, s0B, s1B, s0D, s1D
+				A, B, C, offA, offB, offC, m, k, n, s0A, s1A, s0B, s1B, s0C, s1C
 			);
 		}
-
 	}
 
 	private static void matmulFastPath(
@@ -0,0 +1,395 @@
+package jnn.core.ops;
+
+import java.util.Arrays;
+
+import jnn.core.parallel.JNNparallel;
+import jnn.core.parallel.JNNparallel.Agendamento;
+
+/**
+ * Motor de multiplicação matricial com painéis empacotados.
+ * <p>
+ *      Calcula {@code C += A @ B} para matrizes com strides quaisquer. Os blocos
+ *      de A e B são copiados para buffers contíguos ({@code KC x NC} para B e
+ *      {@code MC x KC} para A) que cabem na cache, e o produto é feito por um
+ *      microkernel que mantém um bloco {@code MR x NR} de C em registradores.
+ * </p>
+ * <p>
+ *      Como o empacotamento lê os operandos pelos seus strides, variantes
+ *      transpostas não precisam de cópias adicionais, basta inverter os
+ *      strides de linha e coluna.
+ * </p>
+ * <p>
+ *      O microkernel usa a Vector API quando o módulo {@code jdk.incubator.vector}
+ *      está disponível ({@code --add-modules jdk.incubator.vector}), caso contrário
+ *      é usada uma versão escalar.
+ * </p>
+ */
+final class GemmKernel {
+
+    /**
+     * Indica se o microkernel vetorial está disponível.
+     */
+    static final boolean VETORIAL = vetorialDisponivel();
+
+    /**
+     * Linhas por bloco de registradores.
+     */
+    static final int MR = VETORIAL ? GemmKernelVetorial.MR : 4;
+
+    /**
+     * Colunas por bloco de registradores.
+     */
+    static final int NR = VETORIAL ? GemmKernelVetorial.NR : 8;
+
+    /**
+     * Profundidade dos painéis (dimensão compartilhada).
+     */
+    static final int KC = 256;
+
+    /**
+     * Linhas do bloco de A empacotado.
+     */
+    static final int MC = MR * 16;
+
+    /**
+     * Colunas do painel de B empacotado.
+     */
+    static final int NC = NR * 64;
+
+    /**
+     * Quantidade mínima de operações ({@code M * N * K}) para usar o
+     * empacotamento.
+     */
+    static final long MIN_EMPACOTAR = 16 * 16 * 16;
+
+    /**
+     * Quantidade mínima de operações ({@code M * N * K}) para dividir o
+     * trabalho entre threads.
+     */
+    static final long MIN_PARALELO = 64 * 64 * 64;
+
+    /**
+     * Buffer por thread para o bloco de A.
+     */
+    private static final ThreadLocal<float[]> BUF_A = ThreadLocal.withInitial(() -> new float[MC * KC]);
+
+    /**
+     * Buffer por thread para blocos parciais de C.
+     */
+    private static final ThreadLocal<float[]> BUF_TILE = ThreadLocal.withInitial(() -> new float[MR * NR]);
+
+    /**
+     * Buffer por thread para o painel de B.
+     */
+    private static final ThreadLocal<Painel> BUF_B = ThreadLocal.withInitial(Painel::new);
+
+    /**
+     * Painel de B reutilizável.
+     * <p>
+     *      O painel é por thread, então só é disputado quando uma
+     *      multiplicação é iniciada na mesma thread antes da anterior
+     *      terminar (GEMM aninhada, como em um corpo de laço paralelo que
+     *      executa na própria thread chamadora). Nesse caso o painel em uso
+     *      não pode ser sobrescrito, então um novo é alocado.
+     * </p>
+     */
+    private static final class Painel {
+        final float[] dados = new float[KC * NC];
+        boolean emUso = false;
+    }
+
+    /**
+     * Construtor privado.
+     */
+    private GemmKernel() {}
+
+    /**
+     * Verifica se a Vector API pode ser usada.
+     * @return {@code true} caso o microkernel vetorial esteja disponível.
+     */
+    private static boolean vetorialDisponivel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+
+        try {
+            return GemmKernelVetorial.VL >= 4;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * Verifica se o tamanho do problema compensa o custo de empacotamento.
+     * <p>
+     *      Sem a Vector API, operandos contíguos ainda são mais rápidos pelo
+     *      caminho direto do {@code Gemm}, então o empacotamento só é usado
+     *      quando algum operando possui strides.
+     * </p>
+     * @param m linhas de A.
+     * @param n colunas de B.
+     * @param k colunas de A.
+     * @param contiguo se todos os operandos possuem colunas contíguas.
+     * @return {@code true} caso o motor empacotado deva ser usado.
+     */
+    static boolean usar(int m, int n, int k, boolean contiguo) {
+        if (!VETORIAL && contiguo) return false;
+        return m > 1 && (long) m * n * k >= MIN_EMPACOTAR;
+    }
+
+    /**
+     * Calcula {@code C += A @ B}.
+     * @param m linhas de A e C.
+     * @param n colunas de B e C.
+     * @param k colunas de A e linhas de B.
+     * @param A elementos de A.
+     * @param offA offset de A.
+     * @param rsA stride de linhas de A.
+     * @param csA stride de colunas de A.
+     * @param B elementos de B.
+     * @param offB offset de B.
+     * @param rsB stride de linhas de B.
+     * @param csB stride de colunas de B.
+     * @param C elementos de C.
+     * @param offC offset de C.
+     * @param rsC stride de linhas de C.
+     * @param csC stride de colunas de C.
+     */
+    static void gemm(
+        int m, int n, int k,
+        float[] A, int offA, int rsA, int csA,
+        float[] B, int offB, int rsB, int csB,
+        float[] C, int offC, int rsC, int csC) {
+
+        if (m < 1 || n < 1 || k < 1) return;
+
+        final int threads = JNNparallel.computacao().threads();
+        final boolean paralelo = threads > 1 && (long) m * n * k >= MIN_PARALELO;
+
+        final Painel painel = BUF_B.get();
+        final boolean reusar = !painel.emUso;
+        final float[] pb = reusar ? painel.dados : new float[KC * NC];
+        if (reusar) painel.emUso = true;
+
+        try {
+            for (int jc = 0; jc < n; jc += NC) {
+                final int nc = Math.min(NC, n - jc);
+                final int slivers = (nc + NR - 1) / NR;
+
+                for (int pc = 0; pc < k; pc += KC) {
+                    final int kc = Math.min(KC, k - pc);
+                    final int baseA = offA + pc * csA;
+                    final int baseC = offC + jc * csC;
+
+                    empacotarB(kc, nc, B, offB + pc * rsB + jc * csB, rsB, csB, pb);
+
+                    if (!paralelo) {
+                        for (int ic = 0; ic < m; ic += MC) {
+                            macroKernel(
+                                ic, Math.min(MC, m - ic), 0, slivers, kc, nc,
+                                A, baseA, rsA, csA, pb, C, baseC, rsC, csC
+                            );
+                        }
+                        continue;
+                    }
+
+                    // divide M em blocos e N em faixas de slivers para ocupar as threads
+                    final int blocosM = (m + MC - 1) / MC;
+                    final int partesN = Math.max(1, Math.min(slivers, (2 * threads + blocosM - 1) / blocosM));
+
+                    JNNparallel.parallelFor(0, blocosM * partesN, 1, Agendamento.DINAMICO, (ini, fim) -> {
+                        for (int t = ini; t < fim; t++) {
+                            final int ic = (t / partesN) * MC;
+                            final int q = t % partesN;
+                            final int s0 = q * slivers / partesN;
+                            final int s1 = (q + 1) * slivers / partesN;
+                            if (s0 == s1) continue;
+
+                            macroKernel(
+                                ic, Math.min(MC, m - ic), s0, s1, kc, nc,
+                                A, baseA, rsA, csA, pb, C, baseC, rsC, csC
+                            );
+                        }
+                    });
+                }
+            }
+
+        } finally {
+            if (reusar) painel.emUso = false;
+        }
+    }
+
+    /**
+     * Empacota um bloco {@code kc x nc} de B em slivers de {@code NR} colunas,
+     * completando com zeros quando necessário.
+     * @param kc linhas do bloco.
+     * @param nc colunas do bloco.
+     * @param B elementos de B.
+     * @param off offset do início do bloco.
+     * @param rs stride de linhas.
+     * @param cs stride de colunas.
+     * @param pb destino.
+     */
+    private static void empacotarB(int kc, int nc, float[] B, int off, int rs, int cs, float[] pb) {
+        int id = 0;
+
+        for (int j0 = 0; j0 < nc; j0 += NR) {
+            final int nr = Math.min(NR, nc - j0);
+
+            for (int p = 0; p < kc; p++, id += NR) {
+                final int base = off + p * rs + j0 * cs;
+
+                if (cs == 1 && nr == NR) {
+                    System.arraycopy(B, base, pb, id, NR);
+                    continue;
+                }
+
+                int j = 0;
+                for (; j < nr; j++) pb[id + j] = B[base + j * cs];
+                for (; j < NR; j++) pb[id + j] = 0.0f;
+            }
+        }
+    }
+
+    /**
+     * Empacota um bloco {@code mc x kc} de A em slivers de {@code MR} linhas,
+     * completando com zeros quando necessário.
+     * @param mc linhas do bloco.
+     * @param kc colunas do bloco.
+     * @param A elementos de A.
+     * @param off offset do início do bloco.
+     * @param rs stride de linhas.
+     * @param cs stride de colunas.
+     * @param pa destino.
+     */
+    private static void empacotarA(int mc, int kc, float[] A, int off, int rs, int cs, float[] pa) {
+        int id = 0;
+
+        for (int i0 = 0; i0 < mc; i0 += MR) {
+            final int mr = Math.min(MR, mc - i0);
+            final int baseI = off + i0 * rs;
+
+            for (int p = 0; p < kc; p++, id += MR) {
+                final int base = baseI + p * cs;
+
+                int i = 0;
+                for (; i < mr; i++) pa[id + i] = A[base + i * rs];
+                for (; i < MR; i++) pa[id + i] = 0.0f;
+            }
+        }
+    }
+
+    /**
+     * Multiplica um bloco de A por uma faixa de slivers do painel de B.
+     * @param ic linha inicial do bloco de A.
+     * @param mc linhas do bloco de A.
+     * @param s0 sliver inicial de B.
+     * @param s1 sliver final de B (exclusivo).
+     * @param kc profundidade do bloco.
+     * @param nc colunas do painel de B.
+     * @param A elementos de A.
+     * @param baseA offset de A na coluna inicial do bloco.
+     * @param rsA stride de linhas de A.
+     * @param csA stride de colunas de A.
+     * @param pb painel empacotado de B.
+     * @param C elementos de C.
+     * @param baseC offset de C na coluna inicial do painel.
+     * @param rsC stride de linhas de C.
+     * @param csC stride de colunas de C.
+     */
+    private static void macroKernel(
+        int ic, int mc, int s0, int s1, int kc, int nc,
+        float[] A, int baseA, int rsA, int csA,
+        float[] pb,
+        float[] C, int baseC, int rsC, int csC) {
+
+        final float[] pa = BUF_A.get();
+        final float[] tile = BUF_TILE.get();
+
+        empacotarA(mc, kc, A, baseA + ic * rsA, rsA, csA, pa);
+
+        for (int s = s0; s < s1; s++) {
+            final int jr = s * NR;
+            final int nr = Math.min(NR, nc - jr);
+            final int offPb = s * NR * kc;
+
+            for (int ir = 0; ir < mc; ir += MR) {
+                final int mr = Math.min(MR, mc - ir);
+                final int offPa = ir * kc;
+                final int idC = baseC + (ic + ir) * rsC + jr * csC;
+
+                if (mr == MR && nr == NR && csC == 1) {
+                    kernel(kc, pa, offPa, pb, offPb, C, idC, rsC);
+                    continue;
+                }
+
+                // bordas ou destino com colunas não contíguas
+                Arrays.fill(tile, 0.0f);
+                kernel(kc, pa, offPa, pb, offPb, tile, 0, NR);
+
+                for (int i = 0; i < mr; i++) {
+                    final int linC = idC + i * rsC;
+                    final int linT = i * NR;
+                    for (int j = 0; j < nr; j++) {
+                        C[linC + j * csC] += tile[linT + j];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Calcula {@code C[MR, NR] += A[MR, kc] @ B[kc, NR]} usando painéis
+     * empacotados.
+     * @param kc profundidade do bloco.
+     * @param pa painel empacotado de A.
+     * @param offA offset do painel de A.
+     * @param pb painel empacotado de B.
+     * @param offB offset do painel de B.
+     * @param c destino.
+     * @param offC offset do destino.
+     * @param ldc stride de linhas do destino.
+     */
+    private static void kernel(int kc, float[] pa, int offA, float[] pb, int offB, float[] c, int offC, int ldc) {
+        if (VETORIAL) {
+            GemmKernelVetorial.kernel(kc, pa, offA, pb, offB, c, offC, ldc);
+        } else {
+            kernelEscalar(kc, pa, offA, pb, offB, c, offC, ldc);
+        }
+    }
+
+    /**
+     * Versão escalar do microkernel ({@code 4 x 8}).
+     * @param kc profundidade do bloco.
+     * @param pa painel empacotado de A.
+     * @param offA offset do painel de A.
+     * @param pb painel empacotado de B.
+     * @param offB offset do painel de B.
+     * @param c destino.
+     * @param offC offset do destino.
+     * @param ldc stride de linhas do destino.
+     */
+    private static void kernelEscalar(int kc, float[] pa, int offA, float[] pb, int offB, float[] c, int offC, int ldc) {
+        final int c0 = offC;
+        final int c1 = c0 + ldc;
+        final int c2 = c1 + ldc;
+        final int c3 = c2 + ldc;
+
+        int ia = offA, ib = offB;
+        for (int p = 0; p < kc; p++, ia += MR, ib += NR) {
+            final float a0 = pa[ia];
+            final float a1 = pa[ia + 1];
+            final float a2 = pa[ia + 2];
+            final float a3 = pa[ia + 3];
+
+            for (int j = 0; j < NR; j++) {
+                final float b = pb[ib + j];
+                c[c0 + j] += a0 * b;
+                c[c1 + j] += a1 * b;
+                c[c2 + j] += a2 * b;
+                c[c3 + j] += a3 * b;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package jnn.core.ops;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Microkernel de multiplicação matricial usando a Vector API.
+ * <p>
+ *      Essa classe só é carregada quando o módulo {@code jdk.incubator.vector}
+ *      está disponível na JVM, caso contrário o {@code GemmKernel} usa sua
+ *      versão escalar.
+ * </p>
+ */
+final class GemmKernelVetorial {
+
+    /**
+     * Espécie de vetor preferida pela plataforma.
+     */
+    static final VectorSpecies<Float> SP = FloatVector.SPECIES_PREFERRED;
+
+    /**
+     * Quantidade de elementos por vetor.
+     */
+    static final int VL = SP.length();
+
+    /**
+     * Linhas por bloco de registradores.
+     */
+    static final int MR = 6;
+
+    /**
+     * Colunas por bloco de registradores (dois vetores).
+     */
+    static final int NR = 2 * VL;
+
+    /**
+     * Construtor privado.
+     */
+    private GemmKernelVetorial() {}
+
+    /**
+     * Calcula {@code C[MR, NR] += A[MR, kc] @ B[kc, NR]} usando painéis
+     * empacotados.
+     * <p>
+     *      O bloco de {@code C} mantém 12 acumuladores em registradores
+     *      durante toda a dimensão {@code kc}.
+     * </p>
+     * @param kc profundidade do bloco.
+     * @param pa painel empacotado de A ({@code MR} elementos por passo).
+     * @param offA offset do painel de A.
+     * @param pb painel empacotado de B ({@code NR} elementos por passo).
+     * @param offB offset do painel de B.
+     * @param c destino.
+     * @param offC offset do destino.
+     * @param ldc stride de linhas do destino.
+     */
+    static void kernel(int kc, float[] pa, int offA, float[] pb, int offB, float[] c, int offC, int ldc) {
+        final int c0 = offC;
+        final int c1 = c0 + ldc;
+        final int c2 = c1 + ldc;
+        final int c3 = c2 + ldc;
+        final int c4 = c3 + ldc;
+        final int c5 = c4 + ldc;
+
+        FloatVector c00 = FloatVector.fromArray(SP, c, c0), c01 = FloatVector.fromArray(SP, c, c0 + VL);
+        FloatVector c10 = FloatVector.fromArray(SP, c, c1), c11 = FloatVector.fromArray(SP, c, c1 + VL);
+        FloatVector c20 = FloatVector.fromArray(SP, c, c2), c21 = FloatVector.fromArray(SP, c, c2 + VL);
+        FloatVector c30 = FloatVector.fromArray(SP, c, c3), c31 = FloatVector.fromArray(SP, c, c3 + VL);
+        FloatVector c40 = FloatVector.fromArray(SP, c, c4), c41 = FloatVector.fromArray(SP, c, c4 + VL);
+        FloatVector c50 = FloatVector.fromArray(SP, c, c5), c51 = FloatVector.fromArray(SP, c, c5 + VL);
+
+        int ia = offA, ib = offB;
+        for (int p = 0; p < kc; p++, ia += MR, ib += NR) {
+            FloatVector b0 = FloatVector.fromArray(SP, pb, ib);
+            FloatVector b1 = FloatVector.fromArray(SP, pb, ib + VL);
+            FloatVector a;
+
+            a = FloatVector.broadcast(SP, pa[ia]);
+            c00 = a.fma(b0, c00); c01 = a.fma(b1, c01);
+            a = FloatVector.broadcast(SP, pa[ia + 1]);
+            c10 = a.fma(b0, c10); c11 = a.fma(b1, c11);
+            a = FloatVector.broadcast(SP, pa[ia + 2]);
+            c20 = a.fma(b0, c20); c21 = a.fma(b1, c21);
+            a = FloatVector.broadcast(SP, pa[ia + 3]);
+            c30 = a.fma(b0, c30); c31 = a.fma(b1, c31);
+            a = FloatVector.broadcast(SP, pa[ia + 4]);
+            c40 = a.fma(b0, c40); c41 = a.fma(b1, c41);
+            a = FloatVector.broadcast(SP, pa[ia + 5]);
+            c50 = a.fma(b0, c50); c51 = a.fma(b1, c51);
+        }
+
+        c00.intoArray(c, c0); c01.intoArray(c, c0 + VL);
+        c10.intoArray(c, c1); c11.intoArray(c, c1 + VL);
+        c20.intoArray(c, c2); c21.intoArray(c, c2 + VL);
+        c30.intoArray(c, c3); c31.intoArray(c, c3 + VL);
+        c40.intoArray(c, c4); c41.intoArray(c, c4 + VL);
+        c50.intoArray(c, c5); c51.intoArray(c, c5 + VL);
+    }
+
+}
@@ -36,6 +36,26 @@ public class Ops {
 		Gemm.matmul(a, b, dst);
 	}
 
+	/**
+	 * Realiza a operação {@code  A.T * B}
+	 * @param a {@code Tensor} A.
+	 * @param b {@code Tensor} B.
+	 * @param dst {@code Tensor} de destino.
+	 */
+	public void matmulTA(Tensor a, Tensor b, Tensor dst) {
+		Gemm.matmulTA(a, b, dst);
+	}
+
+	/**
+	 * Realiza a operação {@code  A * B.T}
+	 * @param a {@code Tensor} A.
+	 * @param b {@code Tensor} B.
+	 * @param dst {@code Tensor} de destino.
+	 */
+	public void matmulTB(Tensor a, Tensor b, Tensor dst) {
+		Gemm.matmulTB(a, b, dst);
+	}
+
 	/**
 	 * Realiza a operação de correlação cruzada entre o tensor de entrada e o kernel.
 	 * @param x {@code Tensor} de entrada.
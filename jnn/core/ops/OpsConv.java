@@ -1,5 +1,7 @@
 package jnn.core.ops;
 
+import java.util.Arrays;
+
 import jnn.core.tensor.Tensor;
 
 /**
@@ -7,6 +9,26 @@ import jnn.core.tensor.Tensor;
  */
 public class OpsConv {
 
+	/**
+	 * Tamanho mínimo de {@code canais * altK * largK} para usar im2col.
+	 */
+	static final int MIN_IM2COL_KDIM = 4;
+
+	/**
+	 * Quantidade mínima de filtros para usar im2col.
+	 */
+	static final int MIN_IM2COL_FILTROS = 4;
+
+	/**
+	 * Tamanho máximo (em elementos) do buffer de colunas.
+	 */
+	static final long MAX_IM2COL_ELEMENTOS = 1L << 26;
+
+	/**
+	 * Buffer de colunas por thread, reaproveitado entre chamadas.
+	 */
+	private static final ThreadLocal<float[]> BUF_COL = ThreadLocal.withInitial(() -> new float[0]);
+
 	/**
 	 * Construtor privado.
 	 */
@@ -399,5 +421,304 @@ public class OpsConv {
 		}
 	}
 
+	/**
+	 * Retorna o buffer de colunas da thread atual, expandindo caso necessário.
+	 * @param tam tamanho mínimo desejado.
+	 * @return buffer de colunas.
+	 */
+	private static float[] bufferColunas(int tam) {
+		float[] buf = BUF_COL.get();
+
+		if (buf.length < tam) {
+			buf = new float[tam];
+			BUF_COL.set(buf);
+		}
+
+		return buf;
+	}
+
+	/**
+	 * Verifica se a convolução deve ser feita via im2col + GEMM ou de
+	 * forma direta.
+	 * <p>
+	 *		Kernels rasos (poucos canais e filtros pequenos) ou poucos filtros
+	 *		não compensam a cópia para o buffer de colunas, assim como buffers
+	 *		muito grandes.
+	 * </p>
+	 * @param canais quantidade de canais de entrada.
+	 * @param filtros quantidade de filtros.
+	 * @param altK altura do kernel.
+	 * @param largK largura do kernel.
+	 * @param altS altura da saída.
+	 * @param largS largura da saída.
+	 * @return {@code true} caso im2col deva ser usado.
+	 */
+	public static boolean usarIm2col(int canais, int filtros, int altK, int largK, int altS, int largS) {
+		final long kdim = (long) canais * altK * largK;
+		final long ndim = (long) altS * largS;
+
+		if (kdim * ndim > MAX_IM2COL_ELEMENTOS) return false;
+
+		return kdim >= MIN_IM2COL_KDIM && filtros >= MIN_IM2COL_FILTROS;
+	}
+
+	/**
+	 * Desdobra uma entrada {@code (canais, altX, largX)} em uma matriz de 
+	 * colunas {@code (canais * altK * largK, altS * largS)}, onde cada coluna
+	 * contém os elementos visitados pelo kernel em uma posição da saída.
+	 * @param X dados de entrada.
+	 * @param offX offset da entrada.
+	 * @param col destino.
+	 * @param canais quantidade de canais de entrada.
+	 * @param altX altura da entrada.
+	 * @param largX largura da entrada.
+	 * @param altK altura do kernel.
+	 * @param largK largura do kernel.
+	 * @param altPad altura do padding.
+	 * @param largPad largura do padding.
+	 * @param altS altura da saída.
+	 * @param largS largura da saída.
+	 */
+	public static void im2col(
+		float[] X, int offX, float[] col,
+		int canais,
+		int altX, int largX,
+		int altK, int largK,
+		int altPad, int largPad,
+		int altS, int largS) {
+
+		final int ndim = altS * largS;
+		final int areaX = altX * largX;
+		final boolean temPad = altPad > 0 || largPad > 0;
+
+		for (int c = 0; c < canais; c++) {
+			final int offXc = offX + c * areaX;
+
+			for (int kh = 0; kh < altK; kh++) {
+				final int iMin = Math.max(0, altPad - kh);
+				final int iMax = Math.min(altS, altX + altPad - kh);
+
+				for (int kw = 0; kw < largK; kw++) {
+					final int base = ((c * altK + kh) * largK + kw) * ndim;
+					final int jMin = Math.max(0, largPad - kw);
+					final int jMax = Math.min(largS, largX + largPad - kw);
+					final int largura = jMax - jMin;
+
+					if (temPad) Arrays.fill(col, base, base + ndim, 0.0f);
+					if (largura <= 0) continue;
+
+					for (int i = iMin; i < iMax; i++) {
+						final int inY = i + kh - altPad;
+						System.arraycopy(
+							X, offXc + inY * largX + (jMin + kw - largPad),
+							col, base + i * largS + jMin,
+							largura
+						);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Operação inversa do {@code im2col}, acumulando cada elemento da matriz
+	 * de colunas {@code (canais * altK * largK, altS * largS)} na posição
+	 * correspondente do destino {@code (canais, altX, largX)}.
+	 * @param col matriz de colunas.
+	 * @param GE destino.
+	 * @param offGE offset do destino.
+	 * @param canais quantidade de canais de entrada.
+	 * @param altX altura da entrada.
+	 * @param largX largura da entrada.
+	 * @param altK altura do kernel.
+	 * @param largK largura do kernel.
+	 * @param altPad altura do padding.
+	 * @param largPad largura do padding.
+	 * @param altS altura da saída.
+	 * @param largS largura da saída.
+	 */
+	public static void col2im(
+		float[] col, float[] GE, int offGE,
+		int canais,
+		int altX, int largX,
+		int altK, int largK,
+		int altPad, int largPad,
+		int altS, int largS) {
+
+		final int ndim = altS * largS;
+		final int areaX = altX * largX;
+
+		for (int c = 0; c < canais; c++) {
+			final int offGEc = offGE + c * areaX;
+
+			for (int kh = 0; kh < altK; kh++) {
+				final int iMin = Math.max(0, altPad - kh);
+				final int iMax = Math.min(altS, altX + altPad - kh);
+
+				for (int kw = 0; kw < largK; kw++) {
+					final int base = ((c * altK + kh) * largK + kw) * ndim;
+					final int jMin = Math.max(0, largPad - kw);
+					final int jMax = Math.min(largS, largX + largPad - kw);
+
+					for (int i = iMin; i < iMax; i++) {
+						final int linGE = offGEc + (i + kh - altPad) * largX + (kw - largPad);
+						final int linCol = base + i * largS;
+
+						for (int j = jMin; j < jMax; j++) {
+							GE[linGE + j] += col[linCol + j];
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Propagação direta da camada Conv2D via im2col + GEMM.
+	 * <p>
+	 *		Para cada lote, {@code Y[F, altS * largS] = K[F, Kdim] @ col[Kdim, altS * largS] + B}.
+	 * </p>
+	 * @param X entrada {@code (lotes, canais, altX, largX)}.
+	 * @param offX offset da entrada.
+	 * @param K kernel {@code (filtros, canais, altK, largK)}.
+	 * @param offK offset do kernel.
+	 * @param B bias {@code (filtros)}, podendo ser nulo.
+	 * @param offB offset do bias.
+	 * @param Y saída {@code (lotes, filtros, altS, largS)}.
+	 * @param offY offset da saída.
+	 * @param lotes quantidade de lotes de entrada.
+	 * @param canais quantidade de canais de entrada.
+	 * @param filtros quantidade de kernels.
+	 * @param altX altura da entrada.
+	 * @param largX largura da entrada.
+	 * @param altK altura do kernel.
+	 * @param largK largura do kernel.
+	 * @param altPad altura do padding.
+	 * @param largPad largura do padding.
+	 */
+	public static void conv2DForwardIm2col(
+		float[] X, int offX, float[] K, int offK, float[] B, int offB, float[] Y, int offY,
+		int lotes, int canais, int filtros,
+		int altX, int largX,
+		int altK, int largK,
+		int altPad, int largPad) {
+
+		final int altS  = altX - altK + 1 + 2 * altPad;
+		final int largS = largX - largK + 1 + 2 * largPad;
+		final int kdim = canais * altK * largK;
+		final int ndim = altS * largS;
+
+		final float[] col = bufferColunas(kdim * ndim);
+
+		for (int l = 0; l < lotes; l++) {
+			final int offYl = offY + l * filtros * ndim;
+
+			for (int f = 0; f < filtros; f++) {
+				final int offYf = offYl + f * ndim;
+				Arrays.fill(Y, offYf, offYf + ndim, B == null ? 0.0f : B[offB + f]);
+			}
+
+			im2col(
+				X, offX + l * canais * altX * largX, col,
+				canais, altX, largX, altK, largK, altPad, largPad, altS, largS
+			);
+
+			Gemm.gemm(
+				filtros, ndim, kdim,
+				K, offK, kdim, 1,
+				col, 0, ndim, 1,
+				Y, offYl, ndim, 1
+			);
+		}
+	}
+
+	/**
+	 * Propagação reversa da camada Conv2D via im2col + GEMM.
+	 * <p>
+	 *		Para cada lote, {@code GK += GS @ col.T} e 
+	 *		{@code GE += col2im(K.T @ GS)}.
+	 * </p>
+	 * @param X entrada {@code (lotes, canais, altX, largX)}.
+	 * @param offX offset da entrada.
+	 * @param K kernel {@code (filtros, canais, altK, largK)}.
+	 * @param offK offset do kernel.
+	 * @param GS gradiente de saída {@code (lotes, filtros, altS, largS)}.
+	 * @param offGS offset do gradiente de saída.
+	 * @param GK gradiente do kernel.
+	 * @param offGK offset do gradiente do kernel.
+	 * @param GB gradiente do bias, podendo ser nulo.
+	 * @param offGB offset do gradiente do bias.
+	 * @param GE gradiente de entrada.
+	 * @param offGE offset do gradiente de entrada.
+	 * @param lotes quantidade de lotes de entrada.
+	 * @param canais quantidade de canais de entrada.
+	 * @param filtros quantidade de kernels.
+	 * @param altX altura da entrada.
+	 * @param largX largura da entrada.
+	 * @param altK altura do kernel.
+	 * @param largK largura do kernel.
+	 * @param altPad altura do padding.
+	 * @param largPad largura do padding.
+	 */
+	public static void conv2DBackwardIm2col(
+		float[] X, int offX, float[] K, int offK, float[] GS, int offGS,
+		float[] GK, int offGK, float[] GB, int offGB, float[] GE, int offGE,
+		int lotes, int canais, int filtros,
+		int altX, int largX,
+		int altK, int largK,
+		int altPad, int largPad) {
+
+		final int altS  = altX - altK + 1 + 2 * altPad;
+		final int largS = largX - largK + 1 + 2 * largPad;
+		final int kdim = canais * altK * largK;
+		final int ndim = altS * largS;
+		final int areaX = altX * largX;
+
+		final float[] col = bufferColunas(kdim * ndim);
+
+		for (int l = 0; l < lotes; l++) {
+			final int offGSl = offGS + l * filtros * ndim;
+			final int offXl = offX + l * canais * areaX;
+
+			if (GB != null) {
+				for (int f = 0; f < filtros; f++) {
+					final int offGSf = offGSl + f * ndim;
+					float soma = 0.0f;
+					for (int i = 0; i < ndim; i++) {
+						soma += GS[offGSf + i];
+					}
+					GB[offGB + f] += soma;
+				}
+			}
+
+			// GK[F, Kdim] += GS[F, N] @ col[Kdim, N].T
+			im2col(
+				X, offXl, col,
+				canais, altX, largX, altK, largK, altPad, largPad, altS, largS
+			);
+
+			Gemm.gemm(
+				filtros, kdim, ndim,
+				GS, offGSl, ndim, 1,
+				col, 0, 1, ndim,
+				GK, offGK, kdim, 1
+			);
+
+			// col[Kdim, N] = K[F, Kdim].T @ GS[F, N]
+			Arrays.fill(col, 0, kdim * ndim, 0.0f);
+
+			Gemm.gemm(
+				kdim, ndim, filtros,
+				K, offK, 1, kdim,
+				GS, offGSl, ndim, 1,
+				col, 0, ndim, 1
+			);
+
+			col2im(
+				col, GE, offGE + l * canais * areaX,
+				canais, altX, largX, altK, largK, altPad, largPad, altS, largS
+			);
+		}
+	}
 
 }
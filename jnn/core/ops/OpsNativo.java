@@ -0,0 +1,251 @@
+package jnn.core.ops;
+
+import java.lang.foreign.MemorySegment;
+
+import jnn.core.JNNnative;
+import jnn.core.tensor.Tensor;
+
+/**
+ * Implementações internas que repassam tensores fora do heap diretamente
+ * para o backend nativo via Foreign Function &amp; Memory API.
+ * <p>
+ *      Todos os operandos devem estar fora do heap, e são repassados pelo
+ *      endereço, sem cópias e sem pin de arrays. Não existe caminho misto:
+ *      tensores no heap usam as chamadas JNI de {@link JNNnative}.
+ * </p>
+ * <p>
+ *      As camadas mantêm pesos, saídas e gradientes no heap, então não
+ *      usam esse caminho. Para executar um modelo inteiro sobre memória
+ *      nativa, use {@link jnn.modelos.PlanoNativo}.
+ * </p>
+ */
+public final class OpsNativo {
+
+    /**
+     * Construtor privado.
+     */
+    private OpsNativo() {}
+
+    /**
+     * Verifica se todos os tensores possuem dados fora do heap.
+     * @param ts tensores, tensores nulos são ignorados.
+     * @return {@code true} caso todos os tensores estejam fora do heap,
+     * {@code false} caso contrário.
+     */
+    public static boolean todosNativos(Tensor... ts) {
+        for (Tensor t : ts) {
+            if (t != null && !t.isNativo()) return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Verifica se a operação pode ser executada sobre os tensores.
+     * @param ts tensores, tensores nulos são ignorados.
+     */
+    private static void verificar(Tensor... ts) {
+        verificarOn();
+
+        if (!todosNativos(ts)) {
+            throw new IllegalArgumentException(
+                "\nTodos os operandos devem estar fora do heap."
+            );
+        }
+    }
+
+    /**
+     * Verifica se a interface nativa está ativa.
+     */
+    private static void verificarOn() {
+        if (!JNNnative.isOn()) {
+            throw new IllegalStateException(
+                "\nTensores fora do heap exigem a interface nativa ativa, use JNNnative.on()."
+            );
+        }
+    }
+
+    /**
+     * Realiza a operação {@code DST += A @ B}.
+     * <p>
+     *      Essa função já assume que os tensores são compatíveis.
+     * </p>
+     * @param a {@code Tensor} A.
+     * @param s0A stride de linhas de A.
+     * @param s1A stride de colunas de A.
+     * @param b {@code Tensor} B.
+     * @param s0B stride de linhas de B.
+     * @param s1B stride de colunas de B.
+     * @param dst {@code Tensor} de destino.
+     * @param s0D stride de linhas do destino.
+     * @param s1D stride de colunas do destino.
+     * @param linA linhas de A.
+     * @param colA colunas de A.
+     * @param colB colunas de B.
+     */
+    public static void matmul(
+        Tensor a, int s0A, int s1A,
+        Tensor b, int s0B, int s1B,
+        Tensor dst, int s0D, int s1D,
+        int linA, int colA, int colB) {
+
+        verificar(a, b, dst);
+
+        JNNnative.matmul(
+            a.segmento(), s0A, s1A,
+            b.segmento(), s0B, s1B,
+            dst.segmento(), s0D, s1D,
+            linA, colA, colB
+        );
+    }
+
+    /**
+     * Realiza a progração direta através da camada Conv2D.
+     * @param x entrada.
+     * @param k kernel.
+     * @param b bias (podendo ser nulo).
+     * @param y saída.
+     * @param lotes quantidade de lotes de entrada.
+     * @param canais quantidade de canais de entrada.
+     * @param filtros quantidade de kernels.
+     * @param altX altura da entrada.
+     * @param largX largura da entrada.
+     * @param altK altura do kernel.
+     * @param largK largura do kernel.
+     * @param altPad altura do padding.
+     * @param largPad largura do padding.
+     */
+    public static void conv2dForward(
+        Tensor x, Tensor k, Tensor b, Tensor y,
+        int lotes, int canais, int filtros,
+        int altX, int largX,
+        int altK, int largK,
+        int altPad, int largPad) {
+
+        verificar(x, k, b, y);
+
+        final boolean temBias = b != null;
+        MemorySegment segB = temBias ? b.segmento() : null;
+
+        JNNnative.conv2dForward(
+            x.segmento(), k.segmento(),
+            segB, temBias,
+            y.segmento(),
+            lotes, canais, filtros,
+            altX, largX,
+            altK, largK,
+            altPad, largPad
+        );
+    }
+
+    /**
+     * Realiza a progração reversa através da camada Conv2D.
+     * @param x entrada.
+     * @param k kernel.
+     * @param gs gradiente de saída.
+     * @param gk gradiente do kernel.
+     * @param gb gradiente do bias (podendo ser nulo).
+     * @param ge gradiente de entrada.
+     * @param lotes quantidade de lotes de entrada.
+     * @param canais quantidade de canais de entrada.
+     * @param filtros quantidade de kernels.
+     * @param altX altura da entrada.
+     * @param largX largura da entrada.
+     * @param altK altura do kernel.
+     * @param largK largura do kernel.
+     * @param altPad altura do padding.
+     * @param largPad largura do padding.
+     */
+    public static void conv2dBackward(
+        Tensor x, Tensor k, Tensor gs,
+        Tensor gk, Tensor gb, Tensor ge,
+        int lotes, int canais, int filtros,
+        int altX, int largX,
+        int altK, int largK,
+        int altPad, int largPad) {
+
+        verificar(x, k, gs, gk, gb, ge);
+
+        final boolean temBias = gb != null;
+        MemorySegment segGB = temBias ? gb.segmento() : null;
+
+        JNNnative.conv2dBackward(
+            x.segmento(), k.segmento(), gs.segmento(),
+            gk.segmento(),
+            segGB, temBias,
+            ge.segmento(),
+            lotes, canais, filtros,
+            altX, largX,
+            altK, largK,
+            altPad, largPad
+        );
+    }
+
+    /**
+     * Realiza a propagação direta através da camada de MaxPooling2D.
+     * @param x entrada.
+     * @param y destino.
+     * @param lotes quantidade de lotes de entrada.
+     * @param canais quantidade de canais de entrada.
+     * @param altX altura da entrada.
+     * @param largX largura da entrada.
+     * @param altFiltro altura do filtro de pooling.
+     * @param largFiltro largura do filtro de pooling.
+     * @param altStride altura do stride de pooling.
+     * @param largStride largura do stride de pooling.
+     */
+    public static void maxPool2dForward(
+        Tensor x, Tensor y,
+        int lotes, int canais,
+        int altX, int largX,
+        int altFiltro, int largFiltro,
+        int altStride, int largStride) {
+
+        verificar(x, y);
+
+        JNNnative.maxPool2dForward(
+            x.segmento(), y.segmento(),
+            lotes, canais,
+            altX, largX,
+            altFiltro, largFiltro,
+            altStride, largStride
+        );
+    }
+
+    /**
+     * Realiza a progração reversa pela camada MaxPool2D.
+     * @param x entrada.
+     * @param g gradiente de saída da camada.
+     * @param ge gradiente de entrada da camada.
+     * @param lotes quantidade de lotes.
+     * @param canais quantidade de canais de entrada.
+     * @param altX altura da entrada.
+     * @param largX largura da entrada.
+     * @param altG altura do gradiente de saída.
+     * @param largG largura do gradiente de saída.
+     * @param altFiltro altura do filtro de pooling.
+     * @param largFiltro largura do filtro de pooling.
+     * @param altStride altura do stride de pooling.
+     * @param largStride largura do stride de pooling.
+     */
+    public static void maxPool2dBackward(
+        Tensor x, Tensor g, Tensor ge,
+        int lotes, int canais,
+        int altX, int largX,
+        int altG, int largG,
+        int altFiltro, int largFiltro,
+        int altStride, int largStride) {
+
+        verificar(x, g, ge);
+
+        JNNnative.maxPool2dBackward(
+            x.segmento(), g.segmento(), ge.segmento(),
+            lotes, canais,
+            altX, largX,
+            altG, largG,
+            altFiltro, largFiltro,
+            altStride, largStride
+        );
+    }
+
+}
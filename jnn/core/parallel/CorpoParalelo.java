@@ -0,0 +1,16 @@
+package jnn.core.parallel;
+
+/**
+ * Corpo de um laço paralelo, executado sobre um intervalo de índices.
+ */
+@FunctionalInterface
+public interface CorpoParalelo {
+
+    /**
+     * Executa o laço sobre o intervalo {@code [inicio, fim)}.
+     * @param inicio índice inicial (inclusivo).
+     * @param fim índice final (exclusivo).
+     */
+    public void executar(int inicio, int fim);
+
+}
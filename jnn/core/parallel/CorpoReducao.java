@@ -0,0 +1,17 @@
+package jnn.core.parallel;
+
+/**
+ * Corpo de uma redução paralela, executado sobre um intervalo de índices.
+ */
+@FunctionalInterface
+public interface CorpoReducao {
+
+    /**
+     * Calcula o resultado parcial sobre o intervalo {@code [inicio, fim)}.
+     * @param inicio índice inicial (inclusivo).
+     * @param fim índice final (exclusivo).
+     * @return resultado parcial do intervalo.
+     */
+    public float executar(int inicio, int fim);
+
+}
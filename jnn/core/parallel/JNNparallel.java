@@ -4,15 +4,35 @@ import java.util.concurrent.ForkJoinPool;
 
 import jnn.core.JNNlog;
 import jnn.core.JNNlog.TipoLog;
-
-// Ainda quero mudar como isso funciona
-// Comparado ao OpenMP usado na parte nativa a diferença é absurda
-// Tenho ideias de criar uma propria "ThreadPool" usando "Thread" manual e gerenciar por aqui
+import jnn.core.tensor.operadores.FloatBinaryOperator;
 
 /**
  * Interface de paralelismo.
+ * <p>
+ *      Laços de computação devem usar {@code parallelFor} e {@code parallelReduce},
+ *      que rodam sobre uma {@link JNNpool} com threads persistentes, com custo de
+ *      disparo muito menor que criar uma {@code ForkJoinTask} por fatia.
+ * </p>
  */
 public class JNNparallel {
+
+    /**
+     * Formas de divisão de um laço entre as threads.
+     */
+    public enum Agendamento {
+
+        /**
+         * O intervalo é dividido em partes contíguas de tamanho igual, uma 
+         * por thread.
+         */
+        ESTATICO,
+
+        /**
+         * O intervalo é dividido em blocos do tamanho do grão, que as threads
+         * pegam sob demanda. Indicado para iterações de custo irregular.
+         */
+        DINAMICO
+    };
     
     /**
      * Máxima quantidade de threads disponível para a JVM.
@@ -22,13 +42,36 @@ public class JNNparallel {
     /**
      * Quantidade de threads padrão por pool.
      */
-    static volatile int numThreads = MAX_DISPONIVEL / 2;// normalmente threads físicas.
+    static volatile int numThreads = Math.max(1, MAX_DISPONIVEL / 2);// normalmente threads físicas.
 
     /**
      * Pool global.
      */
     static final ForkJoinPool common = pool(numThreads); 
 
+    /**
+     * Máximo de blocos por thread nas reduções com agendamento dinâmico.
+     * <p>
+     *      Cada bloco possui seu próprio resultado parcial, então limitar os
+     *      blocos mantém a memória proporcional às threads, não ao grão.
+     * </p>
+     */
+    static final int BLOCOS_REDUCAO = 8;
+
+    /**
+     * Resultados parciais das reduções, reaproveitados por thread chamadora.
+     * <p>
+     *      Enquanto uma redução está em andamento o buffer é retirado da
+     *      thread, então reduções aninhadas na mesma thread usam outro.
+     * </p>
+     */
+    private static final ThreadLocal<float[]> PARCIAIS = new ThreadLocal<>();
+
+    /**
+     * Pool de computação, criada no primeiro uso.
+     */
+    private static volatile JNNpool computacao = null;
+
     /**
      * Construtor privado.
      */
@@ -79,6 +122,13 @@ public class JNNparallel {
         }
 
         numThreads = t;
+
+        synchronized (JNNparallel.class) {
+            if (computacao != null && computacao.threads() != t) {
+                computacao.close();
+                computacao = null;// recriada no próximo uso
+            }
+        }
     }
 
     /**
@@ -89,4 +139,128 @@ public class JNNparallel {
         return numThreads;
     }
 
-}
\ No newline at end of file
+    /**
+     * Retorna a pool de computação usada pelos laços paralelos.
+     * @return pool de computação.
+     */
+    public static JNNpool computacao() {
+        JNNpool p = computacao;
+
+        if (p == null) {
+            synchronized (JNNparallel.class) {
+                p = computacao;
+                if (p == null) {
+                    p = new JNNpool(numThreads);
+                    computacao = p;
+                }
+            }
+        }
+
+        return p;
+    }
+
+    /**
+     * Executa o corpo sobre o intervalo {@code [inicio, fim)} em paralelo,
+     * usando agendamento estático.
+     * @param inicio índice inicial (inclusivo).
+     * @param fim índice final (exclusivo).
+     * @param grao quantidade mínima de índices por thread, intervalos menores
+     * que isso são executados pela thread atual.
+     * @param corpo corpo do laço.
+     */
+    public static void parallelFor(int inicio, int fim, int grao, CorpoParalelo corpo) {
+        parallelFor(inicio, fim, grao, Agendamento.ESTATICO, corpo);
+    }
+
+    /**
+     * Executa o corpo sobre o intervalo {@code [inicio, fim)} em paralelo.
+     * @param inicio índice inicial (inclusivo).
+     * @param fim índice final (exclusivo).
+     * @param grao quantidade mínima de índices por bloco.
+     * @param agendamento forma de divisão do intervalo.
+     * @param corpo corpo do laço.
+     */
+    public static void parallelFor(int inicio, int fim, int grao, Agendamento agendamento, CorpoParalelo corpo) {
+        computacao().parallelFor(inicio, fim, grao, agendamento, corpo);
+    }
+
+    /**
+     * Realiza uma redução sobre o intervalo {@code [inicio, fim)} em paralelo,
+     * usando agendamento estático.
+     * <p>
+     *      Os resultados parciais são combinados sempre na mesma ordem, então o
+     *      resultado é determinístico para uma mesma quantidade de threads.
+     * </p>
+     * @param inicio índice inicial (inclusivo).
+     * @param fim índice final (exclusivo).
+     * @param grao quantidade mínima de índices por thread.
+     * @param identidade valor neutro da combinação.
+     * @param corpo cálculo do resultado parcial de um intervalo.
+     * @param combinar combinação de dois resultados parciais.
+     * @return resultado da redução.
+     */
+    public static float parallelReduce(int inicio, int fim, int grao, float identidade, CorpoReducao corpo, FloatBinaryOperator combinar) {
+        return parallelReduce(inicio, fim, grao, Agendamento.ESTATICO, identidade, corpo, combinar);
+    }
+
+    /**
+     * Realiza uma redução sobre o intervalo {@code [inicio, fim)} em paralelo.
+     * <p>
+     *      Os resultados parciais são combinados sempre na mesma ordem, então o
+     *      resultado é determinístico para uma mesma quantidade de threads.
+     * </p>
+     * @param inicio índice inicial (inclusivo).
+     * @param fim índice final (exclusivo).
+     * @param grao quantidade mínima de índices por bloco.
+     * @param agendamento forma de divisão do intervalo.
+     * @param identidade valor neutro da combinação.
+     * @param corpo cálculo do resultado parcial de um intervalo.
+     * @param combinar combinação de dois resultados parciais.
+     * @return resultado da redução.
+     */
+    public static float parallelReduce(
+        int inicio, int fim, int grao, Agendamento agendamento,
+        float identidade, CorpoReducao corpo, FloatBinaryOperator combinar) {
+
+        final long n = fim - inicio;
+        if (n <= 0) return identidade;
+
+        final int g = Math.max(1, grao);
+        final int threads = computacao().threads();
+        final long maxBlocos = agendamento == Agendamento.ESTATICO ?
+            threads : (long) threads * BLOCOS_REDUCAO;
+        final int blocos = (int) Math.min(maxBlocos, (n + g - 1) / g);
+
+        if (blocos <= 1) {
+            return combinar.apply(identidade, corpo.executar(inicio, fim));
+        }
+
+        float[] buffer = PARCIAIS.get();
+        if (buffer == null || buffer.length < blocos) {
+            buffer = new float[(int) maxBlocos];
+        }
+        PARCIAIS.set(null);
+
+        final float[] parciais = buffer;
+        try {
+            parallelFor(0, blocos, 1, agendamento, (a, b) -> {
+                for (int i = a; i < b; i++) {
+                    final int ini = inicio + (int) (n * i / blocos);
+                    final int f = inicio + (int) (n * (i + 1) / blocos);
+                    parciais[i] = corpo.executar(ini, f);
+                }
+            });
+
+            float res = identidade;
+            for (int i = 0; i < blocos; i++) {
+                res = combinar.apply(res, parciais[i]);
+            }
+
+            return res;
+
+        } finally {
+            PARCIAIS.set(parciais);
+        }
+    }
+    
+}
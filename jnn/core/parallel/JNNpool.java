@@ -0,0 +1,371 @@
+package jnn.core.parallel;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import jnn.core.parallel.JNNparallel.Agendamento;
+
+/**
+ * Pool de computação da biblioteca.
+ * <p>
+ *      Funciona de forma parecida com uma região paralela do OpenMP: as threads
+ *      trabalhadoras são criadas uma única vez e ficam esperando novos laços,
+ *      primeiro girando ({@code spin}) por um curto período e depois estacionando
+ *      ({@code park}). A thread que chama {@code parallelFor} também participa da
+ *      execução e espera as demais com a mesma estratégia.
+ * </p>
+ * <p>
+ *      Cada chamada publica um laço próprio, dividido em blocos, em uma fila
+ *      compartilhada de laços ativos. Threads livres roubam blocos de qualquer
+ *      laço da fila, então laços de várias threads (ou aninhados dentro de um
+ *      corpo paralelo) são executados ao mesmo tempo, dividindo as threads da
+ *      pool. A thread chamadora reserva blocos do próprio laço até esgotá-los
+ *      e só espera pelos blocos que já estão em execução em outras threads.
+ * </p>
+ */
+public final class JNNpool implements AutoCloseable {
+
+    /**
+     * Iterações de espera ativa antes de estacionar a thread.
+     */
+    static final int SPIN = 1 << 14;
+
+    /**
+     * Intervalo (em iterações de espera) entre cessões do processador.
+     */
+    static final int CEDER = 1 << 8;
+
+    /**
+     * Threads trabalhadoras (a thread chamadora é o participante extra).
+     */
+    private final Trabalhador[] trabalhadores;
+
+    /**
+     * Quantidade total de participantes em um laço.
+     */
+    private final int participantes;
+
+    /**
+     * Laços que ainda podem ter blocos livres.
+     */
+    private final ConcurrentLinkedQueue<Laco> ativos = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Quantidade de laços publicados, as threads acordam quando ela muda.
+     */
+    private final AtomicLong publicados = new AtomicLong();
+
+    /**
+     * Indica que a pool foi encerrada.
+     */
+    private volatile boolean encerrada = false;
+
+    /**
+     * Laço publicado por uma thread chamadora.
+     */
+    private static final class Laco {
+
+        /**
+         * Corpo do laço.
+         */
+        final CorpoParalelo corpo;
+
+        /**
+         * Índice inicial (inclusivo).
+         */
+        final int inicio;
+
+        /**
+         * Índice final (exclusivo).
+         */
+        final int fim;
+
+        /**
+         * Tamanho dos blocos no agendamento dinâmico.
+         */
+        final int grao;
+
+        /**
+         * Quantidade de blocos do laço.
+         */
+        final int blocos;
+
+        /**
+         * Indica se os blocos dividem o intervalo em partes iguais.
+         */
+        final boolean estatico;
+
+        /**
+         * Thread que publicou o laço e espera sua conclusão.
+         */
+        final Thread chamador;
+
+        /**
+         * Próximo bloco livre.
+         */
+        final AtomicInteger proximo = new AtomicInteger();
+
+        /**
+         * Blocos ainda não concluídos.
+         */
+        final AtomicInteger restantes;
+
+        /**
+         * Primeira falha ocorrida durante o laço.
+         */
+        final AtomicReference<Throwable> erro = new AtomicReference<>();
+
+        Laco(CorpoParalelo corpo, int inicio, int fim, int grao, int blocos, boolean estatico) {
+            this.corpo = corpo;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.grao = grao;
+            this.blocos = blocos;
+            this.estatico = estatico;
+            this.chamador = Thread.currentThread();
+            this.restantes = new AtomicInteger(blocos);
+        }
+
+        /**
+         * Reserva o próximo bloco livre.
+         * @return índice do bloco, ou {@code -1} caso não existam blocos livres.
+         */
+        int reservar() {
+            if (proximo.get() >= blocos) return -1;
+
+            final int i = proximo.getAndIncrement();
+            return i < blocos ? i : -1;
+        }
+
+        /**
+         * Executa um bloco reservado.
+         * @param i índice do bloco.
+         */
+        void executar(int i) {
+            final long n = fim - inicio;
+            final int a;
+            final int b;
+
+            if (estatico) {
+                a = inicio + (int) (n * i / blocos);
+                b = inicio + (int) (n * (i + 1) / blocos);
+            } else {
+                a = inicio + (int) ((long) i * grao);
+                b = (int) Math.min((long) a + grao, fim);
+            }
+
+            try {
+                // após uma falha, os blocos restantes são apenas descartados
+                if (erro.get() == null) corpo.executar(a, b);
+            } catch (Throwable t) {
+                erro.compareAndSet(null, t);
+            }
+
+            if (restantes.decrementAndGet() == 0) {
+                LockSupport.unpark(chamador);
+            }
+        }
+
+        /**
+         * Executa blocos livres até que não existam mais.
+         * @return {@code true} caso algum bloco tenha sido executado.
+         */
+        boolean ajudar() {
+            boolean executou = false;
+
+            int i;
+            while ((i = reservar()) >= 0) {
+                executar(i);
+                executou = true;
+            }
+
+            return executou;
+        }
+    }
+
+    /**
+     * Cria uma nova pool de computação.
+     * @param threads quantidade total de threads participantes, incluindo
+     * a thread chamadora.
+     */
+    public JNNpool(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(
+                "\nValor de threads " + threads + " inválido."
+            );
+        }
+
+        participantes = threads;
+        trabalhadores = new Trabalhador[threads - 1];
+
+        for (int i = 0; i < trabalhadores.length; i++) {
+            trabalhadores[i] = new Trabalhador(i);
+            trabalhadores[i].start();
+        }
+    }
+
+    /**
+     * Retorna a quantidade total de participantes da pool.
+     * @return quantidade de threads, incluindo a thread chamadora.
+     */
+    public int threads() {
+        return participantes;
+    }
+
+    /**
+     * Executa o corpo sobre o intervalo {@code [inicio, fim)} dividindo o
+     * trabalho entre as threads da pool.
+     * @param inicio índice inicial (inclusivo).
+     * @param fim índice final (exclusivo).
+     * @param grao quantidade mínima de índices por bloco.
+     * @param agendamento forma de divisão do intervalo.
+     * @param corpo corpo do laço.
+     */
+    public void parallelFor(int inicio, int fim, int grao, Agendamento agendamento, CorpoParalelo corpo) {
+        final int n = fim - inicio;
+        if (n <= 0) return;
+
+        final int g = Math.max(1, grao);
+        final long porGrao = ((long) n + g - 1) / g;
+        final boolean estatico = agendamento == Agendamento.ESTATICO;
+        final int blocos = (int) (estatico ? Math.min(participantes, porGrao) : porGrao);
+
+        if (blocos <= 1 || trabalhadores.length == 0 || encerrada) {
+            corpo.executar(inicio, fim);
+            return;
+        }
+
+        executar(new Laco(corpo, inicio, fim, g, blocos, estatico));
+    }
+
+    /**
+     * Publica o laço, participa da execução e espera os blocos em andamento
+     * nas demais threads.
+     * @param laco laço da thread atual.
+     */
+    private void executar(Laco laco) {
+        ativos.add(laco);
+        publicados.incrementAndGet();
+        acordar(laco.blocos - 1);
+
+        laco.ajudar();
+        ativos.remove(laco);// sem blocos livres
+
+        // barreira: spin e depois park
+        for (int i = 0; i < SPIN && laco.restantes.get() != 0; i++) {
+            girar(i);
+        }
+        while (laco.restantes.get() != 0) {
+            LockSupport.park(this);
+        }
+
+        Throwable t = laco.erro.get();
+        if (t != null) {
+            if (t instanceof RuntimeException re) throw re;
+            if (t instanceof Error e) throw e;
+            throw new RuntimeException(t);
+        }
+    }
+
+    /**
+     * Acorda threads estacionadas para um novo laço.
+     * @param max quantidade máxima de threads acordadas.
+     */
+    private void acordar(int max) {
+        int acordadas = 0;
+        for (Trabalhador t : trabalhadores) {
+            if (acordadas >= max) return;
+            if (t.estacionada) {
+                LockSupport.unpark(t);
+                acordadas++;
+            }
+        }
+    }
+
+    /**
+     * Uma iteração de espera ativa.
+     * <p>
+     *      Periodicamente cede o processador, evitando que a espera atrase as
+     *      demais threads quando há mais threads que núcleos disponíveis.
+     * </p>
+     * @param i iteração atual da espera.
+     */
+    private static void girar(int i) {
+        if ((i & (CEDER - 1)) == CEDER - 1) Thread.yield();
+        else Thread.onSpinWait();
+    }
+
+    /**
+     * Encerra as threads da pool.
+     * <p>
+     *      As threads terminam os blocos que já reservaram, e os blocos livres
+     *      de laços em execução são concluídos pelas threads que os publicaram.
+     *      Laços iniciados depois disso são executados sequencialmente pela
+     *      thread que os chamou.
+     * </p>
+     */
+    @Override
+    public void close() {
+        encerrada = true;
+        for (Trabalhador t : trabalhadores) {
+            LockSupport.unpark(t);
+        }
+    }
+
+    /**
+     * Thread trabalhadora persistente.
+     */
+    private final class Trabalhador extends Thread {
+
+        /**
+         * Indica que a thread está (ou está prestes a ficar) estacionada.
+         */
+        volatile boolean estacionada = false;
+
+        Trabalhador(int id) {
+            super("jnn-worker-" + id);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                final long visto = publicados.get();
+
+                for (Laco laco : ativos) {
+                    laco.ajudar();
+                }
+
+                if (encerrada) return;
+
+                esperar(visto);
+            }
+        }
+
+        /**
+         * Espera até que um novo laço seja publicado ou a pool seja encerrada.
+         * @param visto quantidade de laços publicados na última busca.
+         */
+        private void esperar(long visto) {
+            for (int i = 0; i < SPIN; i++) {
+                if (publicados.get() != visto || encerrada) return;
+                girar(i);
+            }
+
+            while (true) {
+                estacionada = true;
+                if (publicados.get() != visto || encerrada) {
+                    estacionada = false;
+                    return;
+                }
+                LockSupport.park(this);
+                estacionada = false;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,319 @@
+package jnn.core.tensor;
+
+import jnn.core.JNNutils;
+import jnn.core.parallel.JNNparallel;
+import jnn.core.tensor.operadores.FloatBinaryOperator;
+
+/**
+ * <h2>
+ *		Broadcasting
+ * </h2>
+ * <p>
+ *		Motor de operações elemento a elemento entre tensores de formatos
+ *		diferentes, seguindo as regras de broadcasting.
+ * </p>
+ * <p>
+ *		Cada operando é percorrido pelos próprios strides, onde dimensões
+ *		expandidas recebem stride zero, então nenhum tensor intermediário é
+ *		criado e o resultado é escrito diretamente no destino. Dimensões
+ *		internas contíguas em todos os operandos são unidas em um único laço
+ *		linear, e o laço externo é dividido entre as threads da biblioteca
+ *		quando o volume de elementos é grande.
+ * </p>
+ * <p>
+ *		As operações {@link #SOMA}, {@link #SUB}, {@link #MUL} e {@link #DIV}
+ *		possuem laços especializados, outras funções usam o laço genérico.
+ * </p>
+ */
+public final class Broadcast {
+
+	/**
+	 * Operação {@code a + b}.
+	 */
+	public static final FloatBinaryOperator SOMA = (a, b) -> a + b;
+
+	/**
+	 * Operação {@code a - b}.
+	 */
+	public static final FloatBinaryOperator SUB = (a, b) -> a - b;
+
+	/**
+	 * Operação {@code a * b}.
+	 */
+	public static final FloatBinaryOperator MUL = (a, b) -> a * b;
+
+	/**
+	 * Operação {@code a / b}.
+	 */
+	public static final FloatBinaryOperator DIV = (a, b) -> a / b;
+
+	/**
+	 * Quantidade mínima de elementos para dividir a operação entre threads.
+	 */
+	static final int MIN_PARALELO = 1 << 15;
+
+	/**
+	 * Quantidade mínima de elementos por bloco paralelo.
+	 */
+	static final int GRAO = 1 << 13;
+
+	// códigos dos laços especializados
+
+	private static final int OP_GENERICA = 0;
+	private static final int OP_SOMA = 1;
+	private static final int OP_SUB = 2;
+	private static final int OP_MUL = 3;
+	private static final int OP_DIV = 4;
+
+	/**
+	 * Construtor privado.
+	 */
+	private Broadcast() {}
+
+	/**
+	 * Determina o formato resultante do broadcasting entre dois formatos.
+	 * @param shapeA formato do {@code Tensor} A.
+	 * @param shapeB formato do {@code Tensor} B.
+	 * @return formato resultante.
+	 */
+	public static int[] shape(int[] shapeA, int[] shapeB) {
+		int n = Math.max(shapeA.length, shapeB.length);
+		int[] broadShape = new int[n];
+
+		for (int i = 0; i < n; i++) {
+			int dimA = (shapeA.length - i - 1 >= 0) ? shapeA[shapeA.length - i - 1] : 1;
+			int dimB = (shapeB.length - i - 1 >= 0) ? shapeB[shapeB.length - i - 1] : 1;
+
+			if (dimA == dimB || dimA == 1 || dimB == 1) {
+				broadShape[n - i - 1] = Math.max(dimA, dimB);
+			} else {
+				throw new IllegalArgumentException(
+					"\nShapes incompatíveis para broadcasting: " +
+					"A = " + JNNutils.arrayStr(shapeA) + " e B = " + JNNutils.arrayStr(shapeB)
+				);
+			}
+		}
+
+		return broadShape;
+	}
+
+	/**
+	 * Verifica se o formato de origem pode ser expandido para o formato
+	 * de destino sem alterá-lo.
+	 * @param dst formato de destino.
+	 * @param src formato de origem.
+	 * @return {@code true} caso seja compatível, {@code false} caso contrário.
+	 */
+	public static boolean expansivel(int[] dst, int[] src) {
+		if (src.length > dst.length) {
+			// dimensões extras só podem ser unitárias
+			for (int i = 0; i < src.length - dst.length; i++) {
+				if (src[i] != 1) return false;
+			}
+		}
+
+		for (int i = 1; i <= Math.min(dst.length, src.length); i++) {
+			int dimS = src[src.length - i];
+			if (dimS != 1 && dimS != dst[dst.length - i]) return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Calcula {@code dst = op(a, b)} com broadcasting.
+	 * <p>
+	 *		A e B devem ser expansíveis para o formato do destino, que
+	 *		normalmente é o formato resultante de {@link #shape(int[], int[])}.
+	 *		O destino pode ser um dos operandos, desde que possua o mesmo
+	 *		formato.
+	 * </p>
+	 * @param dst {@code Tensor} de destino.
+	 * @param a {@code Tensor} A.
+	 * @param b {@code Tensor} B.
+	 * @param op operação aplicada.
+	 */
+	public static void aplicar(Tensor dst, Tensor a, Tensor b, FloatBinaryOperator op) {
+		final int[] shapeD = dst.shape();
+		final int[] shapeA = a.shape();
+		final int[] shapeB = b.shape();
+
+		if (!expansivel(shapeD, shapeA) || !expansivel(shapeD, shapeB)) {
+			throw new IllegalArgumentException(
+				"\nDestino " + JNNutils.arrayStr(shapeD) + " incompatível com o broadcasting entre " +
+				"A = " + JNNutils.arrayStr(shapeA) + " e B = " + JNNutils.arrayStr(shapeB)
+			);
+		}
+
+		final int n = shapeD.length;
+		int[] dims = new int[n];
+		int[] sd = new int[n];
+		int[] sa = new int[n];
+		int[] sb = new int[n];
+
+		final int[] stridesD = dst.strides();
+		final int[] stridesA = a.strides();
+		final int[] stridesB = b.strides();
+
+		// alinha os operandos pela direita, dimensões expandidas avançam zero
+		int k = 0;
+		for (int d = 0; d < n; d++) {
+			if (shapeD[d] == 1) continue;// não contribui para os índices
+
+			int dA = d - (n - shapeA.length);
+			int dB = d - (n - shapeB.length);
+			int strA = (dA >= 0 && shapeA[dA] != 1) ? stridesA[dA] : 0;
+			int strB = (dB >= 0 && shapeB[dB] != 1) ? stridesB[dB] : 0;
+
+			// une com a dimensão anterior quando contígua em todos os operandos
+			if (k > 0 &&
+				sd[k - 1] == stridesD[d] * shapeD[d] &&
+				sa[k - 1] == strA * shapeD[d] &&
+				sb[k - 1] == strB * shapeD[d]) {
+				dims[k - 1] *= shapeD[d];
+				sd[k - 1] = stridesD[d];
+				sa[k - 1] = strA;
+				sb[k - 1] = strB;
+				continue;
+			}
+
+			dims[k] = shapeD[d];
+			sd[k] = stridesD[d];
+			sa[k] = strA;
+			sb[k] = strB;
+			k++;
+		}
+
+		if (k == 0) {// todos os tensores possuem apenas um elemento
+			dims[0] = 1;
+			k = 1;
+		}
+
+		final int numDims = k;
+		final int tamLinha = dims[numDims - 1];
+		int externas = 1;
+		for (int d = 0; d < numDims - 1; d++) externas *= dims[d];
+
+		final float[] dd = dst.array();
+		final float[] da = a.array();
+		final float[] db = b.array();
+		final int offD = dst.offset(), offA = a.offset(), offB = b.offset();
+		final int codigo = codigo(op);
+
+		final int[] fDims = dims, fSd = sd, fSa = sa, fSb = sb;
+
+		if ((long) externas * tamLinha < MIN_PARALELO || externas < 2) {
+			linhas(
+				codigo, op, 0, externas, numDims, fDims,
+				dd, offD, fSd, da, offA, fSa, db, offB, fSb
+			);
+
+		} else {
+			final int grao = Math.max(1, GRAO / tamLinha);
+			JNNparallel.parallelFor(0, externas, grao, (ini, fim) ->
+				linhas(
+					codigo, op, ini, fim, numDims, fDims,
+					dd, offD, fSd, da, offA, fSa, db, offB, fSb
+				)
+			);
+		}
+	}
+
+	/**
+	 * Identifica a operação com laço especializado.
+	 * @param op operação.
+	 * @return código do laço.
+	 */
+	private static int codigo(FloatBinaryOperator op) {
+		if (op == SOMA) return OP_SOMA;
+		if (op == SUB)  return OP_SUB;
+		if (op == MUL)  return OP_MUL;
+		if (op == DIV)  return OP_DIV;
+		return OP_GENERICA;
+	}
+
+	/**
+	 * Processa as linhas {@code [ini, fim)} do espaço externo.
+	 * <p>
+	 *		As coordenadas da primeira linha são calculadas uma única vez, e as
+	 *		seguintes avançam como um contador, sem divisões por elemento.
+	 * </p>
+	 */
+	private static void linhas(
+		int codigo, FloatBinaryOperator op, int ini, int fim, int numDims, int[] dims,
+		float[] dd, int offD, int[] sd, float[] da, int offA, int[] sa, float[] db, int offB, int[] sb) {
+		final int ult = numDims - 1;
+		final int tamLinha = dims[ult];
+		final int[] coords = new int[numDims];
+
+		int iD = offD, iA = offA, iB = offB;
+		int resto = ini;
+		for (int d = ult - 1; d >= 0; d--) {
+			coords[d] = resto % dims[d];
+			resto /= dims[d];
+			iD += coords[d] * sd[d];
+			iA += coords[d] * sa[d];
+			iB += coords[d] * sb[d];
+		}
+
+		for (int l = ini; l < fim; l++) {
+			linha(codigo, op, dd, iD, sd[ult], da, iA, sa[ult], db, iB, sb[ult], tamLinha);
+
+			// avança o contador das dimensões externas
+			for (int d = ult - 1; d >= 0; d--) {
+				iD += sd[d];
+				iA += sa[d];
+				iB += sb[d];
+				if (++coords[d] < dims[d]) break;
+
+				iD -= sd[d] * dims[d];
+				iA -= sa[d] * dims[d];
+				iB -= sb[d] * dims[d];
+				coords[d] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Processa uma linha da dimensão mais interna.
+	 */
+	private static void linha(
+		int codigo, FloatBinaryOperator op,
+		float[] d, int iD, int sD, float[] a, int iA, int sA, float[] b, int iB, int sB, int n) {
+		if (sD == 1 && sA == 1 && sB == 1) {
+			switch (codigo) {
+				case OP_SOMA -> { for (int i = 0; i < n; i++) d[iD + i] = a[iA + i] + b[iB + i]; }
+				case OP_SUB  -> { for (int i = 0; i < n; i++) d[iD + i] = a[iA + i] - b[iB + i]; }
+				case OP_MUL  -> { for (int i = 0; i < n; i++) d[iD + i] = a[iA + i] * b[iB + i]; }
+				case OP_DIV  -> { for (int i = 0; i < n; i++) d[iD + i] = a[iA + i] / b[iB + i]; }
+				default      -> { for (int i = 0; i < n; i++) d[iD + i] = op.apply(a[iA + i], b[iB + i]); }
+			}
+
+		} else if (sD == 1 && sA == 1 && sB == 0) {
+			final float vb = b[iB];
+			switch (codigo) {
+				case OP_SOMA -> { for (int i = 0; i < n; i++) d[iD + i] = a[iA + i] + vb; }
+				case OP_SUB  -> { for (int i = 0; i < n; i++) d[iD + i] = a[iA + i] - vb; }
+				case OP_MUL  -> { for (int i = 0; i < n; i++) d[iD + i] = a[iA + i] * vb; }
+				case OP_DIV  -> { for (int i = 0; i < n; i++) d[iD + i] = a[iA + i] / vb; }
+				default      -> { for (int i = 0; i < n; i++) d[iD + i] = op.apply(a[iA + i], vb); }
+			}
+
+		} else if (sD == 1 && sA == 0 && sB == 1) {
+			final float va = a[iA];
+			switch (codigo) {
+				case OP_SOMA -> { for (int i = 0; i < n; i++) d[iD + i] = va + b[iB + i]; }
+				case OP_SUB  -> { for (int i = 0; i < n; i++) d[iD + i] = va - b[iB + i]; }
+				case OP_MUL  -> { for (int i = 0; i < n; i++) d[iD + i] = va * b[iB + i]; }
+				case OP_DIV  -> { for (int i = 0; i < n; i++) d[iD + i] = va / b[iB + i]; }
+				default      -> { for (int i = 0; i < n; i++) d[iD + i] = op.apply(va, b[iB + i]); }
+			}
+
+		} else {
+			for (int i = 0; i < n; i++) {
+				d[iD + i * sD] = op.apply(a[iA + i * sA], b[iB + i * sB]);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,254 @@
+package jnn.core.tensor;
+
+import jnn.core.parallel.JNNparallel;
+
+/**
+ * Kernels das operações elemento a elemento do {@code TensorData}.
+ * <p>
+ *		As operações são agrupadas pela forma:
+ * </p>
+ * <ul>
+ *		<li>unárias: {@code d = f(s, x, y)}, onde {@code s} pode ser o próprio destino;</li>
+ *		<li>binárias: {@code d = f(d, b, alfa)};</li>
+ *		<li>ternárias: {@code d = f(d, a, b, alfa)}.</li>
+ * </ul>
+ * <p>
+ *		Intervalos grandes são divididos entre as threads da biblioteca e,
+ *		quando o módulo {@code jdk.incubator.vector} está disponível, cada
+ *		intervalo é processado pela versão vetorial, com os elementos que
+ *		não completam um vetor processados pela versão escalar.
+ * </p>
+ */
+final class ElementosKernel {
+
+	// operações unárias
+
+	/** {@code d = s + x} */
+	static final int ADD = 0;
+	/** {@code d = s * x} */
+	static final int MUL = 1;
+	/** {@code d = s / x} */
+	static final int DIV = 2;
+	/** {@code d = max(s, x)} */
+	static final int MAX = 3;
+	/** {@code d = clamp(s, x, y)} */
+	static final int CLAMP = 4;
+	/** {@code d = sqrt(s)} */
+	static final int SQRT = 5;
+	/** {@code d = exp(s)} */
+	static final int EXP = 6;
+	/** {@code d = tanh(s)} */
+	static final int TANH = 7;
+
+	// operações binárias
+
+	/** {@code d += alfa * b} */
+	static final int AXPY = 0;
+	/** {@code d -= b} */
+	static final int SUB_T = 1;
+	/** {@code d *= b} */
+	static final int MUL_T = 2;
+	/** {@code d /= b} */
+	static final int DIV_T = 3;
+	/** {@code d = max(d, b)} */
+	static final int MAX_T = 4;
+
+	// operações ternárias
+
+	/** {@code d += alfa * (a * b)} */
+	static final int ADDCMUL = 0;
+	/** {@code d += alfa * (a / b)} */
+	static final int ADDCDIV = 1;
+
+	/**
+	 * Indica se a versão vetorial está disponível.
+	 */
+	static final boolean VETORIAL_DISPONIVEL = vetorialDisponivel();
+
+	/**
+	 * Indica se a versão vetorial deve ser usada.
+	 */
+	static volatile boolean vetorial = VETORIAL_DISPONIVEL;
+
+	/**
+	 * Quantidade mínima de elementos para dividir a operação entre threads.
+	 */
+	static final int MIN_PARALELO = 1 << 16;
+
+	/**
+	 * Quantidade mínima de elementos por bloco paralelo.
+	 */
+	static final int GRAO = 1 << 14;
+
+	/**
+	 * Construtor privado.
+	 */
+	private ElementosKernel() {}
+
+	/**
+	 * Verifica se a Vector API pode ser usada.
+	 * @return {@code true} caso a versão vetorial esteja disponível.
+	 */
+	private static boolean vetorialDisponivel() {
+		if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+			return false;
+		}
+
+		try {
+			return ElementosKernelVetorial.VL >= 4;
+		} catch (Throwable e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Executa uma operação unária {@code d = f(s, x, y)}.
+	 * @param op código da operação.
+	 * @param d array de destino.
+	 * @param offD offset do destino.
+	 * @param s array de origem, pode ser o próprio destino.
+	 * @param offS offset da origem.
+	 * @param x primeiro escalar da operação.
+	 * @param y segundo escalar da operação.
+	 * @param n quantidade de elementos.
+	 */
+	static void unario(int op, float[] d, int offD, float[] s, int offS, float x, float y, int n) {
+		if (n < MIN_PARALELO) {
+			unario(op, d, offD, s, offS, x, y, 0, n);
+		} else {
+			JNNparallel.parallelFor(0, n, GRAO, (ini, fim) ->
+				unario(op, d, offD, s, offS, x, y, ini, fim)
+			);
+		}
+	}
+
+	/**
+	 * Executa uma operação binária {@code d = f(d, b, alfa)}.
+	 * @param op código da operação.
+	 * @param d array de destino.
+	 * @param offD offset do destino.
+	 * @param b array do operando.
+	 * @param offB offset do operando.
+	 * @param alfa escalar da operação.
+	 * @param n quantidade de elementos.
+	 */
+	static void binario(int op, float[] d, int offD, float[] b, int offB, float alfa, int n) {
+		if (n < MIN_PARALELO) {
+			binario(op, d, offD, b, offB, alfa, 0, n);
+		} else {
+			JNNparallel.parallelFor(0, n, GRAO, (ini, fim) ->
+				binario(op, d, offD, b, offB, alfa, ini, fim)
+			);
+		}
+	}
+
+	/**
+	 * Executa uma operação ternária {@code d = f(d, a, b, alfa)}.
+	 * @param op código da operação.
+	 * @param d array de destino.
+	 * @param offD offset do destino.
+	 * @param a array do primeiro operando.
+	 * @param offA offset do primeiro operando.
+	 * @param b array do segundo operando.
+	 * @param offB offset do segundo operando.
+	 * @param alfa escalar da operação.
+	 * @param n quantidade de elementos.
+	 */
+	static void ternario(int op, float[] d, int offD, float[] a, int offA, float[] b, int offB, float alfa, int n) {
+		if (n < MIN_PARALELO) {
+			ternario(op, d, offD, a, offA, b, offB, alfa, 0, n);
+		} else {
+			JNNparallel.parallelFor(0, n, GRAO, (ini, fim) ->
+				ternario(op, d, offD, a, offA, b, offB, alfa, ini, fim)
+			);
+		}
+	}
+
+	/**
+	 * Processa o intervalo {@code [ini, fim)} usando a melhor versão disponível.
+	 * <p>
+	 *		Também é usado pelas expressões preguiçosas para cada bloco.
+	 * </p>
+	 */
+	static void unario(int op, float[] d, int offD, float[] s, int offS, float x, float y, int ini, int fim) {
+		if (vetorial) {
+			ElementosKernelVetorial.unario(op, d, offD, s, offS, x, y, ini, fim);
+		} else {
+			unarioEscalar(op, d, offD, s, offS, x, y, ini, fim);
+		}
+	}
+
+	/**
+	 * Processa o intervalo {@code [ini, fim)} usando a melhor versão disponível.
+	 */
+	private static void binario(int op, float[] d, int offD, float[] b, int offB, float alfa, int ini, int fim) {
+		if (vetorial) {
+			ElementosKernelVetorial.binario(op, d, offD, b, offB, alfa, ini, fim);
+		} else {
+			binarioEscalar(op, d, offD, b, offB, alfa, ini, fim);
+		}
+	}
+
+	/**
+	 * Processa o intervalo {@code [ini, fim)} usando a melhor versão disponível.
+	 */
+	private static void ternario(int op, float[] d, int offD, float[] a, int offA, float[] b, int offB, float alfa, int ini, int fim) {
+		if (vetorial) {
+			ElementosKernelVetorial.ternario(op, d, offD, a, offA, b, offB, alfa, ini, fim);
+		} else {
+			ternarioEscalar(op, d, offD, a, offA, b, offB, alfa, ini, fim);
+		}
+	}
+
+	/**
+	 * Versão escalar das operações unárias sobre o intervalo {@code [ini, fim)}.
+	 * <p>
+	 *		Também é usada pela versão vetorial para os elementos restantes.
+	 * </p>
+	 */
+	static void unarioEscalar(int op, float[] d, int offD, float[] s, int offS, float x, float y, int ini, int fim) {
+		switch (op) {
+			case ADD -> { for (int i = ini; i < fim; i++) d[offD + i] = s[offS + i] + x; }
+			case MUL -> { for (int i = ini; i < fim; i++) d[offD + i] = s[offS + i] * x; }
+			case DIV -> { for (int i = ini; i < fim; i++) d[offD + i] = s[offS + i] / x; }
+			case MAX -> { for (int i = ini; i < fim; i++) d[offD + i] = Math.max(s[offS + i], x); }
+			case CLAMP -> { for (int i = ini; i < fim; i++) d[offD + i] = Math.clamp(s[offS + i], x, y); }
+			case SQRT -> { for (int i = ini; i < fim; i++) d[offD + i] = (float) Math.sqrt(s[offS + i]); }
+			case EXP -> { for (int i = ini; i < fim; i++) d[offD + i] = (float) Math.exp(s[offS + i]); }
+			case TANH -> { for (int i = ini; i < fim; i++) d[offD + i] = (float) Math.tanh(s[offS + i]); }
+			default -> throw new IllegalArgumentException("\nOperação unária " + op + " inválida.");
+		}
+	}
+
+	/**
+	 * Versão escalar das operações binárias sobre o intervalo {@code [ini, fim)}.
+	 * <p>
+	 *		Também é usada pela versão vetorial para os elementos restantes.
+	 * </p>
+	 */
+	static void binarioEscalar(int op, float[] d, int offD, float[] b, int offB, float alfa, int ini, int fim) {
+		switch (op) {
+			case AXPY -> { for (int i = ini; i < fim; i++) d[offD + i] += alfa * b[offB + i]; }
+			case SUB_T -> { for (int i = ini; i < fim; i++) d[offD + i] -= b[offB + i]; }
+			case MUL_T -> { for (int i = ini; i < fim; i++) d[offD + i] *= b[offB + i]; }
+			case DIV_T -> { for (int i = ini; i < fim; i++) d[offD + i] /= b[offB + i]; }
+			case MAX_T -> { for (int i = ini; i < fim; i++) d[offD + i] = Math.max(d[offD + i], b[offB + i]); }
+			default -> throw new IllegalArgumentException("\nOperação binária " + op + " inválida.");
+		}
+	}
+
+	/**
+	 * Versão escalar das operações ternárias sobre o intervalo {@code [ini, fim)}.
+	 * <p>
+	 *		Também é usada pela versão vetorial para os elementos restantes.
+	 * </p>
+	 */
+	static void ternarioEscalar(int op, float[] d, int offD, float[] a, int offA, float[] b, int offB, float alfa, int ini, int fim) {
+		switch (op) {
+			case ADDCMUL -> { for (int i = ini; i < fim; i++) d[offD + i] += alfa * (a[offA + i] * b[offB + i]); }
+			case ADDCDIV -> { for (int i = ini; i < fim; i++) d[offD + i] += alfa * (a[offA + i] / b[offB + i]); }
+			default -> throw new IllegalArgumentException("\nOperação ternária " + op + " inválida.");
+		}
+	}
+
+}
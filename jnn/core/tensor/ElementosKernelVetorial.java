@@ -0,0 +1,178 @@
+package jnn.core.tensor;
+
+import static jnn.core.tensor.ElementosKernel.*;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Versão vetorial dos kernels elemento a elemento.
+ * <p>
+ *		Essa classe só é carregada quando o módulo {@code jdk.incubator.vector}
+ *		está disponível na JVM, caso contrário o {@code ElementosKernel} usa
+ *		sua versão escalar.
+ * </p>
+ */
+final class ElementosKernelVetorial {
+
+	/**
+	 * Espécie de vetor preferida pela plataforma.
+	 */
+	static final VectorSpecies<Float> SP = FloatVector.SPECIES_PREFERRED;
+
+	/**
+	 * Quantidade de elementos por vetor.
+	 */
+	static final int VL = SP.length();
+
+	/**
+	 * Construtor privado.
+	 */
+	private ElementosKernelVetorial() {}
+
+	/**
+	 * Processa o intervalo {@code [ini, fim)} de uma operação unária, os
+	 * elementos que não completam um vetor são processados pela versão escalar.
+	 */
+	static void unario(int op, float[] d, int offD, float[] s, int offS, float x, float y, int ini, int fim) {
+		final int lim = ini + SP.loopBound(fim - ini);
+
+		int i = ini;
+		switch (op) {
+			case ADD -> {
+				for (; i < lim; i += VL) {
+					FloatVector.fromArray(SP, s, offS + i).add(x).intoArray(d, offD + i);
+				}
+			}
+			case MUL -> {
+				for (; i < lim; i += VL) {
+					FloatVector.fromArray(SP, s, offS + i).mul(x).intoArray(d, offD + i);
+				}
+			}
+			case DIV -> {
+				for (; i < lim; i += VL) {
+					FloatVector.fromArray(SP, s, offS + i).div(x).intoArray(d, offD + i);
+				}
+			}
+			case MAX -> {
+				for (; i < lim; i += VL) {
+					FloatVector.fromArray(SP, s, offS + i).max(x).intoArray(d, offD + i);
+				}
+			}
+			case CLAMP -> {
+				for (; i < lim; i += VL) {
+					FloatVector.fromArray(SP, s, offS + i).max(x).min(y).intoArray(d, offD + i);
+				}
+			}
+			case SQRT -> {
+				for (; i < lim; i += VL) {
+					FloatVector.fromArray(SP, s, offS + i).sqrt().intoArray(d, offD + i);
+				}
+			}
+			case EXP -> {
+				for (; i < lim; i += VL) {
+					FloatVector.fromArray(SP, s, offS + i)
+						.lanewise(VectorOperators.EXP)
+						.intoArray(d, offD + i);
+				}
+			}
+			case TANH -> {
+				for (; i < lim; i += VL) {
+					FloatVector.fromArray(SP, s, offS + i)
+						.lanewise(VectorOperators.TANH)
+						.intoArray(d, offD + i);
+				}
+			}
+			default -> {}// tratado pela versão escalar
+		}
+
+		if (i < fim) {
+			unarioEscalar(op, d, offD, s, offS, x, y, i, fim);
+		}
+	}
+
+	/**
+	 * Processa o intervalo {@code [ini, fim)} de uma operação binária, os
+	 * elementos que não completam um vetor são processados pela versão escalar.
+	 */
+	static void binario(int op, float[] d, int offD, float[] b, int offB, float alfa, int ini, int fim) {
+		final int lim = ini + SP.loopBound(fim - ini);
+
+		int i = ini;
+		switch (op) {
+			case AXPY -> {
+				final FloatVector valfa = FloatVector.broadcast(SP, alfa);
+				for (; i < lim; i += VL) {
+					FloatVector vb = FloatVector.fromArray(SP, b, offB + i);
+					FloatVector vd = FloatVector.fromArray(SP, d, offD + i);
+					vb.fma(valfa, vd).intoArray(d, offD + i);
+				}
+			}
+			case SUB_T -> {
+				for (; i < lim; i += VL) {
+					FloatVector vd = FloatVector.fromArray(SP, d, offD + i);
+					vd.sub(FloatVector.fromArray(SP, b, offB + i)).intoArray(d, offD + i);
+				}
+			}
+			case MUL_T -> {
+				for (; i < lim; i += VL) {
+					FloatVector vd = FloatVector.fromArray(SP, d, offD + i);
+					vd.mul(FloatVector.fromArray(SP, b, offB + i)).intoArray(d, offD + i);
+				}
+			}
+			case DIV_T -> {
+				for (; i < lim; i += VL) {
+					FloatVector vd = FloatVector.fromArray(SP, d, offD + i);
+					vd.div(FloatVector.fromArray(SP, b, offB + i)).intoArray(d, offD + i);
+				}
+			}
+			case MAX_T -> {
+				for (; i < lim; i += VL) {
+					FloatVector vd = FloatVector.fromArray(SP, d, offD + i);
+					vd.max(FloatVector.fromArray(SP, b, offB + i)).intoArray(d, offD + i);
+				}
+			}
+			default -> {}// tratado pela versão escalar
+		}
+
+		if (i < fim) {
+			binarioEscalar(op, d, offD, b, offB, alfa, i, fim);
+		}
+	}
+
+	/**
+	 * Processa o intervalo {@code [ini, fim)} de uma operação ternária, os
+	 * elementos que não completam um vetor são processados pela versão escalar.
+	 */
+	static void ternario(int op, float[] d, int offD, float[] a, int offA, float[] b, int offB, float alfa, int ini, int fim) {
+		final int lim = ini + SP.loopBound(fim - ini);
+
+		int i = ini;
+		switch (op) {
+			case ADDCMUL -> {
+				for (; i < lim; i += VL) {
+					FloatVector va = FloatVector.fromArray(SP, a, offA + i).mul(alfa);
+					FloatVector vb = FloatVector.fromArray(SP, b, offB + i);
+					FloatVector vd = FloatVector.fromArray(SP, d, offD + i);
+					va.fma(vb, vd).intoArray(d, offD + i);
+				}
+			}
+			case ADDCDIV -> {
+				final FloatVector valfa = FloatVector.broadcast(SP, alfa);
+				for (; i < lim; i += VL) {
+					FloatVector va = FloatVector.fromArray(SP, a, offA + i);
+					FloatVector vb = FloatVector.fromArray(SP, b, offB + i);
+					FloatVector vd = FloatVector.fromArray(SP, d, offD + i);
+					va.div(vb).fma(valfa, vd).intoArray(d, offD + i);
+				}
+			}
+			default -> {}// tratado pela versão escalar
+		}
+
+		if (i < fim) {
+			ternarioEscalar(op, d, offD, a, offA, b, offB, alfa, i, fim);
+		}
+	}
+
+}
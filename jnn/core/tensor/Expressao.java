@@ -0,0 +1,738 @@
+package jnn.core.tensor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import jnn.core.parallel.JNNparallel;
+
+/**
+ * <h2>
+ *		Expressão Elemento a Elemento
+ * </h2>
+ * <p>
+ *		Modo preguiçoso (lazy) das operações elemento a elemento.
+ * </p>
+ * <p>
+ *		Cada operação apenas adiciona um nó a uma pequena árvore de expressão,
+ *		nenhum cálculo é feito até o resultado ser materializado com
+ *		{@code em()}, {@code avaliar()} ou {@code soma()}. Na materialização a
+ *		árvore é compilada em um programa e todos os nós são executados em um
+ *		único laço, bloco a bloco, onde os valores intermediários ficam em
+ *		buffers pequenos que permanecem em cache. Assim cada elemento dos
+ *		tensores envolvidos é lido e escrito apenas uma vez.
+ * </p>
+ * <p>
+ *		Exemplo (RMSProp):
+ * </p>
+ * <pre>
+ *Expressao ac = Expressao.de(ac_i).mul(rho)
+ *    .add(Expressao.de(g_i).quadrado().mul(1 - rho))
+ *    .salvar(ac_i);
+ *
+ *Expressao.de(p_i)
+ *    .sub(Expressao.de(g_i).mul(lr).div(ac.sqrt().add(eps)))
+ *    .em(p_i);
+ * </pre>
+ * <p>
+ *		Todos os tensores da expressão devem ser contíguos e possuir a mesma
+ *		quantidade de elementos. Nós reutilizados em mais de um ponto da
+ *		árvore são calculados uma única vez.
+ * </p>
+ * <p>
+ *		Nós criados com {@code salvar()} escrevem o próprio valor no destino
+ *		durante a execução. Tensores salvos e lidos na mesma expressão são
+ *		lidos antes da escrita, desde que a leitura faça parte do valor salvo.
+ * </p>
+ * @see Tensor#expr()
+ */
+public final class Expressao {
+
+	/**
+	 * Quantidade de elementos processados por bloco.
+	 */
+	static final int BLOCO = 512;
+
+	/**
+	 * Quantidade mínima de elementos para dividir a execução entre threads.
+	 */
+	static final int MIN_PARALELO = 1 << 16;
+
+	/**
+	 * Quantidade mínima de elementos por bloco paralelo.
+	 */
+	static final int GRAO = 1 << 14;
+
+	// tipos de nós
+
+	private static final int FOLHA = 0;
+	private static final int ESCALAR = 1;// operação do ElementosKernel com escalares
+	private static final int BINARIO = 2;
+	private static final int UNARIO = 3;
+	private static final int SALVAR = 4;
+
+	// operações entre expressões
+
+	private static final int OP_ADD = 0;
+	private static final int OP_SUB = 1;
+	private static final int OP_MUL = 2;
+	private static final int OP_DIV = 3;
+	private static final int OP_MAX = 4;
+	private static final int OP_MIN = 5;
+
+	// operações unárias sem escalares
+
+	private static final int OP_ABS = 0;
+	private static final int OP_QUADRADO = 1;
+
+	// instruções do programa
+
+	private static final int INS_CARREGAR = 0;
+	private static final int INS_SALVAR = 1;
+	private static final int INS_ESCALAR = 2;
+	private static final int INS_BINARIO = 3;
+	private static final int INS_UNARIO = 4;
+
+	/**
+	 * Tipo do nó.
+	 */
+	private final int tipo;
+
+	/**
+	 * Operação do nó.
+	 */
+	private final int op;
+
+	/**
+	 * Operandos do nó.
+	 */
+	private final Expressao a, b;
+
+	/**
+	 * Escalares do nó.
+	 */
+	private final float x, y;
+
+	/**
+	 * Dados de folhas e nós de salvamento.
+	 */
+	private final TensorData dados;
+
+	/**
+	 * Formato da folha, usado para criar o resultado de {@code avaliar()}.
+	 */
+	private final int[] shape;
+
+	/**
+	 * Construtor interno.
+	 */
+	private Expressao(int tipo, int op, Expressao a, Expressao b, float x, float y, TensorData dados, int[] shape) {
+		this.tipo = tipo;
+		this.op = op;
+		this.a = a;
+		this.b = b;
+		this.x = x;
+		this.y = y;
+		this.dados = dados;
+		this.shape = shape;
+	}
+
+	/**
+	 * Inicia uma expressão a partir do tensor.
+	 * @param t {@code Tensor} contíguo.
+	 * @return expressão com o valor do tensor.
+	 */
+	public static Expressao de(Tensor t) {
+		if (t == null) {
+			throw new IllegalArgumentException(
+				"\nTensor nulo."
+			);
+		}
+
+		if (!t.isContiguous()) {
+			throw new IllegalArgumentException(
+				"\nO tensor da expressão deve ser contíguo."
+			);
+		}
+
+		return new Expressao(FOLHA, 0, null, null, 0, 0, t.data(), t.shape());
+	}
+
+	/**
+	 * Inicia uma expressão a partir do conjunto de dados.
+	 * @param td {@code TensorData} base.
+	 * @return expressão com o valor dos dados.
+	 */
+	public static Expressao de(TensorData td) {
+		if (td == null) {
+			throw new IllegalArgumentException(
+				"\nTensorData nulo."
+			);
+		}
+
+		return new Expressao(FOLHA, 0, null, null, 0, 0, td, new int[]{ td.tam() });
+	}
+
+	/**
+	 * Cria um nó de operação com escalares.
+	 */
+	private Expressao escalar(int op, float x, float y) {
+		return new Expressao(ESCALAR, op, this, null, x, y, null, null);
+	}
+
+	/**
+	 * Cria um nó de operação entre expressões.
+	 */
+	private Expressao binario(int op, Expressao e) {
+		if (e == null) {
+			throw new IllegalArgumentException(
+				"\nExpressão nula."
+			);
+		}
+
+		return new Expressao(BINARIO, op, this, e, 0, 0, null, null);
+	}
+
+	/**
+	 * Cria um nó de operação unária.
+	 */
+	private Expressao unario(int op) {
+		return new Expressao(UNARIO, op, this, null, 0, 0, null, null);
+	}
+
+	/**
+	 * {@code this + e}
+	 * @param e expressão.
+	 * @return nova expressão.
+	 */
+	public Expressao add(Expressao e) {
+		return binario(OP_ADD, e);
+	}
+
+	/**
+	 * {@code this + t}
+	 * @param t tensor.
+	 * @return nova expressão.
+	 */
+	public Expressao add(Tensor t) {
+		return add(de(t));
+	}
+
+	/**
+	 * {@code this + x}
+	 * @param x escalar.
+	 * @return nova expressão.
+	 */
+	public Expressao add(float x) {
+		return escalar(ElementosKernel.ADD, x, 0);
+	}
+
+	/**
+	 * {@code this - e}
+	 * @param e expressão.
+	 * @return nova expressão.
+	 */
+	public Expressao sub(Expressao e) {
+		return binario(OP_SUB, e);
+	}
+
+	/**
+	 * {@code this - t}
+	 * @param t tensor.
+	 * @return nova expressão.
+	 */
+	public Expressao sub(Tensor t) {
+		return sub(de(t));
+	}
+
+	/**
+	 * {@code this - x}
+	 * @param x escalar.
+	 * @return nova expressão.
+	 */
+	public Expressao sub(float x) {
+		return escalar(ElementosKernel.ADD, -x, 0);
+	}
+
+	/**
+	 * {@code this * e}
+	 * @param e expressão.
+	 * @return nova expressão.
+	 */
+	public Expressao mul(Expressao e) {
+		return binario(OP_MUL, e);
+	}
+
+	/**
+	 * {@code this * t}
+	 * @param t tensor.
+	 * @return nova expressão.
+	 */
+	public Expressao mul(Tensor t) {
+		return mul(de(t));
+	}
+
+	/**
+	 * {@code this * x}
+	 * @param x escalar.
+	 * @return nova expressão.
+	 */
+	public Expressao mul(float x) {
+		return escalar(ElementosKernel.MUL, x, 0);
+	}
+
+	/**
+	 * {@code this / e}
+	 * @param e expressão.
+	 * @return nova expressão.
+	 */
+	public Expressao div(Expressao e) {
+		return binario(OP_DIV, e);
+	}
+
+	/**
+	 * {@code this / t}
+	 * @param t tensor.
+	 * @return nova expressão.
+	 */
+	public Expressao div(Tensor t) {
+		return div(de(t));
+	}
+
+	/**
+	 * {@code this / x}
+	 * @param x escalar.
+	 * @return nova expressão.
+	 */
+	public Expressao div(float x) {
+		return escalar(ElementosKernel.DIV, x, 0);
+	}
+
+	/**
+	 * {@code max(this, e)}
+	 * @param e expressão.
+	 * @return nova expressão.
+	 */
+	public Expressao max(Expressao e) {
+		return binario(OP_MAX, e);
+	}
+
+	/**
+	 * {@code max(this, x)}
+	 * @param x escalar.
+	 * @return nova expressão.
+	 */
+	public Expressao max(float x) {
+		return escalar(ElementosKernel.MAX, x, 0);
+	}
+
+	/**
+	 * {@code min(this, e)}
+	 * @param e expressão.
+	 * @return nova expressão.
+	 */
+	public Expressao min(Expressao e) {
+		return binario(OP_MIN, e);
+	}
+
+	/**
+	 * Restringe os valores entre {@code min} e {@code max}.
+	 * @param min valor mínimo.
+	 * @param max valor máximo.
+	 * @return nova expressão.
+	 */
+	public Expressao clamp(float min, float max) {
+		if (min >= max) {
+			throw new IllegalArgumentException(
+				"\nValor mínimo não pode ser maior ou igual ao valor máximo."
+			);
+		}
+
+		return escalar(ElementosKernel.CLAMP, min, max);
+	}
+
+	/**
+	 * {@code -this}
+	 * @return nova expressão.
+	 */
+	public Expressao neg() {
+		return mul(-1.0f);
+	}
+
+	/**
+	 * {@code |this|}
+	 * @return nova expressão.
+	 */
+	public Expressao abs() {
+		return unario(OP_ABS);
+	}
+
+	/**
+	 * {@code this²}
+	 * @return nova expressão.
+	 */
+	public Expressao quadrado() {
+		return unario(OP_QUADRADO);
+	}
+
+	/**
+	 * {@code sqrt(this)}
+	 * @return nova expressão.
+	 */
+	public Expressao sqrt() {
+		return escalar(ElementosKernel.SQRT, 0, 0);
+	}
+
+	/**
+	 * {@code exp(this)}
+	 * @return nova expressão.
+	 */
+	public Expressao exp() {
+		return escalar(ElementosKernel.EXP, 0, 0);
+	}
+
+	/**
+	 * {@code tanh(this)}
+	 * @return nova expressão.
+	 */
+	public Expressao tanh() {
+		return escalar(ElementosKernel.TANH, 0, 0);
+	}
+
+	/**
+	 * Escreve o valor da expressão no destino durante a execução, sem
+	 * materializá-la.
+	 * <p>
+	 *		Permite que uma mesma execução atualize mais de um tensor, como
+	 *		os momentos e os parâmetros de um otimizador.
+	 * </p>
+	 * @param dst destino.
+	 * @return expressão com o mesmo valor.
+	 */
+	public Expressao salvar(TensorData dst) {
+		if (dst == null) {
+			throw new IllegalArgumentException(
+				"\nDestino nulo."
+			);
+		}
+
+		return new Expressao(SALVAR, 0, this, null, 0, 0, dst, null);
+	}
+
+	/**
+	 * Escreve o valor da expressão no destino durante a execução, sem
+	 * materializá-la.
+	 * @param dst destino contíguo.
+	 * @return expressão com o mesmo valor.
+	 * @see #salvar(TensorData)
+	 */
+	public Expressao salvar(Tensor dst) {
+		return salvar(de(dst).dados);
+	}
+
+	/**
+	 * Materializa a expressão no destino.
+	 * @param dst destino, pode ser um dos tensores da expressão.
+	 * @return destino.
+	 */
+	public TensorData em(TensorData dst) {
+		salvar(dst).executar();
+		return dst;
+	}
+
+	/**
+	 * Materializa a expressão no destino.
+	 * @param dst destino contíguo, pode ser um dos tensores da expressão.
+	 * @return destino.
+	 */
+	public Tensor em(Tensor dst) {
+		salvar(dst).executar();
+		return dst;
+	}
+
+	/**
+	 * Materializa a expressão em um novo tensor, com o formato do primeiro
+	 * tensor da expressão.
+	 * @return novo {@code Tensor} com o resultado.
+	 */
+	public Tensor avaliar() {
+		Expressao folha = this;
+		while (folha.tipo != FOLHA) folha = folha.a;
+
+		return em(new Tensor(folha.shape));
+	}
+
+	/**
+	 * Calcula a soma dos valores da expressão, sem materializá-la.
+	 * <p>
+	 *		Nós de salvamento da expressão também são executados.
+	 * </p>
+	 * @return soma dos valores.
+	 */
+	public float soma() {
+		Programa p = new Programa(this);
+
+		if (p.n < MIN_PARALELO) {
+			return p.somar(0, p.n);
+		}
+
+		return JNNparallel.parallelReduce(0, p.n, GRAO, 0.0f, p::somar, Float::sum);
+	}
+
+	/**
+	 * Executa a expressão, apenas pelos efeitos dos nós de salvamento.
+	 */
+	private void executar() {
+		executar(this);
+	}
+
+	/**
+	 * Executa as expressões em uma única passada sobre os dados, apenas
+	 * pelos efeitos dos nós de salvamento.
+	 * <p>
+	 *		As expressões são executadas na ordem recebida, e nós compartilhados
+	 *		entre elas são calculados uma única vez.
+	 * </p>
+	 * @param exprs expressões.
+	 */
+	public static void executar(Expressao... exprs) {
+		if (exprs == null || exprs.length < 1) {
+			throw new IllegalArgumentException(
+				"\nNenhuma expressão fornecida."
+			);
+		}
+
+		Programa p = new Programa(exprs);
+
+		if (p.n < MIN_PARALELO) {
+			p.executar(0, p.n);
+		} else {
+			JNNparallel.parallelFor(0, p.n, GRAO, p::executar);
+		}
+	}
+
+	/**
+	 * Árvore compilada em uma sequência de instruções sobre registradores,
+	 * onde cada registrador é um buffer com um bloco de elementos.
+	 */
+	private static final class Programa {
+
+		/**
+		 * Quantidade de elementos.
+		 */
+		int n = -1;
+
+		/**
+		 * Quantidade de registradores.
+		 */
+		int regs = 0;
+
+		/**
+		 * Registrador com o valor da raiz.
+		 */
+		final int raiz;
+
+		// instruções
+
+		int[] ins = new int[8];
+		int[] ops = new int[8];
+		int[] dst = new int[8];
+		int[] ra = new int[8];
+		int[] rb = new int[8];
+		float[] xs = new float[8];
+		float[] ys = new float[8];
+		int numIns = 0;
+
+		/**
+		 * Dados lidos ou escritos pelo programa.
+		 */
+		final List<TensorData> dados = new ArrayList<>();
+
+		/**
+		 * Compila as expressões em um único programa.
+		 * @param exprs raízes das expressões, a primeira é usada pela soma.
+		 */
+		Programa(Expressao... exprs) {
+			IdentityHashMap<Expressao, Integer> memo = new IdentityHashMap<>();
+
+			int r = -1;
+			for (Expressao e : exprs) {
+				if (e == null) {
+					throw new IllegalArgumentException(
+						"\nExpressão nula."
+					);
+				}
+
+				int reg = compilar(e, memo);
+				if (r < 0) r = reg;
+			}
+
+			raiz = r;
+		}
+
+		/**
+		 * Compila o nó e suas dependências, retornando o registrador com o
+		 * valor do nó.
+		 */
+		private int compilar(Expressao e, IdentityHashMap<Expressao, Integer> memo) {
+			Integer r = memo.get(e);
+			if (r != null) return r;
+
+			int reg;
+			switch (e.tipo) {
+				case FOLHA -> {
+					reg = regs++;
+					emitir(INS_CARREGAR, 0, reg, -1, dado(e.dados), 0, 0);
+				}
+				case ESCALAR -> {
+					int a = compilar(e.a, memo);
+					reg = regs++;
+					emitir(INS_ESCALAR, e.op, reg, a, -1, e.x, e.y);
+				}
+				case BINARIO -> {
+					int a = compilar(e.a, memo);
+					int b = compilar(e.b, memo);
+					reg = regs++;
+					emitir(INS_BINARIO, e.op, reg, a, b, 0, 0);
+				}
+				case UNARIO -> {
+					int a = compilar(e.a, memo);
+					reg = regs++;
+					emitir(INS_UNARIO, e.op, reg, a, -1, 0, 0);
+				}
+				default -> {// SALVAR
+					reg = compilar(e.a, memo);
+					emitir(INS_SALVAR, 0, -1, reg, dado(e.dados), 0, 0);
+				}
+			}
+
+			memo.put(e, reg);
+			return reg;
+		}
+
+		/**
+		 * Registra os dados usados pelo programa, validando o tamanho.
+		 */
+		private int dado(TensorData td) {
+			if (n < 0) {
+				n = td.tam();
+			} else if (td.tam() != n) {
+				throw new IllegalArgumentException(
+					"\nTodos os tensores da expressão devem possuir o mesmo tamanho, " +
+					"esperado " + n + ", recebido " + td.tam() + "."
+				);
+			}
+
+			td.data();// apenas dados no heap são suportados
+
+			for (int i = 0; i < dados.size(); i++) {
+				if (dados.get(i) == td) return i;
+			}
+
+			dados.add(td);
+			return dados.size() - 1;
+		}
+
+		private void emitir(int in, int op, int d, int a, int b, float x, float y) {
+			if (numIns == ins.length) {
+				int cap = numIns * 2;
+				ins = Arrays.copyOf(ins, cap);
+				ops = Arrays.copyOf(ops, cap);
+				dst = Arrays.copyOf(dst, cap);
+				ra = Arrays.copyOf(ra, cap);
+				rb = Arrays.copyOf(rb, cap);
+				xs = Arrays.copyOf(xs, cap);
+				ys = Arrays.copyOf(ys, cap);
+			}
+
+			ins[numIns] = in;
+			ops[numIns] = op;
+			dst[numIns] = d;
+			ra[numIns] = a;
+			rb[numIns] = b;
+			xs[numIns] = x;
+			ys[numIns] = y;
+			numIns++;
+		}
+
+		/**
+		 * Executa o programa sobre o intervalo {@code [ini, fim)}.
+		 */
+		void executar(int ini, int fim) {
+			final float[][] r = new float[regs][BLOCO];
+
+			for (int i = ini; i < fim; i += BLOCO) {
+				bloco(r, i, Math.min(BLOCO, fim - i));
+			}
+		}
+
+		/**
+		 * Executa o programa sobre o intervalo {@code [ini, fim)}, retornando
+		 * a soma dos valores da raiz.
+		 */
+		float somar(int ini, int fim) {
+			final float[][] r = new float[regs][BLOCO];
+			final float[] res = r[raiz];
+
+			double soma = 0;
+			for (int i = ini; i < fim; i += BLOCO) {
+				final int tam = Math.min(BLOCO, fim - i);
+				bloco(r, i, tam);
+
+				float parcial = 0;
+				for (int j = 0; j < tam; j++) parcial += res[j];
+				soma += parcial;
+			}
+
+			return (float) soma;
+		}
+
+		/**
+		 * Executa todas as instruções sobre um bloco de elementos.
+		 * @param r registradores.
+		 * @param ini índice do primeiro elemento do bloco.
+		 * @param tam quantidade de elementos do bloco.
+		 */
+		private void bloco(float[][] r, int ini, int tam) {
+			for (int k = 0; k < numIns; k++) {
+				switch (ins[k]) {
+					case INS_CARREGAR -> {
+						TensorData td = dados.get(rb[k]);
+						System.arraycopy(td.data(), td.offset() + ini, r[dst[k]], 0, tam);
+					}
+					case INS_SALVAR -> {
+						TensorData td = dados.get(rb[k]);
+						System.arraycopy(r[ra[k]], 0, td.data(), td.offset() + ini, tam);
+					}
+					case INS_ESCALAR -> ElementosKernel.unario(
+						ops[k], r[dst[k]], 0, r[ra[k]], 0, xs[k], ys[k], 0, tam
+					);
+					case INS_BINARIO -> binario(ops[k], r[dst[k]], r[ra[k]], r[rb[k]], tam);
+					default -> unario(ops[k], r[dst[k]], r[ra[k]], tam);
+				}
+			}
+		}
+
+		private static void binario(int op, float[] d, float[] a, float[] b, int n) {
+			switch (op) {
+				case OP_ADD -> { for (int i = 0; i < n; i++) d[i] = a[i] + b[i]; }
+				case OP_SUB -> { for (int i = 0; i < n; i++) d[i] = a[i] - b[i]; }
+				case OP_MUL -> { for (int i = 0; i < n; i++) d[i] = a[i] * b[i]; }
+				case OP_DIV -> { for (int i = 0; i < n; i++) d[i] = a[i] / b[i]; }
+				case OP_MAX -> { for (int i = 0; i < n; i++) d[i] = Math.max(a[i], b[i]); }
+				default     -> { for (int i = 0; i < n; i++) d[i] = Math.min(a[i], b[i]); }
+			}
+		}
+
+		private static void unario(int op, float[] d, float[] a, int n) {
+			if (op == OP_ABS) {
+				for (int i = 0; i < n; i++) d[i] = Math.abs(a[i]);
+			} else {
+				for (int i = 0; i < n; i++) d[i] = a[i] * a[i];
+			}
+		}
+
+	}
+
+}
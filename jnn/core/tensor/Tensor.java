@@ -1,5 +1,7 @@
 package jnn.core.tensor;
 
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
@@ -197,6 +199,64 @@ public class Tensor implements Iterable<Float>, Cloneable {
 		this.strides = initStrides(shape);
     }
 
+	/**
+	 * Inicializa um novo tensor {@code vazio} com os dados alocados fora do heap.
+	 * <p>
+	 *		Os dados são repassados sem cópias para os kernels nativos e liberados
+	 *		junto com a arena fornecida.
+	 * </p>
+	 * @param arena {@code Arena} responsável pelo ciclo de vida dos dados.
+	 * @param shape formato desejado.
+	 * @see TensorData#TensorData(int, Arena)
+	 */
+	public Tensor(Arena arena, int... shape) {
+		if (shape == null) {
+			throw new IllegalArgumentException(
+				"\nShape nulo."
+			);
+		}
+
+		int tam = calcularTamanho(shape);
+		this.shape = initShape(shape);
+		dados = new TensorData(tam, arena);
+		this.strides = initStrides(shape);
+	}
+
+	/**
+	 * Inicializa um novo tensor usando um conjunto de dados existente.
+	 * <p>
+	 *		O conteúdo não é copiado, alterações nos dados são refletidas
+	 *		no tensor e vice-versa.
+	 * </p>
+	 * @param dados conjunto de dados base.
+	 * @param shape formato desejado.
+	 */
+	public Tensor(TensorData dados, int... shape) {
+		if (dados == null) {
+			throw new IllegalArgumentException(
+				"\nConjunto de dados nulo."
+			);
+		}
+
+		if (shape == null) {
+			throw new IllegalArgumentException(
+				"\nShape nulo."
+			);
+		}
+
+		int tam = calcularTamanho(shape);
+		if (tam != dados.tam()) {
+			throw new IllegalArgumentException(
+				"\nTamanho dos dados (" + dados.tam() + ") incompatível com o" +
+				" formato fornecido (" + tam + ")."
+			);
+		}
+
+		this.shape = initShape(shape);
+		this.dados = dados;
+		this.strides = initStrides(shape);
+	}
+
 	/**
 	 * Inicializa um tensor a partir de um conjunto de dados.
 	 * @param dados dados base..
@@ -428,7 +488,7 @@ public class Tensor implements Iterable<Float>, Cloneable {
 
 		for (int i = 0; i < n; i++) {
 			int offset = i * tamAntigo;
-			System.arraycopy(dt, 0, db, offset, tamAntigo);
+			System.arraycopy(dt, offset(), db, offset, tamAntigo);
 		}
 
 		return bloco;
@@ -564,7 +624,7 @@ public class Tensor implements Iterable<Float>, Cloneable {
 			);
 		}
 
-		int cont = 0;
+		int cont = offset();
 		float[] d = array();
 		for (int i = 0; i < d1; i++) {
 			for (int j = 0; j < d2; j++) {
@@ -611,7 +671,7 @@ public class Tensor implements Iterable<Float>, Cloneable {
 			);
 		}
 
-		int cont = 0;
+		int cont = offset();
 		float[] d = array();
 		for (int i = 0; i < d1; i++) {
 			for (int j = 0; j < d2; j++) {
@@ -653,7 +713,7 @@ public class Tensor implements Iterable<Float>, Cloneable {
 			);
 		}
 
-		int cont = 0;
+		int cont = offset();
 		float[] d = array();
 		for (int i = 0; i < d1; i++) {
 			for (int j = 0; j < d2; j++) {
@@ -691,7 +751,7 @@ public class Tensor implements Iterable<Float>, Cloneable {
 			);
 		}
 
-		int id = 0;
+		int id = offset();
 		float[] d = array();
 		for (int i = 0; i < lin; i++) {
 			for (int j = 0; j < col; j++) {
@@ -790,6 +850,8 @@ public class Tensor implements Iterable<Float>, Cloneable {
 	 * <pre>
 	 *  this += tensor
 	 * </pre>
+	 * O tensor recebido pode possuir um formato menor, desde que possa ser
+	 * expandido (broadcasting) para o formato local.
 	 * @param t {@code Tensor} base.
 	 * @return {@code Tensor} local alterado.
 	 */
@@ -797,6 +859,11 @@ public class Tensor implements Iterable<Float>, Cloneable {
 		if (t.tam() == 1) return add(t.item());
 
         if (!compShape(t)) {
+			if (Broadcast.expansivel(shape, t.shape)) {
+				Broadcast.aplicar(this, this, t, Broadcast.SOMA);
+				return this;
+			}
+
             throw new IllegalArgumentException(
                 "\nTensor fornecido possui shape " + t.shapeStr() +
 				", shape esperado " + shapeStr()
@@ -917,6 +984,8 @@ public class Tensor implements Iterable<Float>, Cloneable {
 	 * <pre>
 	 *  this -= tensor
 	 * </pre>
+	 * O tensor recebido pode possuir um formato menor, desde que possa ser
+	 * expandido (broadcasting) para o formato local.
 	 * @param t {@code Tensor} base.
 	 * @return {@code Tensor} local alterado.
 	 */
@@ -924,6 +993,11 @@ public class Tensor implements Iterable<Float>, Cloneable {
 		if (t.tam() == 1) return sub(t.item());
 
         if (!compShape(t)) {
+			if (Broadcast.expansivel(shape, t.shape)) {
+				Broadcast.aplicar(this, this, t, Broadcast.SUB);
+				return this;
+			}
+
             throw new IllegalArgumentException(
                 "\nTensor fornecido possui shape " + t.shapeStr() +
 				", shape esperado " + shapeStr()
@@ -1044,6 +1118,8 @@ public class Tensor implements Iterable<Float>, Cloneable {
 	 * <pre>
 	 *  this *= tensor
 	 * </pre>
+	 * O tensor recebido pode possuir um formato menor, desde que possa ser
+	 * expandido (broadcasting) para o formato local.
 	 * @param t {@code Tensor} com conteúdo.
 	 * @return {@code Tensor} local alterado.
 	 */
@@ -1051,6 +1127,11 @@ public class Tensor implements Iterable<Float>, Cloneable {
 		if (t.tam() == 1) return mul(t.item());
 
         if (!compShape(t)) {
+			if (Broadcast.expansivel(shape, t.shape)) {
+				Broadcast.aplicar(this, this, t, Broadcast.MUL);
+				return this;
+			}
+
             throw new IllegalArgumentException(
                 "\nTensor fornecido possui shape " + t.shapeStr() +
 				", shape esperado " + shapeStr()
@@ -1171,6 +1252,8 @@ public class Tensor implements Iterable<Float>, Cloneable {
 	 * <pre>
 	 *  this /= tensor
 	 * </pre>
+	 * O tensor recebido pode possuir um formato menor, desde que possa ser
+	 * expandido (broadcasting) para o formato local.
 	 * @param t {@code Tensor} com conteúdo.
 	 * @return {@code Tensor} local alterado.
 	 */
@@ -1178,6 +1261,11 @@ public class Tensor implements Iterable<Float>, Cloneable {
 		if (t.tam() == 1) return div(t.item());
 
         if (!compShape(t)) {
+			if (Broadcast.expansivel(shape, t.shape)) {
+				Broadcast.aplicar(this, this, t, Broadcast.DIV);
+				return this;
+			}
+
             throw new IllegalArgumentException(
                 "\nTensor fornecido possui shape " + t.shapeStr() +
 				", shape esperado " + shapeStr()
@@ -1492,9 +1580,10 @@ public class Tensor implements Iterable<Float>, Cloneable {
 		float[] td = array();
 		float[] da = a.array();
 		float[] db = b.array();
+		final int ot = offset(), oa = a.offset(), ob = b.offset();
 
 		for (int i = 0; i < n; i++) {
-			td[i] = fun.apply(da[i], db[i]);
+			td[ot + i] = fun.apply(da[oa + i], db[ob + i]);
 		}
 
 		return this;
@@ -1541,9 +1630,10 @@ public class Tensor implements Iterable<Float>, Cloneable {
 		float[] da = a.array();
 		float[] db = b.array();
 		float[] dc = c.array();
+		final int ot = offset(), oa = a.offset(), ob = b.offset(), oc = c.offset();
 
 		for (int i = 0; i < n; i++) {
-			td[i] = fun.apply(da[i], db[i], dc[i]);
+			td[ot + i] = fun.apply(da[oa + i], db[ob + i], dc[oc + i]);
 		}
 		
 		return this;
@@ -1563,6 +1653,23 @@ public class Tensor implements Iterable<Float>, Cloneable {
 		return dados.get(0);
 	}
 
+	/**
+	 * Inicia uma expressão preguiçosa a partir do tensor.
+	 * <p>
+	 *		As operações da expressão não são executadas imediatamente, mas
+	 *		fundidas em uma única passada sobre os dados quando o resultado
+	 *		for materializado.
+	 * </p>
+	 * <pre>
+	 *Tensor res = a.expr().mul(b).add(1.0f).sqrt().avaliar();
+	 * </pre>
+	 * @return {@code Expressao} com o valor do tensor.
+	 * @see Expressao
+	 */
+	public Expressao expr() {
+		return Expressao.de(this);
+	}
+
 	/**
 	 * Aplica a função recebida em todos os elementos do tensor.
 	 * <p>
@@ -1630,8 +1737,8 @@ public class Tensor implements Iterable<Float>, Cloneable {
 		float res = in.floatValue();
 
 		float[] d = array();
-		for (float val : d) {
-			res = fun.apply(res, val);
+		for (int i = offset(), fim = offset() + tam(); i < fim; i++) {
+			res = fun.apply(res, d[i]);
 		}
 
 		return new Tensor(1).set(res, 0);
@@ -1723,7 +1830,8 @@ public class Tensor implements Iterable<Float>, Cloneable {
 	 * @return {@code Tensor} local alterado.
 	 */
 	public Tensor relu() {
-		return aplicar(x -> x > 0.0f ? x : 0.0f);
+		dados.maxEntre(0.0f);
+		return this;
 	}
 
 	/**
@@ -1741,7 +1849,8 @@ public class Tensor implements Iterable<Float>, Cloneable {
 	 * @return {@code Tensor} local alterado.
 	 */
 	public Tensor tanh() {
-		return aplicar(x -> 2.0f / (float) (1.0 + Math.exp(-2 * x)) - 1.0f);
+		dados.tanh();
+		return this;
 	}
 
 	/**
@@ -1790,7 +1899,8 @@ public class Tensor implements Iterable<Float>, Cloneable {
 	 * @return {@code Tensor} local alterado.
 	 */
 	public Tensor exp() {
-		return aplicar(x -> (float) Math.exp(x));
+		dados.exp();
+		return this;
 	}
 
 	/**
@@ -2000,6 +2110,42 @@ public class Tensor implements Iterable<Float>, Cloneable {
 		return dados;
 	}
 
+	/**
+	 * Move o conteúdo do tensor para o conjunto de dados recebido.
+	 * <p>
+	 *		O conteúdo atual é copiado para {@code dados}, que passa a ser
+	 *		o armazenamento do tensor. Útil para transformar o tensor em uma
+	 *		view de um bloco de memória maior, como o armazenamento contíguo
+	 *		de parâmetros de um modelo.
+	 * </p>
+	 * <p>
+	 *		Referências para o tensor continuam válidas, mas arrays obtidos
+	 *		anteriormente por {@link #array()} deixam de refletir seu conteúdo.
+	 * </p>
+	 * @param dados novo conjunto de dados.
+	 * @return {@code Tensor} local alterado.
+	 */
+	public Tensor realocar(TensorData dados) {
+		if (dados == null) {
+			throw new IllegalArgumentException(
+				"\nDados nulos."
+			);
+		}
+
+		if (dados.tam() != tam()) {
+			throw new IllegalArgumentException(
+				"\nTamanho dos dados (" + dados.tam() + ") deve ser igual ao" +
+				" tamanho do tensor (" + tam() + ")."
+			);
+		}
+
+		dados.copiar(contiguous().dados);
+		this.dados = dados;
+		this.strides = initStrides(shape);
+
+		return this;
+	}
+
 	/**
 	 * Retorna o conteúdo do tensor no formato de array
 	 * <p>
@@ -2013,6 +2159,28 @@ public class Tensor implements Iterable<Float>, Cloneable {
 		return dados.data();
 	}
 
+	/**
+	 * Retorna um segmento de memória cobrindo os elementos do tensor.
+	 * <p>
+	 *		Apenas segmentos de tensores fora do heap podem ser repassados
+	 *		para código nativo.
+	 * </p>
+	 * @return segmento dos elementos do tensor.
+	 * @see #isNativo()
+	 */
+	public MemorySegment segmento() {
+		return dados.segmentoDados();
+	}
+
+	/**
+	 * Verifica se os dados do tensor estão armazenados fora do heap.
+	 * @return {@code true} caso os dados estejam fora do heap, {@code false} 
+	 * caso contrário.
+	 */
+	public boolean isNativo() {
+		return dados.isNativo();
+	}
+
 	/**
 	 * Configura o nome do tensor.
 	 * @param nome novo nome.
@@ -2273,6 +2441,50 @@ public class Tensor implements Iterable<Float>, Cloneable {
 		return new Tensor(subdados, novoShape, initStrides(novoShape));
 	}
 
+	/**
+	 * Retorna uma view do intervalo {@code [inicio, fim)} da primeira
+	 * dimensão do tensor, mantendo o número de dimensões.
+	 * <p>
+	 *		Exemplo:
+	 * </p>
+	 * <pre>
+	 *tensor = [
+	 *	[1, 2],
+	 *	[3, 4],
+	 *	[5, 6]
+	 *]
+	 *
+	 *tensor.subTensor(0, 2) = [
+	 *	[1, 2],
+	 *	[3, 4]
+	 *]
+	 * </pre>
+	 * @param inicio índice inicial (inclusivo).
+	 * @param fim índice final (exclusivo).
+	 * @return {@code Tensor} com o sub conteúdo.
+	 */
+	public Tensor subTensor(int inicio, int fim) {
+		if (!isContiguous()) {
+			throw new UnsupportedOperationException(
+				"\nO tensor deve ser contíguo."
+			);
+		}
+
+		if (inicio < 0 || fim > shape[0] || inicio >= fim) {
+			throw new IllegalArgumentException(
+				"\nIntervalo [" + inicio + ", " + fim + ") inválido para" +
+				" dimensão de tamanho " + shape[0] + "."
+			);
+		}
+
+		int[] novoShape = shape.clone();
+		novoShape[0] = fim - inicio;
+		int stride = tam() / shape[0];
+
+		TensorData subdados = dados.view(inicio * stride, (fim - inicio) * stride);
+		return new Tensor(subdados, novoShape, initStrides(novoShape));
+	}
+
 	/**
 	 * Realiza uma operação a partir de dois {@code Tensor} que podem conter 
 	 * shapes diferentes.
@@ -2299,75 +2511,30 @@ public class Tensor implements Iterable<Float>, Cloneable {
 	 * @return {@code Tensor} contendo o resultado.
 	 */
 	public Tensor broadcast(Tensor t, FloatBinaryOperator op) {
-		int[] outShape = broadcastShape(this.shape, t.shape);
-		Tensor out = new Tensor(outShape);
-
-		int n = out.tam();
-
-		int[] stridesA = initStrides(this.shape);
-		int[] stridesB = initStrides(t.shape);
-
-		int desvioA = this.shape.length < outShape.length ? outShape.length - this.shape.length : 0;
-		int desvioB = t.shape.length < outShape.length ? outShape.length - t.shape.length : 0;
-
-		float[] data = array();
-		float[] td = t.array();
-		float[] bd = out.array();
-
-		for (int ids = 0; ids < n; ids++) {
-			int temp = ids;
-
-			int idA = 0, idB = 0;
-			for (int d = outShape.length - 1; d >= 0; d--) {
-				int cord = temp % outShape[d];
-				temp /= outShape[d];
-
-				if (d - desvioA >= 0) {// ajuste id de A
-					int dimA = this.shape[d - desvioA];
-					if (dimA != 1) {
-						idA += cord * stridesA[d - desvioA];
-					}
-				}
-
-				if (d - desvioB >= 0) {// ajuste id de B
-					int dimB = t.shape[d - desvioB];
-					if (dimB != 1) {
-						idB += cord * stridesB[d - desvioB];
-					}
-				}
-			}
-
-			bd[ids] = op.apply(data[idA], td[idB]);
-		}
-
+		Tensor out = new Tensor(Broadcast.shape(shape, t.shape));
+		Broadcast.aplicar(out, this, t, op);
 		return out;
 	}
 
 	/**
-	 * Determina o shape resultante do broadcasting
-	 * @param shapeA {@code array} contendo o formato do {@code Tensor} A.
-	 * @param shapeB {@code array} contendo o formato do {@code Tensor} B.
-	 * @return {@code array} contendo o formato do {@code Tensor} resultante do broadcast.
-	*/
-	private int[] broadcastShape(int[] shapeA, int[] shapeB) {
-		int n = Math.max(shapeA.length, shapeB.length);
-		int[] broadShape = new int[n];
-
-		for (int i = 0; i < n; i++) {
-			int dimA = (shapeA.length - i - 1 >= 0) ? shapeA[shapeA.length - i - 1] : 1;
-			int dimB = (shapeB.length - i - 1 >= 0) ? shapeB[shapeB.length - i - 1] : 1;
-
-			if (dimA == dimB || dimA == 1 || dimB == 1) {
-				broadShape[n - i - 1] = Math.max(dimA, dimB);
-			} else {
-				throw new IllegalArgumentException(
-					"\nShapes incompatíveis para broadcasting: "
-					+ "A = " +arrayStr(shapeA) + " e B = " + arrayStr(shapeB)
-				);
-			}
-		}
-
-		return broadShape;
+	 * Realiza uma operação a partir de dois {@code Tensor} que podem conter
+	 * shapes diferentes, escrevendo o resultado no tensor local.
+	 * <p>
+	 *		Nenhum tensor intermediário é criado, A e B devem ser expansíveis
+	 *		para o formato local.
+	 * </p>
+	 * <pre>
+	 *out.broadcast(a, b, (x, y) -> x + y);
+	 * </pre>
+	 * @param a {@code Tensor} A.
+	 * @param b {@code Tensor} B.
+	 * @param op tipo de operação entre os tensores.
+	 * @return {@code Tensor} local alterado.
+	 * @see Broadcast
+	 */
+	public Tensor broadcast(Tensor a, Tensor b, FloatBinaryOperator op) {
+		Broadcast.aplicar(this, a, b, op);
+		return this;
 	}
 
 	/**
@@ -1,5 +1,8 @@
 package jnn.core.tensor;
 
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.util.Arrays;
 
 import jnn.core.tensor.operadores.FloatUnaryOperator;
@@ -11,15 +14,43 @@ import jnn.core.tensor.operadores.FloatUnaryOperator;
  * O TensorData é um conteiner para um array de elementos contíguo em 
  * memória com a promessa de otimizar o desempenho de operações com
  * Tensores.
+ * <p>
+ *      Os elementos podem ficar no heap da JVM (padrão) ou fora dele, em um
+ *      {@code MemorySegment} alinhado e vinculado a uma {@code Arena}. No modo
+ *      fora do heap o conjunto suporta apenas leitura, escrita e cópias, além
+ *      de ser repassado sem cópias para os kernels de {@code OpsNativo}
+ *      quando todos os operandos também estão fora do heap.
+ * </p>
+ * <p>
+ *      Operações aritméticas e as camadas exigem dados no heap. Modelos
+ *      copiam entradas fora do heap uma única vez ao recebê-las, e datasets
+ *      mapeados em memória são copiados por amostra ou lote ao serem usados.
+ * </p>
  * @see jnn.core.tensor.Tensor Tensor
  */
 public class TensorData {
 
+    /**
+     * Alinhamento (em bytes) usado para dados alocados fora do heap.
+     */
+    public static final long ALINHAMENTO_NATIVO = 64;
+
     /**
      * Array de elementos.
+     * <p>
+     *      É {@code null} quando os dados estão fora do heap.
+     * </p>
      */
     private final float[] dados;
 
+    /**
+     * Segmento de memória fora do heap.
+     * <p>
+     *      É {@code null} quando os dados estão no heap.
+     * </p>
+     */
+    private final MemorySegment segmento;
+
     /**
      * Índice inicial. (para views)
      */
@@ -64,6 +95,7 @@ public class TensorData {
         this.offset = offset;
         this.tam = tam;
         this.dados = arr;
+        this.segmento = null;
     }
 
     /**
@@ -81,6 +113,7 @@ public class TensorData {
         }
 
         this.dados = Arrays.copyOf(arr, arr.length);
+        this.segmento = null;
         this.offset = 0;
         this.tam = arr.length;
     }
@@ -100,10 +133,117 @@ public class TensorData {
         }
 
         this.dados = new float[tam];
+        this.segmento = null;
         this.offset = 0;
         this.tam = dados.length;
     }
 
+    /**
+     * Inicializa um {@code TensorData} fora do heap a partir um tamanho 
+     * especificado.
+     * <p>
+     *      O conteúdo estará zerado e alinhado em {@link #ALINHAMENTO_NATIVO}
+     *      bytes, sendo liberado junto com a arena fornecida.
+     * </p>
+     * @param tam tamanho desejado.
+     * @param arena {@code Arena} responsável pelo ciclo de vida dos dados.
+     */
+    public TensorData(int tam, Arena arena) {
+        if (tam < 1) {
+            throw new IllegalArgumentException(
+                "\nTamanho deve ser maior que zero, mas recebido " + tam + "."
+            );
+        }
+        if (arena == null) {
+            throw new IllegalArgumentException(
+                "\nArena nula."
+            );
+        }
+
+        this.dados = null;
+        this.segmento = arena.allocate(Float.BYTES * (long) tam, ALINHAMENTO_NATIVO);
+        this.offset = 0;
+        this.tam = tam;
+    }
+
+    /**
+     * Inicializa um {@code TensorData} a partir de um segmento de memória
+     * existente, como um arquivo mapeado.
+     * <p>
+     *      O conteúdo não é copiado e o ciclo de vida dos dados é o mesmo
+     *      do segmento. Segmentos somente leitura só suportam operações de
+     *      leitura e cópia para outros conjuntos.
+     * </p>
+     * @param seg segmento base, os elementos são lidos na ordem de bytes
+     * nativa da plataforma.
+     */
+    public TensorData(MemorySegment seg) {
+        this(seg, 0, tamSegmento(seg));
+    }
+
+    /**
+     * Calcula a quantidade de elementos de um segmento.
+     * @param seg segmento base.
+     * @return quantidade de elementos.
+     */
+    private static int tamSegmento(MemorySegment seg) {
+        if (seg == null) {
+            throw new IllegalArgumentException(
+                "\nSegmento nulo."
+            );
+        }
+
+        if (!seg.isNative() && !seg.isMapped()) {
+            throw new IllegalArgumentException(
+                "\nO segmento deve estar fora do heap."
+            );
+        }
+
+        long bytes = seg.byteSize();
+        if (bytes % Float.BYTES != 0 || seg.address() % Float.BYTES != 0) {
+            throw new IllegalArgumentException(
+                "\nSegmento deve estar alinhado e conter um número inteiro de elementos."
+            );
+        }
+
+        long tam = bytes / Float.BYTES;
+        if (tam < 1 || tam > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                "\nQuantidade de elementos do segmento (" + tam + ") fora do limite suportado."
+            );
+        }
+
+        return (int) tam;
+    }
+
+    /**
+     * Inicializa uma view de um {@code TensorData} fora do heap.
+     * @param seg segmento base.
+     * @param offset indice inicial a partir do segmento base.
+     * @param tam tamanho final do conjunto de elementos.
+     */
+    private TensorData(MemorySegment seg, int offset, int tam) {
+        this.dados = null;
+        this.segmento = seg;
+        this.offset = offset;
+        this.tam = tam;
+    }
+
+    /**
+     * Retorna o array de elementos, garantindo que os dados estejam no heap.
+     * @return array de elementos.
+     */
+    private float[] heap() {
+        if (dados == null) {
+            throw new UnsupportedOperationException(
+                "\nOperação não suportada para dados fora do heap, use clone() " +
+                "para obter uma cópia no heap."
+            );
+        }
+
+        return dados;
+    }
+
     /**
      * Retorna um novo {@code TensorData} que é uma visualização a partir
      * da instância local.
@@ -115,6 +255,11 @@ public class TensorData {
         if (inicio < 0 || tam < 0 || inicio + tam > this.tam) {
             throw new IllegalArgumentException("\nView fora do limite do tensor data.");
         }
+
+        if (isNativo()) {
+            return new TensorData(segmento, offset + inicio, tam);
+        }
+
         return new TensorData(dados, offset + inicio, tam);
     }
 
@@ -124,6 +269,10 @@ public class TensorData {
      * @return valor obtido.
      */
     public float get(int id) {
+        if (isNativo()) {
+            return segmento.getAtIndex(ValueLayout.JAVA_FLOAT, offset + id);
+        }
+
         return dados[offset + id];
     }
 
@@ -134,6 +283,11 @@ public class TensorData {
      * @return TensorData local alterado.
      */
     public TensorData set(float x, int id) {
+        if (isNativo()) {
+            segmento.setAtIndex(ValueLayout.JAVA_FLOAT, offset + id, x);
+            return this;
+        }
+
         dados[offset + id] = x;
         return this;
     }
@@ -144,7 +298,12 @@ public class TensorData {
      * @return TensorData local alterado.
      */
     public TensorData preencher(float x) {
-        final float[] d = dados;
+        if (isNativo()) {
+            for (int i = 0; i < tam; i++) set(x, i);
+            return this;
+        }
+
+        final float[] d = heap();
         final int inicio = offset;
         final int fim = offset + tam;
 
@@ -163,17 +322,17 @@ public class TensorData {
      * @return TensorData local alterado.
 	 */
     public TensorData preencherContador(boolean cres) {
-        final float[] d = dados;
+        final float[] d = heap();
         final int inicio = offset;
         final int fim = offset + tam;
 
         if (cres) {
             for (int i = inicio; i < fim; i++) {
-                d[offset + i] = i+1;
+                d[i] = i - inicio + 1;
             }
         } else {
             for (int i = inicio; i < fim; i++) {
-                d[offset + i] = - i -1;
+                d[i] = inicio - i - 1;
             }
         }
 
@@ -201,6 +360,11 @@ public class TensorData {
             );
         }
 
+        if (isNativo()) {
+            MemorySegment.copy(arr, 0, segmento, ValueLayout.JAVA_FLOAT, Float.BYTES * (long) offset, n);
+            return this;
+        }
+
         System.arraycopy(arr, 0, dados, offset, n);
 
         return this;
@@ -220,6 +384,11 @@ public class TensorData {
             );
         }
 
+        if (isNativo() || td.isNativo()) {
+            MemorySegment.copy(td.segmentoDados(), 0, segmentoDados(), 0, Float.BYTES * (long) n);
+            return this;
+        }
+
         System.arraycopy(td.dados, td.offset, this.dados, this.offset, n);
 
         return this;
@@ -242,8 +411,8 @@ public class TensorData {
             );
         }
 
-        final float[] da = dados;
-        final float[] db = td.dados;
+        final float[] da = heap();
+        final float[] db = td.heap();
         final int offA = offset;
         final int offB = td.offset;
 
@@ -278,14 +447,7 @@ public class TensorData {
             );
         }
 
-        final float[] da = dados;
-        final float[] db = td.dados;
-        final int offA = offset;
-        final int offB = td.offset;
-
-        for (int i = 0; i < n; i++) {
-            da[offA + i] += alfa * db[offB + i];        
-        }
+        ElementosKernel.binario(ElementosKernel.AXPY, heap(), offset, td.heap(), td.offset, alfa, n);
 
         return this;
     }
@@ -314,20 +476,13 @@ public class TensorData {
      */
     public TensorData sub(TensorData td) {
         final int n = tam();
-        if (n != td.tam()) {
+        if (td.tam() != n) {
             throw new IllegalArgumentException(
                 "\nAmbos os TensorData devem possuir o mesmo tamanho."
             );
         }
 
-        final float[] a = this.dados;
-        final float[] b = td.dados;
-        final int baseA = this.offset;
-        final int baseB = td.offset;
-
-        for (int i = 0; i < n; i++) {
-            a[baseA + i] -= b[baseB + i];
-        }
+        ElementosKernel.binario(ElementosKernel.SUB_T, heap(), offset, td.heap(), td.offset, 1.0f, n);
 
         return this;
     }
@@ -343,20 +498,13 @@ public class TensorData {
      */
     public TensorData mul(TensorData td) {
         final int n = tam();
-        if (n != td.tam()) {
+        if (td.tam() != n) {
             throw new IllegalArgumentException(
                 "\nAmbos os TensorData devem possuir o mesmo tamanho."
             );
         }
 
-        final float[] a = this.dados;
-        final float[] b = td.dados;
-        final int baseA = this.offset;
-        final int baseB = td.offset;
-
-        for (int i = 0; i < n; i++) {
-            a[baseA + i] *= b[baseB + i];
-        }
+        ElementosKernel.binario(ElementosKernel.MUL_T, heap(), offset, td.heap(), td.offset, 1.0f, n);
 
         return this;
     }
@@ -372,20 +520,13 @@ public class TensorData {
      */
     public TensorData div(TensorData td) {
         final int n = tam();
-        if (n != td.tam()) {
+        if (td.tam() != n) {
             throw new IllegalArgumentException(
                 "\nAmbos os TensorData devem possuir o mesmo tamanho."
             );
         }
 
-        final float[] a = this.dados;
-        final float[] b = td.dados;
-        final int baseA = this.offset;
-        final int baseB = td.offset;
-
-        for (int i = 0; i < n; i++) {
-            a[baseA + i] /= b[baseB + i];
-        }
+        ElementosKernel.binario(ElementosKernel.DIV_T, heap(), offset, td.heap(), td.offset, 1.0f, n);
 
         return this;
     }
@@ -396,13 +537,8 @@ public class TensorData {
      * @return TensorData local alterado.
      */
     public TensorData add(float x) {
-        final float[] d = dados;
-        final int inicio = offset;
-        final int fim = offset + tam;
-
-        for (int i = inicio; i < fim; i++) {
-            d[i] += x;
-        }
+        final float[] d = heap();
+        ElementosKernel.unario(ElementosKernel.ADD, d, offset, d, offset, x, 0.0f, tam);
 
         return this;
     }
@@ -422,13 +558,8 @@ public class TensorData {
      * @return TensorData local alterado.
      */
     public TensorData mul(float x) {
-        final float[] d = dados;
-        final int inicio = offset;
-        final int fim = offset + tam;
-
-        for (int i = inicio; i < fim; i++) {
-            d[i] *= x;
-        }
+        final float[] d = heap();
+        ElementosKernel.unario(ElementosKernel.MUL, d, offset, d, offset, x, 0.0f, tam);
 
         return this;
     }
@@ -439,13 +570,8 @@ public class TensorData {
      * @return TensorData local alterado.
      */
     public TensorData div(float x) {
-        final float[] d = dados;
-        final int inicio = offset;
-        final int fim = offset + tam;
-
-        for (int i = inicio; i < fim; i++) {
-            d[i] /= x;
-        }
+        final float[] d = heap();
+        ElementosKernel.unario(ElementosKernel.DIV, d, offset, d, offset, x, 0.0f, tam);
 
         return this;
     }
@@ -463,7 +589,7 @@ public class TensorData {
             );
         }
 
-        dados[offset + id] += x;
+        heap()[offset + id] += x;
 
         return this;
     }
@@ -491,7 +617,7 @@ public class TensorData {
             );
         }
 
-        dados[offset + id] *= x;
+        heap()[offset + id] *= x;
 
         return this;
     }
@@ -509,7 +635,7 @@ public class TensorData {
             );
         }
 
-        dados[offset + id] /= x;
+        heap()[offset + id] /= x;
 
         return this;
     }
@@ -527,11 +653,7 @@ public class TensorData {
             );
         }
 
-        final float[] d = dados;
-
-        for (int i = 0; i < n; i++) {
-            d[offset + i] += arr[i];
-        }
+        ElementosKernel.binario(ElementosKernel.AXPY, heap(), offset, arr, 0, 1.0f, n);
 
         return this;
     }
@@ -549,11 +671,7 @@ public class TensorData {
             );
         }
 
-        final float[] d = dados;
-
-        for (int i = 0; i < n; i++) {
-            d[offset + i] -= arr[i];
-        }
+        ElementosKernel.binario(ElementosKernel.SUB_T, heap(), offset, arr, 0, 1.0f, n);
 
         return this;
     }
@@ -571,11 +689,7 @@ public class TensorData {
             );
         }
 
-        final float[] d = dados;
-
-        for (int i = 0; i < n; i++) {
-            d[offset + i] *= arr[i];
-        }
+        ElementosKernel.binario(ElementosKernel.MUL_T, heap(), offset, arr, 0, 1.0f, n);
 
         return this;
     }
@@ -593,12 +707,8 @@ public class TensorData {
             );
         }
 
-        final float[] d = dados;
+        ElementosKernel.binario(ElementosKernel.DIV_T, heap(), offset, arr, 0, 1.0f, n);
 
-        for (int i = 0; i < n; i++) {
-            d[offset + i] /= arr[i];
-        }
-    
         return this;
     }
 
@@ -608,7 +718,7 @@ public class TensorData {
      * @return TensorData local alterado.
      */
     public TensorData aplicar(FloatUnaryOperator fun) {
-        final float[] d = dados;
+        final float[] d = heap();
         final int inicio = offset;
         final int fim = inicio + tam;
 
@@ -634,8 +744,8 @@ public class TensorData {
             throw new IllegalArgumentException("\nTamanhos incompatíveis.");
         }
 
-        final float[] da = dados;
-        final float[] db = td.dados;
+        final float[] da = heap();
+        final float[] db = td.heap();
         final int offA = offset;
         final int offB = td.offset;
 
@@ -666,21 +776,17 @@ public class TensorData {
      */
     public TensorData addcmul(TensorData a, TensorData b, float alfa) {
         final int n = tam();
-
         if (a.tam() != n || b.tam() != n) {
             throw new IllegalArgumentException("\nTamanhos incompatíveis.");
         }
 
-        final float[] d  = dados;
-        final float[] db = a.dados;
-        final float[] dc = b.dados;
-        final int offA = offset;
-        final int offB = a.offset;
-        final int offC = b.offset;
-
-        for (int i = 0; i < n; i++) {
-            d[offA + i] += alfa * (db[offB + i] * dc[offC + i]);
-        }
+        ElementosKernel.ternario(
+            ElementosKernel.ADDCMUL,
+            heap(), offset,
+            a.heap(), a.offset,
+            b.heap(), b.offset,
+            alfa, n
+        );
 
         return this;
     }
@@ -710,16 +816,13 @@ public class TensorData {
             throw new IllegalArgumentException("\nTamanhos incompatíveis.");
         }
 
-        final float[] d  = dados;
-        final float[] db = a.dados;
-        final float[] dc = b.dados;
-        final int offA = offset;
-        final int offB = a.offset;
-        final int offC = b.offset;
-
-        for (int i = 0; i < n; i++) {
-            d[offA + i] += alfa * (db[offB + i] / dc[offC + i]);
-        }
+        ElementosKernel.ternario(
+            ElementosKernel.ADDCDIV,
+            heap(), offset,
+            a.heap(), a.offset,
+            b.heap(), b.offset,
+            alfa, n
+        );
 
         return this;
     }
@@ -735,15 +838,7 @@ public class TensorData {
         if (td.tam() != n)
             throw new IllegalArgumentException("\nTamanhos incompatíveis.");
 
-        final float[] da = dados;
-        final float[] db = td.dados;
-        final int offA = offset;
-        final int offB = td.offset;
-
-        for (int i = 0; i < n; i++) {
-            float v = db[offB + i];
-            if (v > da[offA + i]) da[offA + i] = v;
-        }
+        ElementosKernel.binario(ElementosKernel.MAX_T, heap(), offset, td.heap(), td.offset, 1.0f, n);
 
         return this;
     }
@@ -753,7 +848,7 @@ public class TensorData {
      * @return TensorData local alterado.
      */
     public TensorData signum() {
-        final float[] d = dados;
+        final float[] d = heap();
         final int inicio = offset;
         final int fim = inicio + tam;
 
@@ -769,23 +864,102 @@ public class TensorData {
      * @return TensorData local alterado.
      */
     public TensorData sqrt() {
-        final float[] d = dados;
-        final int inicio = offset;
-        final int fim = inicio + tam;
+        final float[] d = heap();
+        ElementosKernel.unario(ElementosKernel.SQRT, d, offset, d, offset, 0.0f, 0.0f, tam);
 
-        for (int i = inicio; i < fim; i++) {
-            d[i] = (float) Math.sqrt(d[i]);
+        return this;
+    }
+
+    /**
+     * Realiza a comparação elemento a elemento entre a instância local e
+     * o valor fornecido, mantendo o maior.
+     * @param x valor para comparação.
+     * @return TensorData local alterado.
+     */
+    public TensorData maxEntre(float x) {
+        final float[] d = heap();
+        ElementosKernel.unario(ElementosKernel.MAX, d, offset, d, offset, x, 0.0f, tam);
+
+        return this;
+    }
+
+    /**
+     * Calcula a exponencial de cada elemento do conjunto de dados base,
+     * armazenando o resultado neste conjunto local.
+     * @param td conjunto de dados base, pode ser a própria instância.
+     * @return TensorData local alterado.
+     */
+    public TensorData exp(TensorData td) {
+        final int n = tam();
+        if (td.tam() != n) {
+            throw new IllegalArgumentException("\nTamanhos incompatíveis.");
+        }
+
+        ElementosKernel.unario(ElementosKernel.EXP, heap(), offset, td.heap(), td.offset, 0.0f, 0.0f, n);
+
+        return this;
+    }
+
+    /**
+     * Calcula a exponencial de cada elemento do conjunto de dados.
+     * @return TensorData local alterado.
+     */
+    public TensorData exp() {
+        return exp(this);
+    }
+
+    /**
+     * Calcula a tangente hiperbólica de cada elemento do conjunto de dados
+     * base, armazenando o resultado neste conjunto local.
+     * @param td conjunto de dados base, pode ser a própria instância.
+     * @return TensorData local alterado.
+     */
+    public TensorData tanh(TensorData td) {
+        final int n = tam();
+        if (td.tam() != n) {
+            throw new IllegalArgumentException("\nTamanhos incompatíveis.");
         }
 
+        ElementosKernel.unario(ElementosKernel.TANH, heap(), offset, td.heap(), td.offset, 0.0f, 0.0f, n);
+
         return this;
     }
 
+    /**
+     * Calcula a tangente hiperbólica de cada elemento do conjunto de dados.
+     * @return TensorData local alterado.
+     */
+    public TensorData tanh() {
+        return tanh(this);
+    }
+
+    /**
+     * Ativa ou desativa a versão vetorial (Vector API) das operações
+     * elemento a elemento.
+     * <p>
+     *      Sem o módulo {@code jdk.incubator.vector} a versão escalar é
+     *      sempre usada. Útil para comparar o desempenho das versões.
+     * </p>
+     * @param vetorial usar a versão vetorial.
+     */
+    public static void setVetorial(boolean vetorial) {
+        ElementosKernel.vetorial = vetorial && ElementosKernel.VETORIAL_DISPONIVEL;
+    }
+
+    /**
+     * Verifica se as operações elemento a elemento usam a versão vetorial.
+     * @return {@code true} caso a versão vetorial esteja ativa.
+     */
+    public static boolean isVetorial() {
+        return ElementosKernel.vetorial;
+    }
+
     /**
      * Retorna a soma dos elementos do conjunto de dados.
      * @return soma dos elementos.
      */
     public float soma() {
-        final float[] d = dados;
+        final float[] d = heap();
         final int inicio = offset;
         final int fim = inicio + tam;
         
@@ -803,7 +977,7 @@ public class TensorData {
      */
     public float max() {
         float max = get(0);
-        final float[] d = dados;
+        final float[] d = heap();
         final int inicio = offset + 1;
         final int fim = offset + tam();
         
@@ -820,7 +994,7 @@ public class TensorData {
      */
     public float min() {
         float min = get(0);
-        final float[] d = dados;
+        final float[] d = heap();
         final int inicio = offset + 1;
         final int fim = offset + tam();
         
@@ -845,7 +1019,7 @@ public class TensorData {
      */
     public float desvp() {
         float media = media();
-        final float[] d = dados;
+        final float[] d = heap();
         final int inicio = offset;
         final int fim = inicio + tam();
         
@@ -870,13 +1044,8 @@ public class TensorData {
             );
         }
 
-        final float[] d = dados;
-        final int inicio = offset;
-        final int fim = inicio + tam;
-
-        for (int i = inicio; i < fim; i++) {
-            d[i] = Math.clamp(d[i], min, max);
-        }
+        final float[] d = heap();
+        ElementosKernel.unario(ElementosKernel.CLAMP, d, offset, d, offset, min, max, tam);
 
         return this;
     }
@@ -889,9 +1058,52 @@ public class TensorData {
      *      da qual foram criadas.
      * </p>
      * @return referência do conjunto de dados.
+     * @throws UnsupportedOperationException caso os dados estejam fora do heap.
      */
     public float[] data() {
-        return dados;
+        return heap();
+    }
+
+    /**
+     * Retorna o segmento de memória base do conjunto de dados.
+     * <p>
+     *      Assim como {@code data()}, views retornam o segmento completo
+     *      de onde foram criadas.
+     * </p>
+     * @return segmento fora do heap, ou {@code null} caso os dados estejam 
+     * no heap.
+     */
+    public MemorySegment segmento() {
+        return segmento;
+    }
+
+    /**
+     * Retorna um segmento que cobre apenas os elementos locais do conjunto
+     * de dados, iniciando no offset.
+     * <p>
+     *      Para dados no heap o segmento retornado é apenas uma visão sobre
+     *      o array e não pode ser repassado para código nativo.
+     * </p>
+     * @return segmento dos elementos locais.
+     */
+    public MemorySegment segmentoDados() {
+        final long inicio = Float.BYTES * (long) offset;
+        final long bytes = Float.BYTES * (long) tam;
+
+        if (isNativo()) {
+            return segmento.asSlice(inicio, bytes);
+        }
+
+        return MemorySegment.ofArray(dados).asSlice(inicio, bytes);
+    }
+
+    /**
+     * Verifica se o conjunto de dados está armazenado fora do heap.
+     * @return {@code true} caso os dados estejam fora do heap, {@code false} 
+     * caso contrário.
+     */
+    public boolean isNativo() {
+        return segmento != null;
     }
 
     /**
@@ -904,6 +1116,10 @@ public class TensorData {
      * @return {@code clone} do conjunto de dados.
      */
     public float[] paraArray() {
+        if (isNativo()) {
+            return segmentoDados().toArray(ValueLayout.JAVA_FLOAT);
+        }
+
         return Arrays.copyOfRange(dados, offset, offset + tam);
     }
 
@@ -949,12 +1165,17 @@ public class TensorData {
 		return tamObj + tamArr + tamOffset + tamTam;
     }
 
+    /**
+     * Clona o conjunto de dados.
+     * <p>
+     *      O clone é sempre alocado no heap, inclusive para dados que 
+     *      estejam fora dele.
+     * </p>
+     */
     @Override
     public TensorData clone() {
-        float[] novo = new float[tam];
-        System.arraycopy(dados, offset, novo, 0, tam);
-        
-        return new TensorData(novo);
+        // cópia direta para o novo array, sem array intermediário
+        return new TensorData(new float[tam], 0, tam).copiar(this);
     }
 
     /**
@@ -963,7 +1184,8 @@ public class TensorData {
      * caso contrário.
      */
     public boolean isView() {
-        return offset > 0 || tam < dados.length;
+        long capacidade = isNativo() ? segmento.byteSize() / Float.BYTES : dados.length;
+        return offset > 0 || tam < capacidade;
     }
 
     /**
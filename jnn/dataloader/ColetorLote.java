@@ -0,0 +1,182 @@
+package jnn.dataloader;
+
+import java.util.Random;
+
+import jnn.core.JNNutils;
+import jnn.core.tensor.Tensor;
+
+/**
+ * Coletor de lotes de um {@code DataLoader}.
+ * <p>
+ *      As amostras são copiadas diretamente para tensores de lote
+ *      pré-alocados no formato {@code (tamLote, ...)}, seguindo uma lista de
+ *      índices que pode ser embaralhada sem alterar a ordem das amostras do
+ *      DataLoader. Os tensores e lotes retornados são reutilizados a cada
+ *      chamada, então o passo de treino não gera alocações, exceto as das
+ *      transformações configuradas no DataLoader.
+ * </p>
+ * <p>
+ *      O lote retornado por {@link #coletar(int)} é válido apenas até a
+ *      próxima coleta.
+ * </p>
+ * <p>
+ *      Exemplo:
+ * </p>
+ * <pre>
+ *ColetorLote coletor = loader.coletor(32);
+ *coletor.embaralhar();
+ *for (int i = 0; i &lt; loader.tam(); i += 32) {
+ *    LoteAmostra lote = coletor.coletar(i);
+ *}
+ * </pre>
+ * @see DataLoader#coletor(int)
+ */
+public class ColetorLote {
+
+    /**
+     * DataLoader base.
+     */
+    private final DataLoader loader;
+
+    /**
+     * Tamanho dos lotes completos.
+     */
+    private final int tamLote;
+
+    /**
+     * Ordem das amostras coletadas.
+     */
+    private final int[] ids;
+
+    /**
+     * Buffer de X no formato {@code (tamLote, ...)}.
+     */
+    private final Tensor x;
+
+    /**
+     * Buffer de Y no formato {@code (tamLote, ...)}.
+     */
+    private final Tensor y;
+
+    /**
+     * Lote completo, usando os buffers inteiros.
+     */
+    private final LoteAmostra completo;
+
+    /**
+     * Último lote incompleto criado, usando views dos buffers.
+     */
+    private LoteAmostra parcial;
+
+    /**
+     * Cria um coletor de lotes.
+     * @param loader DataLoader base.
+     * @param tamLote tamanho dos lotes.
+     */
+    ColetorLote(DataLoader loader, int tamLote) {
+        if (loader.tam() < 1) {
+            throw new IllegalArgumentException(
+                "\nDataLoader vazio."
+            );
+        }
+
+        if (tamLote < 1) {
+            throw new IllegalArgumentException(
+                "\nTamanho do lote deve ser maior que zero, mas recebido " + tamLote + "."
+            );
+        }
+
+        this.loader = loader;
+        this.tamLote = Math.min(tamLote, loader.tam());
+
+        ids = new int[loader.tam()];
+        for (int i = 0; i < ids.length; i++) ids[i] = i;
+
+        // o formato é obtido após as transformações
+        Amostra base = loader.get(0);
+        x = new Tensor(shapeLote(base.x().shape()));
+        y = new Tensor(shapeLote(base.y().shape()));
+        completo = new LoteAmostra(x, y);
+    }
+
+    /**
+     * Adiciona a dimensão de lote ao formato.
+     * @param shape formato da amostra.
+     * @return formato do lote.
+     */
+    private int[] shapeLote(int[] shape) {
+        int[] s = new int[shape.length + 1];
+        s[0] = tamLote;
+        System.arraycopy(shape, 0, s, 1, shape.length);
+        return s;
+    }
+
+    /**
+     * Embaralha a ordem de coleta das amostras.
+     */
+    public void embaralhar() {
+        embaralhar(null);
+    }
+
+    /**
+     * Embaralha a ordem de coleta das amostras.
+     * @param rng gerador de números aleatórios desejado.
+     */
+    public void embaralhar(Random rng) {
+        JNNutils.embaralhar(ids, rng);
+    }
+
+    /**
+     * Coleta o lote que começa na posição informada da ordem de coleta.
+     * <p>
+     *      O último lote pode ser menor que o tamanho configurado, nesse
+     *      caso são usadas views do início dos buffers.
+     * </p>
+     * @param inicio posição da primeira amostra do lote.
+     * @return lote de amostras, válido até a próxima coleta.
+     */
+    public LoteAmostra coletar(int inicio) {
+        if (ids.length != loader.tam()) {
+            throw new IllegalStateException(
+                "\nO DataLoader foi alterado após a criação do coletor."
+            );
+        }
+
+        if (inicio < 0 || inicio >= ids.length) {
+            throw new IllegalArgumentException(
+                "\nInício " + inicio + " inválido para total de elementos = " + ids.length + "."
+            );
+        }
+
+        int tam = Math.min(tamLote, ids.length - inicio);
+
+        LoteAmostra lote = completo;
+        if (tam < tamLote) {
+            if (parcial == null || parcial.tam() != tam) {
+                parcial = new LoteAmostra(x.subTensor(0, tam), y.subTensor(0, tam));
+            }
+            lote = parcial;
+        }
+
+        loader.coletar(ids, inicio, lote.x(), lote.y());
+
+        return lote;
+    }
+
+    /**
+     * Retorna o tamanho dos lotes completos.
+     * @return tamanho do lote.
+     */
+    public int tamLote() {
+        return tamLote;
+    }
+
+    /**
+     * Retorna a quantidade de lotes por época.
+     * @return quantidade de lotes.
+     */
+    public int numLotes() {
+        return (ids.length + tamLote - 1) / tamLote;
+    }
+
+}
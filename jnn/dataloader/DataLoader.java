@@ -1,5 +1,7 @@
 package jnn.dataloader;
 
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
 import java.text.DecimalFormat;
 
 import java.util.ArrayList;
@@ -9,7 +11,9 @@ import java.util.Random;
 import java.util.function.Predicate;
 
 import jnn.core.JNNutils;
+import jnn.core.parallel.JNNparallel;
 import jnn.core.tensor.Tensor;
+import jnn.core.tensor.TensorData;
 import jnn.dataloader.transform.Transform;
 
 /**
@@ -25,6 +29,17 @@ import jnn.dataloader.transform.Transform;
  */
 public class DataLoader implements Iterable<Amostra> {
 
+    /**
+     * Quantidade mínima de elementos de um lote para dividir a coleta
+     * entre threads.
+     */
+    private static final int MIN_PARALELO_COLETA = 1 << 18;
+
+    /**
+     * Quantidade mínima de elementos copiados por bloco paralelo.
+     */
+    private static final int GRAO_COLETA = 1 << 16;
+
     /**
      * Conjunto de elementos.
      */
@@ -40,6 +55,45 @@ public class DataLoader implements Iterable<Amostra> {
      */
     private Transform transformY = null;
 
+    /**
+     * Bloco contíguo com os dados de entrada no formato {@code (amostras, ...)},
+     * quando o DataLoader é criado a partir de blocos.
+     */
+    private Tensor blocoX = null;
+
+    /**
+     * Bloco contíguo com os dados de saída no formato {@code (amostras, ...)},
+     * quando o DataLoader é criado a partir de blocos.
+     */
+    private Tensor blocoY = null;
+
+    /**
+     * Indica se as amostras ainda seguem a ordem dos blocos, permitindo que
+     * lotes sejam entregues como fatias sem cópias.
+     */
+    private boolean ordemBloco = false;
+
+    /**
+     * Quantidade de threads de trabalho do pré-carregamento, zero caso
+     * desativado.
+     */
+    private int preCargaWorkers = 0;
+
+    /**
+     * Quantidade de lotes montados antecipadamente.
+     */
+    private int preCargaProfundidade = 0;
+
+    /**
+     * Usar threads virtuais no pré-carregamento.
+     */
+    private boolean preCargaVirtual = false;
+
+    /**
+     * Último pré-carregador criado.
+     */
+    private PreCarregador preCarga = null;
+
     /**
      * Inicializa um DataLoader vazio.
      */
@@ -83,6 +137,65 @@ public class DataLoader implements Iterable<Amostra> {
         }
     }
 
+    /**
+     * Cria um DataLoader a partir de blocos contíguos de dados, onde a
+     * primeira dimensão corresponde à quantidade de amostras.
+     * <p>
+     *      Cada amostra é uma view do bloco, então nenhum dado é copiado.
+     *      Os blocos podem estar fora do heap (como arquivos mapeados em
+     *      memória), nesse caso as amostras e lotes entregues pelo
+     *      DataLoader ({@link #get(int)}, {@link #lote(int, int)}, iterator,
+     *      coletor e pré-carregador) são copiados para o heap, já que as
+     *      operações dos modelos trabalham sobre arrays. Apenas
+     *      {@link #getX()} e {@link #getY()}, sem transformações, retornam
+     *      as views originais.
+     * </p>
+     * <p>
+     *      Enquanto as amostras mantiverem a ordem dos blocos e não houver
+     *      transformações configuradas, {@link #lote(int, int)} retorna
+     *      fatias dos blocos sem cópias (ou uma única cópia do intervalo,
+     *      caso os blocos estejam fora do heap).
+     * </p>
+     * @param x bloco de dados de entrada no formato {@code (amostras, ...)}.
+     * @param y bloco de dados de saída no formato {@code (amostras, ...)}.
+     * @return {@code DataLoader} criado.
+     */
+    public static DataLoader deBloco(Tensor x, Tensor y) {
+        if (x.numDim() < 2 || y.numDim() < 2) {
+            throw new IllegalArgumentException(
+                "\nOs blocos devem ter ao menos duas dimensões, mas X = " +
+                x.shapeStr() + " e Y = " + y.shapeStr() + "."
+            );
+        }
+
+        if (x.tamDim(0) != y.tamDim(0)) {
+            throw new IllegalArgumentException(
+                "\nX e Y devem ter o mesmo tamanho, mas X = " + x.tamDim(0) +
+                " e Y = " + y.tamDim(0) + "."
+            );
+        }
+
+        if (!x.isContiguous() || !y.isContiguous()) {
+            throw new IllegalArgumentException(
+                "\nOs blocos devem ser contíguos."
+            );
+        }
+
+        final int n = x.tamDim(0);
+        Amostra[] as = new Amostra[n];
+        for (int i = 0; i < n; i++) {
+            as[i] = new Amostra(x.subTensor(i), y.subTensor(i));
+        }
+
+        DataLoader loader = new DataLoader();
+        loader.dados = as;
+        loader.blocoX = x;
+        loader.blocoY = y;
+        loader.ordemBloco = true;
+
+        return loader;
+    }
+
     /**
      * Adiciona um conjunto de amostras.
      * @param as conjunto de {@code Amostra} desejada.
@@ -121,6 +234,7 @@ public class DataLoader implements Iterable<Amostra> {
         }
 
         dados = JNNutils.addEmArray(dados, a);
+        ordemBloco = false;
     }
 
     /**
@@ -139,6 +253,7 @@ public class DataLoader implements Iterable<Amostra> {
      */
     public void embaralhar() {
         JNNutils.embaralhar(dados, null);
+        ordemBloco = false;
     }
 
     /**
@@ -148,6 +263,7 @@ public class DataLoader implements Iterable<Amostra> {
      */
     public void embaralhar(Random rng) {
         JNNutils.embaralhar(dados, rng);
+        ordemBloco = false;
     }
 
     /**
@@ -159,6 +275,7 @@ public class DataLoader implements Iterable<Amostra> {
         for (Amostra a : dados) {
             a.setX(tf.apply(a.x()));
         }
+        ordemBloco = false;
 
         return this;
     }
@@ -172,6 +289,7 @@ public class DataLoader implements Iterable<Amostra> {
         for (Amostra a : dados) {
             a.setY(tf.apply(a.y()));
         }
+        ordemBloco = false;
 
         return this;
     }
@@ -204,6 +322,103 @@ public class DataLoader implements Iterable<Amostra> {
         return this;
     }
 
+    /**
+     * Ativa o pré-carregamento de lotes durante o treino.
+     * <p>
+     *      Os próximos lotes são montados por threads de trabalho enquanto o
+     *      lote atual é processado, incluindo a aplicação das transformações
+     *      configuradas. As transformações devem ser seguras para uso em
+     *      múltiplas threads.
+     * </p>
+     * @param workers quantidade de threads de trabalho.
+     * @param profundidade quantidade máxima de lotes montados antecipadamente.
+     * @param virtuais usar threads virtuais em vez de threads de plataforma.
+     * @return {@code DataLoader} alterado.
+     * @see jnn.dataloader.PreCarregador PreCarregador
+     */
+    public DataLoader preCarregar(int workers, int profundidade, boolean virtuais) {
+        if (workers < 1) {
+            throw new IllegalArgumentException(
+                "\nQuantidade de workers deve ser maior que zero, mas recebido " + workers + "."
+            );
+        }
+
+        if (profundidade < 1) {
+            throw new IllegalArgumentException(
+                "\nProfundidade deve ser maior que zero, mas recebido " + profundidade + "."
+            );
+        }
+
+        preCargaWorkers = workers;
+        preCargaProfundidade = profundidade;
+        preCargaVirtual = virtuais;
+
+        return this;
+    }
+
+    /**
+     * Ativa o pré-carregamento de lotes durante o treino usando threads
+     * de plataforma.
+     * @param workers quantidade de threads de trabalho.
+     * @param profundidade quantidade máxima de lotes montados antecipadamente.
+     * @return {@code DataLoader} alterado.
+     * @see #preCarregar(int, int, boolean)
+     */
+    public DataLoader preCarregar(int workers, int profundidade) {
+        return preCarregar(workers, profundidade, false);
+    }
+
+    /**
+     * Desativa o pré-carregamento de lotes.
+     * @return {@code DataLoader} alterado.
+     */
+    public DataLoader semPreCarga() {
+        preCargaWorkers = 0;
+        return this;
+    }
+
+    /**
+     * Verifica se o pré-carregamento de lotes está ativo.
+     * @return {@code true} caso o pré-carregamento esteja ativo, {@code false}
+     * caso contrário.
+     */
+    public boolean preCarregamento() {
+        return preCargaWorkers > 0;
+    }
+
+    /**
+     * Cria um novo pré-carregador de lotes usando as configurações de
+     * pré-carregamento do DataLoader.
+     * <p>
+     *      O pré-carregador deve ser fechado após o uso.
+     * </p>
+     * @param tamLote tamanho dos lotes.
+     * @return {@code PreCarregador}.
+     * @see #preCarregar(int, int, boolean)
+     */
+    public PreCarregador preCarregador(int tamLote) {
+        if (!preCarregamento()) {
+            throw new IllegalStateException(
+                "\nPré-carregamento desativado, utilize preCarregar()."
+            );
+        }
+
+        preCarga = new PreCarregador(
+            this, tamLote, preCargaWorkers, preCargaProfundidade, preCargaVirtual
+        );
+
+        return preCarga;
+    }
+
+    /**
+     * Retorna as métricas do último pré-carregador criado.
+     * @return métricas de pré-carregamento, ou {@code null} caso nenhum
+     * pré-carregador tenha sido criado.
+     */
+    public MetricasPreCarga metricasPreCarga() {
+        return preCarga == null ? null : preCarga.metricas();
+    }
+
     /**
      * Aplica um filtro a nos dados de {@code X} do DataLoader, retornando um
      * novo subconjunto de dados com seu resultado.
@@ -318,11 +533,12 @@ public class DataLoader implements Iterable<Amostra> {
             );
         }
 
+        Amostra a = heap(dados[id]);
+
         if (transformX == null && transformY == null) {
-            return dados[id];
+            return a;
         }
 
-        Amostra a = dados[id];
         Tensor x = a.x();
         Tensor y = a.y();
 
@@ -352,18 +568,134 @@ public class DataLoader implements Iterable<Amostra> {
 
         int fim = Math.min(in + tam, tam());
         int tamLote = fim - in;
+
+        if (ordemBloco && transformX == null && transformY == null && tamLote > 0) {
+            // fatia dos blocos, sem cópias no heap
+            Tensor x = blocoX.subTensor(in, fim);
+            Tensor y = blocoY.subTensor(in, fim);
+            return blocoX.isNativo() ? new LoteAmostra(x.clone(), y.clone()) : new LoteAmostra(x, y);
+        }
         
         Tensor[] xs = new Tensor[tamLote];
         Tensor[] ys = new Tensor[tamLote];
 
         for (int i = 0; i < tamLote; i++) {
-            xs[i] = get(in + i).x();
-            ys[i] = get(in + i).y();
+            // uma única chamada para aplicar as transformações uma vez
+            Amostra a = get(in + i);
+            xs[i] = a.x();
+            ys[i] = a.y();
         }
 
         return new LoteAmostra(xs, ys);
     }
 
+    /**
+     * Cria um coletor de lotes do DataLoader.
+     * <p>
+     *      O coletor copia as amostras diretamente para tensores de lote
+     *      pré-alocados, reutilizados a cada chamada, sem montar arrays de
+     *      amostras intermediários.
+     * </p>
+     * @param tamLote tamanho dos lotes.
+     * @return {@code ColetorLote}.
+     * @see ColetorLote
+     */
+    public ColetorLote coletor(int tamLote) {
+        return new ColetorLote(this, tamLote);
+    }
+
+    /**
+     * Copia as amostras indicadas diretamente para tensores de lote,
+     * aplicando as transformações configuradas.
+     * <p>
+     *      Sem transformações, lotes grandes são divididos entre as threads
+     *      da biblioteca. Transformações podem depender de estado (como
+     *      geradores aleatórios), então são aplicadas na ordem das amostras.
+     * </p>
+     * @param ids índices das amostras, ou {@code null} para usar a ordem atual.
+     * @param inicio posição da primeira amostra em {@code ids}.
+     * @param x destino de X no formato {@code (lote, ...)}, contíguo e no heap.
+     * @param y destino de Y no formato {@code (lote, ...)}, contíguo e no heap.
+     */
+    void coletar(int[] ids, int inicio, Tensor x, Tensor y) {
+        final int n = x.tamDim(0);
+        final long total = (long) n * ((x.tam() + y.tam()) / n);
+
+        if (transformX == null && transformY == null && total >= MIN_PARALELO_COLETA) {
+            final int grao = (int) Math.max(1, GRAO_COLETA * n / total);
+            JNNparallel.parallelFor(0, n, grao, (ini, fim) -> 
+                coletar(ids, inicio, x, y, ini, fim)
+            );
+        } else {
+            coletar(ids, inicio, x, y, 0, n);
+        }
+    }
+
+    /**
+     * Copia as amostras do intervalo {@code [ini, fim)} do lote.
+     */
+    private void coletar(int[] ids, int inicio, Tensor x, Tensor y, int ini, int fim) {
+        final int n = x.tamDim(0);
+        final int tamX = x.tam() / n;
+        final int tamY = y.tam() / n;
+
+        for (int i = ini; i < fim; i++) {
+            int id = ids == null ? inicio + i : ids[inicio + i];
+            Amostra a = dados[id];
+
+            Tensor ax = transformX == null ? a.x() : transformX.apply(heap(a.x()));
+            Tensor ay = transformY == null ? a.y() : transformY.apply(heap(a.y()));
+
+            copiarAmostra(ax, x.array(), x.offset() + i * tamX, tamX);
+            copiarAmostra(ay, y.array(), y.offset() + i * tamY, tamY);
+        }
+    }
+
+    /**
+     * Retorna uma cópia no heap do tensor caso ele esteja fora do heap.
+     * @param t {@code Tensor} base.
+     * @return {@code Tensor} no heap.
+     */
+    private static Tensor heap(Tensor t) {
+        return t.isNativo() ? t.clone() : t;
+    }
+
+    /**
+     * Retorna uma cópia no heap da amostra caso ela esteja fora do heap.
+     * @param a {@code Amostra} base.
+     * @return {@code Amostra} no heap.
+     */
+    private static Amostra heap(Amostra a) {
+        Tensor x = a.x();
+        Tensor y = a.y();
+        return (x.isNativo() || y.isNativo()) ? new Amostra(heap(x), heap(y)) : a;
+    }
+
+    /**
+     * Copia o conteúdo de uma amostra para o array de destino.
+     * @param t {@code Tensor} da amostra.
+     * @param dst array de destino.
+     * @param off offset no destino.
+     * @param tam quantidade de elementos esperada.
+     */
+    private static void copiarAmostra(Tensor t, float[] dst, int off, int tam) {
+        if (t.tam() != tam) {
+            throw new IllegalArgumentException(
+                "\nAmostra com " + t.tam() + " elementos (" + t.shapeStr() + 
+                ") incompatível com o lote, esperado " + tam + "."
+            );
+        }
+
+        if (!t.isContiguous()) t = t.contiguous();
+
+        TensorData td = t.data();
+        if (td.isNativo()) {
+            MemorySegment.copy(td.segmentoDados(), ValueLayout.JAVA_FLOAT, 0, dst, off, tam);
+        } else {
+            System.arraycopy(td.data(), td.offset(), dst, off, tam);
+        }
+    }
+
     /**
      * Retorna um novo {@code DataLoader} a partir de um subconjunto
      * de amostras.
@@ -397,7 +729,7 @@ public class DataLoader implements Iterable<Amostra> {
 
         if (transformX != null) {
             for (int i = 0; i < n; i++) {
-                xs[i] = transformX.apply(dados[i].x());
+                xs[i] = transformX.apply(heap(dados[i].x()));
             }
 
         } else {
@@ -419,7 +751,7 @@ public class DataLoader implements Iterable<Amostra> {
 
         if (transformY != null) {
             for (int i = 0; i < n; i++) {
-                ys[i] = transformY.apply(dados[i].y());
+                ys[i] = transformY.apply(heap(dados[i].y()));
             }
 
         } else {
@@ -431,6 +763,17 @@ public class DataLoader implements Iterable<Amostra> {
         return ys;
     }
 
+    /**
+     * Verifica se as amostras do DataLoader são views de blocos fora do heap,
+     * como arquivos mapeados em memória.
+     * @return {@code true} caso as amostras estejam fora do heap, {@code false}
+     * caso contrário.
+     * @see #deBloco(Tensor, Tensor)
+     */
+    public boolean isNativo() {
+        return blocoX != null && blocoX.isNativo();
+    }
+
     /**
      * Retorna um {@code Iterator} do DataLoader
      * @return iterator por amostra.
@@ -452,7 +795,7 @@ public class DataLoader implements Iterable<Amostra> {
 
         @Override
         public Amostra next() {
-            Amostra amostra = dados[id++];
+            Amostra amostra = heap(dados[id++]);
 
             if (transformX == null && transformY == null) {
                 return amostra;
@@ -1,9 +1,15 @@
 package jnn.dataloader;
 
+import jnn.core.JNNutils;
 import jnn.core.tensor.Tensor;
 
 /**
  * Conteiner para armazenar um conjunto de amostras.
+ * <p>
+ *      O lote pode ser criado a partir das amostras separadas ou a partir
+ *      de tensores já montados, onde a primeira dimensão corresponde à
+ *      quantidade de amostras.
+ * </p>
  */
 public class LoteAmostra {
     
@@ -17,6 +23,16 @@ public class LoteAmostra {
      */
     private Tensor[] ys;
 
+    /**
+     * Dados de entrada (X) montados em um único tensor.
+     */
+    private Tensor x;
+
+    /**
+     * Dados de saída (Y) montados em um único tensor.
+     */
+    private Tensor y;
+
     /**
      * Inicialzia um lote de amostras.
      * @param x Dados de entrada (X).
@@ -33,11 +49,29 @@ public class LoteAmostra {
         this.ys = y;
     }
 
+    /**
+     * Inicialzia um lote de amostras a partir de tensores já montados.
+     * @param x Dados de entrada (X) no formato {@code (lote, ...)}.
+     * @param y Dados de saída (Y) no formato {@code (lote, ...)}.
+     */
+    public LoteAmostra(Tensor x, Tensor y) {
+        if (x.tamDim(0) != y.tamDim(0)) {
+            throw new IllegalArgumentException(
+                "\nQuantidade de elementos de X (" + x.tamDim(0) + ") e Y (" +
+                y.tamDim(0) + ") devem ser iguais."
+            );
+        }
+
+        this.x = x;
+        this.y = y;
+    }
+
     /**
      * Retorna os dados de entrada (X) do lote.
      * @return Dados de entrada (X) do lote.
      */
     public Tensor[] arrX() {
+        if (xs == null) xs = separar(x);
         return xs;
     }
 
@@ -46,15 +80,50 @@ public class LoteAmostra {
      * @return Dados de saída (Y) do lote.
      */
     public Tensor[] arrY() {
+        if (ys == null) ys = separar(y);
         return ys;
     }
 
+    /**
+     * Retorna os dados de entrada (X) do lote em um único tensor no
+     * formato {@code (lote, ...)}.
+     * @return Dados de entrada (X) do lote.
+     */
+    public Tensor x() {
+        if (x == null) x = JNNutils.concatenar(xs);
+        return x;
+    }
+
+    /**
+     * Retorna os dados de saída (Y) do lote em um único tensor no
+     * formato {@code (lote, ...)}.
+     * @return Dados de saída (Y) do lote.
+     */
+    public Tensor y() {
+        if (y == null) y = JNNutils.concatenar(ys);
+        return y;
+    }
+
     /**
     * Retorna o número de amostras no lote.
     * @return Número de amostras no lote.
     */
     public int tam() {
-        return xs.length;
+        return xs != null ? xs.length : x.tamDim(0);
+    }
+
+    /**
+     * Separa as amostras de um tensor montado em views.
+     * @param t tensor no formato {@code (lote, ...)}.
+     * @return {@code array} de amostras.
+     */
+    private Tensor[] separar(Tensor t) {
+        Tensor[] arr = new Tensor[t.tamDim(0)];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = t.subTensor(i);
+        }
+
+        return arr;
     }
 
 }
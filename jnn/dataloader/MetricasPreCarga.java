@@ -0,0 +1,52 @@
+package jnn.dataloader;
+
+/**
+ * Métricas coletadas pelo {@code PreCarregador} durante a entrega dos lotes.
+ * @see jnn.dataloader.PreCarregador PreCarregador
+ */
+public final class MetricasPreCarga {
+
+    /**
+     * Quantidade de lotes entregues.
+     */
+    public final long lotes;
+
+    /**
+     * Quantidade de vezes em que o consumidor precisou esperar por um lote
+     * que ainda não estava pronto.
+     */
+    public final long esperas;
+
+    /**
+     * Tempo total de espera do consumidor, em nanossegundos.
+     */
+    public final long tempoEspera;
+
+    /**
+     * Média de lotes prontos na fila no momento de cada pedido.
+     */
+    public final double profundidadeMedia;
+
+    /**
+     * Inicializa um novo conjunto de métricas.
+     * @param lotes quantidade de lotes entregues.
+     * @param esperas quantidade de esperas do consumidor.
+     * @param tempoEspera tempo total de espera em nanossegundos.
+     * @param profundidadeMedia média de lotes prontos na fila.
+     */
+    public MetricasPreCarga(long lotes, long esperas, long tempoEspera, double profundidadeMedia) {
+        this.lotes = lotes;
+        this.esperas = esperas;
+        this.tempoEspera = tempoEspera;
+        this.profundidadeMedia = profundidadeMedia;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "MetricasPreCarga(lotes: %d, esperas: %d, tempo espera: %.2f ms, profundidade média: %.2f)",
+            lotes, esperas, tempoEspera / 1e6, profundidadeMedia
+        );
+    }
+
+}
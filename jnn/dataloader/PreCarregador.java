@@ -0,0 +1,368 @@
+package jnn.dataloader;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import jnn.core.tensor.Tensor;
+
+/**
+ * <h2>
+ *      Pré-carregador de lotes
+ * </h2>
+ *      Monta os próximos lotes de um {@code DataLoader} em threads de
+ *      trabalho enquanto o lote atual é processado, aplicando as
+ *      transformações configuradas nas amostras.
+ * <p>
+ *      Os lotes são escritos em um anel de tensores pré-alocados, então
+ *      nenhum tensor novo é criado por lote. O lote entregue por
+ *      {@link #proximo()} continua válido apenas até a próxima chamada,
+ *      quando seu espaço no anel é liberado para um novo lote.
+ * </p>
+ * <p>
+ *      Exemplo:
+ * </p>
+ * <pre>
+ *try (PreCarregador pc = loader.preCarregador(32)) {
+ *    pc.iniciarEpoca();
+ *    while (pc.temProximo()) {
+ *        LoteAmostra lote = pc.proximo();
+ *        ...
+ *    }
+ *}
+ * </pre>
+ * @see jnn.dataloader.DataLoader DataLoader
+ */
+public class PreCarregador implements AutoCloseable {
+
+    /**
+     * DataLoader de origem das amostras.
+     */
+    private final DataLoader loader;
+
+    /**
+     * Tamanho dos lotes.
+     */
+    private final int tamLote;
+
+    /**
+     * Quantidade máxima de lotes montados antecipadamente.
+     */
+    private final int profundidade;
+
+    /**
+     * Threads responsáveis pela montagem dos lotes.
+     */
+    private final ExecutorService workers;
+
+    /**
+     * Anel de tensores de entrada (X), um para cada lote em andamento.
+     */
+    private final Tensor[] anelX;
+
+    /**
+     * Anel de tensores de saída (Y), um para cada lote em andamento.
+     */
+    private final Tensor[] anelY;
+
+    /**
+     * Lotes em andamento, na ordem de entrega.
+     */
+    private final ArrayDeque<Future<LoteAmostra>> fila = new ArrayDeque<>();
+
+    /**
+     * Quantidade de lotes da época atual.
+     */
+    private int numLotes = 0;
+
+    /**
+     * Índice do próximo lote a ser montado.
+     */
+    private int enviados = 0;
+
+    /**
+     * Quantidade de lotes entregues na época atual.
+     */
+    private int entregues = 0;
+
+    /**
+     * Total de lotes entregues.
+     */
+    private long lotes = 0;
+
+    /**
+     * Quantidade de esperas do consumidor.
+     */
+    private long esperas = 0;
+
+    /**
+     * Tempo total de espera do consumidor (ns).
+     */
+    private long tempoEspera = 0;
+
+    /**
+     * Soma das profundidades da fila observadas a cada pedido.
+     */
+    private long somaProfundidade = 0;
+
+    /**
+     * Inicializa um novo pré-carregador.
+     * @param loader {@code DataLoader} de origem.
+     * @param tamLote tamanho dos lotes.
+     * @param numWorkers quantidade de threads de trabalho, ignorado caso
+     * {@code virtuais} seja verdadeiro.
+     * @param profundidade quantidade máxima de lotes montados antecipadamente.
+     * @param virtuais usar threads virtuais.
+     */
+    public PreCarregador(DataLoader loader, int tamLote, int numWorkers, int profundidade, boolean virtuais) {
+        if (loader == null) {
+            throw new IllegalArgumentException(
+                "\nDataLoader nulo."
+            );
+        }
+
+        if (loader.tam() < 1) {
+            throw new IllegalArgumentException(
+                "\nDataLoader vazio."
+            );
+        }
+
+        if (tamLote < 1) {
+            throw new IllegalArgumentException(
+                "\nTamanho do lote deve ser maior que zero, mas recebido " + tamLote + "."
+            );
+        }
+
+        if (numWorkers < 1) {
+            throw new IllegalArgumentException(
+                "\nQuantidade de workers deve ser maior que zero, mas recebido " + numWorkers + "."
+            );
+        }
+
+        if (profundidade < 1) {
+            throw new IllegalArgumentException(
+                "\nProfundidade deve ser maior que zero, mas recebido " + profundidade + "."
+            );
+        }
+
+        this.loader = loader;
+        this.tamLote = Math.min(tamLote, loader.tam());
+        this.profundidade = profundidade;
+
+        // o formato é obtido após as transformações
+        Amostra base = loader.get(0);
+        int[] shapeX = shapeLote(base.x().shape());
+        int[] shapeY = shapeLote(base.y().shape());
+
+        // um espaço extra para o lote que está sendo consumido
+        anelX = new Tensor[profundidade + 1];
+        anelY = new Tensor[profundidade + 1];
+        for (int i = 0; i < anelX.length; i++) {
+            anelX[i] = new Tensor(shapeX);
+            anelY[i] = new Tensor(shapeY);
+        }
+
+        if (virtuais) {
+            ThreadFactory f = Thread.ofVirtual().name("jnn-loader-", 0).factory();
+            workers = Executors.newThreadPerTaskExecutor(f);
+        } else {
+            ThreadFactory f = Thread.ofPlatform().daemon().name("jnn-loader-", 0).factory();
+            workers = Executors.newFixedThreadPool(numWorkers, f);
+        }
+    }
+
+    /**
+     * Adiciona a dimensão de lote ao formato da amostra.
+     * @param shape formato da amostra.
+     * @return formato do lote.
+     */
+    private int[] shapeLote(int[] shape) {
+        int[] s = new int[shape.length + 1];
+        s[0] = tamLote;
+        System.arraycopy(shape, 0, s, 1, shape.length);
+        return s;
+    }
+
+    /**
+     * Inicia uma nova época.
+     * <p>
+     *      As amostras do {@code DataLoader} são embaralhadas e os primeiros
+     *      lotes começam a ser montados. Lotes restantes da época anterior
+     *      são descartados.
+     * </p>
+     */
+    public void iniciarEpoca() {
+        descartar();
+
+        loader.embaralhar();
+
+        numLotes = (loader.tam() + tamLote - 1) / tamLote;
+        enviados = 0;
+        entregues = 0;
+
+        while (enviados < numLotes && enviados < profundidade) {
+            enviar();
+        }
+    }
+
+    /**
+     * Verifica se ainda existem lotes na época atual.
+     * @return {@code true} caso existam lotes a serem entregues, {@code false}
+     * caso contrário.
+     */
+    public boolean temProximo() {
+        return entregues < numLotes;
+    }
+
+    /**
+     * Retorna o próximo lote da época.
+     * <p>
+     *      O consumidor só é bloqueado caso o lote ainda não esteja pronto.
+     *      O lote anterior deixa de ser válido após esta chamada.
+     * </p>
+     * @return próximo {@code LoteAmostra}.
+     */
+    public LoteAmostra proximo() {
+        if (!temProximo()) {
+            throw new IllegalStateException(
+                "\nNenhum lote restante na época, utilize iniciarEpoca()."
+            );
+        }
+
+        // o espaço do lote anterior foi liberado
+        if (enviados < numLotes) enviar();
+
+        somaProfundidade += profundidadeAtual();
+
+        Future<LoteAmostra> f = fila.poll();
+        LoteAmostra lote;
+
+        if (f.isDone()) {
+            lote = aguardar(f);
+        } else {
+            long t = System.nanoTime();
+            lote = aguardar(f);
+            tempoEspera += System.nanoTime() - t;
+            esperas++;
+        }
+
+        entregues++;
+        lotes++;
+
+        return lote;
+    }
+
+    /**
+     * Envia o próximo lote para montagem.
+     */
+    private void enviar() {
+        final int id = enviados++;
+        final int espaco = id % anelX.length;
+        fila.add(workers.submit(() -> montar(id, espaco)));
+    }
+
+    /**
+     * Monta o lote desejado no espaço do anel.
+     * @param id índice do lote na época.
+     * @param espaco índice do espaço no anel.
+     * @return lote montado.
+     */
+    private LoteAmostra montar(int id, int espaco) {
+        int inicio = id * tamLote;
+        int tam = Math.min(tamLote, loader.tam() - inicio);
+
+        Tensor x = anelX[espaco];
+        Tensor y = anelY[espaco];
+        if (tam < tamLote) {// último lote incompleto
+            x = x.subTensor(0, tam);
+            y = y.subTensor(0, tam);
+        }
+
+        loader.coletar(null, inicio, x, y);
+
+        return new LoteAmostra(x, y);
+    }
+
+    /**
+     * Aguarda a conclusão da montagem do lote.
+     * @param f lote em andamento.
+     * @return lote montado.
+     */
+    private LoteAmostra aguardar(Future<LoteAmostra> f) {
+        try {
+            return f.get();
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("\nEspera pelo lote interrompida.", e);
+
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof RuntimeException re) throw re;
+            if (causa instanceof Error err) throw err;
+            throw new RuntimeException(causa);
+        }
+    }
+
+    /**
+     * Aguarda e descarta os lotes em andamento.
+     * <p>
+     *      Os lotes não são cancelados, já que uma tarefa em execução ainda
+     *      poderia escrever em um espaço do anel reutilizado pela próxima época.
+     * </p>
+     */
+    private void descartar() {
+        for (Future<LoteAmostra> f : fila) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                // lote descartado
+            }
+        }
+
+        fila.clear();
+    }
+
+    /**
+     * Retorna a quantidade de lotes prontos aguardando consumo.
+     * @return lotes prontos na fila.
+     */
+    public int profundidadeAtual() {
+        int prontos = 0;
+        for (Future<LoteAmostra> f : fila) {
+            if (f.isDone()) prontos++;
+        }
+
+        return prontos;
+    }
+
+    /**
+     * Retorna as métricas coletadas até o momento.
+     * @return métricas do pré-carregador.
+     */
+    public MetricasPreCarga metricas() {
+        double media = lotes == 0 ? 0 : (double) somaProfundidade / lotes;
+        return new MetricasPreCarga(lotes, esperas, tempoEspera, media);
+    }
+
+    /**
+     * Encerra as threads de trabalho.
+     */
+    @Override
+    public void close() {
+        for (Future<LoteAmostra> f : fila) {
+            f.cancel(true);
+        }
+
+        fila.clear();
+        numLotes = entregues;
+        workers.shutdownNow();
+    }
+
+}
@@ -9,16 +9,14 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.zip.GZIPInputStream;
 
 import jnn.core.JNNlog;
 import jnn.core.JNNlog.TipoLog;
-import jnn.core.tensor.Tensor;
 import jnn.dataloader.DataLoader;
 
 /**
@@ -70,7 +68,21 @@ public class CIFAR10 {
      * @return {@code DataLoader} com dados lidos.
      */
     public static DataLoader treino() {
-        return carregarTreino();
+        return carregar("treino", false);
+    }
+
+    /**
+     * Carrega o conjunto de dados de treino do dataset {@code CIFAR-10}
+     * mapeando o cache pré-processado em memória.
+     * <p>
+     *      As amostras são views do arquivo de cache, sem cópias e sem
+     *      ocupar o heap.
+     * </p>
+     * @return {@code DataLoader} com dados mapeados.
+     * @see DataLoader#deBloco(jnn.core.tensor.Tensor, jnn.core.tensor.Tensor)
+     */
+    public static DataLoader treinoMapeado() {
+        return carregar("treino", true);
     }
 
     /**
@@ -78,7 +90,17 @@ public class CIFAR10 {
      * @return {@code DataLoader} com dados lidos.
      */
     public static DataLoader teste() {
-        return carregarTeste();
+        return carregar("teste", false);
+    }
+
+    /**
+     * Carrega o conjunto de dados de teste do dataset {@code CIFAR-10}
+     * mapeando o cache pré-processado em memória.
+     * @return {@code DataLoader} com dados mapeados.
+     * @see #treinoMapeado()
+     */
+    public static DataLoader testeMapeado() {
+        return carregar("teste", true);
     }
 
     /**
@@ -111,28 +133,30 @@ public class CIFAR10 {
     }
 
     /**
-     * Carrega os dados de treino.
+     * Carregamento genérico.
+     * <p>
+     *      Na primeira execução os lotes originais são convertidos para o
+     *      cache pré-processado, que é usado nas próximas.
+     * </p>
+     * @param nome nome do conjunto ({@code "treino"} ou {@code "teste"}).
+     * @param mapear mapear o cache em memória em vez de carregá-lo no heap.
      * @return {@code DataLoader} contendo as amostras de dados.
      */
-    private static DataLoader carregarTreino() {
+    private static DataLoader carregar(String nome, boolean mapear) {
         try {
-            talvezBaixar();
+            Path cache = cacheDir.resolve(nome + ".jnnds");
+
+            if (!DatasetCache.valido(cache)) {
+                talvezBaixar();
 
-            List<Tensor> xs = new ArrayList<>();
-            List<Tensor> ys = new ArrayList<>();
+                String[] arquivos = nome.equals("treino") ?
+                    Arrays.copyOfRange(BATCHES, 0, 5) :
+                    new String[] { "test_batch.bin" };
 
-            for (int i = 1; i <= 5; i++) {
-                lerBatch(
-                    cacheDir.resolve("data_batch_" + i + ".bin"),
-                    xs, ys
-                );
+                criarCache(cache, arquivos);
             }
 
-            Tensor[] t = {};
-            return new DataLoader(
-                xs.toArray(t),
-                ys.toArray(t)
-            );
+            return DatasetCache.abrir(cache, mapear);
 
         } catch (Exception e) {
             throw new RuntimeException(e);
@@ -140,63 +164,37 @@ public class CIFAR10 {
     }
 
     /**
-     * Carrega os dados de teste.
-     * @return {@code DataLoader} contendo as amostras de dados.
+     * Converte os lotes binários originais para o cache pré-processado.
+     * @param cache caminho do cache.
+     * @param arquivos lotes que compõem o conjunto.
+     * @throws IOException caso ocorra algum erro.
      */
-    private static DataLoader carregarTeste() {
-        try {
-            talvezBaixar();
+    private static void criarCache(Path cache, String[] arquivos) throws IOException {
+        byte[][] lotes = new byte[arquivos.length][];
+        int[] inicios = new int[arquivos.length + 1];
 
-            List<Tensor> xs = new ArrayList<>();
-            List<Tensor> ys = new ArrayList<>();
-
-            lerBatch(
-                cacheDir.resolve("test_batch.bin"),
-                xs, ys
-            );
-
-            Tensor[] t = {};
-            return new DataLoader(
-                xs.toArray(t),
-                ys.toArray(t)
-            );
-
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+        for (int i = 0; i < arquivos.length; i++) {
+            lotes[i] = Files.readAllBytes(cacheDir.resolve(arquivos[i]));
+            inicios[i + 1] = inicios[i] + lotes[i].length / RECORD_BYTES;
         }
-    }
 
-    /**
-     * Lê um lote de dados.
-     * @param arquivo caminho do arquivo base. 
-     * @param imagens lista para armazenar os dados das imagens.
-     * @param labels lista para armazenar os rótulos das imagens.
-     * @throws IOException caso ocorra algum erro.
-     */
-    private static void lerBatch(Path arquivo, List<Tensor> imagens, List<Tensor> labels) throws IOException {
-        byte[] dados = Files.readAllBytes(arquivo);
-        int total = dados.length / RECORD_BYTES;
+        int total = inicios[arquivos.length];
 
-        for (int i = 0; i < total; i++) {
-            int offset = i * RECORD_BYTES;
-
-            int label = dados[offset] & 0xFF;
+        // CIFAR vem em RRR.. GGG.. BBB..
+        DatasetCache.escrever(cache, total, new int[]{ IMG_CANAIS, IMG_TAM, IMG_TAM }, NUM_CLASSES, (id, x, y) -> {
+            int lote = 0;
+            while (id >= inicios[lote + 1]) lote++;
 
-            float[] img = new float[IMG_BYTES];
+            byte[] dados = lotes[lote];
+            int offset = (id - inicios[lote]) * RECORD_BYTES;
 
+            int label = dados[offset] & 0xFF;
             for (int p = 0; p < IMG_BYTES; p++) {
-                img[p] = (dados[offset + 1 + p] & 0xFF) / 255.0f;
+                x[p] = (dados[offset + 1 + p] & 0xFF) / 255.0f;
             }
 
-            // CIFAR vem em RRR.. GGG.. BBB..
-            Tensor x = new Tensor(img.length).copiar(img).reshape(3, IMG_TAM, IMG_TAM);
-
-            float[] y = new float[NUM_CLASSES];
             y[label] = 1.0f;
-
-            imagens.add(x);
-            labels.add(new Tensor(y.length).copiar(y));
-        }
+        });
     }
 
     /**
@@ -0,0 +1,283 @@
+package jnn.dataloader.dataset;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import jnn.core.tensor.Tensor;
+import jnn.core.tensor.TensorData;
+import jnn.dataloader.DataLoader;
+
+/**
+ * Cache binário pré-processado dos datasets.
+ * <p>
+ *      As amostras são salvas já convertidas para {@code float}, na ordem
+ *      de bytes nativa, em dois blocos contíguos (X e Y) precedidos por um
+ *      cabeçalho fixo:
+ * </p>
+ * <pre>
+ *[0, 8)   assinatura "JNNDS\0\0\0"
+ *[8, 12)  versão do formato
+ *[12, 16) ordem de bytes (1 = little endian, 2 = big endian)
+ *[16, 20) quantidade de amostras
+ *[20, 24) número de dimensões de X
+ *[24, 40) formato de X (até 4 dimensões)
+ *[40, 44) tamanho de Y
+ *[44, 64) reservado
+ *[64, ..) bloco X, seguido do bloco Y
+ * </pre>
+ * <p>
+ *      O arquivo pode ser mapeado diretamente em memória, mantendo o
+ *      dataset fora do heap. Nesse caso, cada amostra ou lote entregue ao
+ *      treino é copiado para o heap apenas quando usado (ver
+ *      {@link DataLoader#deBloco(Tensor, Tensor)}).
+ * </p>
+ */
+final class DatasetCache {
+
+    /**
+     * Construtor privado.
+     */
+    private DatasetCache() {}
+
+    /**
+     * Assinatura do arquivo.
+     */
+    static final long ASSINATURA = 0x0000_0053_444E_4E4AL;// "JNNDS" em little endian
+
+    /**
+     * Versão atual do formato.
+     */
+    static final int VERSAO = 1;
+
+    /**
+     * Tamanho do cabeçalho em bytes.
+     */
+    static final int TAM_CABECALHO = 64;
+
+    /**
+     * Número máximo de dimensões de X.
+     */
+    static final int MAX_DIMS = 4;
+
+    /**
+     * Layout dos inteiros do cabeçalho.
+     */
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Layout da assinatura.
+     */
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Fonte de amostras usada na escrita do cache.
+     */
+    @FunctionalInterface
+    interface Fonte {
+
+        /**
+         * Preenche os dados da amostra desejada.
+         * @param id índice da amostra.
+         * @param x destino dos dados de entrada.
+         * @param y destino dos dados de saída (zerado).
+         */
+        void amostra(int id, float[] x, float[] y);
+    }
+
+    /**
+     * Código da ordem de bytes nativa.
+     * @return código da ordem de bytes.
+     */
+    private static int ordemNativa() {
+        return ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN ? 1 : 2;
+    }
+
+    /**
+     * Verifica se existe um cache válido no caminho.
+     * @param arquivo caminho do cache.
+     * @return {@code true} caso o cache exista e seja compatível.
+     */
+    static boolean valido(Path arquivo) {
+        if (!Files.isRegularFile(arquivo)) return false;
+
+        try (FileChannel ch = FileChannel.open(arquivo, StandardOpenOption.READ);
+            Arena arena = Arena.ofConfined()) {
+
+            if (ch.size() < TAM_CABECALHO) return false;
+
+            MemorySegment seg = ch.map(MapMode.READ_ONLY, 0, ch.size(), arena);
+            if (seg.get(LONG, 0) != ASSINATURA) return false;
+            if (seg.get(INT, 8) != VERSAO) return false;
+            if (seg.get(INT, 12) != ordemNativa()) return false;
+
+            return ch.size() == TAM_CABECALHO + Float.BYTES * tamTotal(seg);
+
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Calcula a quantidade total de elementos (X e Y) descrita no cabeçalho.
+     * @param seg segmento do arquivo.
+     * @return quantidade de elementos.
+     */
+    private static long tamTotal(MemorySegment seg) {
+        long n = seg.get(INT, 16);
+        return n * (tamX(seg) + seg.get(INT, 40));
+    }
+
+    /**
+     * Calcula o tamanho de X descrito no cabeçalho.
+     * @param seg segmento do arquivo.
+     * @return tamanho de cada amostra de X.
+     */
+    private static long tamX(MemorySegment seg) {
+        int dims = seg.get(INT, 20);
+        long tam = 1;
+        for (int i = 0; i < dims; i++) {
+            tam *= seg.get(INT, 24 + 4L * i);
+        }
+
+        return tam;
+    }
+
+    /**
+     * Escreve um novo cache.
+     * <p>
+     *      O arquivo é escrito em um temporário e movido ao final, então
+     *      uma escrita interrompida não deixa um cache incompleto.
+     * </p>
+     * @param arquivo caminho do cache.
+     * @param n quantidade de amostras.
+     * @param shapeX formato de cada amostra de X.
+     * @param tamY tamanho de cada amostra de Y.
+     * @param fonte fonte das amostras.
+     * @throws IOException caso ocorra algum erro.
+     */
+    static void escrever(Path arquivo, int n, int[] shapeX, int tamY, Fonte fonte) throws IOException {
+        if (shapeX.length > MAX_DIMS) {
+            throw new IllegalArgumentException(
+                "\nFormato de X deve ter até " + MAX_DIMS + " dimensões."
+            );
+        }
+
+        int tamX = 1;
+        for (int d : shapeX) tamX *= d;
+
+        final long bytesX = Float.BYTES * (long) n * tamX;
+        final long bytesY = Float.BYTES * (long) n * tamY;
+        final long total = TAM_CABECALHO + bytesX + bytesY;
+
+        Path tmp = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+
+        try (FileChannel ch = FileChannel.open(tmp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Arena arena = Arena.ofConfined()) {
+
+            MemorySegment seg = ch.map(MapMode.READ_WRITE, 0, total, arena);
+
+            seg.set(LONG, 0, ASSINATURA);
+            seg.set(INT, 8, VERSAO);
+            seg.set(INT, 12, ordemNativa());
+            seg.set(INT, 16, n);
+            seg.set(INT, 20, shapeX.length);
+            for (int i = 0; i < shapeX.length; i++) {
+                seg.set(INT, 24 + 4L * i, shapeX[i]);
+            }
+            seg.set(INT, 40, tamY);
+
+            float[] x = new float[tamX];
+            float[] y = new float[tamY];
+            for (int i = 0; i < n; i++) {
+                Arrays.fill(y, 0.0f);
+                fonte.amostra(i, x, y);
+
+                MemorySegment.copy(x, 0, seg, ValueLayout.JAVA_FLOAT, TAM_CABECALHO + Float.BYTES * (long) i * tamX, tamX);
+                MemorySegment.copy(y, 0, seg, ValueLayout.JAVA_FLOAT, TAM_CABECALHO + bytesX + Float.BYTES * (long) i * tamY, tamY);
+            }
+
+            seg.force();
+        }
+
+        Files.move(tmp, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Abre um cache existente.
+     * @param arquivo caminho do cache.
+     * @param mapear {@code true} para mapear o arquivo em memória e servir as
+     * amostras sem cópias, {@code false} para carregar os blocos no heap.
+     * @return {@code DataLoader} com as amostras do cache.
+     * @throws IOException caso ocorra algum erro.
+     */
+    static DataLoader abrir(Path arquivo, boolean mapear) throws IOException {
+        try (FileChannel ch = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            // arena automática: o mapeamento é liberado quando os tensores
+            // deixam de ser referenciados
+            Arena arena = mapear ? Arena.ofAuto() : Arena.ofConfined();
+
+            try {
+                MemorySegment seg = ch.map(MapMode.READ_ONLY, 0, ch.size(), arena);
+
+                int n = seg.get(INT, 16);
+                int dims = seg.get(INT, 20);
+                int[] shapeX = new int[dims + 1];
+                shapeX[0] = n;
+                for (int i = 0; i < dims; i++) {
+                    shapeX[i + 1] = seg.get(INT, 24 + 4L * i);
+                }
+                int tamY = seg.get(INT, 40);
+
+                long bytesX = Float.BYTES * (long) n * tamX(seg);
+                long bytesY = Float.BYTES * (long) n * tamY;
+                MemorySegment segX = seg.asSlice(TAM_CABECALHO, bytesX);
+                MemorySegment segY = seg.asSlice(TAM_CABECALHO + bytesX, bytesY);
+
+                TensorData dx;
+                TensorData dy;
+                if (mapear) {
+                    dx = new TensorData(segX);
+                    dy = new TensorData(segY);
+                } else {
+                    dx = new TensorData(segX.toArray(ValueLayout.JAVA_FLOAT), 0, (int) (bytesX / Float.BYTES));
+                    dy = new TensorData(segY.toArray(ValueLayout.JAVA_FLOAT), 0, (int) (bytesY / Float.BYTES));
+                }
+
+                return DataLoader.deBloco(new Tensor(dx, shapeX), new Tensor(dy, n, tamY));
+
+            } finally {
+                if (!mapear) arena.close();
+            }
+        }
+    }
+
+    /**
+     * Nomeia os rótulos one-hot das amostras como {@code "Label-<classe>"},
+     * mantendo o mesmo nome que as amostras recebiam antes do cache.
+     * @param loader {@code DataLoader} carregado do cache.
+     */
+    static void nomearRotulos(DataLoader loader) {
+        // views originais, o iterator entrega cópias de caches mapeados
+        for (Tensor y : loader.getY()) {
+            int classe = 0;
+            for (int i = 1; i < y.tam(); i++) {
+                if (y.get(i) > y.get(classe)) classe = i;
+            }
+
+            y.nome("Label-" + classe);
+        }
+    }
+
+}
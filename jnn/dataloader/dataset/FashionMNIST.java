@@ -64,7 +64,21 @@ public class FashionMNIST {
      * @return {@code DataLoader} com dados lidos.
      */
     public static DataLoader treino() {
-        return carregar("treino-x", "treino-y");
+        return carregar("treino-x", "treino-y", "treino", false);
+    }
+
+    /**
+     * Carrega o conjunto de dados de treino do dataset {@code Fashion MNIST}
+     * mapeando o cache pré-processado em memória.
+     * <p>
+     *      As amostras são views do arquivo de cache, sem cópias e sem
+     *      ocupar o heap.
+     * </p>
+     * @return {@code DataLoader} com dados mapeados.
+     * @see DataLoader#deBloco(Tensor, Tensor)
+     */
+    public static DataLoader treinoMapeado() {
+        return carregar("treino-x", "treino-y", "treino", true);
     }
     
     /**
@@ -72,7 +86,17 @@ public class FashionMNIST {
      * @return {@code DataLoader} com dados lidos.
      */
     public static DataLoader teste() {
-        return carregar("teste-x", "teste-y");
+        return carregar("teste-x", "teste-y", "teste", false);
+    }
+
+    /**
+     * Carrega o conjunto de dados de teste do dataset {@code Fashion MNIST}
+     * mapeando o cache pré-processado em memória.
+     * @return {@code DataLoader} com dados mapeados.
+     * @see #treinoMapeado()
+     */
+    public static DataLoader testeMapeado() {
+        return carregar("teste-x", "teste-y", "teste", true);
     }
 
     /**
@@ -106,27 +130,37 @@ public class FashionMNIST {
 
     /**
      * Carregamento genérnico.
+     * <p>
+     *      Na primeira execução os arquivos originais são convertidos para o
+     *      cache pré-processado, que é usado nas próximas.
+     * </p>
      * @param caminhoX dados de treino.
      * @param caminhoY dados de teste.
+     * @param nomeCache nome do arquivo de cache.
+     * @param mapear mapear o cache em memória em vez de carregá-lo no heap.
      * @return {@code DataLoader} com dados carregados.
      */
-    private static DataLoader carregar(String caminhoX, String caminhoY) {
+    private static DataLoader carregar(String caminhoX, String caminhoY, String nomeCache, boolean mapear) {
         DataLoader loader = null;
 
         try {
-            Path imgsPath = cacheDir.resolve(ARQUIVOS.get(caminhoX));
-            Path labelsPath = cacheDir.resolve(ARQUIVOS.get(caminhoY));
-            
-            talvezBaixar(imgsPath);
-            talvezBaixar(labelsPath);
-            
-            byte[] imgBytes = descompactarGzip(imgsPath);
-            byte[] labelBytes = descompactarGzip(labelsPath);
-            
-            Tensor[] imgs = lerIDXImagens(imgBytes);
-            Tensor[] labels = lerIDXLabels(labelBytes);
-            
-            loader = new DataLoader(imgs, labels);
+            Path cache = cacheDir.resolve(nomeCache + ".jnnds");
+
+            if (!DatasetCache.valido(cache)) {
+                Path imgsPath = cacheDir.resolve(ARQUIVOS.get(caminhoX));
+                Path labelsPath = cacheDir.resolve(ARQUIVOS.get(caminhoY));
+                
+                talvezBaixar(imgsPath);
+                talvezBaixar(labelsPath);
+                
+                byte[] imgBytes = descompactarGzip(imgsPath);
+                byte[] labelBytes = descompactarGzip(labelsPath);
+
+                criarCache(cache, imgBytes, labelBytes);
+            }
+
+            loader = DatasetCache.abrir(cache, mapear);
+            DatasetCache.nomearRotulos(loader);
         
         } catch (Exception e) {
             e.printStackTrace();
@@ -192,55 +226,32 @@ public class FashionMNIST {
     }
 
     /**
-     * Converte os bytes dos arquivos de dados.
-     * @param dados conjuntos de dados.
-     * @return array de {@code Tensor} com dados convertidos.
+     * Converte os bytes dos arquivos IDX para o cache pré-processado.
+     * @param cache caminho do cache.
+     * @param imgBytes bytes do arquivo de imagens.
+     * @param labelBytes bytes do arquivo de rótulos.
+     * @throws IOException caso ocorra algum erro.
      */
     @SuppressWarnings("unused")
-    private static Tensor[] lerIDXImagens(byte[] dados) {
-        ByteBuffer buffer = ByteBuffer.wrap(dados).order(ByteOrder.BIG_ENDIAN);
+    private static void criarCache(Path cache, byte[] imgBytes, byte[] labelBytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(imgBytes).order(ByteOrder.BIG_ENDIAN);
 
         int magic = buffer.getInt();// tem que ser lido
         int numImagens = buffer.getInt();
         int linhas = buffer.getInt();
         int colunas = buffer.getInt();
 
-        Tensor[] imgs = new Tensor[numImagens];
-
-        for (int i = 0; i < numImagens; i++) {
-            float[] arr = new float[linhas * colunas];
+        final int inicioImgs = 16;// cabeçalho das imagens
+        final int inicioLabels = 8;// cabeçalho dos rótulos
 
-            for (int p = 0; p < arr.length; p++) {
-                arr[p] = (buffer.get() & 0xFF) / 255.0f;
+        DatasetCache.escrever(cache, numImagens, new int[]{ 1, linhas, colunas }, 10, (id, x, y) -> {
+            int offset = inicioImgs + id * x.length;
+            for (int p = 0; p < x.length; p++) {
+                x[p] = (imgBytes[offset + p] & 0xFF) / 255.0f;
             }
 
-            imgs[i] = new Tensor(arr.length).copiar(arr).reshape(1, linhas, colunas);
-        }
-
-        return imgs;
-    }
-
-    /**
-     * Converte os bytes dos arquivos de dados.
-     * @param dados conjuntos de dados.
-     * @return array de {@code Tensor} com dados convertidos.
-     */
-    @SuppressWarnings("unused")
-    private static Tensor[] lerIDXLabels(byte[] dados) {
-        ByteBuffer buffer = ByteBuffer.wrap(dados).order(ByteOrder.BIG_ENDIAN);
-
-        int magic = buffer.getInt();// tem que ser lido
-        int total = buffer.getInt();
-        Tensor[] labels = new Tensor[total];
-
-        for (int i = 0; i < total; i++) {
-            int label = buffer.get() & 0xFF;
-            float[] data = new float[10];
-            data[label] = 1.0f;
-            labels[i] = new Tensor(data.length).copiar(data).nome("Label-" + label);
-        }
-
-        return labels;
+            y[labelBytes[inicioLabels + id] & 0xFF] = 1.0f;
+        });
     }
 
 }
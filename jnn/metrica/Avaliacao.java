@@ -0,0 +1,136 @@
+package jnn.metrica;
+
+import jnn.core.tensor.Tensor;
+
+/**
+ * Resultado da avaliação de um modelo sobre um conjunto de dados.
+ * <p>
+ *		Contém a perda média do modelo e, para modelos com saída 1D
+ *		(classificação), a matriz de confusão, a acurácia e o F1-Score,
+ *		todos obtidos na mesma passada pelos dados.
+ * </p>
+ * @see Avaliador#avaliar(jnn.dataloader.DataLoader, int)
+ */
+public class Avaliacao {
+
+	/**
+	 * Quantidade de amostras avaliadas.
+	 */
+	private final int amostras;
+
+	/**
+	 * Perda média por amostra.
+	 */
+	private final float perda;
+
+	/**
+	 * Matriz de confusão no formato (real, previsto), ou {@code null}
+	 * caso a saída do modelo não seja 1D.
+	 */
+	private final Tensor matriz;
+
+	/**
+	 * Proporção de acertos.
+	 */
+	private final float acuracia;
+
+	/**
+	 * F1-Score calculado a partir da matriz de confusão.
+	 */
+	private final float f1Score;
+
+	/**
+	 * Inicializa o resultado de uma avaliação.
+	 * @param amostras quantidade de amostras avaliadas.
+	 * @param perda perda média por amostra.
+	 * @param matriz matriz de confusão, ou {@code null}.
+	 * @param acuracia acurácia.
+	 * @param f1Score F1-Score.
+	 */
+	Avaliacao(int amostras, float perda, Tensor matriz, float acuracia, float f1Score) {
+		this.amostras = amostras;
+		this.perda = perda;
+		this.matriz = matriz;
+		this.acuracia = acuracia;
+		this.f1Score = f1Score;
+	}
+
+	/**
+	 * Verifica se as métricas de classificação estão disponíveis.
+	 */
+	private void validarClassificacao() {
+		if (matriz == null) {
+			throw new UnsupportedOperationException(
+				"\nMétricas de classificação suportam apenas saídas 1D."
+			);
+		}
+	}
+
+	/**
+	 * Retorna a quantidade de amostras avaliadas.
+	 * @return quantidade de amostras.
+	 */
+	public int amostras() {
+		return amostras;
+	}
+
+	/**
+	 * Retorna a perda média por amostra, usando a função de perda do modelo.
+	 * @return valor da perda.
+	 */
+	public float perda() {
+		return perda;
+	}
+
+	/**
+	 * Retorna a acurácia do modelo.
+	 * @return proporção de previsões corretas.
+	 */
+	public float acuracia() {
+		validarClassificacao();
+		return acuracia;
+	}
+
+	/**
+	 * Retorna o F1-Score do modelo.
+	 * @return valor do F1-Score.
+	 */
+	public float f1Score() {
+		validarClassificacao();
+		return f1Score;
+	}
+
+	/**
+	 * Retorna a matriz de confusão, onde as linhas representam as classes
+	 * reais e as colunas as classes previstas.
+	 * @return cópia da matriz de confusão.
+	 */
+	public Tensor matrizConfusao() {
+		validarClassificacao();
+		return matriz.clone();
+	}
+
+	/**
+	 * Verifica se as métricas de classificação estão disponíveis.
+	 * @return {@code true} caso a saída do modelo seja 1D, {@code false}
+	 * caso contrário.
+	 */
+	public boolean isClassificacao() {
+		return matriz != null;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Avaliação (").append(amostras).append(" amostras) {\n");
+		sb.append("    perda: ").append(perda).append("\n");
+
+		if (matriz != null) {
+			sb.append("    acurácia: ").append(acuracia).append("\n");
+			sb.append("    f1 score: ").append(f1Score).append("\n");
+		}
+
+		sb.append("}");
+		return sb.toString();
+	}
+}
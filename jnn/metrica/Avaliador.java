@@ -2,7 +2,9 @@ package jnn.metrica;
 
 import jnn.core.JNNutils;
 import jnn.core.tensor.Tensor;
+import jnn.dataloader.ColetorLote;
 import jnn.dataloader.DataLoader;
+import jnn.dataloader.LoteAmostra;
 import jnn.metrica.metrica.*;
 import jnn.metrica.perda.*;
 import jnn.modelos.Modelo;
@@ -17,6 +19,16 @@ public class Avaliador {
 	 */
 	private Modelo modelo;
 
+	/**
+	 * Tamanho de lote padrão das avaliações sobre conjuntos de dados.
+	 */
+	private static final int TAM_LOTE_PADRAO = 256;
+
+	/**
+	 * Tamanho de lote das avaliações sobre conjuntos de dados.
+	 */
+	private int tamLote = TAM_LOTE_PADRAO;
+
 	MSE mse = new MSE();
 	MAE mae = new MAE();
 	MSLE msle = new MSLE();
@@ -180,6 +192,174 @@ public class Avaliador {
 		);
 	}
 
+	/**
+	 * Avalia o modelo em uma única passada pelo conjunto de dados.
+	 * <p>
+	 *		As amostras são coletadas em lotes diretamente do DataLoader
+	 *		(aplicando as transformações configuradas), e cada lote passa
+	 *		uma única vez pelo modelo. A perda, usando a função de perda do
+	 *		modelo, e as contagens da matriz de confusão são acumuladas a
+	 *		cada lote, então nem o conjunto completo nem as previsões de todas
+	 *		as amostras são mantidos em memória.
+	 * </p>
+	 * <p>
+	 *		As métricas de classificação só são calculadas quando a saída do
+	 *		modelo, por amostra, é 1D.
+	 * </p>
+	 * <p>
+	 *		O modo de treino do modelo não é alterado.
+	 * </p>
+	 * @param loader {@code DataLoader} contendo dataset de teste.
+	 * @param tamLote quantidade de amostras por lote de avaliação.
+	 * @return {@code Avaliacao} com os resultados.
+	 */
+	public Avaliacao avaliar(DataLoader loader, int tamLote) {
+		JNNutils.validarNaoNulo(loader, "loader == null.");
+
+		final Perda perda = modelo.loss();
+		final ColetorLote coletor = loader.coletor(tamLote);
+		final int n = loader.tam();
+
+		double somaPerda = 0;
+		Tensor matriz = null;
+		int nClasses = 0;
+		boolean classificacao = true;
+
+		for (int i = 0; i < n; i += coletor.tamLote()) {
+			LoteAmostra lote = coletor.coletar(i);
+			Tensor real = lote.y();
+			Tensor prev = modelo.forward(lote.x());
+			int tam = real.tamDim(0);
+
+			somaPerda += (double) perda.valor(prev, real) * tam;
+
+			if (classificacao && (prev.numDim() != 2 || real.numDim() != 2)) {
+				classificacao = false;
+			}
+
+			if (classificacao) {
+				if (matriz == null) {
+					nClasses = prev.tamDim(1);
+					matriz = new Tensor(nClasses, nClasses);
+				}
+				acumularConfusao(prev, real, matriz, nClasses);
+			}
+		}
+
+		if (!classificacao) {
+			return new Avaliacao(n, (float) (somaPerda / n), null, 0, 0);
+		}
+
+		final float[] m = matriz.array();
+		final int off = matriz.offset();
+
+		float acertos = 0;
+		for (int i = 0; i < nClasses; i++) {
+			acertos += m[off + i*nClasses + i];
+		}
+
+		return new Avaliacao(
+			n,
+			(float) (somaPerda / n),
+			matriz,
+			acertos / n,
+			f1Score.f1score(matriz)
+		);
+	}
+
+	/**
+	 * Avalia o modelo em uma única passada pelo conjunto de dados, usando
+	 * o tamanho de lote configurado no avaliador.
+	 * @param loader {@code DataLoader} contendo dataset de teste.
+	 * @return {@code Avaliacao} com os resultados.
+	 * @see #avaliar(DataLoader, int)
+	 */
+	public Avaliacao avaliar(DataLoader loader) {
+		return avaliar(loader, tamLote);
+	}
+
+	/**
+	 * Acumula as contagens da matriz de confusão de um lote.
+	 * @param prev {@code Tensor} previsto no formato {@code (lote, classes)}.
+	 * @param real {@code Tensor} real no formato {@code (lote, classes)}.
+	 * @param matriz matriz de confusão (real, previsto).
+	 * @param nClasses quantidade de classes.
+	 */
+	private static void acumularConfusao(Tensor prev, Tensor real, Tensor matriz, int nClasses) {
+		if (prev.tamDim(1) != nClasses || real.tamDim(1) != nClasses) {
+			throw new IllegalArgumentException(
+				"\nFormatos previsto " + prev.shapeStr() + " e real " + 
+				real.shapeStr() + " incompatíveis com " + nClasses + " classes."
+			);
+		}
+
+		prev = prev.contiguous();
+		real = real.contiguous();
+
+		final float[] p = prev.array();
+		final float[] r = real.array();
+		final int offP = prev.offset();
+		final int offR = real.offset();
+		final float[] m = matriz.array();
+		final int offM = matriz.offset();
+		final int n = prev.tamDim(0);
+
+		for (int i = 0; i < n; i++) {
+			int idP = idMaiorValor(p, offP + i*nClasses, nClasses);
+			int idR = idMaiorValor(r, offR + i*nClasses, nClasses);
+			m[offM + idR*nClasses + idP] += 1.0f;
+		}
+	}
+
+	/**
+	 * Encontra o índice com o maior valor de uma amostra.
+	 * @param arr array de dados.
+	 * @param off índice inicial da amostra.
+	 * @param tam quantidade de elementos da amostra.
+	 * @return índice com o maior valor.
+	 */
+	private static int idMaiorValor(float[] arr, int off, int tam) {
+		int maiorId = 0;
+		float maiorVal = arr[off];
+
+		for (int i = 1; i < tam; i++) {
+			if (arr[off + i] > maiorVal) {
+				maiorVal = arr[off + i];
+				maiorId = i;
+			}
+		}
+
+		return maiorId;
+	}
+
+	/**
+	 * Configura o tamanho de lote usado nas avaliações sobre conjuntos
+	 * de dados.
+	 * <p>
+	 *		Lotes maiores reduzem o custo por amostra da propagação, ao
+	 *		custo de mais memória para as ativações do modelo.
+	 * </p>
+	 * @param tamLote quantidade de amostras por lote.
+	 */
+	public void setTamLote(int tamLote) {
+		if (tamLote < 1) {
+			throw new IllegalArgumentException(
+				"\nTamanho do lote deve ser maior que zero, mas recebido " + tamLote + "."
+			);
+		}
+
+		this.tamLote = tamLote;
+	}
+
+	/**
+	 * Retorna o tamanho de lote usado nas avaliações sobre conjuntos
+	 * de dados.
+	 * @return quantidade de amostras por lote.
+	 */
+	public int tamLote() {
+		return tamLote;
+	}
+
 	/**
 	 * Calcula a precisão em relação aos dados de entrada e saída fornecidos.
 	 * @param xs {@code Tensores} com dados de entrada para o modelo.
@@ -187,32 +367,17 @@ public class Avaliador {
 	 * @return {@code Tensor} contendo o resultado.
 	 */
 	public Tensor acuracia(Tensor[] xs, Tensor[] ys) {
-		final int n = xs.length;
-		int batch = 32;
-		
-		float acertos = 0;
-		for (int i = 0; i < n; i += batch) {
-			int inicio = i;
-			int fim = Math.min(inicio + batch, n);
-			Tensor[] x = JNNutils.subArray(xs, inicio, fim);
-			Tensor[] y = JNNutils.subArray(ys, inicio, fim);
-			Tensor[] prev = modelo.forward(x);
-			
-			float accLote = acuracia.forward(prev, y).item();
-			int tamLote = fim - inicio;
-			acertos += accLote * tamLote;
-		}
-
-		return new Tensor(1).set(acertos / n, 0);
+		return acuracia(new DataLoader(xs, ys));
 	}
 
 	/**
 	 * Calcula a precisão em relação aos dados de entrada e saída fornecidos.
 	 * @param loader {@code DataLoader} contendo dataset de teste.
 	 * @return {@code Tensor} resultado.
+	 * @see #avaliar(DataLoader)
 	 */
 	public Tensor acuracia(DataLoader loader) {
-		return acuracia(loader.getX(), loader.getY());
+		return new Tensor(1).set(avaliar(loader).acuracia(), 0);
 	}
 
 	/**
@@ -227,8 +392,7 @@ public class Avaliador {
 	 * @return {@code Tensor} resultado.
 	 */
 	public Tensor matrizConfusao(Tensor[] xs, Tensor[] ys) {
-		Tensor[] prevs = modelo.forward(xs);
-		return mc.forward(prevs, ys);
+		return matrizConfusao(new DataLoader(xs, ys));
 	}
 
 	/**
@@ -240,9 +404,10 @@ public class Avaliador {
 	 * </p>
 	 * @param loader {@code DataLoader} contendo dataset de teste.
 	 * @return {@code Tensor} resultado.
+	 * @see #avaliar(DataLoader)
 	 */
 	public Tensor matrizConfusao(DataLoader loader) {
-		return matrizConfusao(loader.getX(), loader.getY());
+		return avaliar(loader).matrizConfusao();
 	}
 
 	/**
@@ -258,8 +423,7 @@ public class Avaliador {
 	 * @return {@code Tensor} resultado.
 	 */
 	public Tensor f1Score(Tensor[] xs, Tensor[] ys) {
-		Tensor[] prevs = modelo.forward(xs);
-		return f1Score.forward(prevs, ys);
+		return f1Score(new DataLoader(xs, ys));
 	}
 
 	/**
@@ -272,8 +436,9 @@ public class Avaliador {
 	 * </p>
 	 * @param loader {@code DataLoader} contendo dataset de teste.
 	 * @return {@code Tensor} resultado.
+	 * @see #avaliar(DataLoader)
 	 */
 	public Tensor f1Score(DataLoader loader) {
-		return f1Score(loader.getX(), loader.getY());
+		return new Tensor(1).set(avaliar(loader).f1Score(), 0);
 	}
 }
@@ -28,25 +28,30 @@ public class F1Score extends Metrica {
 	}
 
 	/**
-	 * Calcula o valor f1 score.
-	 * @param mat martiz de confusão
+	 * Calcula o valor f1 score a partir de uma matriz de confusão já
+	 * acumulada.
+	 * @param mat martiz de confusão no formato (real, previsto).
 	 * @return f1 score.
 	 */
-	private float f1score(Tensor mat) {
+	public float f1score(Tensor mat) {
 		int nClasses = mat.shape()[0];
 
+		mat = mat.contiguous();
+		final float[] m = mat.array();
+		final int off = mat.offset();
+
 		float[] precisao = new float[nClasses];
 		float[] recall   = new float[nClasses];
 
 		for (int i = 0; i < nClasses; i++) {
-			int vp = (int) mat.get(i, i);// verdadeiro positivo
+			int vp = (int) m[off + i*nClasses + i];// verdadeiro positivo
 			int fp = 0;// falso positivo
 			int fn = 0;// falso negativo
 
 			for (int j = 0; j < nClasses; j++) {
 				if (j != i) {
-					fp += mat.get(j, i);
-					fn += mat.get(i, j);
+					fp += m[off + j*nClasses + i];
+					fn += m[off + i*nClasses + j];
 				}
 			}
 
@@ -48,16 +48,22 @@ abstract class Metrica {
 			);
 		}
 
+		tensor = tensor.contiguous();
+
+		final float[] arr = tensor.array();
+		final int off = tensor.offset();
+		final int n = tensor.tam();
+
 		int maiorId = 0;
-		int n = tensor.shape()[0];
-		double maiorVal = tensor.get(0);
+		float maiorVal = arr[off];
+
 		for (int i = 1; i < n; i++) {
-			if (tensor.get(i) > maiorVal) {
-				maiorVal = tensor.get(i);
+			if (arr[off + i] > maiorVal) {
+				maiorVal = arr[off + i];
 				maiorId = i;
 			}
 		}
-  
+
 		return maiorId;
 	}
 
@@ -80,11 +86,14 @@ abstract class Metrica {
 		int nClasses = prev[0].tam();
 		Tensor mc = new Tensor(nClasses, nClasses);
 
+		// contagens direto no array da matriz
+		final float[] arr = mc.array();
+		final int off = mc.offset();
+
 		for (int i = 0; i < prev.length; i++) {
 			int p = idMaiorValor(prev[i]);
 			int r = idMaiorValor(real[i]);
-			double val = mc.get(r, p);
-			mc.set((val += 1.0), r, p);
+			arr[off + r*nClasses + p] += 1.0f;
 		}
 
 		return mc;
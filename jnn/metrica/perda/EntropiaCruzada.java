@@ -17,52 +17,71 @@ public class EntropiaCruzada extends Perda {
 
 	@Override
 	public Tensor forward(Tensor prev, Tensor real) {
-		verificarDimensoes(prev, real);
-		
-		if (prev.numDim() == 1) {
-			int tam = prev.tam();
-			float ec = f(prev, real, tam);
-			
-			return new Tensor(1).set((-ec/tam), 0);
-		}
-
-		int lotes = prev.tamDim(0);
-		int amostras = prev.tamDim(1);
+		return new Tensor(1).set(valor(prev, real), 0);
+	}
 
-		float somaLote = 0.0f;
-		for (int i = 0; i < lotes; i++) {
-			Tensor p = prev.subTensor(i);
-			Tensor r = real.subTensor(i);
+	@Override
+	public float valor(Tensor prev, Tensor real) {
+		verificarDimensoes(prev, real);
 
-			float ec = f(p, r, amostras);
-			somaLote += -ec;
-		}
+		float ec = mediaAmostras(prev, real, this::f);
 
-		return new Tensor(1).set((somaLote / lotes), 0);
+		// tensores 1D são normalizados pela quantidade de elementos
+		return prev.numDim() == 1 ? ec / prev.tam() : ec;
 	}
 
 	/**
-	 * Cálculo interno da Cross Entropy.
-	 * @param prev tensor com dados previstos.
-	 * @param real tensor com dados reais.
-	 * @param tam quantidade de amostras.
-	 * @return soma do CE.
+	 * Cálculo interno da Cross Entropy de uma amostra.
+	 * @param prev array com dados previstos.
+	 * @param offP índice inicial dos dados previstos.
+	 * @param real array com dados reais.
+	 * @param offR índice inicial dos dados reais.
+	 * @param tam quantidade de elementos.
+	 * @return CE da amostra.
 	 */
-	private float f(Tensor prev, Tensor real, int tam) {
+	private double f(float[] prev, int offP, float[] real, int offR, int tam) {
 		double ec = 0.0;
 		for (int i = 0; i < tam; i++) {
-			ec += real.get(i) * Math.log(prev.get(i) + eps);
+			ec += real[offR + i] * Math.log(prev[offP + i] + eps);
 		}
 
-		return (float) ec;
+		return -(float) ec;
 	}
 	
+	/**
+	 * Calcula o gradiente da perda em relação à entrada da {@code Softmax}
+	 * que gerou as previsões ({@code p - y}).
+	 * <p>
+	 *		O gradiente já inclui o jacobiano da Softmax, então modelos
+	 *		{@code Sequencial} com Softmax na saída o repassam diretamente
+	 *		para a camada anterior a ela.
+	 * </p>
+	 */
 	@Override
 	public Tensor backward(Tensor prev, Tensor real) {
+		return backward(prev, real, new Tensor(prev.shape()));
+	}
+
+	@Override
+	public Tensor backward(Tensor prev, Tensor real, Tensor grad) {
 		verificarDimensoes(prev, real);
+		verificarGrad(prev, grad);
+
+		prev = prev.contiguous();
+		real = real.contiguous();
+
+		final float[] p = prev.array();
+		final float[] r = real.array();
+		final float[] g = grad.array();
+		final int offP = prev.offset();
+		final int offR = real.offset();
+		final int offG = grad.offset();
+		final int n = prev.tam();
+
+		for (int i = 0; i < n; i++) {
+			g[offG + i] = p[offP + i] - r[offR + i];
+		}
 
-		return prev.map(real,
-			(p, r) -> (p - r)
-		);
+		return grad;
 	}
 }
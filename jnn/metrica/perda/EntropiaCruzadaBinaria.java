@@ -17,63 +17,65 @@ import jnn.core.tensor.Tensor;
 
 	@Override
 	public Tensor forward(Tensor prev, Tensor real) {
-		verificarDimensoes(prev, real);
-
-        if (prev.numDim() == 1) {
-            int tam = prev.tam();
-            float ecb = f(prev, real, tam);
-            
-			return new Tensor(1).set((-ecb / tam), 0);
-        }
-
-		final int lotes = prev.tamDim(0);
-		final int amostras = prev.tamDim(1);
-
-		float somaLote = 0.0f;
-		for (int i = 0; i < lotes; i++) {
-			Tensor p = prev.subTensor(i);
-			Tensor r = real.subTensor(i);
-			
-			float soma = f(p, r, amostras);
-			somaLote += -soma / amostras;
-		}
-
+		return new Tensor(1).set(valor(prev, real), 0);
+	}
 
-		return new Tensor(1).set((somaLote / lotes), 0);
+	@Override
+	public float valor(Tensor prev, Tensor real) {
+		verificarDimensoes(prev, real);
+		return mediaAmostras(prev, real, this::f);
 	}
 
 	/**
-	 * 
-	 * @param prev
-	 * @param real
-	 * @param tam
-	 * @return
+	 * Calculo interno da Binary Cross Entropy de uma amostra.
+	 * @param prev array com dados previstos.
+	 * @param offP índice inicial dos dados previstos.
+	 * @param real array com dados reais.
+	 * @param offR índice inicial dos dados reais.
+	 * @param tam quantidade de elementos.
+	 * @return entropia cruzada binária da amostra.
 	 */
-	private float f(Tensor prev, Tensor real, int tam) {
-        double ecb = 0.0f;
-        for (int i = 0; i < tam; i++) {
-            float p = prev.get(i);
-            float r = real.get(i);
-            ecb += r * Math.log(p + eps) + (1.0 - r) * Math.log(1.0 - p + eps);
-        }
+	private double f(float[] prev, int offP, float[] real, int offR, int tam) {
+		double ecb = 0.0;
+		for (int i = 0; i < tam; i++) {
+			float p = prev[offP + i];
+			float r = real[offR + i];
+			ecb += r * Math.log(p + eps) + (1.0 - r) * Math.log(1.0 - p + eps);
+		}
 
-        return (float) ecb;
+		return -(float) ecb / tam;
 	}
 
 	@Override
 	public Tensor backward(Tensor prev, Tensor real) {
+		return backward(prev, real, new Tensor(prev.shape()));
+	}
+
+	@Override
+	public Tensor backward(Tensor prev, Tensor real, Tensor grad) {
 		verificarDimensoes(prev, real);
-		
-		if (prev.numDim() == 1) {
-			final int tam = prev.tam();
-			return prev.map(real,
-				(p, r) -> (((1.0f - r) / (1.0f - p)) - (r / p)) / tam
-			);
-		} 
-		
-		int amostras = prev.tamDim(1);
-		return prev.map(real,
-			(p, r) -> (((1.0f - r) / (1.0f - p + eps)) - (r / (p + eps))) / amostras
-		);
+		verificarGrad(prev, grad);
+
+		prev = prev.contiguous();
+		real = real.contiguous();
+
+		final float[] p = prev.array();
+		final float[] r = real.array();
+		final float[] g = grad.array();
+		final int offP = prev.offset();
+		final int offR = real.offset();
+		final int offG = grad.offset();
+		final int n = prev.tam();
+
+		final int tam = prev.numDim() == 1 ? prev.tam() : prev.tamDim(1);
+		final float e = prev.numDim() == 1 ? 0.0f : eps;
+
+		for (int i = 0; i < n; i++) {
+			float pi = p[offP + i];
+			float ri = r[offR + i];
+			g[offG + i] = (((1.0f - ri) / (1.0f - pi + e)) - (ri / (pi + e))) / tam;
+		}
+
+		return grad;
 	}
 }
@@ -15,72 +15,62 @@ public class MAE extends Perda {
 
 	@Override
 	public Tensor forward(Tensor prev, Tensor real) {
-		verificarDimensoes(prev, real);
-
-		if (prev.numDim() == 1) {
-			final int tam = prev.tam();
-			float mae = f(prev, real, tam);
-			return new Tensor(1).set((mae/tam), 0);
-		
-		} else {
-			final int lotes = prev.tamDim(0);
-			final int amostras = prev.tamDim(1);
-
-			float somaLote = 0;
-			for (int i = 0; i < lotes; i++) {
-				Tensor p = prev.subTensor(i);
-				Tensor r = real.subTensor(i);
-				float somaAmostras = f(p, r, amostras);
-
-				somaLote += somaAmostras / amostras;
-			}
+		return new Tensor(1).set(valor(prev, real), 0);
+	}
 
-			return new Tensor(1).set((somaLote / lotes), 0);
-		}
+	@Override
+	public float valor(Tensor prev, Tensor real) {
+		verificarDimensoes(prev, real);
+		return mediaAmostras(prev, real, MAE::f);
 	}
 
 	/**
-	 * Calculo interno do mae.
-	 * @param prev tensor com dados previstos.
-	 * @param real tensor com dados reais.
-	 * @param tam quantidade de amostras.
-	 * @return soma do mae.
+	 * Calculo interno do mae de uma amostra.
+	 * @param prev array com dados previstos.
+	 * @param offP índice inicial dos dados previstos.
+	 * @param real array com dados reais.
+	 * @param offR índice inicial dos dados reais.
+	 * @param tam quantidade de elementos.
+	 * @return mae da amostra.
 	 */
-	private float f(Tensor prev, Tensor real, int tam) {
+	private static double f(float[] prev, int offP, float[] real, int offR, int tam) {
 		float mae = 0.0f;
 		for (int i = 0; i < tam; i++) {
-			mae += Math.abs(prev.get(i) - real.get(i));
+			mae += Math.abs(prev[offP + i] - real[offR + i]);
 		}
 
-		return mae;
+		return mae / tam;
 	}
 	
 	@Override
 	public Tensor backward(Tensor prev, Tensor real) {
+		return backward(prev, real, new Tensor(prev.shape()));
+	}
+
+	@Override
+	public Tensor backward(Tensor prev, Tensor real, Tensor grad) {
 		verificarDimensoes(prev, real);
+		verificarGrad(prev, grad);
 
-		if (prev.numDim() == 1) {
-			final int tam = prev.tamDim(0);
-			return prev.map(real,
-				(p, r) -> {
-					float d = p - r;
-					if (d > 0) return  1 / tam;
-					if (d < 0) return -1 / tam;
-					return 0;
-				}
-			);
-		
-		} else {
-			int lotes = prev.tamDim(0);
-			int amostras = prev.tamDim(1);
-			float escala = 1.0f / (amostras * lotes);
+		prev = prev.contiguous();
+		real = real.contiguous();
 
-			return prev.map(real, (p, r) -> {
-				float d = p - r;
-				if (d > 0) return  escala;
-				if (d < 0) return -escala;
-				return 0.0f;
-			});
+		final float[] p = prev.array();
+		final float[] r = real.array();
+		final float[] g = grad.array();
+		final int offP = prev.offset();
+		final int offR = real.offset();
+		final int offG = grad.offset();
+		final int n = prev.tam();
+
+		// 1D é tratado como um lote de uma amostra
+		final float escala = 1.0f / n;
+
+		for (int i = 0; i < n; i++) {
+			float d = p[offP + i] - r[offR + i];
+			g[offG + i] = (d > 0) ? escala : (d < 0) ? -escala : 0.0f;
 		}
+
+		return grad;
 	}
 }
@@ -15,64 +15,64 @@ public class MSE extends Perda {
 
 	@Override
 	public Tensor forward(Tensor prev, Tensor real) {
-		verificarDimensoes(prev, real);
-
-		if (prev.numDim() == 1) {
-			final int tam = prev.tam();
-			float mse = f(prev, real, tam);
-			
-			return new Tensor(1).set((mse / tam), 0);
-		} 
-
-		final int lotes = prev.tamDim(0);
-		final int amostras = prev.tamDim(1);
-
-		float somaLote = 0;
-		for (int i = 0; i < lotes; i++) {
-			Tensor p = prev.subTensor(i);
-			Tensor r = real.subTensor(i);
-			float somaAmostras = f(p, r, amostras);
-
-			somaLote += somaAmostras / amostras;
-		}
+		return new Tensor(1).set(valor(prev, real), 0);
+	}
 
-		return new Tensor(1).set((somaLote / lotes), 0);
+	@Override
+	public float valor(Tensor prev, Tensor real) {
+		verificarDimensoes(prev, real);
+		return mediaAmostras(prev, real, MSE::f);
 	}
 
 	/**
-	 * Calculo interno do mse.
-	 * @param prev tensor com dados previstos.
-	 * @param real tensor com dados reais.
-	 * @param tam quantidade de amostras.
-	 * @return soma do mse.
+	 * Calculo interno do mse de uma amostra.
+	 * @param prev array com dados previstos.
+	 * @param offP índice inicial dos dados previstos.
+	 * @param real array com dados reais.
+	 * @param offR índice inicial dos dados reais.
+	 * @param tam quantidade de elementos.
+	 * @return mse da amostra.
 	 */
-	private float f(Tensor prev, Tensor real, int tam) {
+	private static double f(float[] prev, int offP, float[] real, int offR, int tam) {
 		float mse = 0.0f;
 		for (int i = 0; i < tam; i++) {
-			float d = prev.get(i) - real.get(i);
+			float d = prev[offP + i] - real[offR + i];
 			mse += d * d;
 		}
 
-		return mse;
+		return mse / tam;
 	}
 	
 	@Override
 	public Tensor backward(Tensor prev, Tensor real) {
+		return backward(prev, real, new Tensor(prev.shape()));
+	}
+
+	@Override
+	public Tensor backward(Tensor prev, Tensor real, Tensor grad) {
 		verificarDimensoes(prev, real);
+		verificarGrad(prev, grad);
 
-		if (prev.numDim() == 1) {
-			final int tam = prev.tam();
-			return prev.map(
-				real,
-				(p, r) -> (2.0f / tam) * (p - r)
-			);
-		} 
-	
-		final int lotes = prev.tamDim(0);
-		final int amostras = prev.tamDim(1);
+		prev = prev.contiguous();
+		real = real.contiguous();
+
+		// 1D é tratado como um lote de uma amostra
+		final int amostras = prev.numDim() == 1 ? prev.tam() : prev.tamDim(1);
+		final int lotes = prev.tam() / amostras;
+		final float escala = 2.0f / amostras;
+
+		final float[] p = prev.array();
+		final float[] r = real.array();
+		final float[] g = grad.array();
+		final int offP = prev.offset();
+		final int offR = real.offset();
+		final int offG = grad.offset();
+		final int n = prev.tam();
+
+		for (int i = 0; i < n; i++) {
+			g[offG + i] = escala * (p[offP + i] - r[offR + i]) / lotes;
+		}
 
-		return prev.map(real,
-			(p, r) -> (2.0f / amostras) * (p - r) / lotes
-		);
+		return grad;
 	}
 }
@@ -17,57 +17,64 @@ public class MSLE extends Perda {
 
 	@Override
 	public Tensor forward(Tensor prev, Tensor real) {
-		verificarDimensoes(prev, real);
-		
-		if (prev.numDim() == 1) {
-			int tam = prev.tam();
-			float emql = f(prev, real, tam);
-			
-			return new Tensor(1).set((emql/tam), 0);
-		}
-
-        int lotes = prev.tamDim(0);
-        int amostras = prev.tamDim(1);
-
-        float somaLote = 0;
-        for (int i = 0; i < lotes; i++) {
-            Tensor p = prev.subTensor(i);
-            Tensor r = real.subTensor(i);
-
-            somaLote += f(p, r, amostras) / amostras;
-        }
-
+		return new Tensor(1).set(valor(prev, real), 0);
+	}
 
-        return new Tensor(1).set((somaLote / lotes), 0);
+	@Override
+	public float valor(Tensor prev, Tensor real) {
+		verificarDimensoes(prev, real);
+		return mediaAmostras(prev, real, MSLE::f);
 	}
 
 	/**
-	 * Calculo interno do msle.
-	 * @param prev tensor com dados previstos.
-	 * @param real tensor com dados reais.
-	 * @param tam quantidade de amostras.
-	 * @return soma do msle.
+	 * Calculo interno do msle de uma amostra.
+	 * @param prev array com dados previstos.
+	 * @param offP índice inicial dos dados previstos.
+	 * @param real array com dados reais.
+	 * @param offR índice inicial dos dados reais.
+	 * @param tam quantidade de elementos.
+	 * @return msle da amostra.
 	 */
-	private float f(Tensor prev, Tensor real, int tam) {
+	private static double f(float[] prev, int offP, float[] real, int offR, int tam) {
 		double emql = 0;
 		for (int i = 0; i < tam; i++) {
-			double d = Math.log(1.0 +  prev.get(i)) - Math.log(1.0 + real.get(i));
+			double d = Math.log(1.0 + prev[offP + i]) - Math.log(1.0 + real[offR + i]);
 			emql += d * d;
 		}
 		
-		return (float) emql;
+		return (float) emql / tam;
 	}
 	
 	@Override
 	public Tensor backward(Tensor prev, Tensor real) {
+		return backward(prev, real, new Tensor(prev.shape()));
+	}
+
+	@Override
+	public Tensor backward(Tensor prev, Tensor real, Tensor grad) {
 		verificarDimensoes(prev, real);
-        
+		verificarGrad(prev, grad);
+
+		prev = prev.contiguous();
+		real = real.contiguous();
+
+		final float[] p = prev.array();
+		final float[] r = real.array();
+		final float[] g = grad.array();
+		final int offP = prev.offset();
+		final int offR = real.offset();
+		final int offG = grad.offset();
+		final int n = prev.tam();
+
 		final int tam = prev.numDim() == 1 ? prev.tamDim(0) : prev.tamDim(1);
 
-        return prev.map(real, (p, r) -> {
-            float lp = (float) Math.log(1.0 + p + eps);
-            float lr = (float) Math.log(1.0 + r + eps);
-            return (2.0f / tam) * (lp - lr) * (1.0f / (1.0f + p + eps));
-        });
+		for (int i = 0; i < n; i++) {
+			float pi = p[offP + i];
+			float lp = (float) Math.log(1.0 + pi + eps);
+			float lr = (float) Math.log(1.0 + r[offR + i] + eps);
+			g[offG + i] = (2.0f / tam) * (lp - lr) * (1.0f / (1.0f + pi + eps));
+		}
+
+		return grad;
 	}
 }
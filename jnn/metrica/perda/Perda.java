@@ -1,5 +1,6 @@
 package jnn.metrica.perda;
 
+import jnn.core.parallel.JNNparallel;
 import jnn.core.tensor.Tensor;
 
 /**
@@ -11,9 +12,42 @@ import jnn.core.tensor.Tensor;
  *    e principalmente para o treinamento, calculando os gradientes
  *    necessários para a atualização de parâmetros dos modelos.
  * </p>
+ * <p>
+ *    Para evitar alocações a cada passo de treino, o valor da perda pode
+ *    ser obtido diretamente com {@code valor()} e o gradiente pode ser
+ *    escrito em um buffer do chamador com {@code backward(prev, real, grad)}.
+ * </p>
  */
 public abstract class Perda {
 
+	/**
+	 * Quantidade mínima de elementos para dividir a redução entre threads.
+	 */
+	private static final int MIN_PARALELO = 1 << 16;
+
+	/**
+	 * Quantidade aproximada de elementos por bloco da redução.
+	 */
+	private static final int ELEMENTOS_BLOCO = 1 << 13;
+
+	/**
+	 * Perda de uma única amostra, calculada diretamente sobre os arrays.
+	 */
+	@FunctionalInterface
+	protected interface PerdaAmostra {
+
+		/**
+		 * Calcula a perda da amostra.
+		 * @param prev array com dados previstos.
+		 * @param offP índice inicial da amostra prevista.
+		 * @param real array com dados reais.
+		 * @param offR índice inicial da amostra real.
+		 * @param tam quantidade de elementos da amostra.
+		 * @return perda da amostra.
+		 */
+		double calcular(float[] prev, int offP, float[] real, int offR, int tam);
+	}
+
 	/**
 	 * Construtor privado.
 	 */
@@ -35,6 +69,123 @@ public abstract class Perda {
 	 */
 	public abstract Tensor backward(Tensor prev, Tensor real);
 
+	/**
+	 * Calcula o valor da função de perda configurada, sem criar um
+	 * {@code Tensor} para o resultado.
+	 * @param prev {@code Tensor} com dados previstos.
+	 * @param real {@code Tensor} com dados reais.
+	 * @return valor de perda.
+	 */
+	public float valor(Tensor prev, Tensor real) {
+		return forward(prev, real).item();
+	}
+
+	/**
+	 * Calcula a derivada da função de perda configurada, escrevendo o
+	 * resultado no buffer informado.
+	 * <p>
+	 *    O buffer pode ser reutilizado entre chamadas, evitando alocações
+	 *    a cada passo de treino. Por padrão o gradiente é calculado por
+	 *    {@code backward(prev, real)} e copiado para o buffer.
+	 * </p>
+	 * @param prev {@code Tensor} com dados previstos.
+	 * @param real {@code Tensor} com dados reais.
+	 * @param grad {@code Tensor} de destino, com o mesmo formato de {@code prev}.
+	 * @return {@code Tensor} de destino.
+	 */
+	public Tensor backward(Tensor prev, Tensor real, Tensor grad) {
+		verificarGrad(prev, grad);
+		return grad.copiar(backward(prev, real));
+	}
+
+	/**
+	 * Calcula a média da perda por amostra.
+	 * <p>
+	 *    Tensores 1D são tratados como uma única amostra e tensores 2D
+	 *    como um lote no formato {@code (lotes, amostras)}. Lotes grandes
+	 *    têm a redução dividida entre as threads da biblioteca, com os
+	 *    mesmos blocos da versão sequencial, então o resultado não depende
+	 *    da quantidade de threads.
+	 * </p>
+	 * @param prev {@code Tensor} com dados previstos.
+	 * @param real {@code Tensor} com dados reais.
+	 * @param f perda de cada amostra.
+	 * @return média das perdas das amostras.
+	 */
+	protected float mediaAmostras(Tensor prev, Tensor real, PerdaAmostra f) {
+		prev = prev.contiguous();
+		real = real.contiguous();
+
+		final float[] p = prev.array();
+		final float[] r = real.array();
+		final int offP = prev.offset();
+		final int offR = real.offset();
+
+		final int amostras = prev.numDim() == 1 ? prev.tam() : prev.tamDim(1);
+		final int lotes = prev.tam() / amostras;
+		final int bloco = Math.max(1, ELEMENTOS_BLOCO / amostras);
+		final int numBlocos = (lotes + bloco - 1) / bloco;
+
+		double soma = 0;
+		if (prev.tam() < MIN_PARALELO || numBlocos < 2) {
+			for (int b = 0; b < numBlocos; b++) {
+				soma += somaBloco(p, offP, r, offR, amostras, b * bloco, Math.min(lotes, (b + 1) * bloco), f);
+			}
+
+		} else {
+			final double[] parciais = new double[numBlocos];
+			JNNparallel.parallelFor(0, numBlocos, 1, (ini, fim) -> {
+				for (int b = ini; b < fim; b++) {
+					parciais[b] = somaBloco(p, offP, r, offR, amostras, b * bloco, Math.min(lotes, (b + 1) * bloco), f);
+				}
+			});
+
+			for (double parcial : parciais) soma += parcial;
+		}
+
+		return (float) (soma / lotes);
+	}
+
+	/**
+	 * Soma as perdas das amostras {@code [ini, fim)}.
+	 */
+	private static double somaBloco(float[] p, int offP, float[] r, int offR, int amostras, int ini, int fim, PerdaAmostra f) {
+		double soma = 0;
+		for (int i = ini; i < fim; i++) {
+			int id = i * amostras;
+			soma += f.calcular(p, offP + id, r, offR + id, amostras);
+		}
+
+		return soma;
+	}
+
+	/**
+	 * Auxiliar para verificar se o buffer de gradiente é compatível com
+	 * os dados previstos.
+	 * @param prev {@code Tensor} com dados previstos.
+	 * @param grad {@code Tensor} de destino do gradiente.
+	 */
+	protected void verificarGrad(Tensor prev, Tensor grad) {
+		if (grad == null) {
+			throw new IllegalArgumentException(
+				"\nBuffer de gradiente nulo."
+			);
+		}
+
+		if (!prev.compShape(grad)) {
+			throw new IllegalArgumentException(
+				"\nDimensões do gradiente " + grad.shapeStr() +
+				" incompatíveis com as previstas " + prev.shapeStr() + "."
+			);
+		}
+
+		if (!grad.isContiguous()) {
+			throw new IllegalArgumentException(
+				"\nO buffer de gradiente deve ser contíguo."
+			);
+		}
+	}
+
 	/**
 	 * Auxiliar para verificar se os tamanhos dos tensores que serão usados
 	 * pelas funções de perda são suportados.
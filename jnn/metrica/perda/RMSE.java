@@ -15,58 +15,61 @@ public class RMSE extends Perda {
 
 	@Override
 	public Tensor forward(Tensor prev, Tensor real) {
-		verificarDimensoes(prev, real);
-		
-		if (prev.numDim() == 1) {
-			int tam = prev.tam();
-			float rmse = f(prev, real, tam);
-			
-			return new Tensor(1)
-			.set((float) Math.sqrt(rmse / tam), 0);
-		}
-
-        int lotes = prev.tamDim(0);
-        int amostras = prev.tamDim(1);
-
-        float somaLote = 0;
-        for (int i = 0; i < lotes; i++) {
-            Tensor p = prev.subTensor(i);
-            Tensor r = real.subTensor(i);
-
-            float soma = f(p, r, amostras) / amostras;
-            somaLote += Math.sqrt(soma);
-        }
+		return new Tensor(1).set(valor(prev, real), 0);
+	}
 
-        return new Tensor(1)
-		.set((somaLote / lotes), 0);
+	@Override
+	public float valor(Tensor prev, Tensor real) {
+		verificarDimensoes(prev, real);
+		return mediaAmostras(prev, real, RMSE::f);
 	}
 
 	/**
-	 * Calculo interno do rmse.
-	 * @param prev tensor com dados previstos.
-	 * @param real tensor com dados reais.
-	 * @param tam quantidade de amostras.
-	 * @return soma do rmse.
+	 * Calculo interno do rmse de uma amostra.
+	 * @param prev array com dados previstos.
+	 * @param offP índice inicial dos dados previstos.
+	 * @param real array com dados reais.
+	 * @param offR índice inicial dos dados reais.
+	 * @param tam quantidade de elementos.
+	 * @return rmse da amostra.
 	 */
-	private float f(Tensor prev, Tensor real, int tam) {
+	private static double f(float[] prev, int offP, float[] real, int offR, int tam) {
 		float rmse = 0.0f;
 		for (int i = 0; i < tam; i++) {
-			float d = prev.get(i) - real.get(i);
+			float d = prev[offP + i] - real[offR + i];
 			rmse += d * d;
 		}
 
-		return rmse;
+		return (float) Math.sqrt(rmse / tam);
 	}
 	 
 	@Override
 	public Tensor backward(Tensor prev, Tensor real) {
-		super.verificarDimensoes(prev, real);
-		final int tam = prev.tam();
-		float rrmse = (float) Math.sqrt(forward(prev, real).item());
+		return backward(prev, real, new Tensor(prev.shape()));
+	}
+
+	@Override
+	public Tensor backward(Tensor prev, Tensor real, Tensor grad) {
+		verificarDimensoes(prev, real);
+		verificarGrad(prev, grad);
+
+		prev = prev.contiguous();
+		real = real.contiguous();
+
+		final float[] p = prev.array();
+		final float[] r = real.array();
+		final float[] g = grad.array();
+		final int offP = prev.offset();
+		final int offR = real.offset();
+		final int offG = grad.offset();
+		final int n = prev.tam();
+
+		final float rrmse = (float) Math.sqrt(valor(prev, real));
+
+		for (int i = 0; i < n; i++) {
+			g[offG + i] = (p[offP + i] - r[offR + i]) / (rrmse * n);
+		}
 
-		return prev.map(
-			real,
-			(p, r) -> (p - r) / (rrmse * tam)
-		);
+		return grad;
 	}
 }
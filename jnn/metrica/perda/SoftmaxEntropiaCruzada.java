@@ -0,0 +1,125 @@
+package jnn.metrica.perda;
+
+import jnn.core.tensor.Tensor;
+
+/**
+ * Função de perda Softmax + Cross Entropy, que combina a ativação Softmax
+ * com a {@code EntropiaCruzada} em uma única operação.
+ * <p>
+ *		A perda recebe as saídas do modelo antes da Softmax (logits), e
+ *		calcula a entropia cruzada usando log-sum-exp, sem passar pelas
+ *		probabilidades intermediárias, evitando {@code log(0)} e o uso de um
+ *		{@code eps}. O gradiente em relação aos logits é {@code softmax(z) - y},
+ *		calculado em uma passada por amostra.
+ * </p>
+ * <p>
+ *		O modelo não deve possuir uma camada {@code Softmax} na saída ao usar
+ *		essa perda. Para modelos com {@code Softmax} na saída e perda
+ *		{@code EntropiaCruzada}, o modelo {@code Sequencial} já ignora o
+ *		jacobiano da Softmax na propagação reversa.
+ * </p>
+ */
+public class SoftmaxEntropiaCruzada extends Perda {
+
+	/**
+	 * Inicializa a função de perda Softmax + Cross Entropy.
+	 */
+	public SoftmaxEntropiaCruzada() {}
+
+	@Override
+	public Tensor forward(Tensor prev, Tensor real) {
+		return new Tensor(1).set(valor(prev, real), 0);
+	}
+
+	@Override
+	public float valor(Tensor prev, Tensor real) {
+		verificarDimensoes(prev, real);
+
+		float ec = mediaAmostras(prev, real, SoftmaxEntropiaCruzada::f);
+
+		// mesma normalização da EntropiaCruzada
+		return prev.numDim() == 1 ? ec / prev.tam() : ec;
+	}
+
+	/**
+	 * Cálculo interno da Cross Entropy de uma amostra, a partir dos logits.
+	 * <p>
+	 *		Como {@code log(softmax(z)) = z - lse(z)}, a perda da amostra é
+	 *		{@code soma(y * (lse(z) - z))}.
+	 * </p>
+	 * @param z array dos logits.
+	 * @param offZ índice inicial dos logits.
+	 * @param y array dos dados reais.
+	 * @param offY índice inicial dos dados reais.
+	 * @param tam quantidade de elementos da amostra.
+	 * @return entropia cruzada da amostra.
+	 */
+	private static double f(float[] z, int offZ, float[] y, int offY, int tam) {
+		float lse = logSomaExp(z, offZ, tam);
+
+		double ec = 0.0;
+		for (int i = 0; i < tam; i++) {
+			ec += y[offY + i] * (lse - z[offZ + i]);
+		}
+
+		return ec;
+	}
+
+	/**
+	 * Calcula {@code log(soma(exp(z)))} de forma numericamente estável,
+	 * subtraindo o maior valor antes da exponenciação.
+	 * @param z array dos logits.
+	 * @param off índice inicial.
+	 * @param tam quantidade de elementos.
+	 * @return log-sum-exp dos elementos.
+	 */
+	private static float logSomaExp(float[] z, int off, int tam) {
+		float max = Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < tam; i++) {
+			if (z[off + i] > max) max = z[off + i];
+		}
+
+		double soma = 0.0;
+		for (int i = 0; i < tam; i++) {
+			soma += Math.exp(z[off + i] - max);
+		}
+
+		return max + (float) Math.log(soma);
+	}
+
+	@Override
+	public Tensor backward(Tensor prev, Tensor real) {
+		return backward(prev, real, new Tensor(prev.shape()));
+	}
+
+	@Override
+	public Tensor backward(Tensor prev, Tensor real, Tensor grad) {
+		verificarDimensoes(prev, real);
+		verificarGrad(prev, grad);
+
+		prev = prev.contiguous();
+		real = real.contiguous();
+
+		final int amostras = prev.numDim() == 1 ? prev.tam() : prev.tamDim(1);
+		final int lotes = prev.tam() / amostras;
+
+		final float[] z = prev.array();
+		final float[] y = real.array();
+		final float[] g = grad.array();
+		final int offZ = prev.offset();
+		final int offY = real.offset();
+		final int offG = grad.offset();
+
+		for (int i = 0; i < lotes; i++) {
+			int id = i * amostras;
+			float lse = logSomaExp(z, offZ + id, amostras);
+
+			// softmax(z) - y
+			for (int j = 0; j < amostras; j++) {
+				g[offG + id + j] = (float) Math.exp(z[offZ + id + j] - lse) - y[offY + id + j];
+			}
+		}
+
+		return grad;
+	}
+}
@@ -1,9 +1,13 @@
 package jnn.modelos;
 
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
 import jnn.camadas.Camada;
 import jnn.core.JNNutils;
 import jnn.core.Parametro;
 import jnn.core.tensor.Tensor;
+import jnn.core.tensor.TensorData;
 import jnn.dataloader.DataLoader;
 import jnn.metrica.Avaliador;
 import jnn.metrica.perda.Perda;
@@ -63,6 +67,24 @@ public abstract class Modelo implements Cloneable, Iterable<Camada> {
 	 */
 	protected Avaliador _avaliador;
 
+	/**
+	 * Armazenamento contíguo dos pesos treináveis do modelo, {@code null}
+	 * caso os parâmetros não tenham sido compactados.
+	 */
+	protected TensorData _pesos;
+
+	/**
+	 * Armazenamento contíguo dos gradientes treináveis do modelo, {@code null}
+	 * caso os parâmetros não tenham sido compactados.
+	 */
+	protected TensorData _grads;
+
+	/**
+	 * Preditor compartilhado reaproveitado pelas previsões em grade,
+	 * {@code null} até o primeiro uso ou após mudanças na estrutura do modelo.
+	 */
+	protected PreditorCompartilhado _preditorGrade;
+
 	/**
 	 * Inicialização implicita de um modelo.
 	 */
@@ -174,6 +196,9 @@ public abstract class Modelo implements Cloneable, Iterable<Camada> {
 	public Tensor forward(Tensor x) {
 		validarCompilacao();
 
+		// as camadas operam sobre dados no heap
+		if (x.isNativo()) x = x.clone();
+
 		for (Camada camada : this) {
 			x = camada.forward(x);
 		}
@@ -205,14 +230,21 @@ public abstract class Modelo implements Cloneable, Iterable<Camada> {
 
 	/**
 	 * Realiza a propagação reversa do gradiente através do modelo.
+	 * <p>
+	 *		Caso a perda do modelo seja fundida com a camada de saída (como
+	 *		{@code Softmax} com {@code EntropiaCruzada}), o gradiente recebido
+	 *		já é considerado em relação à entrada da camada de saída, que é
+	 *		ignorada.
+	 * </p>
 	 * @param g {@code Tensor} contendo o gradiente da perda em relação a saída do modelo.
 	 * @return {@code Tensor} contendo o gradiente da perda em relação a entrada do modelo.
+	 * @see #saidaFundidaPerda()
 	 */
 	public Tensor backward(Tensor g) {
 		validarCompilacao();
 		
 		try {
-			final int n = numCamadas() - 1;
+			final int n = numCamadas() - (saidaFundidaPerda() ? 2 : 1);
 			for (int i = n; i >= 0; i--) {
 				g = camada(i).backward(g);
 			}
@@ -229,6 +261,19 @@ public abstract class Modelo implements Cloneable, Iterable<Camada> {
 		return g;
 	}
 
+	/**
+	 * Verifica se o gradiente calculado pela perda do modelo já inclui a
+	 * derivada da camada de saída.
+	 * <p>
+	 *		Por padrão nenhuma camada é fundida com a perda.
+	 * </p>
+	 * @return {@code true} caso a camada de saída deva ser ignorada na
+	 * propagação reversa.
+	 */
+	protected boolean saidaFundidaPerda() {
+		return false;
+	}
+
 	/**
 	 * Zera os gradientes acumulados do modelo.
 	 * <p>
@@ -236,10 +281,242 @@ public abstract class Modelo implements Cloneable, Iterable<Camada> {
 	 * </p>
 	 */
 	public void gradZero() {
+		if (_grads != null) {
+			_grads.zero();// todos os gradientes treináveis em uma operação
+			return;
+		}
+
 		for (Camada camada : this) {
 			if (camada.treinavel()) camada.gradZero();
 		}
 	}
+
+	/**
+	 * Compacta os pesos e gradientes treináveis do modelo em dois blocos
+	 * contíguos de memória.
+	 * <p>
+	 *		Cada {@code Parametro} passa a ser uma view do armazenamento
+	 *		compartilhado, na mesma ordem de {@link #params()}, e seus valores
+	 *		atuais são preservados. Operações em lote como {@link #gradZero()},
+	 *		o passo do otimizador, o corte de gradientes
+	 *		({@link #clipGradNorma(float)}, {@link #clipGradValor(float)}) e os
+	 *		checkpoints de pesos ({@link #salvarPesos()},
+	 *		{@link #restaurarPesos(TensorData)}) passam a percorrer um único
+	 *		bloco em vez de cada parâmetro separadamente.
+	 * </p>
+	 * <p>
+	 *		O otimizador é reconstruído sobre os novos blocos, então seu
+	 *		estado interno (momentos, acumuladores, iterações) é reiniciado.
+	 * </p>
+	 * <p>
+	 *		Arrays obtidos anteriormente dos parâmetros deixam de refletir
+	 *		seu conteúdo.
+	 * </p>
+	 */
+	public void compactarParams() {
+		validarCompilacao();
+
+		Parametro[] params = params();
+		if (params.length == 0) return;
+
+		long total = 0;
+		for (Parametro p : params) {
+			total += p.weight.tam();
+		}
+
+		if (total > Integer.MAX_VALUE) {
+			throw new IllegalStateException(
+				"\nQuantidade de parâmetros (" + total + ") excede o limite de um bloco contíguo."
+			);
+		}
+
+		TensorData pesos = new TensorData((int) total);
+		TensorData grads = new TensorData((int) total);
+
+		int off = 0;
+		for (Parametro p : params) {
+			int n = p.weight.tam();
+			p.weight.realocar(pesos.view(off, n));
+			p.grad.realocar(grads.view(off, n));
+			off += n;
+		}
+
+		_pesos = pesos;
+		_grads = grads;
+
+		_otimizador.construir(params);
+	}
+
+	/**
+	 * Verifica se os parâmetros do modelo estão compactados.
+	 * @return {@code true} caso os parâmetros estejam compactados, {@code false}
+	 * caso contrário.
+	 * @see #compactarParams()
+	 */
+	public boolean paramsCompactados() {
+		return _pesos != null;
+	}
+
+	/**
+	 * Retorna o armazenamento contíguo dos pesos treináveis do modelo.
+	 * <p>
+	 *		Alterações no conteúdo são refletidas nos parâmetros.
+	 * </p>
+	 * @return pesos compactados, ou {@code null} caso os parâmetros não
+	 * estejam compactados.
+	 * @see #compactarParams()
+	 */
+	public TensorData pesosCompactados() {
+		return _pesos;
+	}
+
+	/**
+	 * Retorna o armazenamento contíguo dos gradientes treináveis do modelo.
+	 * <p>
+	 *		Alterações no conteúdo são refletidas nos gradientes.
+	 * </p>
+	 * @return gradientes compactados, ou {@code null} caso os parâmetros não
+	 * estejam compactados.
+	 * @see #compactarParams()
+	 */
+	public TensorData gradsCompactados() {
+		return _grads;
+	}
+
+	/**
+	 * Limita a norma L2 global dos gradientes treináveis do modelo.
+	 * <p>
+	 *		Caso a norma de todos os gradientes juntos seja maior que
+	 *		{@code normaMax}, todos são escalados pelo mesmo fator, mantendo
+	 *		a direção da atualização. Com os parâmetros compactados, o cálculo
+	 *		da norma e a escala percorrem um único bloco.
+	 * </p>
+	 * @param normaMax norma máxima permitida.
+	 * @return norma dos gradientes antes do corte.
+	 */
+	public float clipGradNorma(float normaMax) {
+		if (!(normaMax > 0)) {
+			throw new IllegalArgumentException(
+				"\nNorma máxima deve ser maior que zero, recebido = " + normaMax
+			);
+		}
+
+		Parametro[] params = params();
+
+		double soma = 0;
+		if (_grads != null) {
+			soma = _grads.dot(_grads);
+		} else {
+			for (Parametro p : params) {
+				TensorData g = p.grad.data();
+				soma += g.dot(g);
+			}
+		}
+
+		float norma = (float) Math.sqrt(soma);
+		if (norma > normaMax) {
+			float escala = normaMax / norma;
+			if (_grads != null) {
+				_grads.mul(escala);
+			} else {
+				for (Parametro p : params) {
+					p.grad.data().mul(escala);
+				}
+			}
+		}
+
+		return norma;
+	}
+
+	/**
+	 * Limita cada gradiente treinável do modelo ao intervalo
+	 * {@code [-limite, limite]}.
+	 * @param limite valor máximo absoluto dos gradientes.
+	 */
+	public void clipGradValor(float limite) {
+		if (!(limite > 0)) {
+			throw new IllegalArgumentException(
+				"\nLimite deve ser maior que zero, recebido = " + limite
+			);
+		}
+
+		if (_grads != null) {
+			_grads.clamp(-limite, limite);
+			return;
+		}
+
+		for (Parametro p : params()) {
+			p.grad.data().clamp(-limite, limite);
+		}
+	}
+
+	/**
+	 * Copia os pesos treináveis do modelo para um bloco contíguo, na mesma
+	 * ordem de {@link #params()}.
+	 * <p>
+	 *		Com os parâmetros compactados, a cópia é feita em uma única operação.
+	 *		O resultado pode ser restaurado com {@link #restaurarPesos(TensorData)}.
+	 * </p>
+	 * @return cópia dos pesos treináveis.
+	 */
+	public TensorData salvarPesos() {
+		if (_pesos != null) return _pesos.clone();
+
+		Parametro[] params = params();
+
+		int total = 0;
+		for (Parametro p : params) {
+			total += p.weight.tam();
+		}
+
+		TensorData pesos = new TensorData(total);
+		int off = 0;
+		for (Parametro p : params) {
+			int n = p.weight.tam();
+			pesos.view(off, n).copiar(p.weight.data());
+			off += n;
+		}
+
+		return pesos;
+	}
+
+	/**
+	 * Restaura os pesos treináveis do modelo a partir de uma cópia obtida
+	 * com {@link #salvarPesos()}.
+	 * <p>
+	 *		O estado do otimizador não é alterado.
+	 * </p>
+	 * @param pesos cópia dos pesos treináveis.
+	 */
+	public void restaurarPesos(TensorData pesos) {
+		JNNutils.validarNaoNulo(pesos, "pesos == null.");
+
+		Parametro[] params = params();
+
+		int total = 0;
+		for (Parametro p : params) {
+			total += p.weight.tam();
+		}
+
+		if (pesos.tam() != total) {
+			throw new IllegalArgumentException(
+				"\nTamanho dos pesos (" + pesos.tam() + ") diferente da " +
+				"quantidade de parâmetros treináveis (" + total + ")."
+			);
+		}
+
+		if (_pesos != null) {
+			_pesos.copiar(pesos);
+			return;
+		}
+
+		int off = 0;
+		for (Parametro p : params) {
+			int n = p.weight.tam();
+			p.weight.data().copiar(pesos.view(off, n));
+			off += n;
+		}
+	}
 	
 	/**
 	 * Treina o modelo de acordo com as configurações predefinidas utilizando o
@@ -264,6 +541,7 @@ public abstract class Modelo implements Cloneable, Iterable<Camada> {
 			);
 		}
 		
+		reservarLote(Math.max(1, Math.min(tamLote, loader.tam())));
 		_treinador.executar(loader, epochs, tamLote, logs);
 	}
 	
@@ -304,29 +582,10 @@ public abstract class Modelo implements Cloneable, Iterable<Camada> {
 		validarCompilacao();
 		treino(false);// garantia
 
-		Tensor[] xs = loader.getX();
-		Tensor[] ys = loader.getY();
+		// lotes coletados direto do loader, sem materializar o conjunto
+		float loss = _avaliador.avaliar(loader).perda();
 
-		// esse tamamho foi o mais ou menos ideal pra não ficar usando
-		// tanta memória e teve um leve ganho em tempo de execução.
-		final int batch = 32;
-
-		final int n = loader.tam();
-		float loss = 0;
-		for (int i = 0; i < n; i += batch) {
-			int inicio = i;
-			int fim = Math.min(inicio + batch, n);
-			Tensor x = JNNutils.concatenar(JNNutils.subArray(xs, inicio, fim));
-			Tensor y = JNNutils.concatenar(JNNutils.subArray(ys, inicio, fim));
-			
-			Tensor prev = forward(x);
-
-			float lossLote = _perda.forward(prev, y).item();
-			int tamLote = fim - inicio;
-			loss += lossLote * tamLote;
-		}
-
-		return new Tensor(1).set((loss / n), 0);
+		return new Tensor(1).set(loss, 0);
 	}
 
 	/**
@@ -425,7 +684,111 @@ public abstract class Modelo implements Cloneable, Iterable<Camada> {
 			camada.ajustarParaLote(0);
 		}
 	}
-	
+
+	/**
+	 * Reserva a memória dos buffers de lote das camadas para lotes de até
+	 * o tamanho informado.
+	 * <p>
+	 *		Lotes menores ou iguais passam a reutilizar a memória reservada,
+	 *		sem novas alocações a cada troca de tamanho de lote. Por padrão
+	 *		nada é reservado, cabendo aos modelos com planejamento de memória
+	 *		sobrescrever esse método.
+	 * </p>
+	 * @param loteMax tamanho máximo de lote esperado.
+	 */
+	public void reservarLote(int loteMax) {
+		validarCompilacao();
+	}
+
+	/**
+	 * Cria um preditor para inferência com o modelo, seguro para uso
+	 * simultâneo por várias threads.
+	 * <p>
+	 *		Os parâmetros do modelo são compartilhados entre as threads, sem
+	 *		necessidade de clonar o modelo para cada uma.
+	 * </p>
+	 * @return {@code PreditorCompartilhado} do modelo.
+	 */
+	public abstract PreditorCompartilhado preditorCompartilhado();
+
+	/**
+	 * Retorna o preditor compartilhado usado nas previsões em grade, criado
+	 * no primeiro uso e mantido até a estrutura do modelo mudar.
+	 * @return {@code PreditorCompartilhado} do modelo.
+	 */
+	private PreditorCompartilhado preditorGrade() {
+		validarCompilacao();
+
+		PreditorCompartilhado p = _preditorGrade;
+		if (p == null) {
+			p = preditorCompartilhado();
+			_preditorGrade = p;
+		}
+
+		return p;
+	}
+
+	/**
+	 * Usa o modelo para prever todos os pixels de uma grade de coordenadas.
+	 * <p>
+	 *		O modelo deve receber coordenadas {@code (x, y)} normalizadas entre
+	 *		0 e 1, e ter uma saída (escala de cinza) ou três saídas (RGB). Os
+	 *		pixels são previstos em lotes, ao invés de uma propagação por pixel.
+	 * </p>
+	 * <p>
+	 *		O preditor e seus buffers são mantidos pelo modelo e reaproveitados
+	 *		entre chamadas, sendo recriados apenas após o modelo ser compilado
+	 *		novamente ou ter suas camadas alteradas.
+	 * </p>
+	 * @param largura largura da grade.
+	 * @param altura altura da grade.
+	 * @return array de pixels no formato {@code 0xAARRGGBB}, linha por linha.
+	 * @see PreditorCompartilhado#preverGrade(int, int, int[])
+	 */
+	public int[] preverGrade(int largura, int altura) {
+		if (largura < 1 || altura < 1) {
+			throw new IllegalArgumentException(
+				"\nDimensões da grade devem ser maiores que zero, recebido " +
+				largura + "x" + altura + "."
+			);
+		}
+
+		return preditorGrade().preverGrade(largura, altura, new int[largura * altura]);
+	}
+
+	/**
+	 * Usa o modelo para prever todos os pixels da imagem, de acordo com
+	 * suas dimensões.
+	 * <p>
+	 *		Imagens dos tipos {@code TYPE_INT_RGB} e {@code TYPE_INT_ARGB} são
+	 *		escritas diretamente no raster, sem cópias intermediárias.
+	 * </p>
+	 * @param img imagem de destino.
+	 * @return imagem de destino.
+	 * @see #preverGrade(int, int)
+	 */
+	public BufferedImage preverGrade(BufferedImage img) {
+		JNNutils.validarNaoNulo(img, "img == null.");
+
+		final int largura = img.getWidth();
+		final int altura = img.getHeight();
+		PreditorCompartilhado preditor = preditorGrade();
+
+		int tipo = img.getType();
+		if ((tipo == BufferedImage.TYPE_INT_RGB || tipo == BufferedImage.TYPE_INT_ARGB) &&
+			img.getRaster().getDataBuffer() instanceof DataBufferInt buffer &&
+			buffer.getNumBanks() == 1 && buffer.getOffset() == 0 &&
+			img.getRaster().getParent() == null) {
+			preditor.preverGrade(largura, altura, buffer.getData());
+
+		} else {
+			int[] pixels = preditor.preverGrade(largura, altura, new int[largura * altura]);
+			img.setRGB(0, 0, largura, altura, pixels, 0, largura);
+		}
+
+		return img;
+	}
+
 	/**
 	 * Retorna um array contendo a saída serializada do modelo.
 	 * @return saída do modelo.
@@ -521,6 +884,9 @@ public abstract class Modelo implements Cloneable, Iterable<Camada> {
 	public Modelo clone() {
 		try {
 			Modelo clone = (Modelo) super.clone(); 
+			clone._pesos = null;// camadas clonadas possuem seus próprios parâmetros
+			clone._grads = null;
+			clone._preditorGrade = null;// preditor referencia as camadas originais
 			return clone;
 
 		} catch (CloneNotSupportedException e) {
@@ -0,0 +1,303 @@
+package jnn.modelos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import jnn.camadas.Camada;
+import jnn.camadas.Entrada;
+
+/**
+ * <h2>
+ *    Plano de Memória
+ * </h2>
+ * <p>
+ *    Planejador de memória dos buffers de lote ({@code Saida} e
+ *    {@code Grad Entrada}) das camadas de um modelo {@code Sequencial}.
+ * </p>
+ * <p>
+ *    Cada buffer recebe um intervalo de vida dentro de um passo de treino
+ *    (forward, perda e backward), e buffers cujos intervalos não se cruzam
+ *    são colocados na mesma área de memória. No treino as saídas precisam
+ *    ficar vivas até o backward da camada, mas o gradiente de entrada de
+ *    uma camada pode reaproveitar a área da saída de camadas posteriores,
+ *    já retropropagadas.
+ * </p>
+ * <p>
+ *    As áreas são dimensionadas para um lote máximo, e lotes menores usam
+ *    views delas, então a troca de tamanho de lote (como no último lote de
+ *    cada época) não gera novas alocações. As views sempre começam no índice
+ *    zero da área, mantendo compatíveis as operações que indexam o array
+ *    do tensor a partir do início.
+ * </p>
+ */
+final class PlanoMemoria {
+
+	/**
+	 * Nome dos buffers de saída das camadas.
+	 */
+	private static final String SAIDA = "Saida";
+
+	/**
+	 * Nome dos buffers de gradiente de entrada das camadas.
+	 */
+	private static final String GRAD_ENTRADA = "Grad Entrada";
+
+	/**
+	 * Buffer planejado.
+	 * @param camada índice da camada.
+	 * @param nome nome do buffer na camada.
+	 * @param tam quantidade de elementos por amostra.
+	 * @param ini primeiro passo em que o buffer é usado.
+	 * @param fim último passo em que o buffer é usado.
+	 */
+	private record Buffer(int camada, String nome, int tam, int ini, int fim) {
+
+		boolean cruza(Buffer b) {
+			return ini <= b.fim && b.ini <= fim;
+		}
+	}
+
+	/**
+	 * Camadas do modelo.
+	 */
+	private final Camada[] camadas;
+
+	/**
+	 * Buffers planejados.
+	 */
+	private final Buffer[] buffers;
+
+	/**
+	 * Área atribuída para cada buffer.
+	 */
+	private final int[] areaBuffer;
+
+	/**
+	 * Quantidade de elementos por amostra de cada área.
+	 */
+	private final int[] tamAreas;
+
+	/**
+	 * Áreas alocadas.
+	 */
+	private float[][] areas;
+
+	/**
+	 * Lote máximo comportado pelas áreas alocadas.
+	 */
+	private int loteMax = 0;
+
+	/**
+	 * Planeja a memória dos buffers das camadas.
+	 * <p>
+	 *    Nenhuma área é alocada até a chamada de {@code reservar()}.
+	 * </p>
+	 * @param camadas camadas construídas do modelo.
+	 */
+	PlanoMemoria(Camada[] camadas) {
+		this.camadas = camadas.clone();
+		this.buffers = intervalos(this.camadas);
+
+		// maiores primeiro, para que os menores preencham as áreas existentes
+		Integer[] ordem = new Integer[buffers.length];
+		for (int i = 0; i < ordem.length; i++) ordem[i] = i;
+		Arrays.sort(ordem, (a, b) -> Integer.compare(buffers[b].tam(), buffers[a].tam()));
+
+		areaBuffer = new int[buffers.length];
+		List<List<Buffer>> membros = new ArrayList<>();
+		List<Integer> tams = new ArrayList<>();
+
+		for (int id : ordem) {
+			Buffer b = buffers[id];
+			int escolhida = -1;
+
+			for (int a = 0; a < membros.size(); a++) {
+				boolean livre = true;
+				for (Buffer m : membros.get(a)) {
+					if (m.cruza(b)) {
+						livre = false;
+						break;
+					}
+				}
+
+				// menor área livre que já comporte o buffer
+				if (livre && (escolhida == -1 || tams.get(a) < tams.get(escolhida))) {
+					escolhida = a;
+				}
+			}
+
+			if (escolhida == -1) {
+				escolhida = membros.size();
+				membros.add(new ArrayList<>());
+				tams.add(b.tam());
+			}
+
+			membros.get(escolhida).add(b);
+			areaBuffer[id] = escolhida;
+		}
+
+		tamAreas = new int[tams.size()];
+		for (int i = 0; i < tamAreas.length; i++) tamAreas[i] = tams.get(i);
+	}
+
+	/**
+	 * Calcula os intervalos de vida dos buffers.
+	 * <p>
+	 *    Para {@code n} camadas, o forward da camada {@code i} ocorre no passo
+	 *    {@code i}, a perda no passo {@code n} e o backward da camada {@code i}
+	 *    no passo {@code 2n - i}. O passo {@code 2n + 1} representa o uso dos
+	 *    resultados após o passo de treino (saída do modelo e gradiente de
+	 *    entrada retornado).
+	 * </p>
+	 * <p>
+	 *    Camadas que apenas repassam os dados recebidos (como a {@code Entrada})
+	 *    não usam buffers próprios e ficam fora do plano. Nesse caso, a saída e
+	 *    o gradiente repassados pertencem às camadas vizinhas, que têm seus
+	 *    intervalos estendidos até os passos das próximas camadas que os usam.
+	 * </p>
+	 * @param camadas camadas do modelo.
+	 * @return buffers com seus intervalos.
+	 */
+	private static Buffer[] intervalos(Camada[] camadas) {
+		final int n = camadas.length;
+		final int fimPasso = 2*n + 1;
+		List<Buffer> buffers = new ArrayList<>();
+
+		for (int i = 0; i < n; i++) {
+			if (repassa(camadas[i])) continue;
+
+			// a saída é lida pelo forward e backward da próxima camada que
+			// usa buffers, e pode ser lida pelo backward da própria camada
+			int prox = i + 1;
+			while (prox < n && repassa(camadas[prox])) prox++;
+			int fimSaida = (prox == n) ? fimPasso : 2*n - i;
+			buffers.add(new Buffer(i, SAIDA, tamAmostra(camadas[i].shapeOut()), i, fimSaida));
+
+			// o gradiente é lido pelo backward da camada anterior que usa
+			// buffers, com margem de um passo para camadas que repassam o
+			// gradiente recebido
+			int ant = i - 1;
+			while (ant >= 0 && repassa(camadas[ant])) ant--;
+			int iniGrad = 2*n - i;
+			int fimGrad = (ant < 0) ? fimPasso : Math.min(2*n - ant + 1, fimPasso);
+			buffers.add(new Buffer(i, GRAD_ENTRADA, tamAmostra(camadas[i].shapeIn()), iniGrad, fimGrad));
+		}
+
+		return buffers.toArray(new Buffer[0]);
+	}
+
+	/**
+	 * Verifica se a camada apenas repassa os dados recebidos no forward e
+	 * backward, sem usar os buffers de lote.
+	 * @param camada camada do modelo.
+	 * @return {@code true} caso a camada não precise de buffers.
+	 */
+	private static boolean repassa(Camada camada) {
+		return camada instanceof Entrada;
+	}
+
+	/**
+	 * Calcula a quantidade de elementos de uma amostra.
+	 * @param shape formato sem dimensão de lote.
+	 * @return quantidade de elementos.
+	 */
+	private static int tamAmostra(int[] shape) {
+		int tam = 1;
+		for (int d : shape) tam *= d;
+		return tam;
+	}
+
+	/**
+	 * Aloca as áreas para comportar lotes até o tamanho informado e as
+	 * atribui aos buffers das camadas.
+	 * <p>
+	 *    Caso as áreas atuais já comportem o lote, nada é alterado. Caso
+	 *    contrário, as áreas são realocadas e as camadas voltam para o lote
+	 *    zero, passando a usar views das novas áreas.
+	 * </p>
+	 * @param lote tamanho máximo de lote esperado.
+	 */
+	void reservar(int lote) {
+		if (lote < 1) {
+			throw new IllegalArgumentException(
+				"\nTamanho de lote deve ser maior que zero, recebido = " + lote
+			);
+		}
+
+		if (lote <= loteMax) return;
+
+		long total = 0;
+		for (int tam : tamAreas) total += (long) tam * lote;
+		if (total > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+				"\nLote " + lote + " excede a capacidade de memória dos buffers do modelo."
+			);
+		}
+
+		areas = new float[tamAreas.length][];
+		for (int i = 0; i < areas.length; i++) {
+			areas[i] = new float[tamAreas[i] * lote];
+		}
+
+		for (int i = 0; i < buffers.length; i++) {
+			Buffer b = buffers[i];
+			camadas[b.camada()].setAreaBuffer(b.nome(), areas[areaBuffer[i]]);
+		}
+
+		for (Camada camada : camadas) {
+			if (!repassa(camada)) camada.ajustarParaLote(0);
+		}
+
+		loteMax = lote;
+	}
+
+	/**
+	 * Remove as áreas atribuídas às camadas.
+	 */
+	void liberar() {
+		for (Camada camada : camadas) {
+			camada.limparAreasBuffer();
+		}
+
+		areas = null;
+		loteMax = 0;
+	}
+
+	/**
+	 * Retorna o lote máximo comportado pelas áreas alocadas.
+	 * @return lote máximo, zero caso nenhuma área tenha sido alocada.
+	 */
+	int loteMax() {
+		return loteMax;
+	}
+
+	/**
+	 * Retorna a quantidade de áreas compartilhadas pelos buffers.
+	 * @return quantidade de áreas.
+	 */
+	int numAreas() {
+		return tamAreas.length;
+	}
+
+	/**
+	 * Retorna a quantidade de elementos por amostra de todas as áreas.
+	 * @return elementos planejados por amostra.
+	 */
+	long tamPlanejado() {
+		long tam = 0;
+		for (int t : tamAreas) tam += t;
+		return tam;
+	}
+
+	/**
+	 * Retorna a quantidade de elementos por amostra sem reaproveitamento.
+	 * @return elementos por amostra de todos os buffers.
+	 */
+	long tamSemPlano() {
+		long tam = 0;
+		for (Buffer b : buffers) tam += b.tam();
+		return tam;
+	}
+
+}
@@ -0,0 +1,735 @@
+package jnn.modelos;
+
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.Arrays;
+
+import jnn.camadas.Camada;
+import jnn.camadas.Conv2D;
+import jnn.camadas.Densa;
+import jnn.camadas.Dropout;
+import jnn.camadas.Entrada;
+import jnn.camadas.Flatten;
+import jnn.camadas.acts.Ativacao;
+import jnn.camadas.pooling.GlobalAvgPool2D;
+import jnn.camadas.pooling.MaxPool2D;
+import jnn.core.JNNnative;
+import jnn.core.JNNutils;
+import jnn.core.Parametro;
+import jnn.core.tensor.Tensor;
+import jnn.core.tensor.TensorData;
+import jnn.otm.Otimizador;
+
+/**
+ * <h2>
+ *    Plano Nativo
+ * </h2>
+ * <p>
+ *    Plano de execução nativo de um modelo {@code Sequencial}.
+ * </p>
+ * <p>
+ *    O modelo é compilado em uma lista serializada de operações que
+ *    referenciam offsets de um único workspace fora do heap, contendo os
+ *    pesos, gradientes, saídas e gradientes de todas as camadas. Assim,
+ *    o {@code forward()} e o {@code backward()} executam todo o modelo
+ *    em uma única chamada nativa, sem cruzar a fronteira com a JVM e sem
+ *    pin dos arrays a cada camada.
+ * </p>
+ * <p>
+ *    Os gradientes dos parâmetros ficam residentes no workspace: o
+ *    {@code backward()} acumula sobre eles sem copiá-los para o modelo, e
+ *    {@code gradZero()} os zera. Em {@code atualizar()}, os gradientes são
+ *    copiados para os parâmetros do modelo, o otimizador é executado e os
+ *    novos pesos são copiados de volta para o workspace. Caso os pesos do
+ *    modelo sejam alterados de outra forma, use {@code sincronizar()}.
+ * </p>
+ * <p>
+ *    Camadas suportadas: {@code Densa}, {@code Conv2D}, {@code MaxPool2D},
+ *    {@code GlobalAvgPool2D}, {@code Flatten} e ativações com kernel nativo.
+ *    Camadas de {@code Dropout} são ignoradas, e o plano fica restrito à
+ *    inferência.
+ * </p>
+ * <p>
+ *    Assim como no modelo, com {@code Softmax} na saída e perda
+ *    {@code EntropiaCruzada}, o gradiente recebido pelo {@code backward()}
+ *    já é tratado como em relação à entrada da {@code Softmax}.
+ * </p>
+ * <p>
+ *    Exemplo:
+ * </p>
+ * <pre>
+ *JNNnative.on();
+ *try (PlanoNativo plano = modelo.planoNativo()) {
+ *    plano.gradZero();
+ *    Tensor prev = plano.forward(x);
+ *    plano.backward(modelo.loss().backward(prev, y));
+ *    plano.atualizar(modelo.otm());
+ *}
+ * </pre>
+ * Os tensores retornados apontam para buffers internos e continuam
+ * válidos apenas até a próxima chamada do plano.
+ * @see Sequencial#planoNativo()
+ */
+public class PlanoNativo implements AutoCloseable {
+
+	/**
+	 * Quantidade de inteiros de cada operação serializada (ver plano.h).
+	 */
+	private static final int TAM_OP = 20;
+
+	/**
+	 * Offset de buffers inexistentes.
+	 */
+	private static final int SEM_BUFFER = -1;
+
+	// códigos das operações, iguais aos usados em plano.h
+
+	private static final int OP_DENSA = 1;
+	private static final int OP_CONV2D = 2;
+	private static final int OP_MAXPOOL = 3;
+	private static final int OP_GAP = 4;
+	private static final int OP_ATIVACAO = 5;
+
+	/**
+	 * Camadas que geram operações no plano.
+	 */
+	private final Camada[] camadas;
+
+	/**
+	 * Buffer de entrada de cada camada.
+	 */
+	private final int[] bufEntrada;
+
+	/**
+	 * Buffer de saída de cada camada.
+	 */
+	private final int[] bufSaida;
+
+	/**
+	 * Quantidade de elementos por amostra de cada buffer.
+	 * O buffer 0 é a entrada do modelo.
+	 */
+	private final int[] tamBufs;
+
+	/**
+	 * Parâmetros do modelo.
+	 */
+	private final Parametro[] params;
+
+	/**
+	 * Offset dos pesos de cada parâmetro no workspace.
+	 */
+	private final int[] offPesos;
+
+	/**
+	 * Offset dos gradientes de cada parâmetro no workspace.
+	 */
+	private final int[] offGrads;
+
+	/**
+	 * Quantidade de elementos ocupada pelos parâmetros no workspace.
+	 */
+	private final int tamParams;
+
+	/**
+	 * Formato de entrada do modelo (sem lote).
+	 */
+	private final int[] shapeIn;
+
+	/**
+	 * Formato de saída do modelo (sem lote).
+	 */
+	private final int[] shapeOut;
+
+	/**
+	 * Indica se o plano possui camadas que só podem ser usadas na inferência.
+	 */
+	private final boolean apenasInferencia;
+
+	/**
+	 * Indica se a última operação (Softmax) é fundida com a perda do modelo
+	 * e não participa da propagação reversa.
+	 */
+	private final boolean saidaFundida;
+
+	/**
+	 * Arena que mantém o workspace e as operações serializadas.
+	 */
+	private Arena arena;
+
+	/**
+	 * Workspace com pesos, gradientes, saídas e gradientes das camadas.
+	 */
+	private MemorySegment ws;
+
+	/**
+	 * Operações serializadas.
+	 */
+	private MemorySegment plano;
+
+	/**
+	 * Offset de dados de cada buffer no workspace.
+	 */
+	private int[] offDados;
+
+	/**
+	 * Offset de gradientes de cada buffer no workspace.
+	 */
+	private int[] offGradBufs;
+
+	/**
+	 * Quantidade de amostras suportada pelo workspace.
+	 */
+	private int capacidade = 0;
+
+	/**
+	 * Tamanho do lote da última propagação direta.
+	 */
+	private int ultimoLote = 0;
+
+	/**
+	 * Indica se os pesos do workspace precisam ser atualizados.
+	 */
+	private boolean pesosAlterados = true;
+
+	/**
+	 * Dados de saída do plano.
+	 */
+	private TensorData saida;
+
+	/**
+	 * Dados do gradiente em relação à entrada do plano.
+	 */
+	private TensorData gradEntrada;
+
+	/**
+	 * Compila o modelo em um plano de execução nativo.
+	 * @param modelo modelo sequencial compilado.
+	 */
+	public PlanoNativo(Sequencial modelo) {
+		JNNutils.validarNaoNulo(modelo, "modelo == null.");
+		modelo.validarCompilacao();
+
+		if (!JNNnative.isOn()) {
+			throw new IllegalStateException(
+				"\nO plano nativo exige a interface nativa ativa, use JNNnative.on()."
+			);
+		}
+
+		shapeIn = modelo.camada(0).shapeIn().clone();
+
+		final int n = modelo.numCamadas();
+		Camada[] cs = new Camada[n];
+		int[] tams = new int[n + 1];
+		tams[0] = tamanho(shapeIn);
+		boolean inferencia = false;
+
+		// cada operação lê o buffer da anterior e escreve em um buffer próprio
+		int numOps = 0;
+		for (Camada c : modelo) {
+			// camadas sem cálculo apenas reaproveitam o buffer atual
+			if (c instanceof Entrada || c instanceof Flatten) continue;
+
+			if (c instanceof Dropout) {
+				inferencia = true;
+				continue;
+			}
+
+			if (!suportada(c)) {
+				throw new IllegalArgumentException(
+					"\nCamada " + c.nome() + " não suportada pelo plano nativo."
+				);
+			}
+
+			cs[numOps] = c;
+			tams[numOps + 1] = tamanho(c.shapeOut());
+			numOps++;
+		}
+
+		if (numOps < 1) {
+			throw new IllegalArgumentException(
+				"\nO modelo não possui camadas para o plano nativo."
+			);
+		}
+
+		int[] in = new int[numOps];
+		int[] out = new int[numOps];
+		for (int i = 0; i < numOps; i++) {
+			in[i] = i;
+			out[i] = i + 1;
+		}
+
+		cs = Arrays.copyOf(cs, numOps);
+		tams = Arrays.copyOf(tams, numOps + 1);
+
+		camadas = cs;
+		bufEntrada = in;
+		bufSaida = out;
+		tamBufs = tams;
+		apenasInferencia = inferencia;
+		saidaFundida = modelo.saidaFundidaPerda();
+		shapeOut = modelo.camadaSaida().shapeOut().clone();
+
+		// parâmetros ficam no início do workspace, pesos seguidos dos gradientes
+		params = modelo.params();
+		offPesos = new int[params.length];
+		offGrads = new int[params.length];
+
+		int off = 0;
+		for (int i = 0; i < params.length; i++) {
+			offPesos[i] = off;
+			off += params[i].weight.tam();
+			offGrads[i] = off;
+			off += params[i].grad.tam();
+		}
+		tamParams = off;
+	}
+
+	/**
+	 * Verifica se a camada possui operação equivalente no plano.
+	 * @param c camada.
+	 * @return {@code true} caso seja suportada, {@code false} caso contrário.
+	 */
+	private static boolean suportada(Camada c) {
+		if (c instanceof Ativacao atv) {
+			return atv.idNativo() != JNNnative.ATV_NENHUMA;
+		}
+
+		return c instanceof Densa ||
+			c instanceof Conv2D ||
+			c instanceof MaxPool2D ||
+			c instanceof GlobalAvgPool2D;
+	}
+
+	/**
+	 * Calcula a quantidade de elementos de um formato.
+	 * @param shape formato.
+	 * @return quantidade de elementos.
+	 */
+	private static int tamanho(int[] shape) {
+		int tam = 1;
+		for (int d : shape) tam *= d;
+		return tam;
+	}
+
+	/**
+	 * Retorna o formato com a dimensão de lote.
+	 * @param lote tamanho do lote.
+	 * @param shape formato base.
+	 * @return formato com lote.
+	 */
+	private static int[] shapeLote(int lote, int[] shape) {
+		int[] s = new int[shape.length + 1];
+		s[0] = lote;
+		System.arraycopy(shape, 0, s, 1, shape.length);
+		return s;
+	}
+
+	/**
+	 * Busca o índice do parâmetro no modelo.
+	 * @param p parâmetro.
+	 * @return índice do parâmetro.
+	 */
+	private int indiceParam(Parametro p) {
+		for (int i = 0; i < params.length; i++) {
+			if (params[i] == p) return i;
+		}
+
+		throw new IllegalStateException(
+			"\nParâmetro " + p.weight.nome() + " não pertence ao modelo."
+		);
+	}
+
+	/**
+	 * Aloca o workspace para a quantidade de amostras e serializa as
+	 * operações com os novos offsets.
+	 * @param lote quantidade de amostras.
+	 */
+	private void alocar(int lote) {
+		offDados = new int[tamBufs.length];
+		offGradBufs = new int[tamBufs.length];
+
+		long off = tamParams;
+		for (int i = 0; i < tamBufs.length; i++) {
+			offDados[i] = (int) off;
+			off += (long) tamBufs[i] * lote;
+			offGradBufs[i] = (int) off;
+			off += (long) tamBufs[i] * lote;
+		}
+
+		if (off > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(
+				"\nLote de " + lote + " amostras excede o tamanho máximo do workspace."
+			);
+		}
+
+		Arena antiga = arena;
+		MemorySegment wsAntigo = ws;
+
+		arena = Arena.ofShared();
+		ws = arena.allocate(Float.BYTES * off, 64);
+
+		// pesos e gradientes residentes são mantidos no novo workspace
+		if (wsAntigo != null) {
+			MemorySegment.copy(wsAntigo, 0, ws, 0, Float.BYTES * (long) tamParams);
+		}
+		if (antiga != null) antiga.close();
+
+		int[] ops = new int[camadas.length * TAM_OP];
+		for (int i = 0; i < camadas.length; i++) {
+			serializar(i, ops, i * TAM_OP);
+		}
+
+		plano = arena.allocate(Integer.BYTES * (long) ops.length, 64);
+		MemorySegment.copy(ops, 0, plano, JAVA_INT, 0, ops.length);
+
+		saida = new TensorData(tamBufs[tamBufs.length - 1] * lote);
+		gradEntrada = new TensorData(tamBufs[0] * lote);
+
+		capacidade = lote;
+		if (wsAntigo == null) pesosAlterados = true;// workspace novo
+	}
+
+	/**
+	 * Serializa a operação da camada.
+	 * @param id índice da camada.
+	 * @param ops array das operações.
+	 * @param i posição inicial da operação.
+	 */
+	private void serializar(int id, int[] ops, int i) {
+		Camada c = camadas[id];
+		final int x = offDados[bufEntrada[id]];
+		final int y = offDados[bufSaida[id]];
+		final int gx = offGradBufs[bufEntrada[id]];
+		final int gy = offGradBufs[bufSaida[id]];
+
+		if (c instanceof Densa d) {
+			int k = indiceParam(d._kernel);
+			int b = d._bias.isPresent() ? indiceParam(d._bias.get()) : -1;
+
+			int[] args = {
+				OP_DENSA,
+				x, offPesos[k], (b < 0) ? SEM_BUFFER : offPesos[b], y,
+				gx, offGrads[k], (b < 0) ? SEM_BUFFER : offGrads[b], gy,
+				d.tamEntrada(), d.numNeuronios()
+			};
+			System.arraycopy(args, 0, ops, i, args.length);
+
+		} else if (c instanceof Conv2D conv) {
+			int k = indiceParam(conv._kernel);
+			int b = conv._bias.isPresent() ? indiceParam(conv._bias.get()) : -1;
+			int[] in = conv.shapeIn();
+			int[] filtro = conv.shapeKernel();
+			int[] pad = conv.shapePadding();
+
+			int[] args = {
+				OP_CONV2D,
+				x, offPesos[k], (b < 0) ? SEM_BUFFER : offPesos[b], y,
+				gx, offGrads[k], (b < 0) ? SEM_BUFFER : offGrads[b], gy,
+				in[0], conv.numFiltros(),
+				in[1], in[2],
+				filtro[0], filtro[1],
+				pad[0], pad[1]
+			};
+			System.arraycopy(args, 0, ops, i, args.length);
+
+		} else if (c instanceof MaxPool2D pool) {
+			int[] in = pool.shapeIn();
+			int[] s = pool.shapeOut();
+			int[] filtro = pool.shapeFiltro();
+			int[] stride = pool.shapeStride();
+
+			int[] args = {
+				OP_MAXPOOL,
+				x, y, gx, gy,
+				in[0],
+				in[1], in[2],
+				s[1], s[2],
+				filtro[0], filtro[1],
+				stride[0], stride[1]
+			};
+			System.arraycopy(args, 0, ops, i, args.length);
+
+		} else if (c instanceof GlobalAvgPool2D gap) {
+			int[] in = gap.shapeIn();
+
+			int[] args = {
+				OP_GAP,
+				x, y, gx, gy,
+				in[0], in[1], in[2]
+			};
+			System.arraycopy(args, 0, ops, i, args.length);
+
+		} else if (c instanceof Ativacao atv) {
+			int[] args = {
+				OP_ATIVACAO,
+				x, y, gx, gy,
+				tamBufs[bufSaida[id]],
+				atv.idNativo(),
+				Float.floatToRawIntBits(atv.alphaNativo()),
+				Float.floatToRawIntBits(atv.gammaNativo())
+			};
+			System.arraycopy(args, 0, ops, i, args.length);
+		}
+	}
+
+	/**
+	 * Copia os pesos atuais do modelo para o workspace.
+	 * <p>
+	 *		Necessário apenas quando os pesos do modelo forem alterados fora
+	 *		de {@code atualizar()}.
+	 * </p>
+	 */
+	public void sincronizar() {
+		if (ws == null) {
+			pesosAlterados = true;// copiado ao alocar o workspace
+			return;
+		}
+
+		for (int i = 0; i < params.length; i++) {
+			copiar(params[i].weight, ws, offPesos[i]);
+		}
+
+		pesosAlterados = false;
+	}
+
+	/**
+	 * Zera os gradientes dos parâmetros acumulados no workspace.
+	 * <p>
+	 *		Os gradientes dos parâmetros do modelo não são alterados.
+	 * </p>
+	 */
+	public void gradZero() {
+		verificarAberto();
+		if (ws == null) return;
+
+		for (int i = 0; i < params.length; i++) {
+			ws.asSlice(Float.BYTES * (long) offGrads[i], Float.BYTES * (long) params[i].grad.tam())
+				.fill((byte) 0);
+		}
+	}
+
+	/**
+	 * Copia os gradientes acumulados no workspace para os parâmetros do
+	 * modelo, substituindo seu conteúdo.
+	 */
+	public void copiarGrads() {
+		verificarAberto();
+		if (ws == null) return;
+
+		for (int i = 0; i < params.length; i++) {
+			copiar(ws, offGrads[i], params[i].grad);
+		}
+	}
+
+	/**
+	 * Atualiza os parâmetros do modelo usando os gradientes acumulados
+	 * pelo plano.
+	 * <p>
+	 *		Os gradientes são copiados para o modelo, o otimizador é executado
+	 *		e os novos pesos são copiados para o workspace, cada um uma única
+	 *		vez por passo de treino.
+	 * </p>
+	 * @param otm otimizador do modelo.
+	 */
+	public void atualizar(Otimizador otm) {
+		JNNutils.validarNaoNulo(otm, "otm == null.");
+
+		copiarGrads();
+		otm.update();
+		sincronizar();
+	}
+
+	/**
+	 * Copia os dados do tensor para o workspace.
+	 * @param t tensor contíguo.
+	 * @param dst segmento de destino.
+	 * @param off offset (em floats) no destino.
+	 */
+	private static void copiar(Tensor t, MemorySegment dst, int off) {
+		MemorySegment.copy(t.segmento(), 0, dst, Float.BYTES * (long) off, Float.BYTES * (long) t.tam());
+	}
+
+	/**
+	 * Copia os dados do workspace para o tensor.
+	 * @param src segmento de origem.
+	 * @param off offset (em floats) na origem.
+	 * @param t tensor contíguo.
+	 */
+	private static void copiar(MemorySegment src, int off, Tensor t) {
+		MemorySegment.copy(src, Float.BYTES * (long) off, t.segmento(), 0, Float.BYTES * (long) t.tam());
+	}
+
+	/**
+	 * Executa a propagação direta de todo o modelo em uma única chamada nativa.
+	 * @param x {@code Tensor} de entrada, com ou sem dimensão de lote.
+	 * @return {@code Tensor} de saída, válido até a próxima chamada do plano.
+	 */
+	public Tensor forward(Tensor x) {
+		JNNutils.validarNaoNulo(x, "x == null.");
+		verificarAberto();
+
+		final boolean amostra = x.numDim() == shapeIn.length;
+		if (amostra) {
+			x = x.unsqueeze(0);
+
+		} else if (x.numDim() != shapeIn.length + 1) {
+			throw new IllegalArgumentException(
+				"\nEsperado tensor com " + shapeIn.length +
+				" ou " + (shapeIn.length + 1) +
+				" dimensões. Recebido: " + x.numDim()
+			);
+		}
+
+		final int[] shapeX = x.shape();
+		for (int i = 0; i < shapeIn.length; i++) {
+			if (shapeX[i + 1] != shapeIn[i]) {
+				throw new IllegalArgumentException(
+					"\nFormato de entrada " + JNNutils.arrayStr(shapeX) +
+					" incompatível com o formato do modelo " + JNNutils.arrayStr(shapeIn) + "."
+				);
+			}
+		}
+
+		final int lote = shapeX[0];
+		if (lote > capacidade) alocar(lote);
+		if (pesosAlterados) sincronizar();
+
+		copiar(x.contiguous(), ws, offDados[0]);
+
+		JNNnative.planoForward(plano, camadas.length, ws, lote);
+
+		final int ultimo = tamBufs.length - 1;
+		Tensor y = new Tensor(saida.view(0, tamBufs[ultimo] * lote), shapeLote(lote, shapeOut));
+		copiar(ws, offDados[ultimo], y);
+
+		ultimoLote = lote;
+
+		return amostra ? y.reshape(shapeOut) : y;
+	}
+
+	/**
+	 * Executa a propagação reversa de todo o modelo em uma única chamada
+	 * nativa, a partir da última propagação direta.
+	 * <p>
+	 *		Os gradientes dos parâmetros são acumulados no workspace, e só são
+	 *		copiados para o modelo em {@code atualizar()} ou {@code copiarGrads()}.
+	 * </p>
+	 * <p>
+	 *		Quando a saída é fundida com a perda (ver {@link Modelo#saidaFundidaPerda()}),
+	 *		a {@code Softmax} final é pulada e {@code g} é usado diretamente
+	 *		como gradiente da sua entrada, como em {@code Sequencial.backward()}.
+	 * </p>
+	 * @param g {@code Tensor} com o gradiente em relação à saída do modelo.
+	 * @return {@code Tensor} com o gradiente em relação à entrada, válido
+	 * até a próxima chamada do plano.
+	 */
+	public Tensor backward(Tensor g) {
+		JNNutils.validarNaoNulo(g, "g == null.");
+		verificarAberto();
+
+		if (apenasInferencia) {
+			throw new IllegalStateException(
+				"\nO plano possui camadas de Dropout e só pode ser usado na inferência."
+			);
+		}
+
+		if (ultimoLote == 0) {
+			throw new IllegalStateException(
+				"\nNenhuma propagação direta foi feita pelo plano."
+			);
+		}
+
+		final int lote = ultimoLote;
+		final int ultimo = tamBufs.length - 1;
+
+		if (g.tam() != tamBufs[ultimo] * lote) {
+			throw new IllegalArgumentException(
+				"\nGradiente com " + g.tam() + " elementos incompatível com a saída do plano (" +
+				(tamBufs[ultimo] * lote) + ")."
+			);
+		}
+
+		// com a saída fundida, a Softmax final não é propagada
+		final int numOps = saidaFundida ? camadas.length - 1 : camadas.length;
+		final int bufGrad = saidaFundida ? bufEntrada[numOps] : ultimo;
+
+		copiar(g.contiguous(), ws, offGradBufs[bufGrad]);
+
+		if (numOps > 0) {
+			JNNnative.planoBackward(plano, numOps, ws, lote);
+		}
+
+		Tensor ge = new Tensor(gradEntrada.view(0, tamBufs[0] * lote), shapeLote(lote, shapeIn));
+		copiar(ws, offGradBufs[0], ge);
+
+		return ge;
+	}
+
+	/**
+	 * Verifica se o plano ainda pode ser usado.
+	 */
+	private void verificarAberto() {
+		if (capacidade < 0) {
+			throw new IllegalStateException(
+				"\nO plano nativo já foi liberado."
+			);
+		}
+	}
+
+	/**
+	 * Retorna o formato de entrada do plano (sem lote).
+	 * @return formato de entrada.
+	 */
+	public int[] shapeIn() {
+		return shapeIn.clone();
+	}
+
+	/**
+	 * Retorna o formato de saída do plano (sem lote).
+	 * @return formato de saída.
+	 */
+	public int[] shapeOut() {
+		return shapeOut.clone();
+	}
+
+	/**
+	 * Retorna a quantidade de operações do plano.
+	 * @return quantidade de operações.
+	 */
+	public int numOps() {
+		return camadas.length;
+	}
+
+	/**
+	 * Retorna se o plano só pode ser usado para inferência.
+	 * @return {@code true} caso o {@code backward()} não seja suportado.
+	 */
+	public boolean apenasInferencia() {
+		return apenasInferencia;
+	}
+
+	/**
+	 * Retorna o tamanho em bytes do workspace nativo atual.
+	 * @return tamanho em bytes.
+	 */
+	public long tamBytes() {
+		return (ws == null) ? 0 : ws.byteSize();
+	}
+
+	/**
+	 * Libera a memória nativa do plano.
+	 */
+	@Override
+	public void close() {
+		if (arena != null) arena.close();
+
+		arena = null;
+		ws = null;
+		plano = null;
+		capacidade = -1;
+	}
+
+}
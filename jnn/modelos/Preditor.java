@@ -0,0 +1,293 @@
+package jnn.modelos;
+
+import jnn.camadas.Camada;
+import jnn.camadas.Densa;
+import jnn.camadas.Dropout;
+import jnn.camadas.Entrada;
+import jnn.camadas.acts.Ativacao;
+import jnn.core.JNNnative;
+import jnn.core.JNNutils;
+import jnn.core.tensor.Tensor;
+import jnn.core.tensor.TensorData;
+
+/**
+ * <h2>
+ *    Preditor
+ * </h2>
+ * <p>
+ *    Modo de execução apenas para inferência de um modelo {@code Sequencial}.
+ * </p>
+ * <p>
+ *    O preditor compartilha os parâmetros (kernels, bias, estatísticas) das
+ *    camadas do modelo, mas não mantém nenhum estado de treino: entradas,
+ *    gradientes e máscaras não são armazenados e camadas de {@code Dropout}
+ *    são removidas da execução.
+ * </p>
+ * <p>
+ *    As ativações intermediárias alternam entre dois buffers pré-alocados,
+ *    dimensionados para a maior saída entre as camadas, então nenhum tensor
+ *    novo é criado por chamada enquanto o tamanho do lote não aumentar.
+ * </p>
+ * <p>
+ *    Com a interface nativa ativa, camadas {@code Densa} seguidas de uma
+ *    ativação com kernel nativo são executadas em uma única chamada.
+ * </p>
+ * <p>
+ *    Exemplo:
+ * </p>
+ * <pre>
+ *Preditor p = modelo.preditor();
+ *Tensor prev = p.forward(x);
+ * </pre>
+ * O {@code Tensor} retornado aponta para um dos buffers internos e continua
+ * válido apenas até a próxima chamada de {@code forward()}.
+ * @see Sequencial#preditor()
+ * @see Sequencial#congelar()
+ */
+public class Preditor {
+
+	/**
+	 * Camadas usadas na inferência.
+	 */
+	private final Camada[] camadas;
+
+	/**
+	 * Ativação fundida a cada camada {@code Densa}, {@code null} quando
+	 * não houver.
+	 */
+	private final Ativacao[] fundidas;
+
+	/**
+	 * Formato de entrada do modelo (sem lote).
+	 */
+	private final int[] shapeIn;
+
+	/**
+	 * Formato de saída do modelo (sem lote).
+	 */
+	private final int[] shapeOut;
+
+	/**
+	 * Maior quantidade de elementos por amostra entre a entrada e as
+	 * saídas das camadas.
+	 */
+	private final int maxTam;
+
+	/**
+	 * Buffers alternados entre as camadas.
+	 */
+	private final TensorData[] buffers = new TensorData[2];
+
+	/**
+	 * Destinos de cada camada para o lote atual, um para cada buffer.
+	 */
+	private Tensor[][] destinos;
+
+	/**
+	 * Quantidade de amostras suportada pelos buffers.
+	 */
+	private int capacidade = 0;
+
+	/**
+	 * Tamanho do lote atual.
+	 */
+	private int tamLote = 0;
+
+	/**
+	 * Inicializa um novo preditor a partir do modelo.
+	 * @param modelo modelo sequencial compilado.
+	 */
+	public Preditor(Sequencial modelo) {
+		JNNutils.validarNaoNulo(modelo, "modelo == null.");
+		modelo.validarCompilacao();
+
+		Camada[] cs = new Camada[0];
+		for (Camada c : modelo) {
+			// sem efeito na inferência
+			if (c instanceof Dropout || c instanceof Entrada) continue;
+			cs = JNNutils.addEmArray(cs, c);
+		}
+
+		if (cs.length < 1) {
+			throw new IllegalArgumentException(
+				"\nO modelo não possui camadas para inferência."
+			);
+		}
+
+		camadas = cs;
+
+		fundidas = new Ativacao[cs.length];
+		for (int i = 0; i < cs.length - 1; i++) {
+			if (cs[i] instanceof Densa && cs[i + 1] instanceof Ativacao atv &&
+				atv.idNativo() != JNNnative.ATV_NENHUMA) {
+				fundidas[i] = atv;
+			}
+		}
+		shapeIn = modelo.camada(0).shapeIn().clone();
+		shapeOut = camadas[camadas.length - 1].shapeOut().clone();
+
+		int max = tamanho(shapeIn);
+		for (Camada c : camadas) {
+			max = Math.max(max, tamanho(c.shapeOut()));
+		}
+		maxTam = max;
+	}
+
+	/**
+	 * Calcula a quantidade de elementos do formato.
+	 * @param shape formato.
+	 * @return quantidade de elementos.
+	 */
+	private static int tamanho(int[] shape) {
+		int tam = 1;
+		for (int d : shape) tam *= d;
+		return tam;
+	}
+
+	/**
+	 * Adiciona a dimensão de lote ao formato.
+	 * @param lote tamanho do lote.
+	 * @param shape formato da amostra.
+	 * @return formato do lote.
+	 */
+	private static int[] shapeLote(int lote, int[] shape) {
+		int[] s = new int[shape.length + 1];
+		s[0] = lote;
+		System.arraycopy(shape, 0, s, 1, shape.length);
+		return s;
+	}
+
+	/**
+	 * Prepara os destinos das camadas para o tamanho de lote.
+	 * <p>
+	 *    Os buffers só são realocados caso o lote seja maior que
+	 *    a capacidade atual.
+	 * </p>
+	 * @param lote tamanho do lote.
+	 */
+	private void ajustarParaLote(int lote) {
+		if (lote > capacidade) {
+			buffers[0] = new TensorData(maxTam * lote);
+			buffers[1] = new TensorData(maxTam * lote);
+			capacidade = lote;
+		}
+
+		destinos = new Tensor[camadas.length][2];
+		for (int i = 0; i < camadas.length; i++) {
+			int[] shape = shapeLote(lote, camadas[i].shapeOut());
+			int tam = tamanho(shape);
+			for (int b = 0; b < 2; b++) {
+				destinos[i][b] = new Tensor(buffers[b].view(0, tam), shape);
+			}
+		}
+
+		tamLote = lote;
+	}
+
+	/**
+	 * Propaga os dados de entrada através das camadas do modelo.
+	 * @param x {@code Tensor} de entrada, com ou sem dimensão de lote.
+	 * @return {@code Tensor} contendo a saída prevista pelo modelo, válido
+	 * até a próxima chamada.
+	 */
+	public Tensor forward(Tensor x) {
+		JNNutils.validarNaoNulo(x, "x == null.");
+
+		final boolean amostra = x.numDim() == shapeIn.length;
+		if (amostra) {
+			x = x.unsqueeze(0);
+
+		} else if (x.numDim() != shapeIn.length + 1) {
+			throw new IllegalArgumentException(
+				"\nEsperado tensor com " + shapeIn.length +
+				" ou " + (shapeIn.length + 1) +
+				" dimensões. Recebido: " + x.numDim()
+			);
+		}
+
+		final int[] shapeX = x.shape();
+		for (int i = 0; i < shapeIn.length; i++) {
+			if (shapeX[i + 1] != shapeIn[i]) {
+				throw new IllegalArgumentException(
+					"\nFormato de entrada " + JNNutils.arrayStr(shapeX) +
+					" incompatível com o formato do modelo " + JNNutils.arrayStr(shapeIn) + "."
+				);
+			}
+		}
+
+		final int lote = shapeX[0];
+		if (lote != tamLote) ajustarParaLote(lote);
+
+		// buffer onde está a entrada atual, -1 para dados externos
+		int atual = -1;
+
+		// entradas fora do heap também são copiadas para o buffer
+		if (!x.isContiguous() || x.offset() != 0 || x.isNativo()) {
+			Tensor tmp = new Tensor(buffers[1].view(0, x.tam()), shapeX);
+			tmp.copiar(x);
+			x = tmp;
+			atual = 1;
+		}
+
+		for (int i = 0; i < camadas.length; i++) {
+			int livre = (atual == 0) ? 1 : 0;
+			Ativacao atv = JNNnative.isOn() ? fundidas[i] : null;
+
+			if (atv != null) {
+				// a saída da densa já sai ativada, no destino da ativação
+				Tensor destino = destinos[i + 1][livre];
+				x = ((Densa) camadas[i]).inferir(x, destino, atv);
+				atual = livre;
+				i++;
+				continue;
+			}
+
+			Tensor destino = destinos[i][livre];
+
+			x = camadas[i].inferir(x, destino);
+
+			// camadas sem cálculo podem retornar a própria entrada
+			if (x == destino) atual = livre;
+		}
+
+		return amostra ? x.reshape(shapeOut) : x;
+	}
+
+	/**
+	 * Retorna o formato de entrada do preditor.
+	 * @return formato de entrada (sem lote).
+	 */
+	public int[] shapeIn() {
+		return shapeIn.clone();
+	}
+
+	/**
+	 * Retorna o formato de saída do preditor.
+	 * @return formato de saída (sem lote).
+	 */
+	public int[] shapeOut() {
+		return shapeOut.clone();
+	}
+
+	/**
+	 * Retorna a quantidade de camadas usadas na inferência.
+	 * @return quantidade de camadas.
+	 */
+	public int numCamadas() {
+		return camadas.length;
+	}
+
+	/**
+	 * Retorna o tamanho em bytes dos buffers de ativação do preditor.
+	 * @return tamanho em bytes.
+	 */
+	public long tamBytes() {
+		long tam = 0;
+		for (TensorData b : buffers) {
+			if (b != null) tam += b.tamBytes();
+		}
+
+		return tam;
+	}
+
+}
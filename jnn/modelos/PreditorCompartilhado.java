@@ -0,0 +1,364 @@
+package jnn.modelos;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jnn.core.JNNutils;
+import jnn.core.parallel.JNNparallel;
+import jnn.core.tensor.Tensor;
+
+/**
+ * <h2>
+ *    Preditor Compartilhado
+ * </h2>
+ * <p>
+ *    Preditor seguro para uso simultâneo por várias threads de um modelo
+ *    {@code Sequencial}.
+ * </p>
+ * <p>
+ *    Todas as threads leem a mesma cópia dos parâmetros do modelo, sem
+ *    clonar o modelo. Cada chamada usa um contexto de ativações próprio
+ *    (um {@link Preditor}), retirado de um pool e devolvido ao final, então
+ *    a quantidade de contextos criados acompanha apenas o número máximo de
+ *    chamadas simultâneas.
+ * </p>
+ * <p>
+ *    Os parâmetros são apenas lidos durante a inferência. Treinar o modelo
+ *    ao mesmo tempo em que o preditor é usado pode gerar resultados com
+ *    parâmetros parcialmente atualizados.
+ * </p>
+ * <p>
+ *    Exemplo:
+ * </p>
+ * <pre>
+ *PreditorCompartilhado p = modelo.preditorCompartilhado();
+ *Tensor prev = p.forward(x);
+ *
+ *try (PreditorCompartilhado.Contexto ctx = p.contexto()) {
+ *    Tensor prev = ctx.forward(x);
+ *}
+ * </pre>
+ * O contexto evita a cópia da saída em chamadas seguidas na mesma thread,
+ * e o {@code Tensor} retornado por ele continua válido apenas até a próxima
+ * chamada.
+ * @see Sequencial#preditorCompartilhado()
+ */
+public class PreditorCompartilhado {
+
+	/**
+	 * Quantidade aproximada de pixels por lote na inferência em grade.
+	 */
+	private static final int PIXELS_POR_LOTE = 1 << 12;
+
+	/**
+	 * Modelo base.
+	 */
+	private final Sequencial modelo;
+
+	/**
+	 * Contextos livres para uso.
+	 */
+	private final ConcurrentLinkedQueue<Preditor> livres = new ConcurrentLinkedQueue<>();
+
+	/**
+	 * Quantidade de contextos criados.
+	 */
+	private final AtomicInteger criados = new AtomicInteger(0);
+
+	/**
+	 * Formato de entrada do modelo (sem lote).
+	 */
+	private final int[] shapeIn;
+
+	/**
+	 * Formato de saída do modelo (sem lote).
+	 */
+	private final int[] shapeOut;
+
+	/**
+	 * Inicializa um novo preditor compartilhado a partir do modelo.
+	 * @param modelo modelo sequencial compilado.
+	 */
+	public PreditorCompartilhado(Sequencial modelo) {
+		JNNutils.validarNaoNulo(modelo, "modelo == null.");
+		modelo.validarCompilacao();
+
+		this.modelo = modelo;
+
+		// contexto inicial, também valida as camadas do modelo
+		Preditor p = new Preditor(modelo);
+		shapeIn = p.shapeIn();
+		shapeOut = p.shapeOut();
+		livres.add(p);
+		criados.incrementAndGet();
+	}
+
+	/**
+	 * Contexto de ativações de uma thread.
+	 * <p>
+	 *    O contexto não deve ser usado por mais de uma thread ao mesmo
+	 *    tempo, e deve ser fechado para voltar ao pool.
+	 * </p>
+	 */
+	public final class Contexto implements AutoCloseable {
+
+		/**
+		 * Preditor com os buffers do contexto.
+		 */
+		private Preditor preditor;
+
+		/**
+		 * Inicializa o contexto.
+		 * @param preditor preditor do contexto.
+		 */
+		private Contexto(Preditor preditor) {
+			this.preditor = preditor;
+		}
+
+		/**
+		 * Propaga os dados de entrada através das camadas do modelo.
+		 * @param x {@code Tensor} de entrada, com ou sem dimensão de lote.
+		 * @return {@code Tensor} contendo a saída prevista pelo modelo,
+		 * válido até a próxima chamada ou até o fechamento do contexto.
+		 */
+		public Tensor forward(Tensor x) {
+			if (preditor == null) {
+				throw new IllegalStateException(
+					"\nO contexto já foi fechado."
+				);
+			}
+
+			return preditor.forward(x);
+		}
+
+		/**
+		 * Devolve o contexto ao pool do preditor.
+		 */
+		@Override
+		public void close() {
+			if (preditor != null) {
+				livres.add(preditor);
+				preditor = null;
+			}
+		}
+	}
+
+	/**
+	 * Retira um contexto de ativações do pool, criando um novo caso todos
+	 * estejam em uso.
+	 * @return {@code Contexto} livre.
+	 */
+	public Contexto contexto() {
+		Preditor p = livres.poll();
+		if (p == null) {
+			p = new Preditor(modelo);
+			criados.incrementAndGet();
+		}
+
+		return new Contexto(p);
+	}
+
+	/**
+	 * Propaga os dados de entrada através das camadas do modelo.
+	 * @param x {@code Tensor} de entrada, com ou sem dimensão de lote.
+	 * @return novo {@code Tensor} contendo a saída prevista pelo modelo.
+	 */
+	public Tensor forward(Tensor x) {
+		try (Contexto ctx = contexto()) {
+			return ctx.forward(x).clone();
+		}
+	}
+
+	/**
+	 * Propaga os dados de entrada através das camadas do modelo, copiando
+	 * a saída para o destino.
+	 * @param x {@code Tensor} de entrada, com ou sem dimensão de lote.
+	 * @param destino {@code Tensor} de destino, com o mesmo formato da saída.
+	 * @return {@code Tensor} de destino.
+	 */
+	public Tensor forward(Tensor x, Tensor destino) {
+		JNNutils.validarNaoNulo(destino, "destino == null.");
+
+		try (Contexto ctx = contexto()) {
+			return destino.copiar(ctx.forward(x));
+		}
+	}
+
+	/**
+	 * Usa o modelo para prever todos os pixels de uma grade de coordenadas.
+	 * <p>
+	 *		O modelo deve receber coordenadas {@code (x, y)}, normalizadas entre
+	 *		0 e 1 ({@code x / (largura-1)}, {@code y / (altura-1)}), e ter uma
+	 *		saída (escala de cinza) ou três saídas (RGB), também entre 0 e 1.
+	 * </p>
+	 * <p>
+	 *		As linhas da grade são agrupadas em lotes de coordenadas, divididos
+	 *		entre as threads da biblioteca, e cada lote é previsto em uma única
+	 *		propagação. O resultado é escrito diretamente no array de pixels.
+	 * </p>
+	 * @param largura largura da grade.
+	 * @param altura altura da grade.
+	 * @param pixels array de destino, no formato {@code 0xAARRGGBB}, com ao
+	 * menos {@code largura * altura} elementos, linha por linha.
+	 * @return array de pixels.
+	 */
+	public int[] preverGrade(int largura, int altura, int[] pixels) {
+		JNNutils.validarNaoNulo(pixels, "pixels == null.");
+
+		if (largura < 1 || altura < 1) {
+			throw new IllegalArgumentException(
+				"\nDimensões da grade devem ser maiores que zero, recebido " +
+				largura + "x" + altura + "."
+			);
+		}
+
+		if (pixels.length < (long) largura * altura) {
+			throw new IllegalArgumentException(
+				"\nArray de pixels com " + pixels.length + " elementos, esperado " +
+				"ao menos " + ((long) largura * altura) + "."
+			);
+		}
+
+		if (shapeIn.length != 1 || shapeIn[0] != 2) {
+			throw new IllegalStateException(
+				"\nO modelo deve receber coordenadas (x, y), mas a entrada é " +
+				JNNutils.arrayStr(shapeIn) + "."
+			);
+		}
+
+		final int canais = (shapeOut.length == 1) ? shapeOut[0] : -1;
+		if (canais != 1 && canais != 3) {
+			throw new IllegalStateException(
+				"\nO modelo deve ter uma saída (escala de cinza) ou três saídas " +
+				"(RGB), mas a saída é " + JNNutils.arrayStr(shapeOut) + "."
+			);
+		}
+
+		final int linhasLote = Math.max(1, PIXELS_POR_LOTE / largura);
+
+		JNNparallel.parallelFor(0, altura, linhasLote, (ini, fim) -> {
+			Tensor in = null;
+
+			try (Contexto ctx = contexto()) {
+				for (int y0 = ini; y0 < fim; y0 += linhasLote) {
+					int y1 = Math.min(y0 + linhasLote, fim);
+					int tam = (y1 - y0) * largura;
+
+					if (in == null || in.tamDim(0) != tam) {
+						in = new Tensor(tam, 2);
+					}
+
+					preencherCoordenadas(in.array(), largura, altura, y0, y1);
+					Tensor saida = ctx.forward(in);
+					escreverPixels(saida, canais, pixels, y0 * largura, tam);
+				}
+			}
+		});
+
+		return pixels;
+	}
+
+	/**
+	 * Preenche as coordenadas normalizadas das linhas {@code [y0, y1)}.
+	 * @param arr array de coordenadas {@code (x, y)}.
+	 * @param largura largura da grade.
+	 * @param altura altura da grade.
+	 * @param y0 linha inicial.
+	 * @param y1 linha final (exclusiva).
+	 */
+	private static void preencherCoordenadas(float[] arr, int largura, int altura, int y0, int y1) {
+		final float escX = (largura > 1) ? 1f / (largura - 1) : 0f;
+		final float escY = (altura > 1) ? 1f / (altura - 1) : 0f;
+
+		int id = 0;
+		for (int y = y0; y < y1; y++) {
+			float ny = y * escY;
+			for (int x = 0; x < largura; x++) {
+				arr[id++] = x * escX;
+				arr[id++] = ny;
+			}
+		}
+	}
+
+	/**
+	 * Converte a saída do modelo em pixels {@code 0xAARRGGBB}.
+	 * @param saida saída do modelo no formato {@code (tam, canais)}.
+	 * @param canais quantidade de canais da saída (1 ou 3).
+	 * @param pixels array de destino.
+	 * @param inicio índice do primeiro pixel.
+	 * @param tam quantidade de pixels.
+	 */
+	private static void escreverPixels(Tensor saida, int canais, int[] pixels, int inicio, int tam) {
+		final float[] s = saida.array();
+		final int off = saida.offset();
+
+		if (canais == 1) {
+			for (int i = 0; i < tam; i++) {
+				int c = canal(s[off + i]);
+				pixels[inicio + i] = 0xFF000000 | (c << 16) | (c << 8) | c;
+			}
+		} else {
+			for (int i = 0, id = off; i < tam; i++, id += 3) {
+				int r = canal(s[id]);
+				int g = canal(s[id + 1]);
+				int b = canal(s[id + 2]);
+				pixels[inicio + i] = 0xFF000000 | (r << 16) | (g << 8) | b;
+			}
+		}
+	}
+
+	/**
+	 * Converte um valor entre 0 e 1 em um canal de cor.
+	 * @param val valor previsto.
+	 * @return canal entre 0 e 255.
+	 */
+	private static int canal(float val) {
+		return (int) (Math.clamp(val, 0f, 1f) * 255);
+	}
+
+	/**
+	 * Retorna o modelo base do preditor.
+	 * @return modelo sequencial.
+	 */
+	public Sequencial modelo() {
+		return modelo;
+	}
+
+	/**
+	 * Retorna o formato de entrada do preditor.
+	 * @return formato de entrada (sem lote).
+	 */
+	public int[] shapeIn() {
+		return shapeIn.clone();
+	}
+
+	/**
+	 * Retorna o formato de saída do preditor.
+	 * @return formato de saída (sem lote).
+	 */
+	public int[] shapeOut() {
+		return shapeOut.clone();
+	}
+
+	/**
+	 * Retorna a quantidade de contextos criados pelo preditor.
+	 * @return quantidade de contextos.
+	 */
+	public int numContextos() {
+		return criados.get();
+	}
+
+	/**
+	 * Retorna o tamanho em bytes dos buffers dos contextos livres.
+	 * @return tamanho em bytes.
+	 */
+	public long tamBytes() {
+		long tam = 0;
+		for (Preditor p : livres) {
+			tam += p.tamBytes();
+		}
+
+		return tam;
+	}
+
+}
@@ -4,9 +4,12 @@ import java.util.Iterator;
 
 import jnn.camadas.Camada;
 import jnn.camadas.Entrada;
+import jnn.camadas.acts.Softmax;
 import jnn.core.Dicionario;
 import jnn.core.JNNutils;
+import jnn.core.tensor.Tensor;
 import jnn.metrica.Avaliador;
+import jnn.metrica.perda.EntropiaCruzada;
 import jnn.treino.Treinador;
 
 /**
@@ -160,6 +163,11 @@ public class Sequencial extends Modelo {
 	 */
 	private Camada[] _camadas;
 
+	/**
+	 * Plano de memória dos buffers de lote das camadas.
+	 */
+	private PlanoMemoria _planoMemoria;
+
 	/**
 	 * Instancia um modelo sequencial com o conjunto de camadas vazio.
 	 * <p>
@@ -218,6 +226,7 @@ public class Sequencial extends Modelo {
 	public void add(Camada c) {
 		_camadas = JNNutils.addEmArray(_camadas, c);
 		_compilado = false;
+		_preditorGrade = null;
 	}
 
 	/**
@@ -240,6 +249,7 @@ public class Sequencial extends Modelo {
 		System.arraycopy(novas, 0, _camadas, 0, _camadas.length);
 
 		_compilado = false;
+		_preditorGrade = null;
 
 		return ultima;
 	}
@@ -291,10 +301,104 @@ public class Sequencial extends Modelo {
 		
 		_otimizador = dicio.getOtimizador(otm);
 		_otimizador.construir(params());
+
+		// buffers de lote planejados pelo tempo de vida de cada um
+		if (_planoMemoria != null) _planoMemoria.liberar();
+		_planoMemoria = new PlanoMemoria(_camadas);
+
+		_preditorGrade = null;// camadas reconstruídas
 		
 		_compilado = true;// modelo pode ser usado.
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 *    Os buffers de saída e gradiente de entrada das camadas são
+	 *    distribuídos pelo plano de memória criado na compilação, onde
+	 *    buffers que nunca são usados ao mesmo tempo compartilham a mesma
+	 *    área. Lotes maiores que o reservado continuam funcionando, porém
+	 *    com alocações próprias.
+	 * </p>
+	 * <p>
+	 *    Com o plano ativo, as saídas das camadas intermediárias são
+	 *    válidas apenas até a retropropagação do modelo, a saída da última
+	 *    camada continua disponível após o passo de treino.
+	 * </p>
+	 */
+	@Override
+	public void reservarLote(int loteMax) {
+		validarCompilacao();
+
+		if (_planoMemoria == null) _planoMemoria = new PlanoMemoria(_camadas);
+		_planoMemoria.reservar(loteMax);
+	}
+
+	/**
+	 * Cria um preditor para inferência com o modelo.
+	 * <p>
+	 *    O preditor compartilha os parâmetros do modelo, então continua
+	 *    refletindo atualizações feitas por treinos posteriores.
+	 * </p>
+	 * @return {@code Preditor} do modelo.
+	 * @see Preditor
+	 */
+	public Preditor preditor() {
+		validarCompilacao();
+		return new Preditor(this);
+	}
+
+	/**
+	 * Cria um preditor para inferência com o modelo, seguro para uso
+	 * simultâneo por várias threads.
+	 * <p>
+	 *    Todas as threads compartilham os parâmetros do modelo, cada uma
+	 *    usando um contexto de ativações próprio, retirado de um pool.
+	 * </p>
+	 * @return {@code PreditorCompartilhado} do modelo.
+	 * @see PreditorCompartilhado
+	 */
+	@Override
+	public PreditorCompartilhado preditorCompartilhado() {
+		validarCompilacao();
+		return new PreditorCompartilhado(this);
+	}
+
+	/**
+	 * Compila o modelo em um plano de execução nativo.
+	 * <p>
+	 *    O plano executa a propagação direta e reversa de todas as camadas
+	 *    em uma única chamada nativa, usando um workspace fora do heap.
+	 *    Exige a interface nativa ativa.
+	 * </p>
+	 * @return {@code PlanoNativo} do modelo.
+	 * @see PlanoNativo
+	 */
+	public PlanoNativo planoNativo() {
+		validarCompilacao();
+		return new PlanoNativo(this);
+	}
+
+	/**
+	 * Congela o modelo para uso apenas em inferência.
+	 * <p>
+	 *    As camadas são configuradas fora do modo de treino e os buffers
+	 *    dimensionados para lotes (saídas, gradientes e máscaras) são
+	 *    reduzidos para uma única amostra.
+	 * </p>
+	 * @return {@code Preditor} do modelo.
+	 * @see Preditor
+	 */
+	public Preditor congelar() {
+		validarCompilacao();
+
+		treino(false);
+		if (_planoMemoria != null) _planoMemoria.liberar();
+		loteZero();
+
+		return new Preditor(this);
+	}
+
 	@Override
 	public Camada camada(int id){
 		if ((id < 0) || (id >= _camadas.length)) {
@@ -312,6 +416,21 @@ public class Sequencial extends Modelo {
 		return _camadas;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 *		Com {@code Softmax} na saída e perda {@code EntropiaCruzada}, o
+	 *		gradiente da perda ({@code p - y}) já é em relação à entrada da
+	 *		Softmax, então o jacobiano da Softmax não é calculado.
+	 * </p>
+	 */
+	@Override
+	protected boolean saidaFundidaPerda() {
+		return _camadas.length > 0 &&
+			_camadas[_camadas.length - 1] instanceof Softmax &&
+			_perda instanceof EntropiaCruzada;
+	}
+
 	@Override
 	public Camada camadaSaida() {
 		if (_camadas.length < 1) {
@@ -326,7 +445,10 @@ public class Sequencial extends Modelo {
 	@Override
 	public float[] saidaParaArray() {
 		validarCompilacao();
-		return camadaSaida().saida().array();
+		Tensor saida = camadaSaida().saida();
+		
+		// views de áreas compartilhadas não cobrem o array inteiro
+		return saida.data().isView() ? saida.data().paraArray() : saida.array();
 	}
 
 	@Override
@@ -421,6 +543,7 @@ public class Sequencial extends Modelo {
 			clone._camadas[i] = camada(i).clone();
 		}
 		clone._compilado = this._compilado;
+		clone._planoMemoria = null;// criado sob demanda para as novas camadas
 
 		return clone;
 	}
@@ -2,6 +2,35 @@
 
 #include <stddef.h>
 
+// Tipos de ativação suportados pelo kernel genérico.
+// Os valores devem ser iguais aos identificadores em JNNnative.
+typedef enum {
+    ATV_NENHUMA    = 0,
+    ATV_RELU       = 1,
+    ATV_SIGMOID    = 2,
+    ATV_TANH       = 3,
+    ATV_LEAKY_RELU = 4,
+    ATV_ELU        = 5,
+    ATV_SELU       = 6,
+    ATV_GELU       = 7,
+    ATV_SWISH      = 8,
+    ATV_SOFTPLUS   = 9,
+    ATV_SOFTMAX    = 10// apenas por linha, ver softmax
+} jnn_ativacao_t;
+
+typedef struct {
+    const float* x;// entrada da ativação
+    const float* y;// saída da ativação (usada nas derivadas de sigmoid e tanh)
+    const float* g;// gradiente em relação à saída (apenas na derivada)
+    float* dst;// destino, pode ser igual a x no forward
+
+    size_t n;
+
+    jnn_ativacao_t tipo;
+    float alpha;// LeakyReLU, ELU e SELU
+    float gamma;// SELU
+} ativacao_params_t;
+
 // Aplica a função de ativação relu em dst, usando src como base
 void relu(float* restrict src, float* restrict dst, size_t tam);
 
@@ -12,4 +41,16 @@ void relu_d(float* restrict x, float* restrict g, float* restrict dst, size_t ta
 void sigmoid(float* restrict src, float* restrict dst, size_t tam);
 
 // Aplica a derivada da função de ativação sigmoid em dst, usando src e x como base
-void sigmoid_d(float* restrict sig, float* restrict g, float* restrict dst, size_t tam);
\ No newline at end of file
+void sigmoid_d(float* restrict sig, float* restrict g, float* restrict dst, size_t tam);
+
+// Aplica a ativação elemento a elemento em dst, usando x como base.
+void cpu_ativacao(const ativacao_params_t* params);
+
+// Aplica a derivada da ativação em dst, usando x, y e g como base.
+void cpu_ativacao_d(const ativacao_params_t* params);
+
+// Aplica softmax em cada uma das linhas de tamanho tam, dst pode ser igual a x.
+void cpu_softmax(const float* x, float* dst, size_t linhas, size_t tam);
+
+// Aplica a derivada do softmax em cada linha, usando a saída y e o gradiente g.
+void cpu_softmax_d(const float* y, const float* g, float* dst, size_t linhas, size_t tam);
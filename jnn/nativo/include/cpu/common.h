@@ -2,8 +2,13 @@
 
 #include "arena.h"
 
-// Arena global jni
-extern arena_t mem_arena;
+// Arena da thread atual, criada no primeiro uso.
+// Cada thread chamadora possui sua própria arena, permitindo chamadas
+// concorrentes aos kernels sem sincronização.
+arena_t* jnn_arena_local(void);
+
+// Arena jni da thread atual
+#define mem_arena (*jnn_arena_local())
 
 #define MAX_ENTRE(a, b) ((a) > (b) ? (a) : (b))
 #define MIN_ENTRE(a, b) ((a) < (b) ? (a) : (b))
@@ -0,0 +1,45 @@
+#pragma once
+
+#include <stdbool.h>
+#include "acts.h"
+
+typedef struct {
+    const float* restrict X;
+    const float* restrict W;
+    const float* restrict B;
+    float* restrict DST;
+
+    int lotes;
+    int entradas;
+    int saidas;
+
+    bool temBias;
+
+    // ativação aplicada sobre a saída, ATV_NENHUMA para não aplicar
+    jnn_ativacao_t ativacao;
+    float alpha;
+    float gamma;
+} densa_fwd_params_t;
+
+typedef struct {
+    const float* restrict X;
+    const float* restrict W;
+    const float* restrict GS;
+
+    float* restrict GW;
+    float* restrict GB;
+    float* restrict GE;
+
+    int lotes;
+    int entradas;
+    int saidas;
+
+    bool temBias;
+} densa_bwd_params_t;
+
+// Realiza a propagação direta da camada Densa, com bias e ativação fundidos.
+void cpu_densa_forward(const densa_fwd_params_t* params);
+
+// Realiza a propagação reversa da camada Densa.
+// Os gradientes dos pesos e do bias são acumulados.
+void cpu_densa_backward(const densa_bwd_params_t* params);
@@ -0,0 +1,27 @@
+#pragma once
+
+#include <stdbool.h>
+#include <stddef.h>
+
+typedef struct {
+    float* restrict p;
+    const float* restrict g;
+    float* restrict m;
+    float* restrict v;
+    float* restrict vmax;// NULL quando o AMSGrad está desativado
+
+    size_t n;
+
+    float lr;
+    float beta1;
+    float beta2;
+    float eps;
+    float corr1;// (1 - β1^t)
+    float corr2;// (1 - β2^t)
+    float decaimento;// decaimento de peso desacoplado (AdamW)
+
+    bool nesterov;// Nadam
+} adam_params_t;
+
+// Executa um passo fundido da família Adam (Adam, AMSGrad, Nadam e AdamW).
+void cpu_adam(const adam_params_t* params);
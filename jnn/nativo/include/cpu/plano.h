@@ -0,0 +1,32 @@
+#pragma once
+
+// Plano de execução de um modelo sequencial.
+//
+// O plano é uma sequência de operações de tamanho fixo (PLANO_TAM_OP inteiros),
+// onde o primeiro inteiro é o código da operação e os seguintes seus argumentos.
+// Os buffers são indicados por offsets (em floats) dentro de um único workspace,
+// que contém pesos, gradientes, saídas e gradientes de cada camada.
+// Cada buffer de dados comporta todo o lote, com as amostras contíguas.
+
+#define PLANO_TAM_OP 20
+
+// Offset para buffers inexistentes (ex: camada sem bias).
+#define PLANO_SEM_BUFFER (-1)
+
+// Códigos das operações.
+// Os valores devem ser iguais aos usados em PlanoNativo.
+typedef enum {
+    PLANO_DENSA    = 1,// x, w, b, y, gx, gw, gb, gy, entradas, saidas
+    PLANO_CONV2D   = 2,// x, k, b, y, gx, gk, gb, gy, canais, filtros, alt_x, larg_x, alt_k, larg_k, alt_pad, larg_pad
+    PLANO_MAXPOOL  = 3,// x, y, gx, gy, canais, alt_x, larg_x, alt_y, larg_y, alt_pool, larg_pool, alt_std, larg_std
+    PLANO_GAP      = 4,// x, y, gx, gy, canais, alt_x, larg_x
+    PLANO_ATIVACAO = 5// x, y, gx, gy, tam, tipo, alpha (bits), gamma (bits)
+} plano_op_t;
+
+// Executa a propagação direta de todas as operações do plano.
+void cpu_plano_forward(const int* plano, int num_ops, float* ws, int lote);
+
+// Executa a propagação reversa de todas as operações do plano, em ordem inversa.
+// O gradiente em relação à saída já deve estar no buffer gy da última operação.
+// Os gradientes dos parâmetros são acumulados.
+void cpu_plano_backward(const int* plano, int num_ops, float* ws, int lote);
@@ -0,0 +1,61 @@
+#pragma once
+
+// Variantes de kernels de acordo com os recursos da CPU.
+typedef enum {
+    JNN_CPU_ESCALAR = 0,
+    JNN_CPU_SSE4    = 1,
+    JNN_CPU_AVX2    = 2,
+    JNN_CPU_AVX512  = 3,
+    JNN_CPU_NEON    = 4
+} jnn_cpu_t;
+
+// Detecta os recursos da CPU atual e seleciona a melhor variante.
+// Chamado no carregamento da biblioteca, mas também é feito sob demanda.
+void jnn_cpu_detectar(void);
+
+// Retorna a variante ativa.
+jnn_cpu_t jnn_cpu_variante(void);
+
+// Retorna a melhor variante suportada pela CPU.
+jnn_cpu_t jnn_cpu_variante_max(void);
+
+// Força uma variante, limitada ao que a CPU suporta.
+// Retorna a variante que ficou ativa.
+jnn_cpu_t jnn_cpu_set_variante(jnn_cpu_t variante);
+
+// Nome da variante.
+const char* jnn_cpu_nome(jnn_cpu_t variante);
+
+#if defined(__GNUC__) && (defined(__x86_64__) || defined(__i386__))
+    #define JNN_X86 1
+
+    #define JNN_ALVO_SSE4   __attribute__((target("sse4.2")))
+    #define JNN_ALVO_AVX2   __attribute__((target("avx2,fma")))
+    #define JNN_ALVO_AVX512 __attribute__((target("avx512f,avx512dq,avx2,fma")))
+#elif defined(__aarch64__)
+    #define JNN_NEON 1
+#endif
+
+// Função base que pode ser replicada para cada variante.
+#define JNN_INLINE static inline __attribute__((always_inline))
+
+#ifdef JNN_X86
+    // Gera versões da função base compiladas para cada variante x86.
+    #define JNN_MULTIVERSAO(nome, assinatura, args) \
+        JNN_ALVO_AVX512 static void nome##_avx512 assinatura { nome args; } \
+        JNN_ALVO_AVX2   static void nome##_avx2   assinatura { nome args; } \
+        JNN_ALVO_SSE4   static void nome##_sse4   assinatura { nome args; }
+
+    // Chama a versão da função correspondente à variante ativa.
+    #define JNN_DESPACHAR(nome, args) \
+        switch (jnn_cpu_variante()) { \
+            case JNN_CPU_AVX512: nome##_avx512 args; break; \
+            case JNN_CPU_AVX2:   nome##_avx2 args;   break; \
+            case JNN_CPU_SSE4:   nome##_sse4 args;   break; \
+            default:             nome args; \
+        }
+#else
+    // NEON já faz parte da base em aarch64, então a função base é usada.
+    #define JNN_MULTIVERSAO(nome, assinatura, args)
+    #define JNN_DESPACHAR(nome, args) nome args
+#endif
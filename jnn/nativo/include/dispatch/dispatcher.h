@@ -1,11 +1,17 @@
 #pragma once
+#include "cpu.h"
 #include "gemm.h"
 #include "conv2d.h"
 #include "maxpool.h"
 #include "acts.h"
 #include "batchnorm2d.h"
+#include "otm.h"
+#include "densa.h"
+#include "plano.h"
 
 // Tipo de backend nativo.
+// No backend de cpu a variante dos kernels (avx512, avx2, sse4, neon ou escalar)
+// é escolhida em tempo de execução, ver cpu.h.
 typedef enum {
     JNN_BACKEND_CPU = 1
 } jnn_backend_t;
@@ -37,6 +43,21 @@ void jnn_batchnorm2d_fw_dispatcher(const bn2d_fwd_params_t* p);
 // Executa o backward da camada BatchNorm2D de acordo com o backend nativo atual.
 void jnn_batchnorm2d_bw_dispatcher(const bn2d_bwd_params_t* p);
 
+// Executa um passo fundido da família Adam de acordo com o backend nativo atual.
+void jnn_adam_dispatcher(const adam_params_t* p);
+
+// Executa o forward da camada Densa de acordo com o backend nativo atual.
+void jnn_densa_fw_dispatcher(const densa_fwd_params_t* p);
+
+// Executa o backward da camada Densa de acordo com o backend nativo atual.
+void jnn_densa_bw_dispatcher(const densa_bwd_params_t* p);
+
+// Executa o forward de um plano de execução de acordo com o backend nativo atual.
+void jnn_plano_fw_dispatcher(const int* plano, int num_ops, float* ws, int lote);
+
+// Executa o backward de um plano de execução de acordo com o backend nativo atual.
+void jnn_plano_bw_dispatcher(const int* plano, int num_ops, float* ws, int lote);
+
 // ativações
 
 // Executa a função de ativalçai ReLU em dst, usando src como base.
@@ -49,4 +70,16 @@ void jnn_relu_d(float* restrict x, float* restrict g, float* restrict dst, int n
 void jnn_sigmoid(float* restrict src, float* restrict dst, int n);
 
 // Executa a derivad da função de ativalçai Sigmoid em dst, usando x e src como base.
-void jnn_sigmoid_d(float* restrict x, float* restrict g, float* restrict dst, int n);
\ No newline at end of file
+void jnn_sigmoid_d(float* restrict x, float* restrict g, float* restrict dst, int n);
+
+// Executa uma ativação elemento a elemento de acordo com o backend nativo atual.
+void jnn_ativacao_dispatcher(const ativacao_params_t* p);
+
+// Executa a derivada de uma ativação elemento a elemento de acordo com o backend nativo atual.
+void jnn_ativacao_d_dispatcher(const ativacao_params_t* p);
+
+// Executa o softmax por linhas de acordo com o backend nativo atual.
+void jnn_softmax_dispatcher(const float* x, float* dst, int linhas, int tam);
+
+// Executa a derivada do softmax por linhas de acordo com o backend nativo atual.
+void jnn_softmax_d_dispatcher(const float* y, const float* g, float* dst, int linhas, int tam);
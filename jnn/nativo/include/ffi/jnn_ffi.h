@@ -0,0 +1,65 @@
+#pragma once
+
+// Pontos de entrada para chamadas diretas via Foreign Function & Memory API.
+// Diferente do JNI, os ponteiros recebidos já apontam para memória fora do heap
+// da JVM, então não existe pin/unpin de arrays durante a execução dos kernels.
+
+#ifdef _WIN32
+    #define JNN_FFI_API __declspec(dllexport)
+#else
+    #define JNN_FFI_API __attribute__((visibility("default")))
+#endif
+
+// Realiza a multiplicação matricial C += A @ B.
+JNN_FFI_API void jnn_ffi_matmul(
+    float* A, int std_a_0, int std_a_1,
+    float* B, int std_b_0, int std_b_1,
+    float* C, int std_c_0, int std_c_1,
+    int lin_a, int col_a, int col_b
+);
+
+// Realiza a propagação direta da camada Conv2D.
+JNN_FFI_API void jnn_ffi_conv2d_forward(
+    const float* X, const float* K, const float* B, float* DST,
+    int tem_bias,
+    int lotes, int canais, int filtros,
+    int alt_x, int larg_x,
+    int alt_k, int larg_k,
+    int alt_pad, int larg_pad
+);
+
+// Realiza a propagação reversa da camada Conv2D.
+JNN_FFI_API void jnn_ffi_conv2d_backward(
+    const float* X, const float* K, const float* GS,
+    float* GK, float* GB, float* GE,
+    int tem_bias,
+    int lotes, int canais, int filtros,
+    int alt_x, int larg_x,
+    int alt_k, int larg_k,
+    int alt_pad, int larg_pad
+);
+
+// Realiza a propagação direta da camada MaxPool2D.
+JNN_FFI_API void jnn_ffi_maxpool2d_forward(
+    const float* X, float* Y,
+    int lotes, int canais,
+    int alt_x, int larg_x,
+    int alt_pool, int larg_pool,
+    int alt_std, int larg_std
+);
+
+// Realiza a propagação reversa da camada MaxPool2D.
+JNN_FFI_API void jnn_ffi_maxpool2d_backward(
+    const float* X, const float* GS, float* GE,
+    int lotes, int canais,
+    int alt_x, int larg_x,
+    int alt_gs, int larg_gs,
+    int alt_pool, int larg_pool,
+    int alt_std, int larg_std
+);
+
+// Executa a propagação direta de todo o plano de execução em uma única chamada.
+JNN_FFI_API void jnn_ffi_plano_forward(const int* plano, int num_ops, float* ws, int lote);
+
+// Executa a propagação reversa de todo o plano de execução em uma única chamada.
+JNN_FFI_API void jnn_ffi_plano_backward(const int* plano, int num_ops, float* ws, int lote);
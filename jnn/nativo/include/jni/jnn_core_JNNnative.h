@@ -25,6 +25,22 @@ JNIEXPORT void JNICALL Java_jnn_core_JNNnative_setThreads
 JNIEXPORT void JNICALL Java_jnn_core_JNNnative_setBackend
   (JNIEnv *, jclass, jint);
 
+/*
+ * Class:     jnn_core_JNNnative
+ * Method:    variante
+ * Signature: ()Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_jnn_core_JNNnative_variante
+  (JNIEnv *, jclass);
+
+/*
+ * Class:     jnn_core_JNNnative
+ * Method:    setVariante
+ * Signature: (Ljava/lang/String;)Ljava/lang/String;
+ */
+JNIEXPORT jstring JNICALL Java_jnn_core_JNNnative_setVariante
+  (JNIEnv *, jclass, jstring);
+
 /*
  * Class:     jnn_core_JNNnative
  * Method:    setTamArena
@@ -33,6 +49,14 @@ JNIEXPORT void JNICALL Java_jnn_core_JNNnative_setBackend
 JNIEXPORT void JNICALL Java_jnn_core_JNNnative_setTamArena
   (JNIEnv *, jclass, jint);
 
+/*
+ * Class:     jnn_core_JNNnative
+ * Method:    liberarArena
+ * Signature: ()V
+ */
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_liberarArena
+  (JNIEnv *, jclass);
+
 /*
  * Class:     jnn_core_JNNnative
  * Method:    matmul
@@ -44,18 +68,18 @@ JNIEXPORT void JNICALL Java_jnn_core_JNNnative_matmul
 /*
  * Class:     jnn_core_JNNnative
  * Method:    conv2dForward
- * Signature: ([F[F[FZ[FIIIIIIIII)V
+ * Signature: ([F[FI[FIZ[FIIIIIIIII)V
  */
 JNIEXPORT void JNICALL Java_jnn_core_JNNnative_conv2dForward
-  (JNIEnv *, jclass, jfloatArray, jfloatArray, jfloatArray, jboolean, jfloatArray, jint, jint, jint, jint, jint, jint, jint, jint, jint);
+  (JNIEnv *, jclass, jfloatArray, jfloatArray, jint, jfloatArray, jint, jboolean, jfloatArray, jint, jint, jint, jint, jint, jint, jint, jint, jint);
 
 /*
  * Class:     jnn_core_JNNnative
  * Method:    conv2dBackward
- * Signature: ([F[F[F[F[FZ[FIIIIIIIII)V
+ * Signature: ([F[FI[F[FI[FIZ[FIIIIIIIII)V
  */
 JNIEXPORT void JNICALL Java_jnn_core_JNNnative_conv2dBackward
-  (JNIEnv *, jclass, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jboolean, jfloatArray, jint, jint, jint, jint, jint, jint, jint, jint, jint);
+  (JNIEnv *, jclass, jfloatArray, jfloatArray, jint, jfloatArray, jfloatArray, jint, jfloatArray, jint, jboolean, jfloatArray, jint, jint, jint, jint, jint, jint, jint, jint, jint);
 
 /*
  * Class:     jnn_core_JNNnative
@@ -76,18 +100,18 @@ JNIEXPORT void JNICALL Java_jnn_core_JNNnative_maxPool2dBackward
 /*
  * Class:     jnn_core_JNNnative
  * Method:    batchNorm2DForward
- * Signature: ([F[F[F[F[F[F[F[F[FIIIIFFZ)V
+ * Signature: ([F[F[FI[FI[F[F[F[F[FIIIIFFZ)V
  */
 JNIEXPORT void JNICALL Java_jnn_core_JNNnative_batchNorm2DForward
-  (JNIEnv *, jclass, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jint, jint, jint, jint, jfloat, jfloat, jboolean);
+  (JNIEnv *, jclass, jfloatArray, jfloatArray, jfloatArray, jint, jfloatArray, jint, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jint, jint, jint, jint, jfloat, jfloat, jboolean);
 
 /*
  * Class:     jnn_core_JNNnative
  * Method:    batchNorm2DBackward
- * Signature: ([F[F[F[F[F[F[FIIIIF)V
+ * Signature: ([F[F[FI[F[F[FI[FIIIIIF)V
  */
 JNIEXPORT void JNICALL Java_jnn_core_JNNnative_batchNorm2DBackward
-  (JNIEnv *, jclass, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jfloatArray, jint, jint, jint, jint, jfloat);
+  (JNIEnv *, jclass, jfloatArray, jfloatArray, jfloatArray, jint, jfloatArray, jfloatArray, jfloatArray, jint, jfloatArray, jint, jint, jint, jint, jint, jfloat);
 
 /*
  * Class:     jnn_core_JNNnative
@@ -121,6 +145,62 @@ JNIEXPORT void JNICALL Java_jnn_core_JNNnative_sigmoid
 JNIEXPORT void JNICALL Java_jnn_core_JNNnative_sigmoidd
   (JNIEnv *, jclass, jfloatArray, jfloatArray, jfloatArray, jint);
 
+/*
+ * Class:     jnn_core_JNNnative
+ * Method:    adam
+ * Signature: ([FI[FI[F[F[FIIFFFFFFFZ)V
+ */
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_adam
+  (JNIEnv *, jclass, jfloatArray, jint, jfloatArray, jint, jfloatArray, jfloatArray, jfloatArray, jint, jint, jfloat, jfloat, jfloat, jfloat, jfloat, jfloat, jfloat, jboolean);
+
+/*
+ * Class:     jnn_core_JNNnative
+ * Method:    ativacao
+ * Signature: (IFF[FI[FII)V
+ */
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_ativacao
+  (JNIEnv *, jclass, jint, jfloat, jfloat, jfloatArray, jint, jfloatArray, jint, jint);
+
+/*
+ * Class:     jnn_core_JNNnative
+ * Method:    ativacaod
+ * Signature: (IFF[FI[FI[FI[FII)V
+ */
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_ativacaod
+  (JNIEnv *, jclass, jint, jfloat, jfloat, jfloatArray, jint, jfloatArray, jint, jfloatArray, jint, jfloatArray, jint, jint);
+
+/*
+ * Class:     jnn_core_JNNnative
+ * Method:    softmax
+ * Signature: ([FI[FIII)V
+ */
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_softmax
+  (JNIEnv *, jclass, jfloatArray, jint, jfloatArray, jint, jint, jint);
+
+/*
+ * Class:     jnn_core_JNNnative
+ * Method:    softmaxd
+ * Signature: ([FI[FI[FIII)V
+ */
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_softmaxd
+  (JNIEnv *, jclass, jfloatArray, jint, jfloatArray, jint, jfloatArray, jint, jint, jint);
+
+/*
+ * Class:     jnn_core_JNNnative
+ * Method:    densaForward
+ * Signature: ([FI[FI[FIZ[FIIIIIFF)V
+ */
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_densaForward
+  (JNIEnv *, jclass, jfloatArray, jint, jfloatArray, jint, jfloatArray, jint, jboolean, jfloatArray, jint, jint, jint, jint, jint, jfloat, jfloat);
+
+/*
+ * Class:     jnn_core_JNNnative
+ * Method:    densaBackward
+ * Signature: ([FI[FI[FI[FI[FIZ[FIIII)V
+ */
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_densaBackward
+  (JNIEnv *, jclass, jfloatArray, jint, jfloatArray, jint, jfloatArray, jint, jfloatArray, jint, jfloatArray, jint, jboolean, jfloatArray, jint, jint, jint, jint);
+
 #ifdef __cplusplus
 }
 #endif
@@ -8,18 +8,34 @@
 #define ARENA_CAP_MB(n) ((size_t) (n) << 20)
 #define ARENA_CAP_GB(n) ((size_t) (n) << 30)
 
+// Bloco de memória da arena.
+typedef struct arena_bloco {
+    struct arena_bloco* ant;// Bloco anterior.
+    struct arena_bloco* prox;// Próximo bloco (mantido para reuso).
+    size_t base;// Offset lógico do início do bloco.
+    size_t capacidade;// Capacidade do bloco.
+    unsigned char* data;// Dados do bloco.
+} arena_bloco_t;
+
 // Arena de memória.
+// A arena cresce encadeando novos blocos, então ponteiros já entregues
+// continuam válidos. Os offsets são lógicos e crescem entre os blocos.
 typedef struct {
     size_t capacidade;// Capacidade total.
-    size_t offset;// Offset atual.
-    unsigned char* data;// Dados da arena.
+    size_t offset;// Offset lógico atual.
+    arena_bloco_t* atual;// Bloco em uso.
+    arena_bloco_t* primeiro;// Primeiro bloco.
 } arena_t;
 
 // Inicializa uma arena de memória com a capacidade especificada.
 void arena_init(arena_t* arena, size_t capacidade);
 
+// Libera toda a memória da arena.
+void arena_liberar(arena_t* arena);
+
 // Aloca um bloco de memória na arena.
 // O bloco pode conter um valor um pouco maior para preservar o alinhamento.
+// Caso a capacidade seja excedida, a arena cresce.
 void* arena_alloc(arena_t* arena, size_t size_bytes);
 
 // Reseta o conteúdo da arena.
@@ -29,4 +45,10 @@ void arena_reset(arena_t* arena);
 size_t arena_checkpoint(arena_t* arena);
 
 // Retorna ao ponto marcado, liberando memória até o ponto marcado.
-void arena_restore(arena_t* arena, size_t checkpoint);
\ No newline at end of file
+void arena_restore(arena_t* arena, size_t checkpoint);
+
+// Configura a capacidade inicial de novas arenas.
+void arena_set_cap_padrao(size_t capacidade);
+
+// Capacidade inicial de novas arenas.
+size_t arena_cap_padrao(void);
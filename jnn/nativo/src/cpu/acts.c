@@ -1,27 +1,343 @@
 #include "acts.h"
+#include "cpu.h"
 #include <math.h>
+#include <omp.h>
 
-void relu(float* restrict src, float* restrict dst, size_t tam) {
+// Abaixo disso o custo de abrir a região paralela não compensa.
+#define ATV_MIN_PARALELO (1 << 15)
+
+// Constantes da aproximação do GELU.
+#define GELU_RAIZ_2_POR_PI 0.7978845608f
+#define GELU_C 0.044715f
+
+JNN_INLINE void _relu(float* restrict src, float* restrict dst, size_t tam) {
     for (size_t i = 0; i < tam; i++) {
         dst[i] = fmaxf(src[i], 0.f);
     }
 }
 
-void relu_d(float* restrict x, float* restrict g, float* restrict dst, size_t tam) {
+JNN_INLINE void _relu_d(float* restrict x, float* restrict g, float* restrict dst, size_t tam) {
     for (size_t i = 0; i < tam; i++) {
         dst[i] = g[i] * (x[i] > 0.f);
     }
 }
 
-void sigmoid(float* restrict src, float* restrict dst, size_t tam) {
+JNN_INLINE void _sigmoid(float* restrict src, float* restrict dst, size_t tam) {
     for (size_t i = 0; i < tam; i++) {
         dst[i] = 1.f / (1.f + expf(-src[i]));
     }
 }
 
-void sigmoid_d(float* restrict sig, float* restrict g, float* restrict dst, size_t tam) {
+JNN_INLINE void _sigmoid_d(float* restrict sig, float* restrict g, float* restrict dst, size_t tam) {
     for (size_t i = 0; i < tam; i++) {
         float s = sig[i];
         dst[i] = g[i] * (s * (1.f - s));
     }
-}
\ No newline at end of file
+}
+
+JNN_MULTIVERSAO(_relu, (float* restrict src, float* restrict dst, size_t tam), (src, dst, tam))
+JNN_MULTIVERSAO(_relu_d, (float* restrict x, float* restrict g, float* restrict dst, size_t tam), (x, g, dst, tam))
+JNN_MULTIVERSAO(_sigmoid, (float* restrict src, float* restrict dst, size_t tam), (src, dst, tam))
+JNN_MULTIVERSAO(_sigmoid_d, (float* restrict sig, float* restrict g, float* restrict dst, size_t tam), (sig, g, dst, tam))
+
+void relu(float* restrict src, float* restrict dst, size_t tam) {
+    JNN_DESPACHAR(_relu, (src, dst, tam));
+}
+
+void relu_d(float* restrict x, float* restrict g, float* restrict dst, size_t tam) {
+    JNN_DESPACHAR(_relu_d, (x, g, dst, tam));
+}
+
+void sigmoid(float* restrict src, float* restrict dst, size_t tam) {
+    JNN_DESPACHAR(_sigmoid, (src, dst, tam));
+}
+
+void sigmoid_d(float* restrict sig, float* restrict g, float* restrict dst, size_t tam) {
+    JNN_DESPACHAR(_sigmoid_d, (sig, g, dst, tam));
+}
+
+// Tangente hiperbólica pela exponencial, mantendo a vetorização.
+JNN_INLINE float _tanh_exp(float x) {
+    return 2.f / (1.f + expf(-2.f * x)) - 1.f;
+}
+
+// Aplica a ativação no intervalo [ini, fim).
+JNN_INLINE void _ativacao_bloco(const ativacao_params_t* params, long ini, long fim) {
+    const float* x = params->x;
+    float* dst = params->dst;
+    const float alpha = params->alpha;
+    const float gamma = params->gamma;
+
+    switch (params->tipo) {
+        case ATV_RELU:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                dst[i] = fmaxf(x[i], 0.f);
+            }
+        break;
+
+        case ATV_SIGMOID:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                dst[i] = 1.f / (1.f + expf(-x[i]));
+            }
+        break;
+
+        case ATV_TANH:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                dst[i] = _tanh_exp(x[i]);
+            }
+        break;
+
+        case ATV_LEAKY_RELU:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                const float v = x[i];
+                dst[i] = (v > 0.f) ? v : alpha * v;
+            }
+        break;
+
+        case ATV_ELU:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                const float v = x[i];
+                dst[i] = (v > 0.f) ? v : alpha * (expf(v) - 1.f);
+            }
+        break;
+
+        case ATV_SELU:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                const float v = x[i];
+                dst[i] = (v > 0.f) ? gamma * v : gamma * alpha * (expf(v) - 1.f);
+            }
+        break;
+
+        case ATV_GELU:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                const float v = x[i];
+                const float u = GELU_RAIZ_2_POR_PI * (v + GELU_C * v * v * v);
+                dst[i] = 0.5f * v * (1.f + _tanh_exp(u));
+            }
+        break;
+
+        case ATV_SWISH:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                const float v = x[i];
+                dst[i] = v / (1.f + expf(-v));
+            }
+        break;
+
+        case ATV_SOFTPLUS:
+            // forma estável de log(1 + exp(x))
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                const float v = x[i];
+                dst[i] = fmaxf(v, 0.f) + log1pf(expf(-fabsf(v)));
+            }
+        break;
+
+        default:
+            for (long i = ini; i < fim; i++) {
+                dst[i] = x[i];
+            }
+    }
+}
+
+// Aplica a derivada da ativação no intervalo [ini, fim).
+JNN_INLINE void _ativacao_d_bloco(const ativacao_params_t* params, long ini, long fim) {
+    const float* restrict x = params->x;
+    const float* restrict y = params->y;
+    const float* restrict g = params->g;
+    float* restrict dst = params->dst;
+    const float alpha = params->alpha;
+    const float gamma = params->gamma;
+
+    switch (params->tipo) {
+        case ATV_RELU:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                dst[i] = (x[i] > 0.f) ? g[i] : 0.f;
+            }
+        break;
+
+        case ATV_SIGMOID:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                const float s = y[i];
+                dst[i] = g[i] * (s * (1.f - s));
+            }
+        break;
+
+        case ATV_TANH:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                const float t = y[i];
+                dst[i] = g[i] * (1.f - t * t);
+            }
+        break;
+
+        case ATV_LEAKY_RELU:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                dst[i] = g[i] * ((x[i] > 0.f) ? 1.f : alpha);
+            }
+        break;
+
+        case ATV_ELU:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                const float v = x[i];
+                dst[i] = g[i] * ((v > 0.f) ? 1.f : alpha * expf(v));
+            }
+        break;
+
+        case ATV_SELU:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                const float v = x[i];
+                dst[i] = g[i] * ((v > 0.f) ? gamma : gamma * alpha * expf(v));
+            }
+        break;
+
+        case ATV_GELU:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                const float v = x[i];
+                const float v2 = v * v;
+                const float u = GELU_RAIZ_2_POR_PI * (v + GELU_C * v2 * v);
+                const float t = _tanh_exp(u);
+                const float du = GELU_RAIZ_2_POR_PI * (1.f + 3.f * GELU_C * v2);
+                dst[i] = g[i] * (0.5f * (1.f + t) + 0.5f * v * (1.f - t * t) * du);
+            }
+        break;
+
+        case ATV_SWISH:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                const float v = x[i];
+                const float s = 1.f / (1.f + expf(-v));
+                dst[i] = g[i] * (s + v * s * (1.f - s));
+            }
+        break;
+
+        case ATV_SOFTPLUS:
+            #pragma omp simd
+            for (long i = ini; i < fim; i++) {
+                dst[i] = g[i] / (1.f + expf(-x[i]));
+            }
+        break;
+
+        default:
+            for (long i = ini; i < fim; i++) {
+                dst[i] = g[i];
+            }
+    }
+}
+
+JNN_MULTIVERSAO(_ativacao_bloco, (const ativacao_params_t* params, long ini, long fim), (params, ini, fim))
+JNN_MULTIVERSAO(_ativacao_d_bloco, (const ativacao_params_t* params, long ini, long fim), (params, ini, fim))
+
+void cpu_ativacao(const ativacao_params_t* params) {
+    const long n = (long) params->n;
+
+    if (n < ATV_MIN_PARALELO) {
+        JNN_DESPACHAR(_ativacao_bloco, (params, 0, n));
+        return;
+    }
+
+    #pragma omp parallel proc_bind(close)
+    {
+        const long threads = omp_get_num_threads();
+        const long bloco = (n + threads - 1) / threads;
+        const long ini = omp_get_thread_num() * bloco;
+        const long fim = (ini + bloco < n) ? (ini + bloco) : n;
+
+        if (ini < fim) {
+            JNN_DESPACHAR(_ativacao_bloco, (params, ini, fim));
+        }
+    }
+}
+
+void cpu_ativacao_d(const ativacao_params_t* params) {
+    const long n = (long) params->n;
+
+    if (n < ATV_MIN_PARALELO) {
+        JNN_DESPACHAR(_ativacao_d_bloco, (params, 0, n));
+        return;
+    }
+
+    #pragma omp parallel proc_bind(close)
+    {
+        const long threads = omp_get_num_threads();
+        const long bloco = (n + threads - 1) / threads;
+        const long ini = omp_get_thread_num() * bloco;
+        const long fim = (ini + bloco < n) ? (ini + bloco) : n;
+
+        if (ini < fim) {
+            JNN_DESPACHAR(_ativacao_d_bloco, (params, ini, fim));
+        }
+    }
+}
+
+// Softmax de uma linha, o máximo é subtraído para estabilidade numérica.
+JNN_INLINE void _softmax_linha(const float* x, float* dst, long tam) {
+    float max = x[0];
+    #pragma omp simd reduction(max:max)
+    for (long j = 1; j < tam; j++) {
+        max = fmaxf(max, x[j]);
+    }
+
+    float soma = 0.f;
+    #pragma omp simd reduction(+:soma)
+    for (long j = 0; j < tam; j++) {
+        const float e = expf(x[j] - max);
+        dst[j] = e;
+        soma += e;
+    }
+
+    const float inv = 1.f / soma;
+    #pragma omp simd
+    for (long j = 0; j < tam; j++) {
+        dst[j] *= inv;
+    }
+}
+
+JNN_INLINE void _softmax_d_linha(const float* restrict y, const float* restrict g, float* restrict dst, long tam) {
+    float soma = 0.f;
+    #pragma omp simd reduction(+:soma)
+    for (long j = 0; j < tam; j++) {
+        soma += g[j] * y[j];
+    }
+
+    #pragma omp simd
+    for (long j = 0; j < tam; j++) {
+        dst[j] = y[j] * (g[j] - soma);
+    }
+}
+
+JNN_MULTIVERSAO(_softmax_linha, (const float* x, float* dst, long tam), (x, dst, tam))
+JNN_MULTIVERSAO(_softmax_d_linha, (const float* restrict y, const float* restrict g, float* restrict dst, long tam), (y, g, dst, tam))
+
+void cpu_softmax(const float* x, float* dst, size_t linhas, size_t tam) {
+    const long l = (long) linhas;
+    const long t = (long) tam;
+
+    #pragma omp parallel for schedule(static) if (l * t >= ATV_MIN_PARALELO)
+    for (long i = 0; i < l; i++) {
+        JNN_DESPACHAR(_softmax_linha, (x + i * t, dst + i * t, t));
+    }
+}
+
+void cpu_softmax_d(const float* y, const float* g, float* dst, size_t linhas, size_t tam) {
+    const long l = (long) linhas;
+    const long t = (long) tam;
+
+    #pragma omp parallel for schedule(static) if (l * t >= ATV_MIN_PARALELO)
+    for (long i = 0; i < l; i++) {
+        JNN_DESPACHAR(_softmax_d_linha, (y + i * t, g + i * t, dst + i * t, t));
+    }
+}
@@ -1,3 +1,36 @@
 #include "common.h"
 
-arena_t mem_arena = {0};
\ No newline at end of file
+#ifndef _WIN32
+#include <pthread.h>
+#endif
+
+static _Thread_local arena_t _arena_local = {0};
+
+#ifndef _WIN32
+// Chave usada apenas para liberar a arena quando a thread termina.
+static pthread_key_t _chave_arena;
+static pthread_once_t _chave_once = PTHREAD_ONCE_INIT;
+
+static void _liberar_arena_thread(void* arena) {
+    arena_liberar((arena_t*) arena);
+}
+
+static void _criar_chave_arena(void) {
+    pthread_key_create(&_chave_arena, _liberar_arena_thread);
+}
+#endif
+
+arena_t* jnn_arena_local(void) {
+    arena_t* arena = &_arena_local;
+
+    if (!arena->atual) {
+        arena_init(arena, arena_cap_padrao());
+
+#ifndef _WIN32
+        pthread_once(&_chave_once, _criar_chave_arena);
+        pthread_setspecific(_chave_arena, arena);
+#endif
+    }
+
+    return arena;
+}
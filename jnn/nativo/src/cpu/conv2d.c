@@ -3,12 +3,14 @@
 #include "im2col.h"
 #include "arena.h"
 #include "common.h"
+#include "cpu.h"
 
 #include <string.h>
 
 // forward
 
-static void _forward_loops(const conv2d_fwd_params_t* params) {
+// Calcula a saída do filtro f para a amostra l.
+JNN_INLINE void _forward_plano(const conv2d_fwd_params_t* params, int l, int f) {
     const float* restrict X = params->X;
     const float* restrict K = params->K;
     const float* restrict B = params->B;
@@ -21,7 +23,6 @@ static void _forward_loops(const conv2d_fwd_params_t* params) {
     const int alt_pad = params->alt_pad;
     const int larg_pad = params->larg_pad;
     
-    const int lotes = params->lotes;
     const int filtros = params->filtros;
     const int canais = params->canais;
 
@@ -32,42 +33,51 @@ static void _forward_loops(const conv2d_fwd_params_t* params) {
     const int area_k = alt_k * larg_k;
     const int area_s = alt_s * larg_s;
 
-    #pragma omp parallel for collapse(2) schedule(static) proc_bind(close)
-    for (int l = 0; l < lotes; l++) {
-        for (int f = 0; f < filtros; f++) {
-            float* restrict dst_base = DST + (l * filtros + f) * area_s;
-
-            float bias = params->temBias ? B[f] : 0.0f;
-            for (int i = 0; i < area_s; i++) dst_base[i] = bias;
-
-            for (int c = 0; c < canais; c++) {
-                const float* restrict Xc = X + (l * canais + c) * area_x;
-                const float* restrict Kc = K + (f * canais + c) * area_k;
-
-                for (int kh = 0; kh < alt_k; kh++) {
-                    for (int kw = 0; kw < larg_k; kw++) {
-                        const float val_k = Kc[kh * larg_k + kw];
-                        const int j_max = MIN_ENTRE(larg_x + larg_pad - kw, larg_s);
-                        const int j_min = MAX_ENTRE(larg_pad - kw, 0);
-                        const int i_max = MIN_ENTRE(alt_x + alt_pad - kh, alt_s);
-                        const int i_min = MAX_ENTRE(alt_pad - kh, 0);
-
-                        for (int i = i_min; i < i_max; i++) {
-                            const int in_y = i + kh - alt_pad;
-                            float* restrict ptr_dst = dst_base + i * larg_s;
-                            const float* restrict ptr_x = Xc + in_y * larg_x;
-
-                            #pragma omp simd
-                            for (int j = j_min; j < j_max; j++) {
-                                int in_x = j + kw - larg_pad;
-                                ptr_dst[j] += ptr_x[in_x] * val_k;
-                            }
-                        }
+    float* restrict dst_base = DST + (l * filtros + f) * area_s;
+
+    float bias = params->temBias ? B[f] : 0.0f;
+    for (int i = 0; i < area_s; i++) dst_base[i] = bias;
+
+    for (int c = 0; c < canais; c++) {
+        const float* restrict Xc = X + (l * canais + c) * area_x;
+        const float* restrict Kc = K + (f * canais + c) * area_k;
+
+        for (int kh = 0; kh < alt_k; kh++) {
+            for (int kw = 0; kw < larg_k; kw++) {
+                const float val_k = Kc[kh * larg_k + kw];
+                const int j_max = MIN_ENTRE(larg_x + larg_pad - kw, larg_s);
+                const int j_min = MAX_ENTRE(larg_pad - kw, 0);
+                const int i_max = MIN_ENTRE(alt_x + alt_pad - kh, alt_s);
+                const int i_min = MAX_ENTRE(alt_pad - kh, 0);
+
+                for (int i = i_min; i < i_max; i++) {
+                    const int in_y = i + kh - alt_pad;
+                    float* restrict ptr_dst = dst_base + i * larg_s;
+                    const float* restrict ptr_x = Xc + in_y * larg_x;
+
+                    #pragma omp simd
+                    for (int j = j_min; j < j_max; j++) {
+                        int in_x = j + kw - larg_pad;
+                        ptr_dst[j] += ptr_x[in_x] * val_k;
                     }
                 }
             }
         }
     }
+}
+
+JNN_MULTIVERSAO(_forward_plano, (const conv2d_fwd_params_t* params, int l, int f), (params, l, f))
+
+static void _forward_loops(const conv2d_fwd_params_t* params) {
+    const int lotes = params->lotes;
+    const int filtros = params->filtros;
+
+    #pragma omp parallel for collapse(2) schedule(static) proc_bind(close)
+    for (int l = 0; l < lotes; l++) {
+        for (int f = 0; f < filtros; f++) {
+            JNN_DESPACHAR(_forward_plano, (params, l, f));
+        }
+    }
 
 }
 
@@ -178,7 +188,8 @@ void cpu_conv2d_forward(const conv2d_fwd_params_t* params) {
 
 // backward
 
-static void _backward_gk_loops(const conv2d_bwd_params_t* params) {
+// Acumula o gradiente do kernel para o filtro f e canal c.
+JNN_INLINE void _backward_gk_plano(const conv2d_bwd_params_t* params, int f, int c) {
     const float* restrict X  = params->X;
     const float* restrict GS = params->GS;    
     float* restrict GK       = params->GK;
@@ -201,38 +212,47 @@ static void _backward_gk_loops(const conv2d_bwd_params_t* params) {
     const int area_k  = alt_k * larg_k;
     const int area_gs = alt_s * larg_s;
 
-    #pragma omp parallel for collapse(2) schedule(static) proc_bind(close)
-    for (int f = 0; f < filtros; f++) {
-        for (int c = 0; c < canais; c++) {
-            const int off_k_base = (f * canais + c) * area_k;
-
-            for (int kh = 0; kh < alt_k; kh++) {
-                for (int kw = 0; kw < larg_k; kw++) {
-                    int i_min = MAX_ENTRE(0, alt_pad - kh);
-                    int i_max = MIN_ENTRE(alt_s, alt_x + alt_pad - kh);
-                    int j_min = MAX_ENTRE(0, larg_pad - kw);
-                    int j_max = MIN_ENTRE(larg_s, larg_x + larg_pad - kw);
-                    float soma = 0.0f;
-
-                    for (int l = 0; l < lotes; l++) {
-                        const float* restrict ptr_gs_base = GS + (l * filtros + f) * area_gs;
-                        const float* restrict ptr_x_base  = X  + (l * canais + c) * area_x;
-
-                        for (int i = i_min; i < i_max; i++) {
-                            const int in_y = i + kh - alt_pad;
-                            const float* restrict lin_gs = ptr_gs_base + i * larg_s;
-                            const float* restrict lin_x  = ptr_x_base  + in_y * larg_x;
-                            const int offset_x = kw - larg_pad; 
-
-                            #pragma omp simd
-                            for (int j = j_min; j < j_max; j++) {
-                                soma += lin_gs[j] * lin_x[j + offset_x];
-                            }
-                        }
+    const int off_k_base = (f * canais + c) * area_k;
+
+    for (int kh = 0; kh < alt_k; kh++) {
+        for (int kw = 0; kw < larg_k; kw++) {
+            int i_min = MAX_ENTRE(0, alt_pad - kh);
+            int i_max = MIN_ENTRE(alt_s, alt_x + alt_pad - kh);
+            int j_min = MAX_ENTRE(0, larg_pad - kw);
+            int j_max = MIN_ENTRE(larg_s, larg_x + larg_pad - kw);
+            float soma = 0.0f;
+
+            for (int l = 0; l < lotes; l++) {
+                const float* restrict ptr_gs_base = GS + (l * filtros + f) * area_gs;
+                const float* restrict ptr_x_base  = X  + (l * canais + c) * area_x;
+
+                for (int i = i_min; i < i_max; i++) {
+                    const int in_y = i + kh - alt_pad;
+                    const float* restrict lin_gs = ptr_gs_base + i * larg_s;
+                    const float* restrict lin_x  = ptr_x_base  + in_y * larg_x;
+                    const int offset_x = kw - larg_pad; 
+
+                    #pragma omp simd
+                    for (int j = j_min; j < j_max; j++) {
+                        soma += lin_gs[j] * lin_x[j + offset_x];
                     }
-                    GK[off_k_base + kh * larg_k + kw] += soma;
                 }
             }
+            GK[off_k_base + kh * larg_k + kw] += soma;
+        }
+    }
+}
+
+JNN_MULTIVERSAO(_backward_gk_plano, (const conv2d_bwd_params_t* params, int f, int c), (params, f, c))
+
+static void _backward_gk_loops(const conv2d_bwd_params_t* params) {
+    const int filtros = params->filtros;
+    const int canais = params->canais;
+
+    #pragma omp parallel for collapse(2) schedule(static) proc_bind(close)
+    for (int f = 0; f < filtros; f++) {
+        for (int c = 0; c < canais; c++) {
+            JNN_DESPACHAR(_backward_gk_plano, (params, f, c));
         }
     }    
 }
@@ -315,7 +335,8 @@ static void _backward_gk(const conv2d_bwd_params_t* params) {
     }
 }
 
-static void _backward_ge_loops(const conv2d_bwd_params_t* params) {
+// Acumula o gradiente de entrada do canal c para a amostra l.
+JNN_INLINE void _backward_ge_plano(const conv2d_bwd_params_t* params, int l, int c) {
     const int filtros = params->filtros;
     const int canais = params->canais;
 
@@ -333,38 +354,47 @@ static void _backward_ge_loops(const conv2d_bwd_params_t* params) {
     const int area_k  = alt_k * larg_k;
     const int area_gs = alt_s * larg_s;
 
-    #pragma omp parallel for collapse(2) schedule(static) proc_bind(close)
-    for (int l = 0; l < params->lotes; l++) {
-        for (int c = 0; c < canais; c++) {
-            float* restrict ptr_ge_base = params->GE + (l * canais + c) * area_x;
-
-            for (int f = 0; f < params->filtros; f++) {
-                const float* restrict ptr_gs_base = params->GS + (l * filtros + f) * area_gs;
-                const float* restrict ptr_k_base  = params->K  + (f * canais + c) * area_k;
-
-                for (int kh = 0; kh < alt_k; kh++) {
-                    for (int kw = 0; kw < larg_k; kw++) {
-                        const float val_k = ptr_k_base[kh * larg_k + kw];
-                        int i_min = MAX_ENTRE(0, alt_pad - kh);
-                        int i_max = MIN_ENTRE(alt_s, alt_x + alt_pad - kh);
-                        int j_min = MAX_ENTRE(0, larg_pad - kw);
-                        int j_max = MIN_ENTRE(larg_s, larg_x + larg_pad - kw);
-
-                        for (int i = i_min; i < i_max; i++) {
-                            const int in_y = i + kh - alt_pad;
-                            float* restrict lin_ge = ptr_ge_base + in_y * larg_x;
-                            const float* restrict lin_gs = ptr_gs_base + i * larg_s;
-                            const int offset_ge = kw - larg_pad;
-
-                            #pragma omp simd
-                            for (int j = j_min; j < j_max; j++) {
-                                lin_ge[j + offset_ge] += lin_gs[j] * val_k;
-                            }
-                        }
+    float* restrict ptr_ge_base = params->GE + (l * canais + c) * area_x;
+
+    for (int f = 0; f < filtros; f++) {
+        const float* restrict ptr_gs_base = params->GS + (l * filtros + f) * area_gs;
+        const float* restrict ptr_k_base  = params->K  + (f * canais + c) * area_k;
+
+        for (int kh = 0; kh < alt_k; kh++) {
+            for (int kw = 0; kw < larg_k; kw++) {
+                const float val_k = ptr_k_base[kh * larg_k + kw];
+                int i_min = MAX_ENTRE(0, alt_pad - kh);
+                int i_max = MIN_ENTRE(alt_s, alt_x + alt_pad - kh);
+                int j_min = MAX_ENTRE(0, larg_pad - kw);
+                int j_max = MIN_ENTRE(larg_s, larg_x + larg_pad - kw);
+
+                for (int i = i_min; i < i_max; i++) {
+                    const int in_y = i + kh - alt_pad;
+                    float* restrict lin_ge = ptr_ge_base + in_y * larg_x;
+                    const float* restrict lin_gs = ptr_gs_base + i * larg_s;
+                    const int offset_ge = kw - larg_pad;
+
+                    #pragma omp simd
+                    for (int j = j_min; j < j_max; j++) {
+                        lin_ge[j + offset_ge] += lin_gs[j] * val_k;
                     }
                 }
             }
         }
+    }
+}
+
+JNN_MULTIVERSAO(_backward_ge_plano, (const conv2d_bwd_params_t* params, int l, int c), (params, l, c))
+
+static void _backward_ge_loops(const conv2d_bwd_params_t* params) {
+    const int lotes = params->lotes;
+    const int canais = params->canais;
+
+    #pragma omp parallel for collapse(2) schedule(static) proc_bind(close)
+    for (int l = 0; l < lotes; l++) {
+        for (int c = 0; c < canais; c++) {
+            JNN_DESPACHAR(_backward_ge_plano, (params, l, c));
+        }
     }    
 }
 
@@ -0,0 +1,111 @@
+#include "densa.h"
+#include "gemm.h"
+#include <string.h>
+
+void cpu_densa_forward(const densa_fwd_params_t* params) {
+    const int lotes    = params->lotes;
+    const int entradas = params->entradas;
+    const int saidas   = params->saidas;
+
+    float* restrict Y = params->DST;
+
+    // o bias inicia o acumulador do gemm, dispensando um broadcast
+    if (params->temBias) {
+        for (int i = 0; i < lotes; i++) {
+            memcpy(Y + (size_t) i * saidas, params->B, sizeof(float) * saidas);
+        }
+    } else {
+        memset(Y, 0, sizeof(float) * lotes * saidas);
+    }
+
+    gemm_params_t gp = {
+        .A = (float*) params->X,
+        .B = (float*) params->W,
+        .C = Y,
+
+        .std_a_0 = entradas, .std_a_1 = 1,
+        .std_b_0 = saidas,   .std_b_1 = 1,
+        .std_c_0 = saidas,   .std_c_1 = 1,
+
+        .lin_a = lotes,
+        .col_a = entradas,
+        .col_b = saidas
+    };
+
+    cpu_gemm(&gp);
+
+    if (params->ativacao == ATV_SOFTMAX) {
+        cpu_softmax(Y, Y, lotes, saidas);
+
+    } else if (params->ativacao != ATV_NENHUMA) {
+        ativacao_params_t ap = {
+            .x = Y,
+            .dst = Y,
+            .n = (size_t) lotes * saidas,
+            .tipo = params->ativacao,
+            .alpha = params->alpha,
+            .gamma = params->gamma
+        };
+
+        cpu_ativacao(&ap);
+    }
+}
+
+void cpu_densa_backward(const densa_bwd_params_t* params) {
+    const int lotes    = params->lotes;
+    const int entradas = params->entradas;
+    const int saidas   = params->saidas;
+
+    const float* restrict GS = params->GS;
+
+    // GW += X.T * GS
+    gemm_params_t gw = {
+        .A = (float*) params->X,
+        .B = (float*) GS,
+        .C = params->GW,
+
+        .std_a_0 = 1,      .std_a_1 = entradas,
+        .std_b_0 = saidas, .std_b_1 = 1,
+        .std_c_0 = saidas, .std_c_1 = 1,
+
+        .lin_a = entradas,
+        .col_a = lotes,
+        .col_b = saidas
+    };
+
+    cpu_gemm(&gw);
+
+    // GB += soma das linhas de GS
+    if (params->temBias) {
+        float* restrict GB = params->GB;
+
+        for (int i = 0; i < lotes; i++) {
+            const float* restrict linha = GS + (size_t) i * saidas;
+
+            #pragma omp simd
+            for (int j = 0; j < saidas; j++) {
+                GB[j] += linha[j];
+            }
+        }
+    }
+
+    // GE = GS * W.T
+    float* restrict GE = params->GE;
+    memset(GE, 0, sizeof(float) * lotes * entradas);
+
+    gemm_params_t ge = {
+        .A = (float*) GS,
+        .B = (float*) params->W,
+        .C = GE,
+
+        .std_a_0 = saidas, .std_a_1 = 1,
+        .std_b_0 = 1,      .std_b_1 = saidas,
+        .std_c_0 = entradas, .std_c_1 = 1,
+
+        .lin_a = lotes,
+        .col_a = saidas,
+        .col_b = entradas
+    };
+
+    cpu_gemm(&ge);
+}
@@ -5,19 +5,39 @@
 #include "gemm.h"
 #include "arena.h"
 #include "common.h"
+#include "cpu.h"
 #include <stdbool.h>
 #include <stdlib.h>
 #include <stdint.h>
 
-// microkernel
-#include <immintrin.h>
-#define MR 4
-#define NR 8
+#ifdef JNN_X86
+    #include <immintrin.h>
+#elif defined(JNN_NEON)
+    #include <arm_neon.h>
+#endif
 
 // tilling
-#define TILE_M 32//multiplo de MR
+#define TILE_M 32// multiplo do MR de todas as variantes
 #define TILE_K 64
-#define TILE_N 32//multiplo de NR
+#define TILE_N 32// multiplo do NR de todas as variantes
+
+// Microkernel que acumula em C um bloco MR x NR do produto entre A e B.
+typedef void (*microkernel_t)(
+    const float* restrict A,
+    const float* restrict B,
+    float* restrict C,
+    int K,
+    int lda,
+    int ldb,
+    int ldc
+);
+
+// Microkernel e dimensões do bloco de saída.
+typedef struct {
+    int mr;
+    int nr;
+    microkernel_t kernel;// NULL usa apenas o kernel escalar
+} microkernel_cfg_t;
 
 static void _para_row_major(
     const float* restrict X,
@@ -37,7 +57,55 @@ static void _para_row_major(
     }
 }
 
-static inline void _microkernel_4x8(
+#ifdef JNN_X86
+JNN_ALVO_AVX512 static void _microkernel_8x16_avx512(
+    const float* restrict A,
+    const float* restrict B,
+    float* restrict C,
+    int K,
+    int lda,
+    int ldb,
+    int ldc) {
+
+    __m512 c0 = _mm512_loadu_ps(C + 0*ldc);
+    __m512 c1 = _mm512_loadu_ps(C + 1*ldc);
+    __m512 c2 = _mm512_loadu_ps(C + 2*ldc);
+    __m512 c3 = _mm512_loadu_ps(C + 3*ldc);
+    __m512 c4 = _mm512_loadu_ps(C + 4*ldc);
+    __m512 c5 = _mm512_loadu_ps(C + 5*ldc);
+    __m512 c6 = _mm512_loadu_ps(C + 6*ldc);
+    __m512 c7 = _mm512_loadu_ps(C + 7*ldc);
+
+    const float* restrict ptr_a = A;
+    const float* restrict ptr_b = B;
+
+    for (int k = 0; k < K; k++) {
+        __m512 b = _mm512_loadu_ps(ptr_b);
+
+        c0 = _mm512_fmadd_ps(_mm512_set1_ps(ptr_a[0*lda]), b, c0);
+        c1 = _mm512_fmadd_ps(_mm512_set1_ps(ptr_a[1*lda]), b, c1);
+        c2 = _mm512_fmadd_ps(_mm512_set1_ps(ptr_a[2*lda]), b, c2);
+        c3 = _mm512_fmadd_ps(_mm512_set1_ps(ptr_a[3*lda]), b, c3);
+        c4 = _mm512_fmadd_ps(_mm512_set1_ps(ptr_a[4*lda]), b, c4);
+        c5 = _mm512_fmadd_ps(_mm512_set1_ps(ptr_a[5*lda]), b, c5);
+        c6 = _mm512_fmadd_ps(_mm512_set1_ps(ptr_a[6*lda]), b, c6);
+        c7 = _mm512_fmadd_ps(_mm512_set1_ps(ptr_a[7*lda]), b, c7);
+
+        ptr_a += 1;
+        ptr_b += ldb;
+    }
+
+    _mm512_storeu_ps(C + 0*ldc, c0);
+    _mm512_storeu_ps(C + 1*ldc, c1);
+    _mm512_storeu_ps(C + 2*ldc, c2);
+    _mm512_storeu_ps(C + 3*ldc, c3);
+    _mm512_storeu_ps(C + 4*ldc, c4);
+    _mm512_storeu_ps(C + 5*ldc, c5);
+    _mm512_storeu_ps(C + 6*ldc, c6);
+    _mm512_storeu_ps(C + 7*ldc, c7);
+}
+
+JNN_ALVO_AVX2 static void _microkernel_4x8_avx2(
     const float* restrict A,
     const float* restrict B,
     float* restrict C,
@@ -77,6 +145,113 @@ static inline void _microkernel_4x8(
     _mm256_storeu_ps(C + 3*ldc, c3);
 }
 
+JNN_ALVO_SSE4 static void _microkernel_4x4_sse4(
+    const float* restrict A,
+    const float* restrict B,
+    float* restrict C,
+    int K,
+    int lda,
+    int ldb,
+    int ldc) {
+
+    __m128 c0 = _mm_loadu_ps(C + 0*ldc);
+    __m128 c1 = _mm_loadu_ps(C + 1*ldc);
+    __m128 c2 = _mm_loadu_ps(C + 2*ldc);
+    __m128 c3 = _mm_loadu_ps(C + 3*ldc);
+
+    const float* restrict ptr_a = A;
+    const float* restrict ptr_b = B;
+
+    for (int k = 0; k < K; k++) {
+        __m128 b = _mm_loadu_ps(ptr_b);
+
+        c0 = _mm_add_ps(c0, _mm_mul_ps(_mm_set1_ps(ptr_a[0*lda]), b));
+        c1 = _mm_add_ps(c1, _mm_mul_ps(_mm_set1_ps(ptr_a[1*lda]), b));
+        c2 = _mm_add_ps(c2, _mm_mul_ps(_mm_set1_ps(ptr_a[2*lda]), b));
+        c3 = _mm_add_ps(c3, _mm_mul_ps(_mm_set1_ps(ptr_a[3*lda]), b));
+
+        ptr_a += 1;
+        ptr_b += ldb;
+    }
+
+    _mm_storeu_ps(C + 0*ldc, c0);
+    _mm_storeu_ps(C + 1*ldc, c1);
+    _mm_storeu_ps(C + 2*ldc, c2);
+    _mm_storeu_ps(C + 3*ldc, c3);
+}
+#endif
+
+#ifdef JNN_NEON
+static void _microkernel_4x8_neon(
+    const float* restrict A,
+    const float* restrict B,
+    float* restrict C,
+    int K,
+    int lda,
+    int ldb,
+    int ldc) {
+
+    float32x4_t c0l = vld1q_f32(C + 0*ldc), c0h = vld1q_f32(C + 0*ldc + 4);
+    float32x4_t c1l = vld1q_f32(C + 1*ldc), c1h = vld1q_f32(C + 1*ldc + 4);
+    float32x4_t c2l = vld1q_f32(C + 2*ldc), c2h = vld1q_f32(C + 2*ldc + 4);
+    float32x4_t c3l = vld1q_f32(C + 3*ldc), c3h = vld1q_f32(C + 3*ldc + 4);
+
+    const float* restrict ptr_a = A;
+    const float* restrict ptr_b = B;
+
+    for (int k = 0; k < K; k++) {
+        float32x4_t bl = vld1q_f32(ptr_b);
+        float32x4_t bh = vld1q_f32(ptr_b + 4);
+
+        const float a0 = ptr_a[0*lda];
+        const float a1 = ptr_a[1*lda];
+        const float a2 = ptr_a[2*lda];
+        const float a3 = ptr_a[3*lda];
+
+        c0l = vfmaq_n_f32(c0l, bl, a0); c0h = vfmaq_n_f32(c0h, bh, a0);
+        c1l = vfmaq_n_f32(c1l, bl, a1); c1h = vfmaq_n_f32(c1h, bh, a1);
+        c2l = vfmaq_n_f32(c2l, bl, a2); c2h = vfmaq_n_f32(c2h, bh, a2);
+        c3l = vfmaq_n_f32(c3l, bl, a3); c3h = vfmaq_n_f32(c3h, bh, a3);
+
+        ptr_a += 1;
+        ptr_b += ldb;
+    }
+
+    vst1q_f32(C + 0*ldc, c0l); vst1q_f32(C + 0*ldc + 4, c0h);
+    vst1q_f32(C + 1*ldc, c1l); vst1q_f32(C + 1*ldc + 4, c1h);
+    vst1q_f32(C + 2*ldc, c2l); vst1q_f32(C + 2*ldc + 4, c2h);
+    vst1q_f32(C + 3*ldc, c3l); vst1q_f32(C + 3*ldc + 4, c3h);
+}
+#endif
+
+static microkernel_cfg_t _microkernel_atual(void) {
+    microkernel_cfg_t cfg = { 4, 8, NULL };
+
+    switch (jnn_cpu_variante()) {
+#ifdef JNN_X86
+        case JNN_CPU_AVX512:
+            cfg = (microkernel_cfg_t) { 8, 16, _microkernel_8x16_avx512 };
+        break;
+
+        case JNN_CPU_AVX2:
+            cfg = (microkernel_cfg_t) { 4, 8, _microkernel_4x8_avx2 };
+        break;
+
+        case JNN_CPU_SSE4:
+            cfg = (microkernel_cfg_t) { 4, 4, _microkernel_4x4_sse4 };
+        break;
+#endif
+#ifdef JNN_NEON
+        case JNN_CPU_NEON:
+            cfg = (microkernel_cfg_t) { 4, 8, _microkernel_4x8_neon };
+        break;
+#endif
+        default: break;
+    }
+
+    return cfg;
+}
+
 static inline void _kernel_scalar(
     const float* restrict A,
     const float* restrict B,
@@ -114,6 +289,10 @@ static void gemm(
     int ldb,
     int ldc) {
 
+    const microkernel_cfg_t uk = _microkernel_atual();
+    const int MR = uk.mr;
+    const int NR = uk.nr;
+
     #pragma omp parallel for collapse(2) schedule(static) proc_bind(close)
     for (int ii = 0; ii < M; ii += TILE_M) {
         for (int jj = 0; jj < N; jj += TILE_N) {
@@ -135,8 +314,8 @@ static void gemm(
                         const float* restrict ptr_b = B_bloco + j;
                         float* restrict ptr_c = C_bloco + i * ldc + j;
 
-                        if (_M == MR && _N == NR) {
-                            _microkernel_4x8(
+                        if (uk.kernel && _M == MR && _N == NR) {
+                            uk.kernel(
                                 ptr_a, ptr_b, ptr_c,
                                 K_bloco,
                                 lda, ldb, ldc
@@ -35,12 +35,10 @@ void im2col(
 
                     int in_x = w_min + kw - larg_pad;
                     int largura = w_max - w_min;
-                    const float* restrict x = ptr_x + in_x;
-                    float* dest = ptr_dst + w_min;
 
-                    #pragma omp simd
-                    for (int t = 0; t < largura; t++) {
-                        dest[t] = x[t];
+                    // a cópia da libc já escolhe a versão adequada para a cpu
+                    if (largura > 0) {
+                        memcpy(ptr_dst + w_min, ptr_x + in_x, sizeof(float) * largura);
                     }
                 }
             }
@@ -0,0 +1,83 @@
+#include "otm.h"
+#include "cpu.h"
+#include <math.h>
+#include <omp.h>
+
+// Abaixo disso o custo de abrir a região paralela não compensa.
+#define ADAM_MIN_PARALELO (1 << 15)
+
+// Aplica o passo do Adam no intervalo [ini, fim).
+JNN_INLINE void _adam_bloco(const adam_params_t* params, long ini, long fim) {
+    float* restrict p = params->p;
+    const float* restrict g = params->g;
+    float* restrict m = params->m;
+    float* restrict v = params->v;
+    float* restrict vmax = params->vmax;
+
+    const float lr = params->lr;
+    const float b1 = params->beta1;
+    const float b2 = params->beta2;
+    const float a1 = 1.f - b1;
+    const float a2 = 1.f - b2;
+    const float eps = params->eps;
+    const float inv1 = 1.f / params->corr1;
+    const float inv2 = 1.f / params->corr2;
+    const float dec = 1.f - lr * params->decaimento;
+    const float nest = params->nesterov ? 1.f : 0.f;
+
+    if (vmax) {
+        #pragma omp simd
+        for (long i = ini; i < fim; i++) {
+            const float gi = g[i];
+            const float mi = b1 * m[i] + a1 * gi;
+            const float vi = b2 * v[i] + a2 * gi * gi;
+            m[i] = mi;
+            v[i] = vi;
+
+            const float mc = (mi + nest * (b1 * mi + a1 * gi - mi)) * inv1;
+            const float vc = fmaxf(vi * inv2, vmax[i]);
+            vmax[i] = vc;
+
+            p[i] = p[i] * dec - lr * mc / (sqrtf(vc) + eps);
+        }
+
+    } else {
+        #pragma omp simd
+        for (long i = ini; i < fim; i++) {
+            const float gi = g[i];
+            const float mi = b1 * m[i] + a1 * gi;
+            const float vi = b2 * v[i] + a2 * gi * gi;
+            m[i] = mi;
+            v[i] = vi;
+
+            const float mc = (mi + nest * (b1 * mi + a1 * gi - mi)) * inv1;
+            const float vc = vi * inv2;
+
+            p[i] = p[i] * dec - lr * mc / (sqrtf(vc) + eps);
+        }
+    }
+}
+
+JNN_MULTIVERSAO(_adam_bloco, (const adam_params_t* params, long ini, long fim), (params, ini, fim))
+
+void cpu_adam(const adam_params_t* params) {
+    const long n = (long) params->n;
+
+    if (n < ADAM_MIN_PARALELO) {
+        JNN_DESPACHAR(_adam_bloco, (params, 0, n));
+        return;
+    }
+
+    #pragma omp parallel proc_bind(close)
+    {
+        // divisão estática, como no schedule(static)
+        const long threads = omp_get_num_threads();
+        const long bloco = (n + threads - 1) / threads;
+        const long ini = omp_get_thread_num() * bloco;
+        const long fim = (ini + bloco < n) ? (ini + bloco) : n;
+
+        if (ini < fim) {
+            JNN_DESPACHAR(_adam_bloco, (params, ini, fim));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+#include "plano.h"
+#include "acts.h"
+#include "conv2d.h"
+#include "densa.h"
+#include "maxpool.h"
+#include <string.h>
+
+// Ponteiro para o buffer no workspace, NULL quando inexistente.
+static inline float* _buf(float* ws, int off) {
+    return (off == PLANO_SEM_BUFFER) ? NULL : ws + off;
+}
+
+static inline float _bits_float(int bits) {
+    float f;
+    memcpy(&f, &bits, sizeof(float));
+    return f;
+}
+
+static void _forward_op(const int* op, float* ws, int lote) {
+    const int* a = op + 1;// argumentos
+
+    switch ((plano_op_t) op[0]) {
+        case PLANO_DENSA: {
+            densa_fwd_params_t p = {
+                .X = _buf(ws, a[0]),
+                .W = _buf(ws, a[1]),
+                .B = _buf(ws, a[2]),
+                .DST = _buf(ws, a[3]),
+                .lotes = lote,
+                .entradas = a[8],
+                .saidas = a[9],
+                .temBias = a[2] != PLANO_SEM_BUFFER,
+                .ativacao = ATV_NENHUMA
+            };
+            cpu_densa_forward(&p);
+        } break;
+
+        case PLANO_CONV2D: {
+            conv2d_fwd_params_t p = {
+                .X = _buf(ws, a[0]),
+                .K = _buf(ws, a[1]),
+                .B = _buf(ws, a[2]),
+                .DST = _buf(ws, a[3]),
+                .lotes = lote,
+                .canais = a[8],
+                .filtros = a[9],
+                .alt_x = a[10], .larg_x = a[11],
+                .alt_k = a[12], .larg_k = a[13],
+                .alt_pad = a[14], .larg_pad = a[15],
+                .temBias = a[2] != PLANO_SEM_BUFFER
+            };
+            cpu_conv2d_forward(&p);
+        } break;
+
+        case PLANO_MAXPOOL: {
+            maxpool2d_fwd_params_t p = {
+                .X = _buf(ws, a[0]),
+                .Y = _buf(ws, a[1]),
+                .lotes = lote,
+                .canais = a[4],
+                .alt_x = a[5], .larg_x = a[6],
+                .alt_y = a[7], .larg_y = a[8],
+                .alt_pool = a[9], .larg_pool = a[10],
+                .alt_std = a[11], .larg_std = a[12]
+            };
+            cpu_maxpool2d_forward(&p);
+        } break;
+
+        case PLANO_GAP: {
+            const float* x = _buf(ws, a[0]);
+            float* y = _buf(ws, a[1]);
+            const int planos = lote * a[4];
+            const int area = a[5] * a[6];
+            const float inv = 1.f / (float) area;
+
+            #pragma omp parallel for schedule(static) if (planos * area >= (1 << 15))
+            for (int i = 0; i < planos; i++) {
+                const float* xi = x + (size_t) i * area;
+                float soma = 0.f;
+                #pragma omp simd reduction(+:soma)
+                for (int j = 0; j < area; j++) soma += xi[j];
+                y[i] = soma * inv;
+            }
+        } break;
+
+        case PLANO_ATIVACAO: {
+            const jnn_ativacao_t tipo = (jnn_ativacao_t) a[5];
+
+            if (tipo == ATV_SOFTMAX) {
+                cpu_softmax(_buf(ws, a[0]), _buf(ws, a[1]), lote, a[4]);
+            } else {
+                ativacao_params_t p = {
+                    .x = _buf(ws, a[0]),
+                    .dst = _buf(ws, a[1]),
+                    .n = (size_t) lote * a[4],
+                    .tipo = tipo,
+                    .alpha = _bits_float(a[6]),
+                    .gamma = _bits_float(a[7])
+                };
+                cpu_ativacao(&p);
+            }
+        } break;
+    }
+}
+
+static void _backward_op(const int* op, float* ws, int lote) {
+    const int* a = op + 1;// argumentos
+
+    switch ((plano_op_t) op[0]) {
+        case PLANO_DENSA: {
+            densa_bwd_params_t p = {
+                .X = _buf(ws, a[0]),
+                .W = _buf(ws, a[1]),
+                .GS = _buf(ws, a[7]),
+                .GW = _buf(ws, a[5]),
+                .GB = _buf(ws, a[6]),
+                .GE = _buf(ws, a[4]),
+                .lotes = lote,
+                .entradas = a[8],
+                .saidas = a[9],
+                .temBias = a[6] != PLANO_SEM_BUFFER
+            };
+            cpu_densa_backward(&p);
+        } break;
+
+        case PLANO_CONV2D: {
+            float* ge = _buf(ws, a[4]);
+            memset(ge, 0, sizeof(float) * lote * a[8] * a[10] * a[11]);
+
+            conv2d_bwd_params_t p = {
+                .X = _buf(ws, a[0]),
+                .K = _buf(ws, a[1]),
+                .GS = _buf(ws, a[7]),
+                .GK = _buf(ws, a[5]),
+                .GE = ge,
+                .GB = _buf(ws, a[6]),
+                .lotes = lote,
+                .canais = a[8],
+                .filtros = a[9],
+                .alt_x = a[10], .larg_x = a[11],
+                .alt_k = a[12], .larg_k = a[13],
+                .alt_pad = a[14], .larg_pad = a[15],
+                .temBias = a[6] != PLANO_SEM_BUFFER
+            };
+            cpu_conv2d_backward(&p);
+        } break;
+
+        case PLANO_MAXPOOL: {
+            float* ge = _buf(ws, a[2]);
+            memset(ge, 0, sizeof(float) * lote * a[4] * a[5] * a[6]);
+
+            maxpool2d_bwd_params_t p = {
+                .X = _buf(ws, a[0]),
+                .GS = _buf(ws, a[3]),
+                .GE = ge,
+                .lotes = lote,
+                .canais = a[4],
+                .alt_x = a[5], .larg_x = a[6],
+                .alt_gs = a[7], .larg_gs = a[8],
+                .alt_pool = a[9], .larg_pool = a[10],
+                .alt_std = a[11], .larg_std = a[12]
+            };
+            cpu_maxpool2d_backward(&p);
+        } break;
+
+        case PLANO_GAP: {
+            float* ge = _buf(ws, a[2]);
+            const float* gs = _buf(ws, a[3]);
+            const int planos = lote * a[4];
+            const int area = a[5] * a[6];
+            const float inv = 1.f / (float) area;
+
+            #pragma omp parallel for schedule(static) if (planos * area >= (1 << 15))
+            for (int i = 0; i < planos; i++) {
+                float* gi = ge + (size_t) i * area;
+                const float g = gs[i] * inv;
+                #pragma omp simd
+                for (int j = 0; j < area; j++) gi[j] = g;
+            }
+        } break;
+
+        case PLANO_ATIVACAO: {
+            const jnn_ativacao_t tipo = (jnn_ativacao_t) a[5];
+
+            if (tipo == ATV_SOFTMAX) {
+                cpu_softmax_d(_buf(ws, a[1]), _buf(ws, a[3]), _buf(ws, a[2]), lote, a[4]);
+            } else {
+                ativacao_params_t p = {
+                    .x = _buf(ws, a[0]),
+                    .y = _buf(ws, a[1]),
+                    .g = _buf(ws, a[3]),
+                    .dst = _buf(ws, a[2]),
+                    .n = (size_t) lote * a[4],
+                    .tipo = tipo,
+                    .alpha = _bits_float(a[6]),
+                    .gamma = _bits_float(a[7])
+                };
+                cpu_ativacao_d(&p);
+            }
+        } break;
+    }
+}
+
+void cpu_plano_forward(const int* plano, int num_ops, float* ws, int lote) {
+    for (int i = 0; i < num_ops; i++) {
+        _forward_op(plano + i * PLANO_TAM_OP, ws, lote);
+    }
+}
+
+void cpu_plano_backward(const int* plano, int num_ops, float* ws, int lote) {
+    for (int i = num_ops - 1; i >= 0; i--) {
+        _backward_op(plano + i * PLANO_TAM_OP, ws, lote);
+    }
+}
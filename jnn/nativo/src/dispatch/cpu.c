@@ -0,0 +1,96 @@
+#include "cpu.h"
+#include <stdatomic.h>
+#include <stdlib.h>
+#include <string.h>
+
+// -1 enquanto a CPU não foi detectada.
+static _Atomic int VARIANTE_MAX = -1;
+static _Atomic int VARIANTE_ATUAL = -1;
+
+static jnn_cpu_t _detectar(void) {
+#ifdef JNN_X86
+    __builtin_cpu_init();
+
+    if (__builtin_cpu_supports("avx512f") && __builtin_cpu_supports("avx512dq") &&
+        __builtin_cpu_supports("avx2") && __builtin_cpu_supports("fma")) {
+        return JNN_CPU_AVX512;
+    }
+
+    if (__builtin_cpu_supports("avx2") && __builtin_cpu_supports("fma")) {
+        return JNN_CPU_AVX2;
+    }
+
+    if (__builtin_cpu_supports("sse4.2")) {
+        return JNN_CPU_SSE4;
+    }
+
+    return JNN_CPU_ESCALAR;
+#elif defined(JNN_NEON)
+    return JNN_CPU_NEON;
+#else
+    return JNN_CPU_ESCALAR;
+#endif
+}
+
+// Variante pedida pela variável de ambiente JNN_CPU, -1 caso não exista.
+static int _variante_ambiente(void) {
+    const char* nome = getenv("JNN_CPU");
+    if (!nome) return -1;
+
+    for (int v = JNN_CPU_ESCALAR; v <= JNN_CPU_NEON; v++) {
+        if (strcmp(nome, jnn_cpu_nome((jnn_cpu_t) v)) == 0) return v;
+    }
+
+    return -1;
+}
+
+void jnn_cpu_detectar(void) {
+    if (atomic_load(&VARIANTE_MAX) >= 0) return;
+
+    jnn_cpu_t max = _detectar();
+    atomic_store(&VARIANTE_MAX, (int) max);
+    atomic_store(&VARIANTE_ATUAL, (int) max);
+
+    int pedida = _variante_ambiente();
+    if (pedida >= 0) jnn_cpu_set_variante((jnn_cpu_t) pedida);
+}
+
+jnn_cpu_t jnn_cpu_variante(void) {
+    int v = atomic_load_explicit(&VARIANTE_ATUAL, memory_order_relaxed);
+    if (v >= 0) return (jnn_cpu_t) v;
+
+    jnn_cpu_detectar();
+    return (jnn_cpu_t) atomic_load(&VARIANTE_ATUAL);
+}
+
+jnn_cpu_t jnn_cpu_variante_max(void) {
+    jnn_cpu_detectar();
+    return (jnn_cpu_t) atomic_load(&VARIANTE_MAX);
+}
+
+jnn_cpu_t jnn_cpu_set_variante(jnn_cpu_t variante) {
+    jnn_cpu_t max = jnn_cpu_variante_max();
+    jnn_cpu_t nova;
+
+    if (max == JNN_CPU_NEON) {
+        // em arm apenas neon ou escalar
+        nova = (variante == JNN_CPU_NEON) ? JNN_CPU_NEON : JNN_CPU_ESCALAR;
+    } else {
+        // variantes x86 são ordenadas, neon não está disponível
+        nova = (variante == JNN_CPU_NEON || variante > max) ? max : variante;
+    }
+
+    atomic_store(&VARIANTE_ATUAL, (int) nova);
+
+    return nova;
+}
+
+const char* jnn_cpu_nome(jnn_cpu_t variante) {
+    switch (variante) {
+        case JNN_CPU_SSE4:   return "sse4";
+        case JNN_CPU_AVX2:   return "avx2";
+        case JNN_CPU_AVX512: return "avx512";
+        case JNN_CPU_NEON:   return "neon";
+        default:             return "escalar";
+    }
+}
@@ -80,6 +80,56 @@ void jnn_batchnorm2d_bw_dispatcher(const bn2d_bwd_params_t* p) {
     }  
 }
 
+void jnn_adam_dispatcher(const adam_params_t* p) {
+    switch (BACKEND_ATUAL) {
+        case JNN_BACKEND_CPU:
+            cpu_adam(p);
+        break;
+            
+        default: cpu_adam(p);
+    }  
+}
+
+void jnn_densa_fw_dispatcher(const densa_fwd_params_t* p) {
+    switch (BACKEND_ATUAL) {
+        case JNN_BACKEND_CPU:
+            cpu_densa_forward(p);
+        break;
+            
+        default: cpu_densa_forward(p);
+    }  
+}
+
+void jnn_densa_bw_dispatcher(const densa_bwd_params_t* p) {
+    switch (BACKEND_ATUAL) {
+        case JNN_BACKEND_CPU:
+            cpu_densa_backward(p);
+        break;
+            
+        default: cpu_densa_backward(p);
+    }  
+}
+
+void jnn_plano_fw_dispatcher(const int* plano, int num_ops, float* ws, int lote) {
+    switch (BACKEND_ATUAL) {
+        case JNN_BACKEND_CPU:
+            cpu_plano_forward(plano, num_ops, ws, lote);
+        break;
+            
+        default: cpu_plano_forward(plano, num_ops, ws, lote);
+    }  
+}
+
+void jnn_plano_bw_dispatcher(const int* plano, int num_ops, float* ws, int lote) {
+    switch (BACKEND_ATUAL) {
+        case JNN_BACKEND_CPU:
+            cpu_plano_backward(plano, num_ops, ws, lote);
+        break;
+            
+        default: cpu_plano_backward(plano, num_ops, ws, lote);
+    }  
+}
+
 // ativações
 
 void jnn_relu(float* restrict src, float* restrict dst, int n) {
@@ -96,4 +146,44 @@ void jnn_sigmoid(float* restrict src, float* restrict dst, int n) {
 
 void jnn_sigmoid_d(float* restrict sig, float* restrict g, float* restrict dst, int n) {
     sigmoid_d(sig, g, dst, n);
-}
\ No newline at end of file
+}
+
+void jnn_ativacao_dispatcher(const ativacao_params_t* p) {
+    switch (BACKEND_ATUAL) {
+        case JNN_BACKEND_CPU:
+            cpu_ativacao(p);
+        break;
+
+        default: cpu_ativacao(p);
+    }
+}
+
+void jnn_ativacao_d_dispatcher(const ativacao_params_t* p) {
+    switch (BACKEND_ATUAL) {
+        case JNN_BACKEND_CPU:
+            cpu_ativacao_d(p);
+        break;
+
+        default: cpu_ativacao_d(p);
+    }
+}
+
+void jnn_softmax_dispatcher(const float* x, float* dst, int linhas, int tam) {
+    switch (BACKEND_ATUAL) {
+        case JNN_BACKEND_CPU:
+            cpu_softmax(x, dst, linhas, tam);
+        break;
+
+        default: cpu_softmax(x, dst, linhas, tam);
+    }
+}
+
+void jnn_softmax_d_dispatcher(const float* y, const float* g, float* dst, int linhas, int tam) {
+    switch (BACKEND_ATUAL) {
+        case JNN_BACKEND_CPU:
+            cpu_softmax_d(y, g, dst, linhas, tam);
+        break;
+
+        default: cpu_softmax_d(y, g, dst, linhas, tam);
+    }
+}
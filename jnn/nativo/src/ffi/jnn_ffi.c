@@ -0,0 +1,148 @@
+#include "jnn_ffi.h"
+#include "dispatcher.h"
+
+JNN_FFI_API void jnn_ffi_matmul(
+    float* A, int std_a_0, int std_a_1,
+    float* B, int std_b_0, int std_b_1,
+    float* C, int std_c_0, int std_c_1,
+    int lin_a, int col_a, int col_b
+) {
+    gemm_params_t p = {
+        .A = A,
+        .B = B,
+        .C = C,
+
+        .std_a_0 = std_a_0, .std_a_1 = std_a_1,
+        .std_b_0 = std_b_0, .std_b_1 = std_b_1,
+        .std_c_0 = std_c_0, .std_c_1 = std_c_1,
+
+        .lin_a = lin_a,
+        .col_a = col_a,
+        .col_b = col_b
+    };
+
+    jnn_matmul_dispatcher(&p);
+}
+
+JNN_FFI_API void jnn_ffi_conv2d_forward(
+    const float* X, const float* K, const float* B, float* DST,
+    int tem_bias,
+    int lotes, int canais, int filtros,
+    int alt_x, int larg_x,
+    int alt_k, int larg_k,
+    int alt_pad, int larg_pad
+) {
+    conv2d_fwd_params_t p = {
+        .X = X,
+        .K = K,
+        .B = tem_bias ? B : NULL,
+        .DST = DST,
+
+        .lotes   = lotes,
+        .canais  = canais,
+        .filtros = filtros,
+
+        .alt_x  = alt_x,
+        .larg_x = larg_x,
+        .alt_k  = alt_k,
+        .larg_k = larg_k,
+        .alt_pad = alt_pad,
+        .larg_pad = larg_pad,
+
+        .temBias = tem_bias
+    };
+
+    jnn_conv2d_fw_dispatcher(&p);
+}
+
+JNN_FFI_API void jnn_ffi_conv2d_backward(
+    const float* X, const float* K, const float* GS,
+    float* GK, float* GB, float* GE,
+    int tem_bias,
+    int lotes, int canais, int filtros,
+    int alt_x, int larg_x,
+    int alt_k, int larg_k,
+    int alt_pad, int larg_pad
+) {
+    conv2d_bwd_params_t p = {
+        .X  = X,
+        .K  = K,
+        .GS = GS,
+        .GK = GK,
+        .GE = GE,
+        .GB = tem_bias ? GB : NULL,
+
+        .lotes   = lotes,
+        .canais  = canais,
+        .filtros = filtros,
+
+        .alt_x  = alt_x,
+        .larg_x = larg_x,
+        .alt_k  = alt_k,
+        .larg_k = larg_k,
+        .alt_pad = alt_pad,
+        .larg_pad = larg_pad,
+
+        .temBias = tem_bias
+    };
+
+    jnn_conv2d_bw_dispatcher(&p);
+}
+
+JNN_FFI_API void jnn_ffi_maxpool2d_forward(
+    const float* X, float* Y,
+    int lotes, int canais,
+    int alt_x, int larg_x,
+    int alt_pool, int larg_pool,
+    int alt_std, int larg_std
+) {
+    maxpool2d_fwd_params_t p = {
+        .X = X,
+        .Y = Y,
+        .lotes = lotes,
+        .canais = canais,
+        .alt_x = alt_x,
+        .larg_x = larg_x,
+        .alt_pool = alt_pool,
+        .larg_pool = larg_pool,
+        .alt_std = alt_std,
+        .larg_std = larg_std
+    };
+
+    jnn_maxpool2d_fw_dispatcher(&p);
+}
+
+JNN_FFI_API void jnn_ffi_maxpool2d_backward(
+    const float* X, const float* GS, float* GE,
+    int lotes, int canais,
+    int alt_x, int larg_x,
+    int alt_gs, int larg_gs,
+    int alt_pool, int larg_pool,
+    int alt_std, int larg_std
+) {
+    maxpool2d_bwd_params_t p = {
+        .X = X,
+        .GS = GS,
+        .GE = GE,
+        .lotes = lotes,
+        .canais = canais,
+        .alt_x = alt_x,
+        .larg_x = larg_x,
+        .alt_gs = alt_gs,
+        .larg_gs = larg_gs,
+        .alt_pool = alt_pool,
+        .larg_pool = larg_pool,
+        .alt_std = alt_std,
+        .larg_std = larg_std,
+    };
+
+    jnn_maxpool2d_bw_dispatcher(&p);
+}
+
+JNN_FFI_API void jnn_ffi_plano_forward(const int* plano, int num_ops, float* ws, int lote) {
+    jnn_plano_fw_dispatcher(plano, num_ops, ws, lote);
+}
+
+JNN_FFI_API void jnn_ffi_plano_backward(const int* plano, int num_ops, float* ws, int lote) {
+    jnn_plano_bw_dispatcher(plano, num_ops, ws, lote);
+}
@@ -1,15 +1,17 @@
 #include <jni.h>
 #include <omp.h>
+#include <string.h>
 
 #include "arena.h"
 #include "common.h"
 #include "dispatcher.h"
+#include "cpu.h"
 #include "gemm.h"
 #include "conv2d.h"
 #include "maxpool.h"
 #include "batchnorm2d.h"
 
-#define JNI_ARENA_CAP_INICIAL_MB ARENA_CAP_MB(128)
+#define JNI_ARENA_CAP_INICIAL_MB ARENA_CAP_MB(16)
 
 static inline int jnn_native_num_threads() {
     int p = omp_get_num_procs();
@@ -22,8 +24,10 @@ JNI_OnLoad(JavaVM* vm, void* reserved) {
     (void) reserved;
 
     omp_set_num_threads(jnn_native_num_threads());
+    jnn_cpu_detectar();
 
-    if (!mem_arena.data) arena_init(&mem_arena, JNI_ARENA_CAP_INICIAL_MB);
+    // as arenas são criadas por thread, no primeiro uso
+    arena_set_cap_padrao(JNI_ARENA_CAP_INICIAL_MB);
 
     return JNI_VERSION_1_8;
 }
@@ -33,7 +37,22 @@ Java_jnn_core_JNNnative_setTamArena(JNIEnv* env, jclass cls, jint size_bytes) {
     (void) env;
     (void) cls;
 
-    arena_init(&mem_arena, size_bytes);
+    if (size_bytes < 1) return;
+
+    arena_set_cap_padrao((size_t) size_bytes);
+
+    // arena da thread atual reconfigurada apenas se não estiver em uso
+    if (arena_checkpoint(&mem_arena) == 0) {
+        arena_init(&mem_arena, (size_t) size_bytes);
+    }
+}
+
+JNIEXPORT void JNICALL
+Java_jnn_core_JNNnative_liberarArena(JNIEnv* env, jclass cls) {
+    (void) env;
+    (void) cls;
+
+    arena_liberar(&mem_arena);
 }
 
 JNIEXPORT void JNICALL
@@ -53,6 +72,32 @@ Java_jnn_core_JNNnative_setBackend(JNIEnv * env, jclass cls, jint backend) {
     jnn_set_backend(backend);
 }
 
+JNIEXPORT jstring JNICALL
+Java_jnn_core_JNNnative_variante(JNIEnv* env, jclass cls) {
+    (void) cls;
+
+    return (*env)->NewStringUTF(env, jnn_cpu_nome(jnn_cpu_variante()));
+}
+
+JNIEXPORT jstring JNICALL
+Java_jnn_core_JNNnative_setVariante(JNIEnv* env, jclass cls, jstring nome) {
+    (void) cls;
+
+    const char* str = (*env)->GetStringUTFChars(env, nome, NULL);
+    if (!str) return NULL;
+
+    for (int v = JNN_CPU_ESCALAR; v <= JNN_CPU_NEON; v++) {
+        if (strcmp(str, jnn_cpu_nome((jnn_cpu_t) v)) == 0) {
+            jnn_cpu_set_variante((jnn_cpu_t) v);
+            break;
+        }
+    }
+
+    (*env)->ReleaseStringUTFChars(env, nome, str);
+
+    return (*env)->NewStringUTF(env, jnn_cpu_nome(jnn_cpu_variante()));
+}
+
 JNIEXPORT void JNICALL
 Java_jnn_core_JNNnative_matmul(
     JNIEnv* env, jclass cls,
@@ -91,11 +136,11 @@ Java_jnn_core_JNNnative_matmul(
 JNIEXPORT void JNICALL
 Java_jnn_core_JNNnative_conv2dForward(
     JNIEnv* env, jclass cls,
-    jfloatArray X_arr,
-    jfloatArray K_arr,
-    jfloatArray B_arr,
+    jfloatArray X_arr, jint off_x,
+    jfloatArray K_arr, jint off_k,
+    jfloatArray B_arr, jint off_b,
     jboolean temBias,
-    jfloatArray DST_arr,
+    jfloatArray DST_arr, jint off_dst,
     jint lotes, 
     jint canais, 
     jint filtros,
@@ -108,16 +153,19 @@ Java_jnn_core_JNNnative_conv2dForward(
 ) {
     (void) cls;
 
+    // com parâmetros compactados, K e B são views do mesmo array
+    const jboolean b_em_k = temBias && (*env)->IsSameObject(env, B_arr, K_arr);
+
     float* restrict X = (*env)->GetPrimitiveArrayCritical(env, X_arr, NULL);
     float* restrict K = (*env)->GetPrimitiveArrayCritical(env, K_arr, NULL);
     float* restrict DST = (*env)->GetPrimitiveArrayCritical(env, DST_arr, NULL);
-    float* restrict B = temBias ? (*env)->GetPrimitiveArrayCritical(env, B_arr, NULL) : NULL;
+    float* restrict B = !temBias ? NULL : b_em_k ? K : (*env)->GetPrimitiveArrayCritical(env, B_arr, NULL);
 
     conv2d_fwd_params_t p = {
-        .X = X,
-        .K = K,
-        .B = B,
-        .DST = DST,
+        .X = X + off_x,
+        .K = K + off_k,
+        .B = temBias ? B + off_b : NULL,
+        .DST = DST + off_dst,
 
         .lotes   = lotes,
         .canais  = canais,
@@ -139,7 +187,7 @@ Java_jnn_core_JNNnative_conv2dForward(
     (*env)->ReleasePrimitiveArrayCritical(env, K_arr, K, JNI_ABORT);
     (*env)->ReleasePrimitiveArrayCritical(env, DST_arr, DST, 0);
 
-    if (temBias) {
+    if (temBias && !b_em_k) {
         (*env)->ReleasePrimitiveArrayCritical(env, B_arr, B, JNI_ABORT);
     }
 }
@@ -147,13 +195,13 @@ Java_jnn_core_JNNnative_conv2dForward(
 JNIEXPORT void JNICALL
 Java_jnn_core_JNNnative_conv2dBackward(
     JNIEnv* env, jclass cls,
-    jfloatArray X_arr,
-    jfloatArray K_arr,
-    jfloatArray GS_arr,
-    jfloatArray GK_arr,
-    jfloatArray GB_arr, 
+    jfloatArray X_arr, jint off_x,
+    jfloatArray K_arr, jint off_k,
+    jfloatArray GS_arr, jint off_gs,
+    jfloatArray GK_arr, jint off_gk,
+    jfloatArray GB_arr, jint off_gb,
     jboolean temBias,
-    jfloatArray GE_arr,
+    jfloatArray GE_arr, jint off_ge,
     jint lotes, 
     jint canais, 
     jint filtros,
@@ -166,20 +214,24 @@ Java_jnn_core_JNNnative_conv2dBackward(
 ) {
     (void) cls;
 
+    // com parâmetros compactados, GK e GB são views do mesmo array, e
+    // liberar duas cópias dele descartaria a escrita de uma delas
+    const jboolean gb_em_gk = temBias && (*env)->IsSameObject(env, GB_arr, GK_arr);
+
     float* X  = (*env)->GetPrimitiveArrayCritical(env, X_arr, NULL);
     float* K  = (*env)->GetPrimitiveArrayCritical(env, K_arr, NULL);
     float* GS = (*env)->GetPrimitiveArrayCritical(env, GS_arr, NULL);
     float* GK = (*env)->GetPrimitiveArrayCritical(env, GK_arr, NULL);
     float* GE = (*env)->GetPrimitiveArrayCritical(env, GE_arr, NULL);
-    float* GB = temBias ? (*env)->GetPrimitiveArrayCritical(env, GB_arr, NULL) : NULL;
+    float* GB = !temBias ? NULL : gb_em_gk ? GK : (*env)->GetPrimitiveArrayCritical(env, GB_arr, NULL);
 
     conv2d_bwd_params_t p = {
-        .X  = X,
-        .K  = K,
-        .GS = GS,
-        .GK = GK,
-        .GE = GE,
-        .GB = GB,
+        .X  = X + off_x,
+        .K  = K + off_k,
+        .GS = GS + off_gs,
+        .GK = GK + off_gk,
+        .GE = GE + off_ge,
+        .GB = temBias ? GB + off_gb : NULL,
 
         .lotes   = lotes,
         .canais  = canais,
@@ -203,7 +255,7 @@ Java_jnn_core_JNNnative_conv2dBackward(
     (*env)->ReleasePrimitiveArrayCritical(env, GK_arr, GK, 0);
     (*env)->ReleasePrimitiveArrayCritical(env, GE_arr, GE, 0);
 
-    if (temBias) {
+    if (temBias && !gb_em_gk) {
         (*env)->ReleasePrimitiveArrayCritical(env, GB_arr, GB, 0);
     }
 }
@@ -211,8 +263,8 @@ Java_jnn_core_JNNnative_conv2dBackward(
 JNIEXPORT void JNICALL
 Java_jnn_core_JNNnative_maxPool2dForward(
     JNIEnv* env, jclass cls,
-    jfloatArray x_arr,
-    jfloatArray y_arr,
+    jfloatArray x_arr, jint off_x,
+    jfloatArray y_arr, jint off_y,
     jint lotes, 
     jint canais,
     jint alt_x, 
@@ -228,8 +280,8 @@ Java_jnn_core_JNNnative_maxPool2dForward(
     float* Y = (*env)->GetPrimitiveArrayCritical(env, y_arr, NULL);
 
     maxpool2d_fwd_params_t p = {
-        .X = X,
-        .Y = Y,
+        .X = X + off_x,
+        .Y = Y + off_y,
         .lotes = lotes,
         .canais = canais,
         .alt_x = alt_x,
@@ -249,9 +301,9 @@ Java_jnn_core_JNNnative_maxPool2dForward(
 JNIEXPORT void JNICALL
 Java_jnn_core_JNNnative_maxPool2dBackward(
     JNIEnv* env, jclass cls,
-    jfloatArray x_arr,
-    jfloatArray gs_arr,
-    jfloatArray ge_arr,
+    jfloatArray x_arr, jint off_x,
+    jfloatArray gs_arr, jint off_gs,
+    jfloatArray ge_arr, jint off_ge,
     jint lotes, 
     jint canais,
     jint alt_x, 
@@ -270,9 +322,9 @@ Java_jnn_core_JNNnative_maxPool2dBackward(
     float* GE = (*env)->GetPrimitiveArrayCritical(env, ge_arr, NULL);
 
     maxpool2d_bwd_params_t p = {
-        .X = X,
-        .GS = GS,
-        .GE = GE,
+        .X = X + off_x,
+        .GS = GS + off_gs,
+        .GE = GE + off_ge,
         .lotes = lotes,
         .canais = canais,
         .alt_x = alt_x,
@@ -295,10 +347,10 @@ Java_jnn_core_JNNnative_maxPool2dBackward(
 JNIEXPORT void JNICALL Java_jnn_core_JNNnative_batchNorm2DForward(
     JNIEnv *env,
     jclass cls, 
-    jfloatArray x, 
-    jfloatArray y, 
-    jfloatArray gamma, 
-    jfloatArray beta, 
+    jfloatArray x, jint off_x,
+    jfloatArray y, jint off_y,
+    jfloatArray gamma, jint off_gamma,
+    jfloatArray beta, jint off_beta,
     jfloatArray media_movel, 
     jfloatArray variancia_movel,
     jfloatArray media,
@@ -314,10 +366,13 @@ JNIEXPORT void JNICALL Java_jnn_core_JNNnative_batchNorm2DForward(
 ) {
     (void) cls;
 
+    // com parâmetros compactados, gamma e beta são views do mesmo array
+    const jboolean beta_em_gamma = (*env)->IsSameObject(env, beta, gamma);
+
     float* restrict X = (*env)->GetPrimitiveArrayCritical(env, x, NULL);
     float* restrict Y = (*env)->GetPrimitiveArrayCritical(env, y, NULL);
     float* restrict G = (*env)->GetPrimitiveArrayCritical(env, gamma, NULL);
-    float* restrict B = (*env)->GetPrimitiveArrayCritical(env, beta, NULL);
+    float* restrict B = beta_em_gamma ? G : (*env)->GetPrimitiveArrayCritical(env, beta, NULL);
     float* restrict MM = (*env)->GetPrimitiveArrayCritical(env, media_movel, NULL);
     float* restrict VM = (*env)->GetPrimitiveArrayCritical(env, variancia_movel, NULL);
     float* restrict MD = (*env)->GetPrimitiveArrayCritical(env, media, NULL);
@@ -325,10 +380,10 @@ JNIEXPORT void JNICALL Java_jnn_core_JNNnative_batchNorm2DForward(
     float* restrict XN = (*env)->GetPrimitiveArrayCritical(env, x_norm, NULL);
 
     bn2d_fwd_params_t p = {
-        .x = X,
-        .y = Y,
-        .gamma = G,
-        .beta = B,
+        .x = X + off_x,
+        .y = Y + off_y,
+        .gamma = G + off_gamma,
+        .beta = B + off_beta,
         .media_movel = MM,
         .variancia_movel = VM,
         .media = MD,
@@ -350,7 +405,9 @@ JNIEXPORT void JNICALL Java_jnn_core_JNNnative_batchNorm2DForward(
 
     (*env)->ReleasePrimitiveArrayCritical(env, x, X, JNI_ABORT);
     (*env)->ReleasePrimitiveArrayCritical(env, gamma, G, JNI_ABORT);
-    (*env)->ReleasePrimitiveArrayCritical(env, beta, B, JNI_ABORT);
+    if (!beta_em_gamma) {
+        (*env)->ReleasePrimitiveArrayCritical(env, beta, B, JNI_ABORT);
+    }
 
     (*env)->ReleasePrimitiveArrayCritical(env, y, Y, 0);
 
@@ -376,11 +433,11 @@ JNIEXPORT void JNICALL Java_jnn_core_JNNnative_batchNorm2DBackward(
     jclass cls,
     jfloatArray x_norm,
     jfloatArray var,
-    jfloatArray gamma,
-    jfloatArray ge,
-    jfloatArray gs,
-    jfloatArray gg,
-    jfloatArray gb,
+    jfloatArray gamma, jint off_gamma,
+    jfloatArray ge, jint off_ge,
+    jfloatArray gs, jint off_gs,
+    jfloatArray gg, jint off_gg,
+    jfloatArray gb, jint off_gb,
     jint lotes,
     jint canais,
     jint alt_x,
@@ -389,22 +446,26 @@ JNIEXPORT void JNICALL Java_jnn_core_JNNnative_batchNorm2DBackward(
 ) {
     (void) cls;
 
+    // com parâmetros compactados, os gradientes de gamma e beta são views
+    // do mesmo array, e liberar duas cópias dele descartaria uma das escritas
+    const jboolean gb_em_gg = (*env)->IsSameObject(env, gb, gg);
+
     float* restrict XN = (*env)->GetPrimitiveArrayCritical(env, x_norm, NULL);
     float* restrict VAR = (*env)->GetPrimitiveArrayCritical(env, var, NULL);
     float* restrict GAMMA = (*env)->GetPrimitiveArrayCritical(env, gamma, NULL);
     float* restrict GE = (*env)->GetPrimitiveArrayCritical(env, ge, NULL);
     float* restrict GS = (*env)->GetPrimitiveArrayCritical(env, gs, NULL);
     float* restrict GG = (*env)->GetPrimitiveArrayCritical(env, gg, NULL);
-    float* restrict GB = (*env)->GetPrimitiveArrayCritical(env, gb, NULL);
+    float* restrict GB = gb_em_gg ? GG : (*env)->GetPrimitiveArrayCritical(env, gb, NULL);
 
     bn2d_bwd_params_t p = {
         .x_norm = XN,
         .var = VAR,
-        .gamma = GAMMA,
-        .ge = GE,
-        .gs = GS,
-        .gg = GG,
-        .gb = GB,
+        .gamma = GAMMA + off_gamma,
+        .ge = GE + off_ge,
+        .gs = GS + off_gs,
+        .gg = GG + off_gg,
+        .gb = GB + off_gb,
 
         .lotes = lotes,
         .canais = canais,
@@ -423,7 +484,9 @@ JNIEXPORT void JNICALL Java_jnn_core_JNNnative_batchNorm2DBackward(
     
     (*env)->ReleasePrimitiveArrayCritical(env, ge, GE, 0);
     (*env)->ReleasePrimitiveArrayCritical(env, gg, GG, 0);
-    (*env)->ReleasePrimitiveArrayCritical(env, gb, GB, 0);
+    if (!gb_em_gg) {
+        (*env)->ReleasePrimitiveArrayCritical(env, gb, GB, 0);
+    }
 
 }
 
@@ -505,4 +568,264 @@ JNIEXPORT void JNICALL Java_jnn_core_JNNnative_sigmoidd(
     (*env)->ReleasePrimitiveArrayCritical(env, sig, (void*)SIG, JNI_ABORT);
     (*env)->ReleasePrimitiveArrayCritical(env, g, (void*)G, JNI_ABORT);
     (*env)->ReleasePrimitiveArrayCritical(env, dst, DST, 0);
-}
\ No newline at end of file
+}
+
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_adam(
+    JNIEnv* env,
+    jclass cls,
+    jfloatArray p, jint off_p,
+    jfloatArray g, jint off_g,
+    jfloatArray m, jfloatArray v, jfloatArray vmax, jint off_m,
+    jint n,
+    jfloat lr, jfloat beta1, jfloat beta2, jfloat eps,
+    jfloat corr1, jfloat corr2,
+    jfloat decaimento,
+    jboolean nesterov
+) {
+    (void) cls;
+
+    float* P    = (*env)->GetPrimitiveArrayCritical(env, p, NULL);
+    float* G    = (*env)->GetPrimitiveArrayCritical(env, g, NULL);
+    float* M    = (*env)->GetPrimitiveArrayCritical(env, m, NULL);
+    float* V    = (*env)->GetPrimitiveArrayCritical(env, v, NULL);
+    float* VMAX = vmax ? (*env)->GetPrimitiveArrayCritical(env, vmax, NULL) : NULL;
+
+    adam_params_t params = {
+        .p = P + off_p,
+        .g = G + off_g,
+        .m = M + off_m,
+        .v = V + off_m,
+        .vmax = VMAX ? VMAX + off_m : NULL,
+
+        .n = (size_t) n,
+
+        .lr = lr,
+        .beta1 = beta1,
+        .beta2 = beta2,
+        .eps = eps,
+        .corr1 = corr1,
+        .corr2 = corr2,
+        .decaimento = decaimento,
+
+        .nesterov = nesterov,
+    };
+
+    jnn_adam_dispatcher(&params);
+
+    if (VMAX) (*env)->ReleasePrimitiveArrayCritical(env, vmax, VMAX, 0);
+    (*env)->ReleasePrimitiveArrayCritical(env, v, V, 0);
+    (*env)->ReleasePrimitiveArrayCritical(env, m, M, 0);
+    (*env)->ReleasePrimitiveArrayCritical(env, g, (void*)G, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, p, P, 0);
+}
+
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_ativacao(
+    JNIEnv* env,
+    jclass cls,
+    jint tipo, jfloat alpha, jfloat gamma,
+    jfloatArray x, jint off_x,
+    jfloatArray dst, jint off_dst,
+    jint n
+) {
+    (void) cls;
+
+    float* X   = (*env)->GetPrimitiveArrayCritical(env, x, NULL);
+    float* DST = (*env)->GetPrimitiveArrayCritical(env, dst, NULL);
+
+    ativacao_params_t params = {
+        .x = X + off_x,
+        .dst = DST + off_dst,
+        .n = (size_t) n,
+        .tipo = (jnn_ativacao_t) tipo,
+        .alpha = alpha,
+        .gamma = gamma
+    };
+
+    jnn_ativacao_dispatcher(&params);
+
+    (*env)->ReleasePrimitiveArrayCritical(env, x, X, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, dst, DST, 0);
+}
+
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_ativacaod(
+    JNIEnv* env,
+    jclass cls,
+    jint tipo, jfloat alpha, jfloat gamma,
+    jfloatArray x, jint off_x,
+    jfloatArray y, jint off_y,
+    jfloatArray g, jint off_g,
+    jfloatArray dst, jint off_dst,
+    jint n
+) {
+    (void) cls;
+
+    float* X   = (*env)->GetPrimitiveArrayCritical(env, x, NULL);
+    float* Y   = (*env)->GetPrimitiveArrayCritical(env, y, NULL);
+    float* G   = (*env)->GetPrimitiveArrayCritical(env, g, NULL);
+    float* DST = (*env)->GetPrimitiveArrayCritical(env, dst, NULL);
+
+    ativacao_params_t params = {
+        .x = X + off_x,
+        .y = Y + off_y,
+        .g = G + off_g,
+        .dst = DST + off_dst,
+        .n = (size_t) n,
+        .tipo = (jnn_ativacao_t) tipo,
+        .alpha = alpha,
+        .gamma = gamma
+    };
+
+    jnn_ativacao_d_dispatcher(&params);
+
+    (*env)->ReleasePrimitiveArrayCritical(env, x, X, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, y, Y, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, g, G, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, dst, DST, 0);
+}
+
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_softmax(
+    JNIEnv* env,
+    jclass cls,
+    jfloatArray x, jint off_x,
+    jfloatArray dst, jint off_dst,
+    jint linhas, jint tam
+) {
+    (void) cls;
+
+    float* X   = (*env)->GetPrimitiveArrayCritical(env, x, NULL);
+    float* DST = (*env)->GetPrimitiveArrayCritical(env, dst, NULL);
+
+    jnn_softmax_dispatcher(X + off_x, DST + off_dst, linhas, tam);
+
+    (*env)->ReleasePrimitiveArrayCritical(env, x, X, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, dst, DST, 0);
+}
+
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_softmaxd(
+    JNIEnv* env,
+    jclass cls,
+    jfloatArray y, jint off_y,
+    jfloatArray g, jint off_g,
+    jfloatArray dst, jint off_dst,
+    jint linhas, jint tam
+) {
+    (void) cls;
+
+    float* Y   = (*env)->GetPrimitiveArrayCritical(env, y, NULL);
+    float* G   = (*env)->GetPrimitiveArrayCritical(env, g, NULL);
+    float* DST = (*env)->GetPrimitiveArrayCritical(env, dst, NULL);
+
+    jnn_softmax_d_dispatcher(Y + off_y, G + off_g, DST + off_dst, linhas, tam);
+
+    (*env)->ReleasePrimitiveArrayCritical(env, y, Y, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, g, G, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, dst, DST, 0);
+}
+
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_densaForward(
+    JNIEnv* env,
+    jclass cls,
+    jfloatArray X_arr, jint off_x,
+    jfloatArray W_arr, jint off_w,
+    jfloatArray B_arr, jint off_b,
+    jboolean temBias,
+    jfloatArray DST_arr, jint off_dst,
+    jint lotes,
+    jint entradas,
+    jint saidas,
+    jint ativacao, jfloat alpha, jfloat gamma
+) {
+    (void) cls;
+
+    // com parâmetros compactados, W e B são views do mesmo array e ele
+    // é fixado uma única vez (verificado antes da região crítica)
+    const jboolean b_em_w = temBias && (*env)->IsSameObject(env, B_arr, W_arr);
+
+    float* X   = (*env)->GetPrimitiveArrayCritical(env, X_arr, NULL);
+    float* W   = (*env)->GetPrimitiveArrayCritical(env, W_arr, NULL);
+    float* DST = (*env)->GetPrimitiveArrayCritical(env, DST_arr, NULL);
+    float* B   = !temBias ? NULL : b_em_w ? W : (*env)->GetPrimitiveArrayCritical(env, B_arr, NULL);
+
+    densa_fwd_params_t p = {
+        .X = X + off_x,
+        .W = W + off_w,
+        .B = temBias ? B + off_b : NULL,
+        .DST = DST + off_dst,
+
+        .lotes    = lotes,
+        .entradas = entradas,
+        .saidas   = saidas,
+
+        .temBias = temBias,
+
+        .ativacao = (jnn_ativacao_t) ativacao,
+        .alpha = alpha,
+        .gamma = gamma
+    };
+
+    jnn_densa_fw_dispatcher(&p);
+
+    (*env)->ReleasePrimitiveArrayCritical(env, X_arr, X, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, W_arr, W, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, DST_arr, DST, 0);
+
+    if (temBias && !b_em_w) {
+        (*env)->ReleasePrimitiveArrayCritical(env, B_arr, B, JNI_ABORT);
+    }
+}
+
+JNIEXPORT void JNICALL Java_jnn_core_JNNnative_densaBackward(
+    JNIEnv* env,
+    jclass cls,
+    jfloatArray X_arr, jint off_x,
+    jfloatArray W_arr, jint off_w,
+    jfloatArray GS_arr, jint off_gs,
+    jfloatArray GW_arr, jint off_gw,
+    jfloatArray GB_arr, jint off_gb,
+    jboolean temBias,
+    jfloatArray GE_arr, jint off_ge,
+    jint lotes,
+    jint entradas,
+    jint saidas
+) {
+    (void) cls;
+
+    // com parâmetros compactados, GW e GB são views do mesmo array, e
+    // liberar duas cópias dele descartaria a escrita de uma delas
+    const jboolean gb_em_gw = temBias && (*env)->IsSameObject(env, GB_arr, GW_arr);
+
+    float* X  = (*env)->GetPrimitiveArrayCritical(env, X_arr, NULL);
+    float* W  = (*env)->GetPrimitiveArrayCritical(env, W_arr, NULL);
+    float* GS = (*env)->GetPrimitiveArrayCritical(env, GS_arr, NULL);
+    float* GW = (*env)->GetPrimitiveArrayCritical(env, GW_arr, NULL);
+    float* GE = (*env)->GetPrimitiveArrayCritical(env, GE_arr, NULL);
+    float* GB = !temBias ? NULL : gb_em_gw ? GW : (*env)->GetPrimitiveArrayCritical(env, GB_arr, NULL);
+
+    densa_bwd_params_t p = {
+        .X  = X + off_x,
+        .W  = W + off_w,
+        .GS = GS + off_gs,
+
+        .GW = GW + off_gw,
+        .GB = temBias ? GB + off_gb : NULL,
+        .GE = GE + off_ge,
+
+        .lotes    = lotes,
+        .entradas = entradas,
+        .saidas   = saidas,
+
+        .temBias = temBias
+    };
+
+    jnn_densa_bw_dispatcher(&p);
+
+    (*env)->ReleasePrimitiveArrayCritical(env, X_arr, X, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, W_arr, W, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, GS_arr, GS, JNI_ABORT);
+    (*env)->ReleasePrimitiveArrayCritical(env, GW_arr, GW, 0);
+    (*env)->ReleasePrimitiveArrayCritical(env, GE_arr, GE, 0);
+
+    if (temBias && !gb_em_gw) {
+        (*env)->ReleasePrimitiveArrayCritical(env, GB_arr, GB, 0);
+    }
+}
@@ -1,38 +1,122 @@
 #include "arena.h"
+#include <stdatomic.h>
 #include <stdint.h>
 #include <stdlib.h>
 #include <string.h>
 #include <stdio.h>
 
+// Capacidade inicial usada por arenas criadas sob demanda.
+static _Atomic size_t _cap_padrao = ARENA_CAP_MB(16);
+
 static inline size_t alinhar(size_t x, size_t alinhamento) {
     return (x + (alinhamento - 1)) & ~(alinhamento - 1);
 }
 
-void arena_init(arena_t* arena, size_t capacidade) {
-    arena->capacidade = alinhar(capacidade, ARENA_ALINHAMENTO);
-    arena->offset = 0;
-    arena->data = _aligned_malloc(arena->capacidade, ARENA_ALINHAMENTO);
-    
-    if (!arena->data) {
+static inline void* _alloc_alinhado(size_t tam, size_t alinhamento) {
+#ifdef _WIN32
+    return _aligned_malloc(tam, alinhamento);
+#else
+    return aligned_alloc(alinhamento, tam);// tam já é múltiplo do alinhamento
+#endif
+}
+
+static inline void _free_alinhado(void* ptr) {
+#ifdef _WIN32
+    _aligned_free(ptr);
+#else
+    free(ptr);
+#endif
+}
+
+static arena_bloco_t* _novo_bloco(size_t capacidade) {
+    arena_bloco_t* bloco = malloc(sizeof(arena_bloco_t));
+    unsigned char* data = bloco ? _alloc_alinhado(capacidade, ARENA_ALINHAMENTO) : NULL;
+
+    if (!data) {
         fprintf(stderr, "RuntimeError: Falha ao alocar dados da arena.\n");
         exit(EXIT_FAILURE);
     }
+
+    bloco->ant = NULL;
+    bloco->prox = NULL;
+    bloco->base = 0;
+    bloco->capacidade = capacidade;
+    bloco->data = data;
+
+    return bloco;
+}
+
+// Libera o bloco e todos os seguintes, retornando a capacidade liberada.
+static size_t _liberar_blocos(arena_bloco_t* bloco) {
+    size_t liberado = 0;
+
+    while (bloco) {
+        arena_bloco_t* prox = bloco->prox;
+        liberado += bloco->capacidade;
+        _free_alinhado(bloco->data);
+        free(bloco);
+        bloco = prox;
+    }
+
+    return liberado;
+}
+
+void arena_init(arena_t* arena, size_t capacidade) {
+    arena_liberar(arena);// reconfiguração
+
+    if (capacidade < ARENA_ALINHAMENTO) capacidade = ARENA_ALINHAMENTO;
+
+    arena->capacidade = alinhar(capacidade, ARENA_ALINHAMENTO);
+    arena->offset = 0;
+    arena->primeiro = _novo_bloco(arena->capacidade);
+    arena->atual = arena->primeiro;
+}
+
+void arena_liberar(arena_t* arena) {
+    _liberar_blocos(arena->primeiro);
+
+    arena->capacidade = 0;
+    arena->offset = 0;
+    arena->primeiro = NULL;
+    arena->atual = NULL;
 }
 
 void* arena_alloc(arena_t* arena, size_t size_bytes) {
-    size_t offset_alinhado = alinhar(arena->offset, ARENA_ALINHAMENTO);
-    size_t offset_novo = offset_alinhado + size_bytes;
+    if (!arena->atual) arena_init(arena, arena_cap_padrao());
 
-    if (offset_novo > arena->capacidade) {
-        fprintf(stderr, "RuntimeError: Capacidade de %zu bytes excedida na arena,", arena->capacidade);
-        fprintf(stderr, " considere pre-alocar mais memoria com JNNnative.setTamArena().\n");
-        exit(EXIT_FAILURE);
+    arena_bloco_t* bloco = arena->atual;
+    size_t offset_alinhado = alinhar(arena->offset - bloco->base, ARENA_ALINHAMENTO);
+
+    if (offset_alinhado + size_bytes <= bloco->capacidade) {
+        arena->offset = bloco->base + offset_alinhado + size_bytes;
+        return bloco->data + offset_alinhado;
+    }
+
+    // capacidade excedida, segue para o próximo bloco
+    size_t minimo = alinhar(size_bytes, ARENA_ALINHAMENTO);
+    arena_bloco_t* prox = bloco->prox;
+
+    if (prox && prox->capacidade < minimo) {
+        arena->capacidade -= _liberar_blocos(prox);
+        bloco->prox = NULL;
+        prox = NULL;
+    }
+
+    if (!prox) {
+        size_t cap = bloco->capacidade * 2;
+        if (cap < minimo) cap = minimo;
+
+        prox = _novo_bloco(cap);
+        prox->ant = bloco;
+        bloco->prox = prox;
+        arena->capacidade += cap;
     }
 
-    void* ptr = arena->data + offset_alinhado;
-    arena->offset = offset_novo;
+    prox->base = arena->offset;
+    arena->atual = prox;
+    arena->offset = prox->base + size_bytes;
 
-    return ptr;
+    return prox->data;
 }
 
 size_t arena_checkpoint(arena_t* arena) {
@@ -40,14 +124,34 @@ size_t arena_checkpoint(arena_t* arena) {
 }
 
 void arena_restore(arena_t* arena, size_t checkpoint) {
-    if (checkpoint > arena->capacidade) {
+    if (checkpoint > arena->offset) {
         fprintf(stderr, "RuntimeError: Checkpoint inválido para restauração na arena.\n");
         exit(EXIT_FAILURE);
     }
 
+    if (!arena->atual) return;
+
+    while (arena->atual->ant && arena->atual->base > checkpoint) {
+        arena->atual = arena->atual->ant;
+    }
+
     arena->offset = checkpoint;
+
+    // arena vazia após crescer: junta os blocos em um único,
+    // evitando encadeamentos nas próximas chamadas
+    if (checkpoint == 0 && arena->primeiro->prox) {
+        arena_init(arena, arena->capacidade);
+    }
 }
 
 void arena_reset(arena_t* arena) {
-    arena->offset = 0;
-}
\ No newline at end of file
+    arena_restore(arena, 0);
+}
+
+void arena_set_cap_padrao(size_t capacidade) {
+    atomic_store(&_cap_padrao, capacidade);
+}
+
+size_t arena_cap_padrao(void) {
+    return atomic_load(&_cap_padrao);
+}
@@ -1,7 +1,7 @@
 package jnn.otm;
 
-import jnn.core.JNNutils;
 import jnn.core.Parametro;
+import jnn.core.tensor.Expressao;
 import jnn.core.tensor.Tensor;
 import jnn.core.tensor.TensorData;
 
@@ -96,11 +96,9 @@ public class AdaGrad extends Otimizador {
 		initParams(params);
 		
 		float valorInicial = 0.1f;
-		for (var param : _params) {
-			ac = JNNutils.addEmArray(
-				ac,
-				new Tensor(param.weight.shape()).preencher(valorInicial)
-			);
+		ac = new Tensor[_pesos.length];
+		for (int i = 0; i < ac.length; i++) {
+			ac[i] = new Tensor(_pesos[i].tam()).preencher(valorInicial);
 		}
 		
 		_construido = true;// otimizador pode ser usado
@@ -110,20 +108,21 @@ public class AdaGrad extends Otimizador {
 	public void update() {
 		checkInicial();
 		
-		final int n = _params.length;
+		final int n = _pesos.length;
 		for (int i = 0; i < n; i++) {
-			TensorData p_i = _params[i].weight.data();
-			TensorData g_i = _params[i].grad.data();
+			TensorData p_i = _pesos[i];
+			TensorData g_i = _grads[i];
 			TensorData ac_i = ac[i].data();
 
 			// ac += g²
-			ac_i.addcmul(g_i, g_i, 1.0f);
-
-			// sqrt(ac) + eps
-			TensorData den = ac_i.clone().sqrt().add(eps);
-
-			// p -= (lr * g) / (sqrt(ac) + eps)
-			p_i.addcdiv(g_i, den, -lr);
+			Expressao ac = Expressao.de(ac_i)
+				.add(Expressao.de(g_i).quadrado())
+				.salvar(ac_i);
+
+			// p -= (lr * g) / (sqrt(ac) + eps), na mesma passada
+			Expressao.de(p_i)
+				.sub(Expressao.de(g_i).mul(lr).div(ac.sqrt().add(eps)))
+				.em(p_i);
 		}
 	}
 
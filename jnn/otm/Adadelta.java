@@ -1,7 +1,7 @@
 package jnn.otm;
 
-import jnn.core.JNNutils;
 import jnn.core.Parametro;
+import jnn.core.tensor.Expressao;
 import jnn.core.tensor.Tensor;
 import jnn.core.tensor.TensorData;
 
@@ -103,12 +103,17 @@ public class Adadelta extends Otimizador {
 	public void construir(Parametro[] params) {
 		initParams(params);
 
-		for (var param : _params) {
-			Tensor w = param.weight;
+		final int n = _pesos.length;
+		acg = new Tensor[n];
+		deltas = new Tensor[n];
+		acd = new Tensor[n];
 
-			acg = JNNutils.addEmArray(acg, new Tensor(w.shape()));
-			deltas = JNNutils.addEmArray(deltas, new Tensor(w.shape()));
-			acd = JNNutils.addEmArray(acd, new Tensor(w.shape()));
+		for (int i = 0; i < n; i++) {
+			int tam = _pesos[i].tam();
+
+			acg[i] = new Tensor(tam);
+			deltas[i] = new Tensor(tam);
+			acd[i] = new Tensor(tam);
 		}
 
 		_construido = true;// otimizador pode ser usado
@@ -118,28 +123,36 @@ public class Adadelta extends Otimizador {
 	public void update() {
 		checkInicial();
 		
-		for (int i = 0, n = _params.length; i < n; i++) {
-			TensorData p_i   = _params[i].weight.data();
-			TensorData g_i   = _params[i].grad.data();
+		for (int i = 0, n = _pesos.length; i < n; i++) {
+			TensorData p_i   = _pesos[i];
+			TensorData g_i   = _grads[i];
 			TensorData acg_i = acg[i].data();// E[g²]
 			TensorData acd_i = acd[i].data();// E[Δx²]
 			TensorData d_i   = deltas[i].data();
 
-			// E[g²] = (rho * E[g²]) + ((1 - rho) * g²)
-			acg_i.mul(rho).addcmul(g_i, g_i, 1.0f - rho);
+			Expressao g = Expressao.de(g_i);
 
-			// delta = (sqrt(E[Δx²] + eps) / sqrt(E[g²] + eps))
-			TensorData den = acg_i.clone().add(eps).sqrt();
-			TensorData num = acd_i.clone().add(eps).sqrt();
+			// E[g²] = (rho * E[g²]) + ((1 - rho) * g²)
+			Expressao acg = Expressao.de(acg_i).mul(rho)
+				.add(g.quadrado().mul(1.0f - rho))
+				.salvar(acg_i);
 
-			// delta = - (num/den) * g
-			d_i.copiar(num).mul(-1).div(den).mul(g_i);
+			// delta = - (sqrt(E[Δx²] + eps) / sqrt(E[g²] + eps)) * g
+			Expressao delta = Expressao.de(acd_i).add(eps).sqrt()
+				.div(acg.add(eps).sqrt())
+				.mul(g).neg()
+				.salvar(d_i);
 
 			// E[Δx²] = (rho * E[Δx²]) + ((1 - rho) * (delta²))
-			acd_i.mul(rho).addcmul(d_i, d_i, 1.0f - rho);
-			
+			Expressao acd = Expressao.de(acd_i).mul(rho)
+				.add(delta.quadrado().mul(1.0f - rho))
+				.salvar(acd_i);
+
 			// p += delta
-			p_i.add(d_i);
+			Expressao p = Expressao.de(p_i).add(delta).salvar(p_i);
+
+			// todas as atualizações na mesma passada
+			Expressao.executar(acd, p);
 		}
 	}
 
@@ -1,9 +1,7 @@
 package jnn.otm;
 
-import jnn.core.JNNutils;
 import jnn.core.Parametro;
 import jnn.core.tensor.Tensor;
-import jnn.core.tensor.TensorData;
 
 /**
  * <h2>
@@ -78,25 +76,15 @@ public class Adam extends Otimizador {
 	 */
 	private Tensor[] v = {};
 
-	/**
-	 * Coeficientes de momentum corrigidos.
-	 */
-	private Tensor[] mc = {};
-
-	/**
-	 * Coeficientes de momentum de segunda ordem corrigidos.
-	 */
-	private Tensor[] vc = {};
-
 	/**
 	 *  Coeficientes de correção do AMSGrad.
 	 */
 	private Tensor[] ams = {};
 
 	/**
-	 *  Buffers pra evitar alocação.
+	 * Decaimento de peso desacoplado, usado pelo AdamW.
 	 */
-	private Tensor[] buf = {};
+	final float decaimento;
 	
 	/**
 	 * Contador de iterações.
@@ -123,10 +111,25 @@ public class Adam extends Otimizador {
 	 * @param amsgrad aplicar correção.
 	 */
 	public Adam(Number lr, Number beta1, Number beta2, Number eps, boolean amsgrad) {
+		this(lr, beta1, beta2, eps, amsgrad, 0);
+	}
+
+	/**
+	 * Inicializa uma nova instância de otimizador <strong> Adam </strong> 
+	 * com decaimento de peso desacoplado.
+	 * @param lr taxa de aprendizado do otimizador.
+	 * @param beta1 decaimento do momento de primeira ordem.
+	 * @param beta2 decaimento do momento de segunda ordem.
+	 * @param eps pequeno valor usado para evitar a divisão por zero.
+	 * @param amsgrad aplicar correção.
+	 * @param decaimento decaimento de peso desacoplado.
+	 */
+	Adam(Number lr, Number beta1, Number beta2, Number eps, boolean amsgrad, Number decaimento) {
 		float lr_ = lr.floatValue();
 		float beta1_ = beta1.floatValue();
 		float beta2_ = beta2.floatValue();
 		float eps_ = eps.floatValue();
+		float dec_ = decaimento.floatValue();
 
 		if (lr_ <= 0) {
 			throw new IllegalArgumentException(
@@ -148,12 +151,18 @@ public class Adam extends Otimizador {
 				"\nEpsilon (" + eps_ + ") inválido."
 			);
 		}
+		if (dec_ < 0) {
+			throw new IllegalArgumentException(
+				"\nDecaimento de peso (" + dec_ + ") inválido."
+			);
+		}
 		
 		this.lr 	 = lr_;
 		this.beta1 	 = beta1_;
 		this.beta2 	 = beta2_;
 		this.eps 	 = eps_;
 		this.amsgrad = amsgrad;
+		this.decaimento = dec_;
 	}
  
 	/**
@@ -212,20 +221,25 @@ public class Adam extends Otimizador {
 	public void construir(Parametro[] params) {
 		initParams(params);
 
-		for (var param : _params) {
-			int[] shape = param.weight.shape();
+		final int n = _pesos.length;
+		m = new Tensor[n];
+		v = new Tensor[n];
+		ams = new Tensor[amsgrad ? n : 0];
+
+		for (int i = 0; i < n; i++) {
+			int tam = _pesos[i].tam();
 
-			m = JNNutils.addEmArray(m, new Tensor(shape));
-			v = JNNutils.addEmArray(v, new Tensor(shape));
-			mc = JNNutils.addEmArray(mc, new Tensor(shape));
-			vc = JNNutils.addEmArray(vc, new Tensor(shape));
-			buf = JNNutils.addEmArray(buf, new Tensor(shape));
+			m[i] = new Tensor(tam);
+			v[i] = new Tensor(tam);
 
 			if (amsgrad) {
-				ams = JNNutils.addEmArray(ams, new Tensor(shape));
+				ams[i] = new Tensor(tam);
 			}
 		}
 
+		iteracao = 0L;
+		potBeta1 = 1;
+		potBeta2 = 1;
 		
 		_construido = true;// otimizador pode ser usado
 	}
@@ -239,42 +253,21 @@ public class Adam extends Otimizador {
 		potBeta1 *= beta1;
 		potBeta2 *= beta2;
 
-		float corr1 = potBeta1;
-		float corr2 = potBeta2;
+		// passo fundido: m, v, correção de viés, amsgrad e atualização em uma passada
+		AdamKernel.Passo passo = new AdamKernel.Passo(
+			lr, beta1, beta2, eps, 1.0f - potBeta1, 1.0f - potBeta2, decaimento, false
+		);
 
-		final int n = _params.length;
+		final int n = _pesos.length;
 		for (int i = 0; i < n; i++) {
-			TensorData p_i = _params[i].weight.data();
-			TensorData g_i = _params[i].grad.data();
-			TensorData m_i = m[i].data();
-			TensorData v_i = v[i].data();
-			TensorData mc_i = mc[i].data();
-			TensorData vc_i = vc[i].data();
-			TensorData buf_i = buf[i].data();
-
-			// m = β1*m + (g * (1 - β1))
-			m_i.mul(beta1).add(g_i, 1.0f - beta1);
-
-			// v = β2*v + (g² * (1 - β2))
-			v_i.mul(beta2).addcmul(g_i, g_i, 1.0f - beta2);
-
-			// m̂ = m / (1 - β1^t)
-			mc_i.copiar(m_i).div(1.0f - corr1);
-
-			// v̂ = v / (1 - β2^t)
-			vc_i.copiar(v_i).div(1.0f - corr2);
-
-			if (amsgrad) {// vc = max(vc, vams)
-				TensorData vams_i = ams[i].data();
-				vams_i.maxEntre(vc_i);
-				vc_i.copiar(vams_i);
-			}
-			
-			// den = sqrt(v̂) + eps
-			buf_i.copiar(vc_i).sqrt().add(eps);
-			
-			// p -= (lr * m̂) / (sqrt(v̂) + eps)
-			p_i.addcdiv(mc_i, buf_i, -lr);
+			AdamKernel.executar(
+				_pesos[i],
+				_grads[i],
+				m[i].data(),
+				v[i].data(),
+				amsgrad ? ams[i].data() : null,
+				passo
+			);
 		}
 	}
 
@@ -0,0 +1,226 @@
+package jnn.otm;
+
+import jnn.core.JNNnative;
+import jnn.core.parallel.JNNparallel;
+import jnn.core.tensor.TensorData;
+
+/**
+ * Kernel de atualização fundido da família Adam (Adam, AMSGrad, Nadam e AdamW).
+ * <p>
+ *      Todo o passo do otimizador (momentos, correção de viés, AMSGrad,
+ *      decaimento de peso e atualização do parâmetro) é feito em uma única
+ *      passada por elemento, sem tensores intermediários.
+ * </p>
+ * <p>
+ *      Intervalos grandes são divididos entre as threads da biblioteca e,
+ *      quando o módulo {@code jdk.incubator.vector} está disponível, cada
+ *      intervalo é processado pela versão vetorial. Com a interface nativa
+ *      ativa o passo é feito pelo kernel em C.
+ * </p>
+ */
+final class AdamKernel {
+
+	/**
+	 * Indica se a versão vetorial está disponível.
+	 */
+	static final boolean VETORIAL = vetorialDisponivel();
+
+	/**
+	 * Quantidade mínima de elementos para dividir o passo entre threads.
+	 */
+	static final int MIN_PARALELO = 1 << 15;
+
+	/**
+	 * Quantidade mínima de elementos por bloco paralelo.
+	 */
+	static final int GRAO = 1 << 13;
+
+	/**
+	 * Hiperparâmetros de um passo de atualização.
+	 * @param lr taxa de aprendizado.
+	 * @param beta1 decaimento do momento de primeira ordem.
+	 * @param beta2 decaimento do momento de segunda ordem.
+	 * @param eps pequeno valor usado para evitar a divisão por zero.
+	 * @param corr1 correção de viés do primeiro momento {@code (1 - β1^t)}.
+	 * @param corr2 correção de viés do segundo momento {@code (1 - β2^t)}.
+	 * @param decaimento decaimento de peso desacoplado (AdamW), zero para desativar.
+	 * @param nesterov usar o momento de Nesterov (Nadam).
+	 */
+	record Passo(
+		float lr,
+		float beta1,
+		float beta2,
+		float eps,
+		float corr1,
+		float corr2,
+		float decaimento,
+		boolean nesterov
+	) {}
+
+	/**
+	 * Construtor privado.
+	 */
+	private AdamKernel() {}
+
+	/**
+	 * Verifica se a Vector API pode ser usada.
+	 * @return {@code true} caso a versão vetorial esteja disponível.
+	 */
+	private static boolean vetorialDisponivel() {
+		if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+			return false;
+		}
+
+		try {
+			return AdamKernelVetorial.VL >= 4;
+		} catch (Throwable e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Executa um passo de atualização sobre um parâmetro.
+	 * @param p dados do parâmetro.
+	 * @param g dados do gradiente do parâmetro.
+	 * @param m dados do momento de primeira ordem.
+	 * @param v dados do momento de segunda ordem.
+	 * @param vmax dados do máximo do segundo momento (AMSGrad), pode ser
+	 * {@code null}.
+	 * @param passo hiperparâmetros do passo.
+	 */
+	static void executar(TensorData p, TensorData g, TensorData m, TensorData v, TensorData vmax, Passo passo) {
+		if (p.isNativo() || g.isNativo()) {
+			generico(p, g, m, v, vmax, passo);
+			return;
+		}
+
+		executar(
+			p.data(), p.offset(), g.data(), g.offset(),
+			m.data(), v.data(), vmax == null ? null : vmax.data(), m.offset(),
+			p.tam(), passo
+		);
+	}
+
+	/**
+	 * Executa um passo de atualização sobre um intervalo contíguo de parâmetros.
+	 * <p>
+	 *      Os momentos ({@code m}, {@code v} e {@code vmax}) compartilham o
+	 *      mesmo offset.
+	 * </p>
+	 * @param p array de parâmetros.
+	 * @param offP offset dos parâmetros.
+	 * @param g array de gradientes.
+	 * @param offG offset dos gradientes.
+	 * @param m momentos de primeira ordem.
+	 * @param v momentos de segunda ordem.
+	 * @param vmax máximos do segundo momento (AMSGrad), pode ser {@code null}.
+	 * @param offM offset dos momentos.
+	 * @param n quantidade de elementos.
+	 * @param passo hiperparâmetros do passo.
+	 */
+	static void executar(float[] p, int offP, float[] g, int offG, float[] m, float[] v, float[] vmax, int offM, int n, Passo passo) {
+		if (n < 1) return;
+
+		if (JNNnative.isOn()) {
+			JNNnative.adam(
+				p, offP, g, offG, m, v, vmax, offM, n,
+				passo.lr(), passo.beta1(), passo.beta2(), passo.eps(),
+				passo.corr1(), passo.corr2(), passo.decaimento(), passo.nesterov()
+			);
+			return;
+		}
+
+		if (n < MIN_PARALELO) {
+			intervalo(p, offP, g, offG, m, v, vmax, offM, 0, n, passo);
+		} else {
+			JNNparallel.parallelFor(0, n, GRAO, (ini, fim) ->
+				intervalo(p, offP, g, offG, m, v, vmax, offM, ini, fim, passo)
+			);
+		}
+	}
+
+	/**
+	 * Processa o intervalo {@code [ini, fim)} usando a melhor versão disponível.
+	 */
+	private static void intervalo(float[] p, int offP, float[] g, int offG, float[] m, float[] v, float[] vmax, int offM, int ini, int fim, Passo passo) {
+		if (VETORIAL) {
+			AdamKernelVetorial.intervalo(p, offP, g, offG, m, v, vmax, offM, ini, fim, passo);
+		} else {
+			escalar(p, offP, g, offG, m, v, vmax, offM, ini, fim, passo);
+		}
+	}
+
+	/**
+	 * Versão escalar do passo sobre o intervalo {@code [ini, fim)}.
+	 * <p>
+	 *      Também é usada pela versão vetorial para os elementos restantes.
+	 * </p>
+	 */
+	static void escalar(float[] p, int offP, float[] g, int offG, float[] m, float[] v, float[] vmax, int offM, int ini, int fim, Passo passo) {
+		final float lr = passo.lr();
+		final float b1 = passo.beta1();
+		final float b2 = passo.beta2();
+		final float a1 = 1.0f - b1;
+		final float a2 = 1.0f - b2;
+		final float eps = passo.eps();
+		final float inv1 = 1.0f / passo.corr1();
+		final float inv2 = 1.0f / passo.corr2();
+		final float dec = 1.0f - lr * passo.decaimento();
+		final boolean nesterov = passo.nesterov();
+
+		for (int i = ini; i < fim; i++) {
+			final int ip = offP + i;
+			final int im = offM + i;
+			final float gi = g[offG + i];
+
+			// m = β1*m + (1-β1)*g
+			final float mi = b1 * m[im] + a1 * gi;
+			// v = β2*v + (1-β2)*g²
+			final float vi = b2 * v[im] + a2 * gi * gi;
+			m[im] = mi;
+			v[im] = vi;
+
+			// m̂ = m/(1-β1^t), ou (β1*m + (1-β1)*g)/(1-β1^t) no Nadam
+			final float mc = (nesterov ? (b1 * mi + a1 * gi) : mi) * inv1;
+			// v̂ = v/(1-β2^t)
+			float vc = vi * inv2;
+
+			if (vmax != null) {// v̂ = max(v̂, vmax)
+				vc = Math.max(vc, vmax[im]);
+				vmax[im] = vc;
+			}
+
+			// p = p*(1 - lr*λ) - lr * m̂ / (sqrt(v̂) + eps)
+			p[ip] = p[ip] * dec - lr * mc / ((float) Math.sqrt(vc) + eps);
+		}
+	}
+
+	/**
+	 * Passo elemento a elemento para dados fora do heap.
+	 */
+	private static void generico(TensorData p, TensorData g, TensorData m, TensorData v, TensorData vmax, Passo passo) {
+		final float lr = passo.lr();
+		final float b1 = passo.beta1();
+		final float b2 = passo.beta2();
+		final float dec = 1.0f - lr * passo.decaimento();
+
+		for (int i = 0, n = p.tam(); i < n; i++) {
+			final float gi = g.get(i);
+			final float mi = b1 * m.get(i) + (1.0f - b1) * gi;
+			final float vi = b2 * v.get(i) + (1.0f - b2) * gi * gi;
+			m.set(mi, i);
+			v.set(vi, i);
+
+			final float mc = (passo.nesterov() ? (b1 * mi + (1.0f - b1) * gi) : mi) / passo.corr1();
+			float vc = vi / passo.corr2();
+
+			if (vmax != null) {
+				vc = Math.max(vc, vmax.get(i));
+				vmax.set(vc, i);
+			}
+
+			p.set(p.get(i) * dec - lr * mc / ((float) Math.sqrt(vc) + passo.eps()), i);
+		}
+	}
+
+}
@@ -0,0 +1,78 @@
+package jnn.otm;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Versão vetorial do kernel de atualização da família Adam.
+ * <p>
+ *      Essa classe só é carregada quando o módulo {@code jdk.incubator.vector}
+ *      está disponível na JVM, caso contrário o {@code AdamKernel} usa sua
+ *      versão escalar.
+ * </p>
+ */
+final class AdamKernelVetorial {
+
+	/**
+	 * Espécie de vetor preferida pela plataforma.
+	 */
+	static final VectorSpecies<Float> SP = FloatVector.SPECIES_PREFERRED;
+
+	/**
+	 * Quantidade de elementos por vetor.
+	 */
+	static final int VL = SP.length();
+
+	/**
+	 * Construtor privado.
+	 */
+	private AdamKernelVetorial() {}
+
+	/**
+	 * Processa o intervalo {@code [ini, fim)}, os elementos que não completam
+	 * um vetor são processados pela versão escalar.
+	 */
+	static void intervalo(float[] p, int offP, float[] g, int offG, float[] m, float[] v, float[] vmax, int offM, int ini, int fim, AdamKernel.Passo passo) {
+		final float lr = passo.lr();
+		final float b1 = passo.beta1();
+		final float b2 = passo.beta2();
+		final float a1 = 1.0f - b1;
+		final float a2 = 1.0f - b2;
+		final float eps = passo.eps();
+		final float inv1 = 1.0f / passo.corr1();
+		final float inv2 = 1.0f / passo.corr2();
+		final float dec = 1.0f - lr * passo.decaimento();
+		final boolean nesterov = passo.nesterov();
+		final boolean ams = vmax != null;
+
+		final int lim = ini + SP.loopBound(fim - ini);
+
+		int i = ini;
+		for (; i < lim; i += VL) {
+			final int ip = offP + i;
+			final int im = offM + i;
+
+			FloatVector gi = FloatVector.fromArray(SP, g, offG + i);
+			FloatVector mi = FloatVector.fromArray(SP, m, im).mul(b1).add(gi.mul(a1));
+			FloatVector vi = FloatVector.fromArray(SP, v, im).mul(b2).add(gi.mul(a2).mul(gi));
+			mi.intoArray(m, im);
+			vi.intoArray(v, im);
+
+			FloatVector mc = (nesterov ? mi.mul(b1).add(gi.mul(a1)) : mi).mul(inv1);
+			FloatVector vc = vi.mul(inv2);
+
+			if (ams) {
+				vc = vc.max(FloatVector.fromArray(SP, vmax, im));
+				vc.intoArray(vmax, im);
+			}
+
+			FloatVector pi = FloatVector.fromArray(SP, p, ip).mul(dec);
+			pi.sub(mc.mul(lr).div(vc.sqrt().add(eps))).intoArray(p, ip);
+		}
+
+		if (i < fim) {
+			AdamKernel.escalar(p, offP, g, offG, m, v, vmax, offM, i, fim, passo);
+		}
+	}
+
+}
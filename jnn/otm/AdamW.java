@@ -0,0 +1,88 @@
+package jnn.otm;
+
+/**
+ * <h2>
+ *    Adam with Decoupled Weight Decay
+ * </h2>
+ * Implementação do algoritmo de otimização AdamW.
+ * <p>
+ *    Funciona como o Adam, mas o decaimento de peso é aplicado diretamente
+ *    nos parâmetros ({@code p = p - lr * λ * p}) em vez de ser somado ao
+ *    gradiente, assim a regularização não é escalada pelas estimativas
+ *    adaptativas dos momentos.
+ * </p>
+ * @see <a href="https://arxiv.org/pdf/1711.05101"> Paper AdamW </a>
+ */
+public class AdamW extends Adam {
+
+	/**
+	 * Valor padrão para o decaimento de peso.
+	 */
+	static final float PADRAO_DECAIMENTO = 0.01f;
+
+	/**
+	 * Inicializa uma nova instância de otimizador <strong> AdamW </strong>
+	 * usando os valores de hiperparâmetros fornecidos.
+	 * @param lr taxa de aprendizado do otimizador.
+	 * @param beta1 decaimento do momento de primeira ordem.
+	 * @param beta2 decaimento do momento de segunda ordem.
+	 * @param eps pequeno valor usado para evitar a divisão por zero.
+	 * @param decaimento decaimento de peso.
+	 * @param amsgrad aplicar correção.
+	 */
+	public AdamW(Number lr, Number beta1, Number beta2, Number eps, Number decaimento, boolean amsgrad) {
+		super(lr, beta1, beta2, eps, amsgrad, decaimento);
+	}
+
+	/**
+	 * Inicializa uma nova instância de otimizador <strong> AdamW </strong>
+	 * usando os valores de hiperparâmetros fornecidos.
+	 * @param lr taxa de aprendizado do otimizador.
+	 * @param beta1 decaimento do momento de primeira ordem.
+	 * @param beta2 decaimento do momento de segunda ordem.
+	 * @param eps pequeno valor usado para evitar a divisão por zero.
+	 * @param decaimento decaimento de peso.
+	 */
+	public AdamW(Number lr, Number beta1, Number beta2, Number eps, Number decaimento) {
+		this(lr, beta1, beta2, eps, decaimento, PADRAO_AMSGRAD);
+	}
+
+	/**
+	 * Inicializa uma nova instância de otimizador <strong> AdamW </strong>
+	 * usando os valores de hiperparâmetros fornecidos.
+	 * @param lr taxa de aprendizado do otimizador.
+	 * @param decaimento decaimento de peso.
+	 */
+	public AdamW(Number lr, Number decaimento) {
+		this(lr, PADRAO_BETA1, PADRAO_BETA2, PADRAO_EPS, decaimento, PADRAO_AMSGRAD);
+	}
+
+	/**
+	 * Inicializa uma nova instância de otimizador <strong> AdamW </strong>
+	 * usando os valores de hiperparâmetros fornecidos.
+	 * @param lr taxa de aprendizado do otimizador.
+	 */
+	public AdamW(Number lr) {
+		this(lr, PADRAO_BETA1, PADRAO_BETA2, PADRAO_EPS, PADRAO_DECAIMENTO, PADRAO_AMSGRAD);
+	}
+
+	/**
+	 * Inicializa uma nova instância de otimizador <strong> AdamW </strong>.
+	 * <p>
+	 *    Os hiperparâmetros do AdamW serão inicializados com os valores
+	 *    padrão.
+	 * </p>
+	 */
+	public AdamW() {
+		this(PADRAO_LR, PADRAO_BETA1, PADRAO_BETA2, PADRAO_EPS, PADRAO_DECAIMENTO, PADRAO_AMSGRAD);
+	}
+
+	@Override
+	public String info() {
+		super.info();
+		addInfo("Decaimento: " + decaimento);
+
+		return info.toString();
+	}
+
+}
@@ -1,6 +1,5 @@
 package jnn.otm;
 
-import jnn.core.JNNutils;
 import jnn.core.Parametro;
 import jnn.core.tensor.Tensor;
 import jnn.core.tensor.TensorData;
@@ -109,8 +108,9 @@ public class Lion extends Otimizador {
 	public void construir(Parametro[] params) {
 		initParams(params);
 		
-        for (var param : _params) {
-            m = JNNutils.addEmArray(m, new Tensor(param.weight.shape()));
+        m = new Tensor[_pesos.length];
+        for (int i = 0; i < m.length; i++) {
+            m[i] = new Tensor(_pesos[i].tam());
         }
 
 		_construido = true;// otimizador pode ser usado
@@ -120,10 +120,10 @@ public class Lion extends Otimizador {
     public void update() {
 		checkInicial();
 
-		final int n = _params.length;
+		final int n = _pesos.length;
         for (int i = 0; i < n; i++) {
-			TensorData p_i = _params[i].weight.data();
-			TensorData g_i = _params[i].grad.data();
+			TensorData p_i = _pesos[i];
+			TensorData g_i = _grads[i];
 			TensorData m_i = m[i].data();
 
 			// p -= tA * signum(β1*m + (1-β1)*g)
@@ -1,9 +1,7 @@
 package jnn.otm;
 
-import jnn.core.JNNutils;
 import jnn.core.Parametro;
 import jnn.core.tensor.Tensor;
-import jnn.core.tensor.TensorData;
 
 /**
  * <h2>
@@ -69,16 +67,6 @@ public class Nadam extends Otimizador {
 	 */
 	private Tensor[] v = {};
 
-	/**
-	 * Coeficientes de momentum corrigidos.
-	 */
-	private Tensor[] mc = {};
-
-	/**
-	 * Coeficientes de momentum de segunda ordem corrigidos.
-	 */
-	private Tensor[] vc = {};
-
 	/**
 	 * Contador de iterações.
 	 */
@@ -159,15 +147,19 @@ public class Nadam extends Otimizador {
 	public void construir(Parametro[] params) {
 		initParams(params);
 		
-		for (var param : _params) {
-			int[] shape = param.weight.shape();
+		final int n = _pesos.length;
+		m = new Tensor[n];
+		v = new Tensor[n];
 
-			m  = JNNutils.addEmArray(m,  new Tensor(shape));
-			v  = JNNutils.addEmArray(v,  new Tensor(shape));
-			mc = JNNutils.addEmArray(mc, new Tensor(shape));
-			vc = JNNutils.addEmArray(vc, new Tensor(shape));
+		for (int i = 0; i < n; i++) {
+			int tam = _pesos[i].tam();
+
+			m[i] = new Tensor(tam);
+			v[i] = new Tensor(tam);
 		}
 
+		iteracoes = 0;
+
 		_construido = true;// otimizador pode ser usado
 	}
 
@@ -179,32 +171,21 @@ public class Nadam extends Otimizador {
 		float fb1 = 1.0f - (float) Math.pow(beta1, iteracoes);
 		float fb2 = 1.0f - (float) Math.pow(beta2, iteracoes);
 		
-		final int n = _params.length;
+		// passo fundido: m, v, m̂ com nesterov e atualização em uma passada
+		AdamKernel.Passo passo = new AdamKernel.Passo(
+			lr, beta1, beta2, eps, fb1, fb2, 0, true
+		);
+
+		final int n = _pesos.length;
 		for (int i = 0; i < n; i++) {
-			TensorData p_i  = _params[i].weight.data();
-			TensorData g_i  = _params[i].grad.data();
-			TensorData m_i  = m[i].data();
-			TensorData v_i  = v[i].data();
-			TensorData mc_i  = mc[i].data();
-			TensorData vc_i  = vc[i].data();
-
-			// m = β1*m + (1-β1)*g
-			m_i.mul(beta1).add(g_i, 1.0f - beta1);
-
-			// v = β2*v + (1-β2)*(g²)
-			v_i.mul(beta2).addcmul(g_i, g_i, 1.0f - beta2);
-
-			// m̂ = (β1 * m + (1-β1)*g) / (1 - β1^t)
-        	mc_i.copiar(m_i).mul(beta1).add(g_i, 1.0f - beta1).div(fb1);
-			
-			// v̂ = v/(1-β2^t)
-			vc_i.copiar(v_i).div(fb2);
-
-			// den = sqrt(v̂) + eps
-			TensorData den = vc_i.sqrt().add(eps);
-
-			// p -= (lr * m̂) / (sqrt(v̂) + eps)
-			p_i.addcdiv(mc_i, den, -lr);
+			AdamKernel.executar(
+				_pesos[i],
+				_grads[i],
+				m[i].data(),
+				v[i].data(),
+				null,
+				passo
+			);
 		}
 	}
 
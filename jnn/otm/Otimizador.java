@@ -3,6 +3,7 @@ package jnn.otm;
 import jnn.core.JNNutils;
 import jnn.core.Parametro;
 import jnn.core.tensor.Tensor;
+import jnn.core.tensor.TensorData;
 
 /**
  * <p>
@@ -21,6 +22,22 @@ public abstract class Otimizador {
 	 */
 	protected Parametro[] _params = {};
 
+	/**
+	 * Blocos de pesos que serão atualizados.
+	 * <p>
+	 *		Quando os parâmetros são views consecutivas de um mesmo
+	 *		armazenamento (ver {@code Modelo.compactarParams()}), todos eles
+	 *		são cobertos por um único bloco, caso contrário existe um bloco
+	 *		para cada parâmetro.
+	 * </p>
+	 */
+	protected TensorData[] _pesos = {};
+
+	/**
+	 * Blocos de gradientes correspondentes a {@code _pesos}.
+	 */
+	protected TensorData[] _grads = {};
+
 	/**
 	 * Buffer de informações sobre o otimizador.
 	 */
@@ -74,6 +91,50 @@ public abstract class Otimizador {
 		}
 
 		_params = params;
+
+		if (contiguos(params)) {
+			TensorData w = params[0].weight.data();
+			TensorData g = params[0].grad.data();
+			int tam = 0;
+			for (Parametro p : params) tam += p.weight.tam();
+
+			_pesos = new TensorData[] { new TensorData(w.data(), w.offset(), tam) };
+			_grads = new TensorData[] { new TensorData(g.data(), g.offset(), tam) };
+		
+		} else {
+			final int n = params.length;
+			_pesos = new TensorData[n];
+			_grads = new TensorData[n];
+			for (int i = 0; i < n; i++) {
+				_pesos[i] = params[i].weight.data();
+				_grads[i] = params[i].grad.data();
+			}
+		}
+	}
+
+	/**
+	 * Verifica se os pesos e gradientes dos parâmetros estão dispostos em
+	 * sequência em um mesmo array.
+	 * @param params parâmetros.
+	 * @return {@code true} caso os parâmetros possam ser tratados como um
+	 * único bloco, {@code false} caso contrário.
+	 */
+	private boolean contiguos(Parametro[] params) {
+		if (params.length < 2) return false;
+
+		for (int i = 1; i < params.length; i++) {
+			TensorData wa = params[i-1].weight.data();
+			TensorData ga = params[i-1].grad.data();
+			TensorData wb = params[i].weight.data();
+			TensorData gb = params[i].grad.data();
+
+			if (wa.isNativo() || ga.isNativo() || wb.isNativo() || gb.isNativo()) return false;
+			if (wa.data() != wb.data() || ga.data() != gb.data()) return false;
+			if (wb.offset() != wa.offset() + wa.tam()) return false;
+			if (gb.offset() != ga.offset() + ga.tam()) return false;
+		}
+
+		return true;
 	}
 
 	/**
@@ -1,7 +1,7 @@
 package jnn.otm;
 
-import jnn.core.JNNutils;
 import jnn.core.Parametro;
+import jnn.core.tensor.Expressao;
 import jnn.core.tensor.Tensor;
 import jnn.core.tensor.TensorData;
 
@@ -120,9 +120,9 @@ public class RMSProp extends Otimizador {
 	public void construir(Parametro[] params) {
 		initParams(params);
 
-		for (var param : _params) {
-			Tensor w = param.weight;
-			ac = JNNutils.addEmArray(ac, new Tensor(w.shape()));
+		ac = new Tensor[_pesos.length];
+		for (int i = 0; i < ac.length; i++) {
+			ac[i] = new Tensor(_pesos[i].tam());
 		}
 		
 		_construido = true;// otimizador pode ser usado
@@ -132,20 +132,21 @@ public class RMSProp extends Otimizador {
 	public void update() {
 		checkInicial();
 		
-		final int n = _params.length;
+		final int n = _pesos.length;
 		for (int i = 0; i < n; i++) {
-			TensorData p_i  = _params[i].weight.data();
-			TensorData g_i  = _params[i].grad.data();
+			TensorData p_i  = _pesos[i];
+			TensorData g_i  = _grads[i];
 			TensorData ac_i = ac[i].data();
 
 			// ac = (rho * ac) + ((1 - rho) * g²)
-			ac_i.mul(rho).addcmul(g_i, g_i, 1.0f - rho);
-
-			// sqrt(ac) + eps
-			TensorData den = ac_i.clone().sqrt().add(eps);
-
-			// p -= (lr * g) / (sqrt(ac) + eps)
-			p_i.addcdiv(g_i, den, -lr);
+			Expressao ac = Expressao.de(ac_i).mul(rho)
+				.add(Expressao.de(g_i).quadrado().mul(1.0f - rho))
+				.salvar(ac_i);
+
+			// p -= (lr * g) / (sqrt(ac) + eps), na mesma passada
+			Expressao.de(p_i)
+				.sub(Expressao.de(g_i).mul(lr).div(ac.sqrt().add(eps)))
+				.em(p_i);
 		}
 	}
 
@@ -1,6 +1,5 @@
 package jnn.otm;
 
-import jnn.core.JNNutils;
 import jnn.core.Parametro;
 import jnn.core.tensor.Tensor;
 import jnn.core.tensor.TensorData;
@@ -113,9 +112,9 @@ public class SGD extends Otimizador {
 	public void construir(Parametro[] params) {
 		initParams(params);
 
-		for (var param : _params) {
-			Tensor w = param.weight;
-			m = JNNutils.addEmArray(m, new Tensor(w.shape()));
+		m = new Tensor[_pesos.length];
+		for (int i = 0; i < m.length; i++) {
+			m[i] = new Tensor(_pesos[i].tam());
 		}
 		
 		_construido = true;// otimizador pode ser usado
@@ -125,9 +124,9 @@ public class SGD extends Otimizador {
 	public void update() {
 		checkInicial();
 		
-        for (int i = 0, n = _params.length; i < n; i++) {
-            TensorData p_i = _params[i].weight.data();
-            TensorData g_i = _params[i].grad.data();
+        for (int i = 0, n = _pesos.length; i < n; i++) {
+            TensorData p_i = _pesos[i];
+            TensorData g_i = _grads[i];
             TensorData m_i = m[i].data();
 
             // m = (m * momentum) - (g * lr)
@@ -4,11 +4,17 @@ import java.util.LinkedList;
 
 import jnn.core.JNNlog;
 import jnn.core.JNNutils;
+import jnn.dataloader.ColetorLote;
 import jnn.dataloader.DataLoader;
+import jnn.dataloader.LoteAmostra;
+import jnn.dataloader.PreCarregador;
+import jnn.core.tensor.Tensor;
+import jnn.core.tensor.TensorData;
 import jnn.metrica.perda.Perda;
 import jnn.modelos.Modelo;
 import jnn.otm.Otimizador;
 import jnn.treino.callback.CallbackFimEpoca;
+import jnn.treino.callback.InfoEpoca;
 import jnn.treino.scheduler.Scheduler;
 
 /**
@@ -41,6 +47,27 @@ public abstract class MetodoTreino {
 	 */
 	Scheduler scheduler;
 
+	/**
+	 * Intervalo, em passos de treino, entre os cálculos de perda do histórico.
+	 */
+	int intervaloPerda = 1;
+
+	/**
+	 * Norma máxima dos gradientes antes de cada atualização, desativado
+	 * quando menor ou igual a zero.
+	 */
+	float clipGrad = 0;
+
+	/**
+	 * Memória do buffer de gradiente da perda, reutilizada entre os passos.
+	 */
+	private TensorData _dadosGrad;
+
+	/**
+	 * Buffer de gradiente da perda do último formato usado.
+	 */
+	private Tensor _grad;
+
 	/**
 	 * Construtor interno.
 	 * @param modelo modelo base.
@@ -75,6 +102,66 @@ public abstract class MetodoTreino {
 		if (scheduler != null) this.scheduler = scheduler;
 	}
 
+	/**
+	 * Configura o intervalo, em passos de treino, entre os cálculos de
+	 * perda para o histórico.
+	 * @param intervalo intervalo entre cálculos.
+	 */
+	public void setIntervaloPerda(int intervalo) {
+		if (intervalo > 0) this.intervaloPerda = intervalo;
+	}
+
+	/**
+	 * Configura a norma máxima dos gradientes do modelo antes de cada
+	 * atualização dos parâmetros.
+	 * @param normaMax norma máxima, valores menores ou iguais a zero
+	 * desativam o corte.
+	 */
+	public void setClipGrad(float normaMax) {
+		this.clipGrad = normaMax;
+	}
+
+	/**
+	 * Atualiza os parâmetros do modelo, limitando a norma dos gradientes
+	 * caso configurado.
+	 * @param otm otimizador.
+	 */
+	protected void atualizar(Otimizador otm) {
+		if (clipGrad > 0) modelo.clipGradNorma(clipGrad);
+		otm.update();
+	}
+
+	/**
+	 * Verifica se a perda deve ser calculada no passo de treino.
+	 * @param passo índice do passo de treino dentro da época.
+	 * @return {@code true} caso a perda deva ser calculada.
+	 */
+	protected boolean calcularPerda(int passo) {
+		return calcHist && (passo % intervaloPerda == 0);
+	}
+
+	/**
+	 * Retorna um buffer para o gradiente da perda no formato da saída.
+	 * <p>
+	 *    A memória é reutilizada entre os passos de treino e só cresce caso
+	 *    a saída seja maior que todas as anteriores, então lotes menores
+	 *    (como o último de cada época) não geram novas alocações de dados.
+	 * </p>
+	 * @param prev {@code Tensor} de saída do modelo.
+	 * @return buffer de gradiente, válido até o próximo passo de treino.
+	 */
+	protected Tensor bufferGrad(Tensor prev) {
+		if (_grad != null && _grad.compShape(prev)) return _grad;
+
+		final int tam = prev.tam();
+		if (_dadosGrad == null || _dadosGrad.tam() < tam) {
+			_dadosGrad = new TensorData(tam);
+		}
+
+		_grad = new Tensor(_dadosGrad.view(0, tam), prev.shape());
+		return _grad;
+	}
+
 	/**
 	 * Loop principal de treino.
 	 * @param loader {@code DataLoader} com conjunto de dados.
@@ -85,6 +172,114 @@ public abstract class MetodoTreino {
 	 */
 	protected abstract void loop(DataLoader loader, Otimizador otm, Perda loss, int epochs, boolean logs);
 
+	/**
+	 * Loop de treino em lotes, onde os parâmetros são atualizados a cada
+	 * lote de amostras.
+	 * <p>
+	 *		O passo de cada lote é feito por {@link #processoLote}, que pode ser
+	 *		sobrescrito pelos métodos de treino.
+	 * </p>
+	 * @param loader {@code DataLoader} com conjunto de dados.
+	 * @param otm otimizador.
+	 * @param loss função de perda.
+	 * @param epochs quantidade de épocas de treinamento.
+	 * @param logs exibir logs de avanço;
+	 * @param tamLote tamanho do lote de treino.
+	 */
+	protected void loopLotes(DataLoader loader, Otimizador otm, Perda loss, int epochs, boolean logs, int tamLote) {
+		if (logs) esconderCursor();
+		long tempo = 0;
+
+		final int n = loader.tam();
+		// lotes montados em segundo plano, caso configurado
+		PreCarregador preCarga = loader.preCarregamento() ? loader.preCarregador(tamLote) : null;
+		// caso contrário, lotes coletados em buffers reutilizados
+		ColetorLote coletor = preCarga == null ? loader.coletor(tamLote) : null;
+
+		try {
+			for (int e = 0; e < epochs; e++) {
+				if (logs) tempo = System.nanoTime();
+
+				if (preCarga != null) preCarga.iniciarEpoca();
+				else coletor.embaralhar();
+
+				float perdaEpoca = 0.0f;
+				int amostrasPerda = 0;
+				int passo = 0;
+
+				for (int i = 0; i < n; i += tamLote) {
+					LoteAmostra lote = preCarga != null ? preCarga.proximo() : coletor.coletar(i);
+					boolean calcPerda = calcularPerda(passo++);
+
+					modelo.gradZero();
+					perdaEpoca += processoLote(lote, loss, calcPerda);
+					atualizar(otm);
+
+					if (calcPerda) amostrasPerda += lote.tam();
+				}
+
+				// estimativa para a época inteira quando há intervalo entre perdas
+				if (amostrasPerda > 0) perdaEpoca *= (float) n / amostrasPerda;
+			
+				if (logs) {
+					tempo = System.nanoTime() - tempo;
+
+					limparLinha();
+					String log = "[Época " + (e+1) + "/" + epochs + "] loss: " + (perdaEpoca/n);
+
+					long segundos = tempo / 1_000_000_000;
+					long min = (segundos / 60);
+					long seg = segundos % 60;
+					if (segundos < 60) {
+						log += String.format(" (%ds)", segundos);
+					} else {
+						log += String.format(" (%dmin %ds)", min, seg);
+					}
+
+					exibirLogTreino(log);
+				}
+
+				if (calcHist) historico.add(perdaEpoca / n);
+
+				if (scheduler != null) scheduler.update();
+				if (callback != null)  callback.run(new InfoEpoca(e, perdaEpoca));
+			}
+		} finally {
+			if (preCarga != null) preCarga.close();
+		}
+
+		if (logs) {
+			exibirCursor();
+			System.out.println();
+		}
+	}
+
+	/**
+	 * Executa o passo de treino de um lote, calculando os gradientes dos
+	 * parâmetros do modelo.
+	 * @param lote lote de amostras de treino.
+	 * @param loss função de perda do modelo.
+	 * @param calcPerda calcular a perda do lote.
+	 * @return perda do lote multiplicada pela quantidade de amostras.
+	 */
+	protected float processoLote(LoteAmostra lote, Perda loss, boolean calcPerda) {
+		Tensor xs = lote.x();
+		Tensor ys = lote.y();
+		
+		Tensor y = modelo.forward(xs);
+		Tensor g = loss.backward(y, ys, bufferGrad(y));
+		
+		modelo.backward(g);
+
+		if (calcPerda) {
+			float l = loss.valor(y, ys);
+			int n = lote.tam();
+			return l * n;
+		}
+
+		return 0.0f;// não registrar perda
+	}
+
 	/**
 	 * Embaralha ambos os arrays de entrada e saída.
 	 * @param <T> tipo de dados de entrada e saida.
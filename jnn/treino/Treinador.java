@@ -1,10 +1,8 @@
 package jnn.treino;
 
 import java.util.LinkedList;
-import java.util.concurrent.ForkJoinPool;
 
 import jnn.core.JNNutils;
-import jnn.core.parallel.JNNparallel;
 import jnn.dataloader.DataLoader;
 import jnn.modelos.Modelo;
 import jnn.treino.callback.CallbackFimEpoca;
@@ -45,6 +43,21 @@ public class Treinador implements Cloneable {
 	 */
 	private Scheduler scheduler;
 
+	/**
+	 * Quantidade de réplicas do modelo para o treino em lotes paralelo.
+	 */
+	private int replicas = 1;
+
+	/**
+	 * Intervalo, em passos de treino, entre os cálculos de perda do histórico.
+	 */
+	private int intervaloPerda = 1;
+
+	/**
+	 * Norma máxima dos gradientes antes de cada atualização.
+	 */
+	private float clipGrad = 0;
+
 	/**
 	 * Inicializa um novo treinador.
 	 * @param modelo modelo base
@@ -90,6 +103,67 @@ public class Treinador implements Cloneable {
 		this.scheduler = scheduler;
 	}
 
+	/**
+	 * Configura a quantidade de réplicas do modelo usadas no treino em lotes.
+	 * <p>
+	 *		Com mais de uma réplica, cada lote é dividido entre clones do modelo
+	 *		que compartilham os pesos e treinam em threads separadas, com os
+	 *		gradientes somados no modelo antes da atualização.
+	 * </p>
+	 * @param replicas quantidade de réplicas, incluindo o próprio modelo.
+	 * @see TreinoParalelo
+	 */
+	public void setReplicas(int replicas) {
+		if (replicas < 1) {
+			throw new IllegalArgumentException(
+				"\nQuantidade de réplicas deve ser maior que zero, recebido = " + replicas
+			);
+		}
+
+		this.replicas = replicas;
+	}
+
+	/**
+	 * Configura o intervalo, em passos de treino, entre os cálculos de perda
+	 * para o histórico.
+	 * <p>
+	 *		Com intervalo {@code k}, a perda é calculada apenas a cada {@code k}
+	 *		passos (lotes, ou amostras no treino sem lotes), e a perda da época
+	 *		é estimada pela média das amostras avaliadas. O valor padrão é
+	 *		{@code 1}, calculando a perda em todos os passos.
+	 * </p>
+	 * @param intervalo intervalo entre cálculos de perda.
+	 */
+	public void setIntervaloPerda(int intervalo) {
+		if (intervalo < 1) {
+			throw new IllegalArgumentException(
+				"\nIntervalo de perda deve ser maior que zero, recebido = " + intervalo
+			);
+		}
+
+		this.intervaloPerda = intervalo;
+	}
+
+	/**
+	 * Configura a norma máxima dos gradientes do modelo durante o treino.
+	 * <p>
+	 *		Antes de cada atualização dos parâmetros, caso a norma L2 de todos
+	 *		os gradientes juntos seja maior que {@code normaMax}, os gradientes
+	 *		são escalados para essa norma. O valor padrão é {@code 0}, sem corte.
+	 * </p>
+	 * @param normaMax norma máxima, ou {@code 0} para desativar.
+	 * @see jnn.modelos.Modelo#clipGradNorma(float)
+	 */
+	public void setClipGrad(float normaMax) {
+		if (normaMax < 0) {
+			throw new IllegalArgumentException(
+				"\nNorma máxima não pode ser negativa, recebido = " + normaMax
+			);
+		}
+
+		this.clipGrad = normaMax;
+	}
+
 	/**
 	 * Configura o cálculo para o histórico de perdas durante o treinamento.
 	 * @param calcular calcular ou não o histórico de custo.
@@ -113,10 +187,13 @@ public class Treinador implements Cloneable {
 		}
 
 		if (tamLote < 2) setMetodo(new Treino(modelo));
+		else if (replicas > 1) setMetodo(new TreinoParalelo(modelo, tamLote, replicas));
 		else setMetodo(new TreinoLote(modelo, tamLote));
 
 		metodo.setCallback(callback);
 		metodo.setScheduler(scheduler);
+		metodo.setIntervaloPerda(intervaloPerda);
+		metodo.setClipGrad(clipGrad);
 
 		metodo.calcHist = calcHist;
 		
@@ -159,12 +236,8 @@ public class Treinador implements Cloneable {
 		Float[] hist = metodo.hist();
 		float[] h = new float[hist.length];
 
-		final int t = Runtime.getRuntime().availableProcessors();
-		try (ForkJoinPool pool = JNNparallel.pool(t)) {
-			for (int i = 0; i < h.length; i++) {
-				final int id = i;
-				pool.execute(() -> h[id] = hist[id]);
-			}
+		for (int i = 0; i < h.length; i++) {
+			h[i] = hist[i];
 		}
 
 		return h;
@@ -40,18 +40,25 @@ public class Treino extends MetodoTreino {
 			if (logs) tempo = System.nanoTime();
 
 			float perdaEpoca = 0.0f;
+			int amostrasPerda = 0;
 			loader.embaralhar();
 			
 			for (int i = 0; i < n; i++) {
 				Amostra a = loader.get(i);
 				Tensor prev = modelo.forward(a.x());
 				
-				if (calcHist) perdaEpoca += loss.forward(prev, a.y()).item();
+				if (calcularPerda(i)) {
+					perdaEpoca += loss.valor(prev, a.y());
+					amostrasPerda++;
+				}
 				
 				modelo.gradZero();
-				modelo.backward(loss.backward(prev, a.y()));
-				otm.update();
+				modelo.backward(loss.backward(prev, a.y(), bufferGrad(prev)));
+				atualizar(otm);
 			}
+
+			// estimativa para a época inteira quando há intervalo entre perdas
+			if (amostrasPerda > 0) perdaEpoca *= (float) n / amostrasPerda;
 			
 			if (logs) {
 				tempo = System.nanoTime() - tempo;
@@ -1,13 +1,9 @@
 package jnn.treino;
 
-import jnn.core.JNNutils;
-import jnn.core.tensor.Tensor;
 import jnn.dataloader.DataLoader;
-import jnn.dataloader.LoteAmostra;
 import jnn.metrica.perda.Perda;
 import jnn.modelos.Modelo;
 import jnn.otm.Otimizador;
-import jnn.treino.callback.InfoEpoca;
 
 /**
   * Implementação de treino em lote dos modelos.
@@ -43,77 +39,7 @@ public class TreinoLote extends MetodoTreino {
 
 	@Override
 	protected void loop(DataLoader loader, Otimizador otm, Perda loss, int epochs, boolean logs) {
-		if (logs) esconderCursor();
-		long tempo = 0;
-
-		final int n = loader.tam();
-		for (int e = 0; e < epochs; e++) {
-			if (logs) tempo = System.nanoTime();
-
-			loader.embaralhar();
-			float perdaEpoca = 0.0f;
-
-			for (int i = 0; i < n; i += tamLote) {
-				LoteAmostra lote = loader.lote(i, tamLote);
-
-                modelo.gradZero();
-				perdaEpoca += processoLote(lote.arrX(), lote.arrY(), loss);
-                otm.update();      
-			}
-			
-			if (logs) {
-				tempo = System.nanoTime() - tempo;
-
-				limparLinha();
-				String log = "[Época " + (e+1) + "/" + epochs + "] loss: " + (perdaEpoca/n);
-
-				long segundos = (long) tempo / 1_000_000_000;
-				long min = (segundos / 60);
-				long seg = segundos % 60;
-				if (segundos < 60) {
-					log += String.format(" (%ds)", segundos);
-				} else {
-					log += String.format(" (%dmin %ds)", min, seg);
-				}
-
-				exibirLogTreino(log);
-			}
-
-			if (calcHist) historico.add(perdaEpoca / n);
-
-			if (scheduler != null) scheduler.update();
-			if (callback != null)  callback.run(new InfoEpoca(e, perdaEpoca));
-		}
-
-		if (logs) {
-			exibirCursor();
-			System.out.println();
-		}
-	}
-
-	/**
-	 * Executa o passo de treino em lotes.
-	 * @param loteX array de {@code Tensor} contendos entradas de treino.
-	 * @param loteY array de {@code Tensor} contendos rótulos de treino.
-	 * @param loss função de perda do modelo.
-	 * @param perdaEpoca valor de perda por época de treinamento.
-	 */
-	private float processoLote(Tensor[] loteX, Tensor[] loteY, Perda loss) {
-		Tensor xs = JNNutils.concatenar(loteX);
-		Tensor ys = JNNutils.concatenar(loteY);
-		
-		Tensor y = modelo.forward(xs);
-		Tensor g = loss.backward(y, ys);
-		
-		modelo.backward(g);
-
-		if (calcHist) {
-			float l = loss.forward(y, ys).item();
-			int n = loteX.length;
-			return l * n;
-		}
-
-		return 0.0f;// não registrar perda
+		loopLotes(loader, otm, loss, epochs, logs, tamLote);
 	}
 
 }
@@ -0,0 +1,452 @@
+package jnn.treino;
+
+import java.util.ArrayList;
+
+import jnn.camadas.BatchNorm2D;
+import jnn.camadas.Camada;
+import jnn.camadas.Dropout;
+import jnn.core.JNNutils;
+import jnn.core.Parametro;
+import jnn.core.parallel.JNNparallel;
+import jnn.core.tensor.Tensor;
+import jnn.dataloader.DataLoader;
+import jnn.dataloader.LoteAmostra;
+import jnn.metrica.perda.Perda;
+import jnn.modelos.Modelo;
+import jnn.otm.Otimizador;
+
+/**
+ * Implementação de treino em lote paralelo por dados.
+ * <p>
+ *		O modelo é replicado em clones que compartilham os pesos do modelo
+ *		original, mas possuem gradientes e buffers próprios. Cada lote é
+ *		dividido entre as réplicas, que executam o forward e o backward das
+ *		suas partes em threads separadas, e os gradientes são somados nos
+ *		parâmetros do modelo original antes da atualização do otimizador.
+ * </p>
+ * <p>
+ *		A perda e seu gradiente são calculados sobre a saída do lote inteiro,
+ *		então, para modelos sem normalização em lote nem dropout, o resultado
+ *		equivale ao treino em lotes comum, a menos de arredondamentos.
+ * </p>
+ * <p>
+ *		Algumas camadas se comportam de forma diferente do treino comum:
+ * </p>
+ * <ul>
+ *	<li>
+ *		{@code BatchNorm2D} normaliza cada parte usando apenas as estatísticas
+ *		da própria parte. As estatísticas móveis das réplicas são combinadas
+ *		no modelo original ao fim de cada lote, ponderadas pelo tamanho das
+ *		partes; a média móvel é exata, mas a variância móvel não considera a
+ *		diferença entre as médias das partes.
+ *	</li>
+ *	<li>
+ *		{@code Dropout} usa o gerador global no modelo original e um gerador
+ *		próprio em cada réplica, então as máscaras diferem das máscaras
+ *		do treino comum.
+ *	</li>
+ * </ul>
+ * <p>
+ *		Indicado para modelos pequenos, onde as operações de cada camada não
+ *		são grandes o suficiente para ocupar todas as threads.
+ * </p>
+ */
+public class TreinoParalelo extends MetodoTreino {
+
+	/**
+	 * Quantidade mínima de elementos por bloco da soma dos gradientes.
+	 */
+	private static final int GRAO_REDUCAO = 1 << 14;
+
+	/**
+	 * Tamanho do lote de amostras por iteração.
+	 */
+	int tamLote;
+
+	/**
+	 * Réplicas do modelo, onde a primeira é o próprio modelo.
+	 */
+	private final Modelo[] replicas;
+
+	/**
+	 * Parâmetros de cada réplica.
+	 */
+	private final Parametro[][] params;
+
+	/**
+	 * Estatísticas móveis das camadas de normalização em lote, onde cada
+	 * linha contém a mesma estatística em todas as réplicas.
+	 */
+	private final Tensor[][] estatisticas;
+
+	/**
+	 * Posição inicial de cada parâmetro no vetor de gradientes, com o
+	 * total de elementos na última posição.
+	 */
+	private final int[] offsets;
+
+	/**
+	 * Buffers de entrada de cada réplica.
+	 */
+	private Tensor[] entradas;
+
+	/**
+	 * Buffers de gradiente de saída de cada réplica.
+	 */
+	private Tensor[] grads;
+
+	/**
+	 * Buffer da saída do lote inteiro.
+	 */
+	private Tensor saida;
+
+	/**
+	 * Treinador em lotes paralelo.
+	 * @param modelo modelo base.
+	 * @param hist calcular histórico de perda.
+	 * @param tamLote tamanho do lote de treino.
+	 * @param numReplicas quantidade de réplicas do modelo, incluindo o
+	 * próprio modelo.
+	 */
+	public TreinoParalelo(Modelo modelo, boolean hist, int tamLote, int numReplicas) {
+		super(modelo, hist);
+
+		if (numReplicas < 1) {
+			throw new IllegalArgumentException(
+				"\nQuantidade de réplicas deve ser maior que zero, recebido = " + numReplicas
+			);
+		}
+
+		this.tamLote = tamLote;
+
+		final int k = Math.max(1, Math.min(numReplicas, tamLote));
+		replicas = new Modelo[k];
+		params = new Parametro[k][];
+
+		replicas[0] = modelo;
+		params[0] = modelo.params();
+
+		for (int r = 1; r < k; r++) {
+			Modelo rep = modelo.clone();
+			Parametro[] ps = rep.params();
+
+			// pesos compartilhados com o modelo original
+			for (int i = 0; i < ps.length; i++) {
+				ps[i].weight.realocar(params[0][i].weight.data());
+			}
+
+			rep.loteZero();// buffers próprios da réplica
+
+			// máscaras independentes entre as réplicas
+			for (Camada c : rep.camadas()) {
+				if (c instanceof Dropout d) d.setSeed(JNNutils.randLong());
+			}
+
+			replicas[r] = rep;
+			params[r] = ps;
+		}
+
+		estatisticas = estatisticas(replicas);
+
+		offsets = new int[params[0].length + 1];
+		for (int i = 0; i < params[0].length; i++) {
+			offsets[i+1] = offsets[i] + params[0][i].grad.tam();
+		}
+	}
+
+	/**
+	 * Treinador em lotes paralelo.
+	 * @param modelo modelo base.
+	 * @param tamLote tamanho do lote de treino.
+	 * @param numReplicas quantidade de réplicas do modelo, incluindo o
+	 * próprio modelo.
+	 */
+	public TreinoParalelo(Modelo modelo, int tamLote, int numReplicas) {
+		this(modelo, false, tamLote, numReplicas);
+	}
+
+	/**
+	 * Retorna a quantidade de réplicas usadas, incluindo o modelo.
+	 * @return quantidade de réplicas.
+	 */
+	public int numReplicas() {
+		return replicas.length;
+	}
+
+	/**
+	 * Agrupa as estatísticas móveis das camadas de normalização em lote
+	 * de todas as réplicas.
+	 * @param replicas réplicas do modelo.
+	 * @return estatísticas agrupadas por camada.
+	 */
+	private static Tensor[][] estatisticas(Modelo[] replicas) {
+		ArrayList<Tensor[]> est = new ArrayList<>();
+		Camada[] camadas = replicas[0].camadas();
+
+		for (int i = 0; i < camadas.length; i++) {
+			if (!(camadas[i] instanceof BatchNorm2D)) continue;
+
+			Tensor[] medias = new Tensor[replicas.length];
+			Tensor[] variancias = new Tensor[replicas.length];
+			for (int r = 0; r < replicas.length; r++) {
+				BatchNorm2D bn = (BatchNorm2D) replicas[r].camada(i);
+				medias[r] = bn._mediaMovel;
+				variancias[r] = bn._varianciaMovel;
+			}
+
+			est.add(medias);
+			est.add(variancias);
+		}
+
+		return est.toArray(new Tensor[0][]);
+	}
+
+	@Override
+	protected void loop(DataLoader loader, Otimizador otm, Perda loss, int epochs, boolean logs) {
+		final int n = loader.tam();
+		final int maxParte = (Math.min(tamLote, n) + replicas.length - 1) / replicas.length;
+		for (Modelo rep : replicas) {
+			rep.treino(true);
+			rep.reservarLote(maxParte);
+		}
+
+		loopLotes(loader, otm, loss, epochs, logs, tamLote);
+	}
+
+	/**
+	 * Executa o passo de treino paralelo em lotes.
+	 * @param lote lote de amostras de treino.
+	 * @param loss função de perda do modelo.
+	 * @param calcPerda calcular a perda do lote.
+	 * @return perda do lote multiplicada pela quantidade de amostras.
+	 */
+	@Override
+	protected float processoLote(LoteAmostra lote, Perda loss, boolean calcPerda) {
+		final Tensor xs = lote.x();
+		final Tensor ys = lote.y();
+		final int n = lote.tam();
+		final int k = Math.min(replicas.length, n);
+
+		final Tensor prev = saidaLote(n);
+
+		distribuirEstatisticas(k);
+
+		// forward das partes, saídas reunidas em um único lote
+		JNNparallel.parallelFor(0, k, 1, (ini, fim) -> {
+			for (int r = ini; r < fim; r++) {
+				forwardParte(r, k, n, xs, prev);
+			}
+		});
+
+		combinarEstatisticas(k, n);
+
+		Tensor g = loss.backward(prev, ys, bufferGrad(prev));
+
+		JNNparallel.parallelFor(0, k, 1, (ini, fim) -> {
+			for (int r = ini; r < fim; r++) {
+				backwardParte(r, k, n, g);
+			}
+		});
+
+		reduzirGradientes(k);
+
+		if (calcPerda) {
+			float l = loss.valor(prev, ys);
+			return l * n;
+		}
+
+		return 0.0f;// não registrar perda
+	}
+
+	/**
+	 * Retorna o buffer de saída para um lote.
+	 * @param n tamanho do lote.
+	 * @return {@code Tensor} de saída.
+	 */
+	private Tensor saidaLote(int n) {
+		if (saida == null) {
+			// formato obtido da saída do modelo
+			int[] shapeOut = modelo.camadaSaida().shapeOut();
+			int[] shape = new int[shapeOut.length + 1];
+			shape[0] = tamLote;
+			System.arraycopy(shapeOut, 0, shape, 1, shapeOut.length);
+
+			saida = new Tensor(shape);
+			entradas = new Tensor[replicas.length];
+			grads = new Tensor[replicas.length];
+		}
+
+		return n == saida.tamDim(0) ? saida : saida.subTensor(0, n);
+	}
+
+	/**
+	 * Executa o forward de uma réplica sobre sua parte do lote.
+	 * @param r índice da réplica.
+	 * @param k quantidade de partes.
+	 * @param n tamanho do lote.
+	 * @param xs entrada do lote.
+	 * @param prev saída do lote.
+	 */
+	private void forwardParte(int r, int k, int n, Tensor xs, Tensor prev) {
+		final int ini = (int) ((long) n * r / k);
+		final int fim = (int) ((long) n * (r+1) / k);
+		final int m = fim - ini;
+
+		final int tamX = xs.tam() / n;
+		Tensor x = parte(entradas, r, xs.shape(), (n + k - 1) / k, m);
+		x.data().copiar(xs.data().view(ini * tamX, m * tamX));
+
+		Modelo rep = replicas[r];
+		if (r > 0) rep.gradZero();// o modelo original é zerado pelo loop
+
+		Tensor y = rep.forward(x);
+
+		final int tamY = prev.tam() / n;
+		prev.data().view(ini * tamY, m * tamY).copiar(y.contiguous().data());
+	}
+
+	/**
+	 * Executa o backward de uma réplica sobre sua parte do gradiente.
+	 * @param r índice da réplica.
+	 * @param k quantidade de partes.
+	 * @param n tamanho do lote.
+	 * @param g gradiente da perda em relação à saída do lote.
+	 */
+	private void backwardParte(int r, int k, int n, Tensor g) {
+		final int ini = (int) ((long) n * r / k);
+		final int fim = (int) ((long) n * (r+1) / k);
+		final int m = fim - ini;
+
+		final int tamG = g.tam() / n;
+		Tensor gr = parte(grads, r, g.shape(), (n + k - 1) / k, m);
+		gr.data().copiar(g.contiguous().data().view(ini * tamG, m * tamG));
+
+		replicas[r].backward(gr);
+	}
+
+	/**
+	 * Retorna o buffer de uma réplica com {@code m} amostras, alocando
+	 * apenas quando a capacidade atual não comporta a parte.
+	 * @param bufs buffers das réplicas.
+	 * @param r índice da réplica.
+	 * @param shape formato do lote, usado para as demais dimensões.
+	 * @param cap capacidade desejada caso seja necessário alocar.
+	 * @param m quantidade de amostras da parte.
+	 * @return {@code Tensor} no formato {@code (m, ...)}.
+	 */
+	private static Tensor parte(Tensor[] bufs, int r, int[] shape, int cap, int m) {
+		Tensor b = bufs[r];
+
+		if (b == null || b.tamDim(0) < m) {
+			int[] s = shape.clone();
+			s[0] = cap;
+			b = new Tensor(s);
+			bufs[r] = b;
+		}
+
+		return m == b.tamDim(0) ? b : b.subTensor(0, m);
+	}
+
+	/**
+	 * Copia as estatísticas móveis do modelo original para as réplicas,
+	 * para que todas partam do mesmo estado no lote.
+	 * @param k quantidade de réplicas usadas no lote.
+	 */
+	private void distribuirEstatisticas(int k) {
+		for (Tensor[] est : estatisticas) {
+			for (int r = 1; r < k; r++) {
+				est[r].copiar(est[0]);
+			}
+		}
+	}
+
+	/**
+	 * Combina as estatísticas móveis das réplicas no modelo original,
+	 * ponderando cada réplica pelo tamanho da sua parte do lote.
+	 * <p>
+	 *		Como a atualização das estatísticas móveis é linear e todas as
+	 *		réplicas partem do mesmo estado, a média ponderada equivale a
+	 *		atualizar as estatísticas com a média ponderada das partes.
+	 * </p>
+	 * @param k quantidade de réplicas usadas no lote.
+	 * @param n tamanho do lote.
+	 */
+	private void combinarEstatisticas(int k, int n) {
+		if (k < 2) return;
+
+		for (Tensor[] est : estatisticas) {
+			final float[] d = est[0].array();
+			final int offD = est[0].offset();
+			final int tam = est[0].tam();
+
+			final float p0 = (float) (n / k) / n;// parte do modelo original
+			for (int i = 0; i < tam; i++) {
+				d[offD + i] *= p0;
+			}
+
+			for (int r = 1; r < k; r++) {
+				final int m = (int) ((long) n * (r+1) / k) - (int) ((long) n * r / k);
+				final float p = (float) m / n;
+				final float[] s = est[r].array();
+				final int offS = est[r].offset();
+				for (int i = 0; i < tam; i++) {
+					d[offD + i] += p * s[offS + i];
+				}
+			}
+		}
+	}
+
+	/**
+	 * Soma os gradientes das réplicas nos parâmetros do modelo original.
+	 * <p>
+	 *		Como os pesos são compartilhados, apenas o modelo original precisa
+	 *		do resultado. O vetor de gradientes é dividido em fatias entre as
+	 *		threads, e cada thread soma todas as réplicas da sua fatia, na
+	 *		mesma ordem, mantendo o resultado determinístico.
+	 * </p>
+	 * @param k quantidade de réplicas usadas no lote.
+	 */
+	private void reduzirGradientes(int k) {
+		if (k < 2) return;
+
+		final int total = offsets[offsets.length - 1];
+		if (total < 2 * GRAO_REDUCAO) {
+			reduzirGradientes(k, 0, total);
+		} else {
+			JNNparallel.parallelFor(0, total, GRAO_REDUCAO, (ini, fim) ->
+				reduzirGradientes(k, ini, fim)
+			);
+		}
+	}
+
+	/**
+	 * Soma os gradientes das réplicas no intervalo {@code [ini, fim)} do
+	 * vetor de gradientes.
+	 */
+	private void reduzirGradientes(int k, int ini, int fim) {
+		int p = 0;
+		while (offsets[p+1] <= ini) p++;
+
+		while (ini < fim) {
+			final int a = ini - offsets[p];
+			final int b = Math.min(fim, offsets[p+1]) - offsets[p];
+
+			Tensor dst = params[0][p].grad;
+			final float[] d = dst.array();
+			final int offD = dst.offset();
+
+			for (int r = 1; r < k; r++) {
+				Tensor src = params[r][p].grad;
+				final float[] s = src.array();
+				final int offS = src.offset();
+				for (int i = a; i < b; i++) {
+					d[offD + i] += s[offS + i];
+				}
+			}
+
+			ini = offsets[p] + b;
+			p++;
+		}
+	}
+
+}
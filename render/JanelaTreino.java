@@ -39,11 +39,7 @@ public class JanelaTreino extends JFrame {
 	}
 
 	public void desenharTreino(Modelo modelo, int epocasPorFrame) {
-		if (numThreads == 1) {
-			pt.desenhar(modelo, epocasPorFrame);
-		
-		} else {
-			pt.desenhar(modelo, epocasPorFrame, this.numThreads);
-		}
+		//a previsão em grade já usa as threads da biblioteca
+		pt.desenhar(modelo, epocasPorFrame);
 	}
 }
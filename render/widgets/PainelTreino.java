@@ -4,10 +4,7 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
-import jnn.core.tensor.Tensor;
 import jnn.modelos.Modelo;
 
 public class PainelTreino extends Widget {
@@ -16,10 +13,6 @@ public class PainelTreino extends Widget {
 
    BufferedImage imagem;
    int epocaAtual = 0;
-
-   //evitar inicializações durante a renderização
-   int r, b, g, rgb;
-   int x, y;
    
    public PainelTreino(int largura, int altura, double escala) {
       super((int) (escala * largura), (int) (escala * altura));
@@ -36,119 +29,22 @@ public class PainelTreino extends Widget {
 
    public void desenhar(Modelo modelo, int epocasPorFrame) {
       this.modelo = modelo;
-      int nSaida = modelo.camadaSaida().tamSaida();
 
-      Tensor in = new Tensor(2);
-      
-      
-      if (nSaida == 1) {//escala de cinza
-         float[] saida = modelo.saidaParaArray();//saida 1D
-         float s = saida[0];
-
-         for (y = 0; y < this.altura; y++) {
-            for (x = 0; x < this.largura; x++) {
-               in.set(((float)x / this.largura), 0);
-               in.set(((float)y / this.altura), 0);
-
-               modelo.forward(in);
-
-               int cinza = (int)(s * 255);
-
-               r = cinza;
-               g = cinza;
-               b = cinza;
-               rgb = (r << 16) | (g << 8) | b;
-               imagem.setRGB(x, y, rgb);
-            }
-         } 
-
-      } else if (nSaida == 3) {//rgb
-         float[] saida = modelo.saidaParaArray();//saida 3D
-         float saidaR = saida[0];
-         float saidaG = saida[1];
-         float saidaB = saida[2];
-         
-         for (y = 0; y < this.altura; y++) {
-            for (x = 0; x < this.largura; x++) {
-               in.set(((float)x / this.largura), 0);
-               in.set(((float)y / this.altura), 0);
-
-               modelo.forward(in);
-
-               r = (int)(saidaR * 255);
-               g = (int)(saidaG * 255);
-               b = (int)(saidaB * 255);
-               rgb = (r << 16) | (g << 8) | b;
-               imagem.setRGB(x, y, rgb);
-            }
-         }
-      }
+      //todos os pixels previstos em lotes, direto no raster da imagem
+      modelo.preverGrade(imagem);
 
       epocaAtual = epocasPorFrame;
       repaint();
    }
 
+   /**
+    * @deprecated a previsão em grade já é dividida entre as threads da
+    * biblioteca e {@code numThreads} é ignorado; use
+    * {@link #desenhar(Modelo, int)}.
+    */
+   @Deprecated
    public void desenhar(Modelo modelo, int epocasPorFrame, int numThreads) {
-      int numSaidas = modelo.camadaSaida().tamSaida();
-      
-      Modelo[] clones = new Modelo[numThreads];
-      try (ExecutorService exec = Executors.newFixedThreadPool(numThreads)) {
-         for (int i = 0; i < numThreads; i++) {
-            final int id = i;
-            clones[id] = modelo.clone();
-   
-            exec.submit(() -> {
-               for (int j = id; j < altura; j += numThreads) {
-                  if (numSaidas == 1) calcCinza(clones[id], j);
-                  else if (numSaidas == 3) calcRgb(clones[id], j);
-               }
-            });
-         }
-      }
-      
-      epocaAtual = epocasPorFrame;
-      repaint();
-   }
-   
-   private void calcCinza(Modelo modelo, int y) {
-      Tensor in = new Tensor(2);
-      in.set(((float) y / altura), 1);
-
-      int[] pixels = new int[largura];
-      int cinza, r, g, b;
-
-      for (int x = 0; x < largura; x++) {
-         in.set(((float) x / largura), 0);
-         cinza = (int)(modelo.forward(in).get(0) * 255);
-            
-         r = cinza;
-         g = cinza;
-         b = cinza;
-         pixels[x] = (r << 16) | (g << 8) | b;
-      }
-
-      imagem.setRGB(0, y, largura, 1, pixels, 0, largura);
-   }
-
-   private void calcRgb(Modelo modelo, int y) {
-      Tensor in = new Tensor(2);
-      in.set(((float) y / altura), 1);
-
-      int[] pixels = new int[largura];
-      float[] saida = new float[3];
-      for (int x = 0; x < largura; x++) {
-         in.set(((float) x / largura), 0);
-         
-         modelo.forward(in);
-         modelo.copiarDaSaida(saida);
-
-         int r = (int) (saida[0] * 255);
-         int g = (int) (saida[1] * 255);
-         int b = (int) (saida[2] * 255);
-         pixels[x] = (r << 16) | (g << 8) | b;
-      }
-      
-      imagem.setRGB(0, y, largura, 1, pixels, 0, largura);
+      desenhar(modelo, epocasPorFrame);
    }
 
    @Override